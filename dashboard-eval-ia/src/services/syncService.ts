@@ -0,0 +1,36 @@
+import { Task } from './taskService';
+import { DailyNote } from './dailyNoteService';
+import { Project, Server } from './projectService';
+
+const BASE_URL = 'http://localhost:8081';
+
+export interface SyncDelta {
+  token: string;        // para la próxima llamada
+  full: boolean;        // true: sustituye la caché entera en vez de aplicar el delta
+  hasMore: boolean;     // quedan cambios: volver a llamar con el token
+  tasks: Task[];
+  notes: DailyNote[];
+  projects: Project[];
+  servers: Server[];
+  deleted: { entity: 'task' | 'note' | 'project' | 'server'; id: number }[];
+}
+
+/**
+ * Cambios desde el último token (sin token, todo). Con la caché local al abrir
+ * el panel sólo viaja lo creado, cambiado o borrado desde la última vez.
+ */
+export const syncChanges = async (since?: string): Promise<SyncDelta> => {
+  try {
+    const params = new URLSearchParams();
+    if (since) params.append('since', since);
+
+    const res = await fetch(`${BASE_URL}/api/sync?${params.toString()}`);
+    if (!res.ok) {
+      throw new Error(`Error ${res.status}: ${res.statusText}`);
+    }
+    return await res.json();
+  } catch (error) {
+    console.error('Error syncing changes:', error);
+    throw new Error('Error al sincronizar los cambios');
+  }
+};
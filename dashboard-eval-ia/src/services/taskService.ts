@@ -11,6 +11,7 @@ export interface Task {
   projectId?: number;
   createdAt?: string;
   updatedAt?: string;
+  sortKey?: string;       // orden manual dentro de su columna (proyecto, estado)
 }
 
 export interface CreateTaskData {
@@ -276,4 +277,195 @@ export const unassignTaskFromProject = async (taskId: number): Promise<Task> =>
     console.error('Error unassigning task from project:', error);
     throw error;
   }
-};
\ No newline at end of file
+};
+export interface TaskBatchOperation extends UpdateTaskData {
+  op: 'create' | 'update' | 'status' | 'shift' | 'delete';
+  id?: number;          // todas salvo create
+  days?: number;        // shift: días que se mueven inicio y fecha límite
+}
+
+export interface TaskBatchResult {
+  applied: boolean;
+  succeeded: number;
+  failed: number;
+  results: { index: number; op: string; id?: number; ok: boolean; error?: string }[];
+}
+
+/**
+ * Aplica muchas operaciones en una sola petición y transacción (p. ej. mover todas
+ * las tareas de un proyecto en el timeline). Con atomic=true, si una falla no se aplica ninguna.
+ */
+export const applyTaskBatch = async (
+  operations: TaskBatchOperation[],
+  atomic: boolean = false
+): Promise<TaskBatchResult> => {
+  try {
+    const res = await fetch(`${BASE_URL}/api/tasks/batch`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ atomic, operations }),
+    });
+
+    const body = await res.json().catch(() => ({}));
+    if (!res.ok && !('results' in body)) {
+      throw new Error(body.error || `Error ${res.status}: ${res.statusText}`);
+    }
+    return body as TaskBatchResult;
+  } catch (error) {
+    console.error('Error applying task batch:', error);
+    throw error;
+  }
+};
+
+export interface TaskTimelineWindow {
+  from: string;
+  to: string;
+  tasks: Task[];
+  truncated: boolean; // hay más tareas de las que devuelve el servidor: acotar la ventana o filtrar
+}
+
+/**
+ * Tareas cuyo [inicio, fecha límite] se solapa con la ventana visible del timeline
+ * (fechas YYYY-MM-DD), en vez de cargar todas y filtrar en el navegador.
+ */
+export const getTimelineWindow = async (
+  from: string,
+  to: string,
+  filters: { projectId?: number; withoutProject?: boolean; assignedTo?: string } = {}
+): Promise<TaskTimelineWindow> => {
+  try {
+    const params = new URLSearchParams({ from, to });
+    if (filters.projectId != null) params.append('projectId', String(filters.projectId));
+    if (filters.withoutProject) params.append('withoutProject', 'true');
+    if (filters.assignedTo) params.append('assignedTo', filters.assignedTo);
+
+    const res = await fetch(`${BASE_URL}/api/tasks/timeline?${params.toString()}`);
+    if (!res.ok) {
+      const body = await res.json().catch(() => ({}));
+      throw new Error(body.error || `Error ${res.status}: ${res.statusText}`);
+    }
+    return await res.json();
+  } catch (error) {
+    console.error('Error fetching timeline window:', error);
+    throw new Error('Error al cargar las tareas del timeline');
+  }
+};
+
+export interface TaskBoardColumn {
+  status: 'pendiente' | 'en_progreso' | 'completada';
+  total: number;
+  tasks: Task[];            // las primeras, por updatedAt e id descendentes
+  hasMore: boolean;
+  nextCursor: string | null; // para seguir con /api/tasks/scroll?status=<columna>&cursor=...
+}
+
+/**
+ * Tablero kanban ya agrupado por estado: total y primeras tareas de cada columna,
+ * sin descargar todas las tareas para agruparlas en el navegador.
+ */
+export const getTaskBoard = async (
+  perColumn: number = 20,
+  filters: { projectId?: number; assignedTo?: string } = {}
+): Promise<{ columns: TaskBoardColumn[] }> => {
+  try {
+    const params = new URLSearchParams({ perColumn: String(perColumn) });
+    if (filters.projectId != null) params.append('projectId', String(filters.projectId));
+    if (filters.assignedTo) params.append('assignedTo', filters.assignedTo);
+
+    const res = await fetch(`${BASE_URL}/api/tasks/board?${params.toString()}`);
+    if (!res.ok) {
+      const body = await res.json().catch(() => ({}));
+      throw new Error(body.error || `Error ${res.status}: ${res.statusText}`);
+    }
+    return await res.json();
+  } catch (error) {
+    console.error('Error fetching task board:', error);
+    throw new Error('Error al cargar el tablero de tareas');
+  }
+};
+
+/**
+ * Tareas de una columna (proyecto, estado) en su orden manual.
+ * Sin projectId, las tareas sin proyecto.
+ */
+export const getTaskColumn = async (status: Task['status'], projectId?: number): Promise<Task[]> => {
+  try {
+    const params = new URLSearchParams({ status });
+    if (projectId != null) params.append('projectId', String(projectId));
+
+    const res = await fetch(`${BASE_URL}/api/tasks/column?${params.toString()}`);
+    if (!res.ok) {
+      throw new Error(`Error ${res.status}: ${res.statusText}`);
+    }
+    return await res.json();
+  } catch (error) {
+    console.error('Error fetching task column:', error);
+    throw new Error('Error al cargar la columna de tareas');
+  }
+};
+
+/**
+ * Coloca una tarea entre dos vecinas de su columna tras arrastrarla (sólo se
+ * actualiza esa tarea). Sin previousId va al principio, sin nextId al final y
+ * sin ninguna de las dos también al final. Un 409 significa que la columna ha
+ * cambiado: hay que recargarla y repetir.
+ */
+export const moveTask = async (
+  taskId: number,
+  position: { status?: Task['status']; previousId?: number | null; nextId?: number | null }
+): Promise<Task> => {
+  try {
+    const res = await fetch(`${BASE_URL}/api/tasks/${taskId}/position`, {
+      method: 'PUT',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify(position),
+    });
+    if (!res.ok) {
+      const body = await res.json().catch(() => ({}));
+      throw new Error(body.error || `Error ${res.status}: ${res.statusText}`);
+    }
+    return await res.json();
+  } catch (error) {
+    console.error('Error moving task:', error);
+    throw error;
+  }
+};
+
+export interface ChangeEvent {
+  version: number;
+  entity: 'task' | 'note' | 'project' | 'server';
+  id: number;
+  op: 'created' | 'updated' | 'deleted';
+  projectId?: number;
+  previousProjectId?: number;
+  // Campos cambiados con su valor nuevo (todos en las altas); no viene en los borrados
+  changes?: Record<string, unknown>;
+}
+
+/**
+ * Se suscribe a los cambios de tareas, notas, proyectos y servidores para parchear el estado
+ * en vez de recargar. EventSource reconecta solo y sigue desde el último evento;
+ * onReset llega si el servidor ya no tiene lo que faltaba: hay que recargar.
+ * Devuelve la función para cerrar la suscripción.
+ */
+export const subscribeToChanges = (
+  onChange: (event: ChangeEvent) => void,
+  onReset: () => void,
+  filters: { entities?: ChangeEvent['entity'][]; projectId?: number } = {}
+): (() => void) => {
+  const params = new URLSearchParams();
+  if (filters.entities?.length) params.append('entities', filters.entities.join(','));
+  if (filters.projectId != null) params.append('projectId', String(filters.projectId));
+
+  const source = new EventSource(`${BASE_URL}/api/changes/stream?${params.toString()}`);
+  source.addEventListener('change', (e) => {
+    try {
+      onChange(JSON.parse((e as MessageEvent).data));
+    } catch (error) {
+      console.error('Error processing change event:', error);
+    }
+  });
+  source.addEventListener('reset', () => onReset());
+  source.onerror = (error) => console.error('Change feed connection error:', error);
+  return () => source.close();
+};
@@ -0,0 +1,65 @@
+package com.portal.ia.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.portal.ia.service.LatencyService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 🔹 Mide la latencia de cada endpoint (por método de controlador, no por URL,
+ * para que las variables de ruta no disparen el número de métricas).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class LatencyConfig implements WebMvcConfigurer {
+
+    private static final String START_ATTRIBUTE = LatencyConfig.class.getName() + ".start";
+
+    private final LatencyService latencyService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointLatencyInterceptor());
+    }
+
+    private final class EndpointLatencyInterceptor implements HandlerInterceptor {
+
+        private final Map<Method, LatencyService.Recorder> recorders = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // En peticiones asíncronas se vuelve a pasar por aquí al despachar el resultado
+            if (request.getAttribute(START_ATTRIBUTE) == null) {
+                request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            }
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                Exception ex) {
+            if (!(handler instanceof HandlerMethod handlerMethod)
+                    || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+                return;
+            }
+            Method method = handlerMethod.getMethod();
+            LatencyService.Recorder recorder = recorders.get(method);
+            if (recorder == null) {
+                recorder = recorders.computeIfAbsent(method, m -> latencyService.recorder(LatencyService.KIND_ENDPOINT,
+                        m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+            }
+            recorder.recordNanos(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.portal.ia.config;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import com.portal.ia.service.LogPayload;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Pipeline de logs para producción, montado sobre los appenders que ya
+ * configura Spring Boot (incluido el formato estructurado de
+ * logging.structured.format.console):
+ * <ul>
+ * <li>los appenders del logger raíz pasan a escribir desde un hilo aparte, a través
+ * de una cola acotada; si la cola se llena la traza se descarta, nunca se bloquea
+ * la petición (portal.logging.dropped cuenta las descartadas);</li>
+ * <li>muestreo por logger (ia.logging.sampling);</li>
+ * <li>recorte de textos grandes con {@link LogPayload} (ia.logging.max-payload-chars).</li>
+ * </ul>
+ */
+@Configuration
+@Slf4j
+public class LoggingConfig {
+
+    static final String ASYNC_APPENDER_PREFIX = "PORTAL_ASYNC_";
+
+    private final boolean asyncEnabled;
+    private final int queueSize;
+    private final String sampling;
+    private final int maxPayloadChars;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private List<DroppingAsyncAppender> asyncAppenders = List.of();
+
+    public LoggingConfig(
+            @Value("${ia.logging.async.enabled:true}") boolean asyncEnabled,
+            @Value("${ia.logging.async.queue-size:8192}") int queueSize,
+            @Value("${ia.logging.sampling:}") String sampling,
+            @Value("${ia.logging.max-payload-chars:300}") int maxPayloadChars,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.asyncEnabled = asyncEnabled;
+        this.queueSize = queueSize;
+        this.sampling = sampling;
+        this.maxPayloadChars = maxPayloadChars;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void install() {
+        LogPayload.setMaxChars(maxPayloadChars);
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return; // otro backend de logging: sólo aplica el recorte
+        }
+
+        context.getTurboFilterList().removeIf(filter -> filter instanceof SamplingTurboFilter);
+        SamplingTurboFilter samplingFilter = new SamplingTurboFilter(SamplingTurboFilter.parseRates(sampling));
+        samplingFilter.setContext(context);
+        samplingFilter.start();
+        context.addTurboFilter(samplingFilter);
+
+        if (asyncEnabled) {
+            asyncAppenders = wrapRootAppenders(context, queueSize);
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null && !asyncAppenders.isEmpty()) {
+                Gauge.builder("portal.logging.dropped", this, LoggingConfig::getDropped)
+                    .description("Trazas descartadas por cola de logs llena")
+                    .register(registry);
+            }
+        }
+        log.info("📝 Logs: async={} (cola {}), muestreo=[{}], recorte a {} caracteres",
+                asyncEnabled, queueSize, sampling, maxPayloadChars);
+    }
+
+    @PreDestroy
+    void flush() {
+        // vacía cada cola (hasta maxFlushTime) antes de parar
+        asyncAppenders.forEach(DroppingAsyncAppender::stop);
+    }
+
+    long getDropped() {
+        return asyncAppenders.stream().mapToLong(DroppingAsyncAppender::getDropped).sum();
+    }
+
+    /**
+     * Pone cada appender del logger raíz detrás de su propio appender asíncrono
+     * (AsyncAppender sólo admite uno). Es idempotente: los ya envueltos se respetan.
+     */
+    public static List<DroppingAsyncAppender> wrapRootAppenders(LoggerContext context, int queueSize) {
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext();) {
+            appenders.add(it.next());
+        }
+
+        List<DroppingAsyncAppender> wrapped = new ArrayList<>();
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof DroppingAsyncAppender existing) {
+                wrapped.add(existing);
+                continue;
+            }
+            DroppingAsyncAppender async = new DroppingAsyncAppender();
+            async.setName(ASYNC_APPENDER_PREFIX + appender.getName());
+            async.setContext(context);
+            async.setQueueSize(queueSize);
+            async.setDiscardingThreshold(0); // no descartar INFO antes de tiempo: sólo con la cola llena
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.setMaxFlushTime(2000);
+            async.addAppender(appender);
+            async.start();
+            root.detachAppender(appender);
+            root.addAppender(async);
+            wrapped.add(async);
+        }
+        return wrapped;
+    }
+
+    /**
+     * AsyncAppender que cuenta las trazas que no caben en la cola.
+     */
+    public static class DroppingAsyncAppender extends AsyncAppender {
+
+        private final AtomicLong dropped = new AtomicLong();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            if (getRemainingCapacity() == 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+            super.append(event);
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.portal.ia.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * 🔹 Muestreo de trazas por logger: con "com.portal.ia.service.OllamaService=0.1"
+ * sólo sale una de cada diez trazas INFO/DEBUG/TRACE de ese logger (y de sus
+ * hijos). WARN y ERROR no se muestrean nunca.
+ *
+ * Se decide antes de formatear el mensaje, así que lo descartado no cuesta nada
+ * más que la consulta al mapa.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final Double NOT_SAMPLED = 1.0;
+
+    private final Map<String, Double> rates;
+    // Tasa efectiva por nombre de logger, resuelta por el prefijo más largo
+    private final Map<String, Double> resolved = new ConcurrentHashMap<>();
+
+    public SamplingTurboFilter(Map<String, Double> rates) {
+        this.rates = Map.copyOf(rates);
+        setName("portal-sampling");
+    }
+
+    /**
+     * Lee "logger=tasa,logger=tasa" (tasa entre 0 y 1).
+     */
+    public static Map<String, Double> parseRates(String spec) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return rates;
+        }
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Muestreo de logs no válido: " + entry + " (usa logger=tasa)");
+            }
+            double rate = Double.parseDouble(pair[1].trim());
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("La tasa de muestreo debe estar entre 0 y 1: " + entry);
+            }
+            rates.put(pair[0].trim(), rate);
+        }
+        return rates;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null: es una comprobación isXxxEnabled(), no una traza
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || rates.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        double rate = resolved.computeIfAbsent(logger.getName(), this::rateOf);
+        if (rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Double rateOf(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Double rate = rates.get(name);
+            if (rate != null) {
+                return rate;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return NOT_SAMPLED;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+}
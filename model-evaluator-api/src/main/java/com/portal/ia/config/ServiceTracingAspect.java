@@ -0,0 +1,54 @@
+package com.portal.ia.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * 🔹 Un span por llamada a método público de los servicios, hijo del span de la
+ * petición. Sólo se crea si la traza en curso está muestreada: con el muestreo
+ * a 0 (o sin traza) el coste es una lectura del span actual.
+ *
+ * Se excluyen los servicios de métricas, que se llaman dentro de cada petición a un LLM.
+ */
+@Aspect
+@Component
+public class ServiceTracingAspect {
+
+    public static final String OBSERVATION_NAME = "portal.service";
+
+    private final ObservationRegistry observationRegistry;
+    private final Tracer tracer;
+
+    public ServiceTracingAspect(ObservationRegistry observationRegistry, ObjectProvider<Tracer> tracer) {
+        this.observationRegistry = observationRegistry;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Around("within(com.portal.ia.service..*) && @within(org.springframework.stereotype.Service)"
+            + " && !within(com.portal.ia.service.LatencyService)"
+            + " && !within(com.portal.ia.service.TokenUsageService)"
+            + " && !within(com.portal.ia.service.LlmTimelineService)")
+    public Object traceServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span current = tracer.currentSpan();
+        if (current == null || !Boolean.TRUE.equals(current.context().sampled())) {
+            return joinPoint.proceed();
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String service = signature.getDeclaringType().getSimpleName();
+        String method = signature.getName();
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(service + "." + method)
+                .lowCardinalityKeyValue("service", service)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked(() -> joinPoint.proceed());
+    }
+}
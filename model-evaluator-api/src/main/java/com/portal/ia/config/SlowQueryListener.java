@@ -0,0 +1,50 @@
+package com.portal.ia.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.portal.ia.jfr.SlowQueryEvent;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * 🔹 Emite un {@link SlowQueryEvent} por cada consulta JDBC más lenta que
+ * ia.jfr.slow-query-ms. Se engancha al proxy del DataSource que ya crea
+ * datasource-micrometer, así que no añade otro envoltorio.
+ */
+@Component
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdMs;
+
+    public SlowQueryListener(@Value("${ia.jfr.slow-query-ms:200}") long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMs) {
+            return;
+        }
+        SlowQueryEvent event = new SlowQueryEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        event.sql = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) : sql;
+        event.elapsed = execInfo.getElapsedTime();
+        event.batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : queryInfoList.size();
+        event.success = execInfo.isSuccess();
+        event.commit();
+    }
+}
@@ -0,0 +1,22 @@
+package com.portal.ia.config;
+
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 🔹 Exportación de trazas. Spring Boot ya crea el exportador OTLP si se define
+ * management.otlp.tracing.endpoint; aquí se añade el de fichero (ia.tracing.file).
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty("ia.tracing.file")
+    public FileSpanExporter fileSpanExporter(@Value("${ia.tracing.file}") String file) {
+        return new FileSpanExporter(Paths.get(file));
+    }
+}
@@ -0,0 +1,63 @@
+package com.portal.ia.controller;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.portal.ia.service.ChangeFeedService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 🔹 Cambios de tareas, notas, proyectos y servidores en vivo. Stream SSE con un evento
+ * "change" por alta, cambio o borrado (id = versión) y "reset" si el cliente se
+ * ha quedado tan atrás que tiene que recargar.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+@CrossOrigin
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * {@code entities}: task, note, project y/o server separados por comas (todas si no se
+     * indica). {@code projectId}: sólo los cambios de ese proyecto y sus tareas.
+     * Al reconectar, EventSource manda Last-Event-ID y se sigue desde ahí.
+     */
+    @GetMapping("/stream")
+    public SseEmitter stream(
+            @RequestParam(required = false) String entities,
+            @RequestParam(required = false) Long projectId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Set<String> requested = entities == null ? Set.of()
+                : Arrays.stream(entities.split(",")).map(String::trim).filter(e -> !e.isEmpty())
+                        .collect(Collectors.toSet());
+        Long lastVersion = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                lastVersion = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Last-Event-ID no válido: " + lastEventId);
+            }
+        }
+        return changeFeedService.subscribe(requested, projectId, lastVersion);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.portal.ia.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.portal.ia.dto.CompareRequest;
+import com.portal.ia.dto.CompareResult;
+import com.portal.ia.service.CompareService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Comparación de modelos en paralelo. La respuesta es un stream SSE:
+ * un evento "resultado" por modelo según va terminando y un evento "fin".
+ */
+@RestController
+@RequestMapping("/api/compare")
+@RequiredArgsConstructor
+@CrossOrigin
+@Slf4j
+public class CompareController {
+
+    // Margen para que el evento de "timeout" llegue antes de que Spring cierre el stream
+    private static final long EMITTER_GRACE_MS = 5000;
+
+    private final CompareService compareService;
+
+    @PostMapping
+    public SseEmitter compare(@RequestBody CompareRequest request) {
+        List<String> models = compareService.resolveModels(request.getModels());
+        long timeoutMs = compareService.resolveTimeout(request.getTimeoutMs());
+
+        SseEmitter emitter = new SseEmitter(timeoutMs + EMITTER_GRACE_MS);
+        compareService.compare(request.getPrompt(), models, timeoutMs, new CompareService.Listener() {
+            @Override
+            public void onResult(CompareResult result) {
+                send(emitter, "resultado", result);
+            }
+
+            @Override
+            public void onComplete(long elapsedMs) {
+                send(emitter, "fin", Map.of("models", models, "elapsedMs", elapsedMs));
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            // Los resultados llegan desde varios hilos a la vez
+            synchronized (emitter) {
+                emitter.send(SseEmitter.event().name(event).data(data));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Cliente de comparación desconectado: {}", e.getMessage());
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.portal.ia.dto.DocumentosRequest;
 import com.portal.ia.service.DocumentosService;
+import com.portal.ia.service.LogPayload;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -63,13 +64,13 @@ public class DocumentosController {
 
     @PostMapping("/preguntar")
     public ResponseEntity<String> preguntar(@RequestBody DocumentosRequest request) {
-        log.info("📚 Pregunta sobre documentos (con contexto): {}", request.getQuestion());
+        log.info("📚 Pregunta sobre documentos (con contexto): {}", LogPayload.of(request.getQuestion()));
         return documentService.preguntar(request.getQuestion());
     }
 
     @PostMapping("/preguntar-simple")
     public ResponseEntity<String> preguntarSimple(@RequestBody DocumentosRequest request) {
-        log.info("📚 Pregunta sobre documentos (solo respuesta): {}", request.getQuestion());
+        log.info("📚 Pregunta sobre documentos (solo respuesta): {}", LogPayload.of(request.getQuestion()));
         return documentService.preguntarSimple(request.getQuestion());
     }
 
@@ -0,0 +1,131 @@
+package com.portal.ia.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.portal.ia.dto.ScoreRequest;
+import com.portal.ia.entity.EvalResult;
+import com.portal.ia.entity.EvalRun;
+import com.portal.ia.service.EvalService;
+import com.portal.ia.service.ModelGatewayService;
+import com.portal.ia.service.ScoringService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/eval")
+@CrossOrigin
+@Slf4j
+public class EvalController {
+
+    private final EvalService evalService;
+    private final ModelGatewayService modelGatewayService;
+    private final ScoringService scoringService;
+
+    @Autowired
+    public EvalController(EvalService evalService, ModelGatewayService modelGatewayService,
+            ScoringService scoringService) {
+        this.evalService = evalService;
+        this.modelGatewayService = modelGatewayService;
+        this.scoringService = scoringService;
+    }
+
+    @GetMapping("/models")
+    public ResponseEntity<Set<String>> getModels() {
+        return ResponseEntity.ok(modelGatewayService.getAvailableModels());
+    }
+
+    @PostMapping(value = "/runs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> createRun(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam("models") List<String> models,
+            @RequestParam(name = "name", required = false) String name) {
+        try {
+            log.info("📊 Nueva evaluación por lotes: {} contra {}", file.getOriginalFilename(), models);
+            EvalRun run = evalService.createRun(name, models, file);
+            return ResponseEntity.ok(run);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error interno del servidor: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/runs")
+    public ResponseEntity<Page<EvalRun>> getRuns(Pageable pageable) {
+        return ResponseEntity.ok(evalService.getRuns(pageable));
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<?> getProgress(@PathVariable("id") Long id) {
+        try {
+            return ResponseEntity.ok(evalService.getProgress(id));
+        } catch (jakarta.persistence.EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/runs/{id}/results")
+    public ResponseEntity<Page<EvalResult>> getResults(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "model", required = false) String model,
+            Pageable pageable) {
+        return ResponseEntity.ok(evalService.getResults(id, model, pageable));
+    }
+
+    @PostMapping("/runs/{id}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable("id") Long id) {
+        try {
+            evalService.cancel(id);
+            return ResponseEntity.ok(Map.of("message", "Evaluación cancelada"));
+        } catch (jakarta.persistence.EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/runs/{id}/resume")
+    public ResponseEntity<?> resume(@PathVariable("id") Long id) {
+        try {
+            boolean started = evalService.start(id);
+            return ResponseEntity.ok(Map.of("message", started ? "Evaluación reanudada" : "La evaluación ya está en marcha"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage()));
+        } catch (jakarta.persistence.EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/score")
+    public ResponseEntity<?> score(@RequestBody ScoreRequest request) {
+        try {
+            return ResponseEntity.ok(scoringService.score(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
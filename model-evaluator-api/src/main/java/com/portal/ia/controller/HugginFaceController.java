@@ -3,6 +3,7 @@ package com.portal.ia.controller;
 import com.portal.ia.dto.PromptRequest;
 import com.portal.ia.dto.OpenAIResponse;
 import com.portal.ia.service.HugginFaceService;
+import com.portal.ia.service.ShadowService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,10 +16,18 @@ import java.util.concurrent.CompletableFuture;
 public class HugginFaceController {
 
     private final HugginFaceService generalResponseService;
+    private final ShadowService shadowService;
 
     @PostMapping("/mistral")
     public CompletableFuture<OpenAIResponse> responder(@RequestBody PromptRequest request) {
+        long start = System.currentTimeMillis();
         return generalResponseService.responderConsultaGeneral(request.getPrompt())
+                .whenComplete((response, error) -> {
+                    if (error == null) {
+                        shadowService.mirror(HugginFaceService.MODEL_MISTRAL, request.getPrompt(), response,
+                                System.currentTimeMillis() - start);
+                    }
+                })
                 .thenApply(OpenAIResponse::new);
     }
 }
@@ -0,0 +1,61 @@
+package com.portal.ia.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.portal.ia.dto.LatencyHistogramExport;
+import com.portal.ia.service.LatencyService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/metrics/latency")
+@RequiredArgsConstructor
+@CrossOrigin
+public class LatencyController {
+
+    private final LatencyService latencyService;
+
+    // window: 1m | 5m | 60m; kind: endpoint | backend (opcional)
+    @GetMapping
+    public ResponseEntity<?> getLatency(
+            @RequestParam(name = "window", defaultValue = "5m") String window,
+            @RequestParam(name = "kind", required = false) String kind) {
+        try {
+            return ResponseEntity.ok(latencyService.getSnapshots(window, kind));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> export(@RequestParam(name = "window", defaultValue = "5m") String window) {
+        try {
+            return ResponseEntity.ok(latencyService.export(window));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Recibe exportaciones de varios nodos y devuelve los percentiles combinados
+    @PostMapping("/merge")
+    public ResponseEntity<?> merge(@RequestBody List<LatencyHistogramExport> exports) {
+        try {
+            return ResponseEntity.ok(latencyService.merge(exports));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
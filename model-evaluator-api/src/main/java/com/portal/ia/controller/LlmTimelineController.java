@@ -0,0 +1,55 @@
+package com.portal.ia.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.portal.ia.dto.LlmCallTimelineEntry;
+import com.portal.ia.dto.LlmModelLoadSummary;
+import com.portal.ia.service.LlmTimelineService;
+
+@RestController
+@RequestMapping("/metrics/llm")
+@CrossOrigin
+public class LlmTimelineController {
+
+    private static final int MAX_LIMIT = 5000;
+
+    private final LlmTimelineService llmTimelineService;
+
+    @Autowired
+    public LlmTimelineController(LlmTimelineService llmTimelineService) {
+        this.llmTimelineService = llmTimelineService;
+    }
+
+    // from/to en epoch millis
+    @GetMapping("/timeline")
+    public ResponseEntity<List<LlmCallTimelineEntry>> getTimeline(
+            @RequestParam(name = "model", required = false) String model,
+            @RequestParam(name = "from", required = false) Long from,
+            @RequestParam(name = "to", required = false) Long to,
+            @RequestParam(name = "limit", defaultValue = "200") int limit) {
+        int effectiveLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(llmTimelineService.getTimeline(model, from, to, effectiveLimit));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<List<LlmModelLoadSummary>> getSummary(
+            @RequestParam(name = "model", required = false) String model,
+            @RequestParam(name = "from", required = false) Long from,
+            @RequestParam(name = "to", required = false) Long to) {
+        return ResponseEntity.ok(llmTimelineService.getSummary(model, from, to));
+    }
+
+    @GetMapping("/in-flight")
+    public ResponseEntity<Map<String, Integer>> getInFlight() {
+        return ResponseEntity.ok(Map.of("inFlight", llmTimelineService.getInFlight()));
+    }
+}
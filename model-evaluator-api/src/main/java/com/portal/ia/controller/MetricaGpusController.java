@@ -21,6 +21,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.portal.ia.entity.Server;
+import com.portal.ia.service.GpuRouterService;
+import com.portal.ia.service.LogPayload;
 import com.portal.ia.service.MetricaGpusService;
 import com.portal.ia.service.ServerService;
 
@@ -36,17 +38,24 @@ import lombok.extern.slf4j.Slf4j;
 public class MetricaGpusController {
 
 	 private final MetricaGpusService metricaGpusService;
+	 private final GpuRouterService gpuRouterService;
 
 	 @Autowired
-	    public MetricaGpusController(MetricaGpusService metricaGpusService) {
+	    public MetricaGpusController(MetricaGpusService metricaGpusService, GpuRouterService gpuRouterService) {
 	        this.metricaGpusService = metricaGpusService;
+	        this.gpuRouterService = gpuRouterService;
 	    }
 
 
     @GetMapping("/gpu")
     public ResponseEntity<List<Map<String, Object>>> getGpuMetrics() {
         List<Map<String, Object>> gpuMetrics = metricaGpusService.getGpuMetrics();
-        log.info("Métricas de GPU enviadas: {}", gpuMetrics);
+        log.info("Métricas de GPU enviadas: {}", LogPayload.of(gpuMetrics));
         return ResponseEntity.ok(gpuMetrics);
     }
+
+    @GetMapping("/router")
+    public ResponseEntity<Map<String, Object>> getRouterStatus() {
+        return ResponseEntity.ok(gpuRouterService.getStatus());
+    }
 }
@@ -3,6 +3,7 @@ package com.portal.ia.controller;
 import com.portal.ia.dto.PromptRequest;
 import com.portal.ia.dto.OpenAIResponse;
 import com.portal.ia.service.OllamaService;
+import com.portal.ia.service.ShadowService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,15 +14,20 @@ import org.springframework.web.bind.annotation.*;
 public class OllamaController {
 
     private final OllamaService mistralService;
+    private final ShadowService shadowService;
 
     @PostMapping("/mistral")
     public OpenAIResponse chat(@RequestBody PromptRequest request) {
+        long start = System.currentTimeMillis();
         String response = mistralService.callMistral(request.getPrompt());
+        shadowService.mirror(OllamaService.MODEL_MISTRAL, request.getPrompt(), response, System.currentTimeMillis() - start);
         return new OpenAIResponse(response);
     }
     @PostMapping("/deepseek")
     public OpenAIResponse responder(@RequestBody PromptRequest request) {
+         long start = System.currentTimeMillis();
     	 String response = mistralService.callDeepSeek(request.getPrompt());
+         shadowService.mirror(OllamaService.MODEL_DEEPSEEK, request.getPrompt(), response, System.currentTimeMillis() - start);
          return new OpenAIResponse(response);
     }
 }
@@ -1,5 +1,8 @@
 package com.portal.ia.controller;
 
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.portal.ia.dto.OpenAIResponse;
 import com.portal.ia.dto.PromptRequest;
 import com.portal.ia.service.OpenAIService;
+import com.portal.ia.service.TokenBudgetExceededException;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,9 +27,14 @@ public class OpenAIController {
     private final OpenAIService openAIService;
 
     @PostMapping
-    public OpenAIResponse getCompletion(@RequestBody PromptRequest request) {
-        String result = openAIService.callOpenAI(request.getPrompt());
-        return new OpenAIResponse(result);
+    public ResponseEntity<?> getCompletion(@RequestBody PromptRequest request) {
+        try {
+            String result = openAIService.callOpenAI(request.getPrompt());
+            return ResponseEntity.ok(new OpenAIResponse(result));
+        } catch (TokenBudgetExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
     @GetMapping("/ping")
     public ResponseEntity<String> ping() {
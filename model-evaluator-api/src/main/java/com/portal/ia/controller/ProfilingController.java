@@ -0,0 +1,90 @@
+package com.portal.ia.controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.portal.ia.service.ProfilingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/admin/profiling")
+@RequiredArgsConstructor
+@CrossOrigin
+@Slf4j
+public class ProfilingController {
+
+    private final ProfilingService profilingService;
+
+    // settings: default (bajo coste) | profile (más detalle, algo más de sobrecarga)
+    @PostMapping("/recordings")
+    public ResponseEntity<?> start(
+            @RequestParam(name = "durationSeconds", defaultValue = "60") long durationSeconds,
+            @RequestParam(name = "settings", defaultValue = "profile") String settings) throws IOException {
+        try {
+            return ResponseEntity.ok(profilingService.start(durationSeconds, settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/recordings")
+    public ResponseEntity<?> list() {
+        return ResponseEntity.ok(profilingService.list());
+    }
+
+    @PostMapping("/recordings/{id}/stop")
+    public ResponseEntity<Resource> stop(@PathVariable Long id) {
+        return profilingService.stop(id)
+            .map(ProfilingController::jfrFile)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/recordings/{id}/file")
+    public ResponseEntity<Resource> file(@PathVariable Long id) {
+        return profilingService.file(id)
+            .map(ProfilingController::jfrFile)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // POST: cada llamada escribe un volcado nuevo en disco
+    @PostMapping("/continuous/dump")
+    public ResponseEntity<?> dumpContinuous() throws IOException {
+        try {
+            return jfrFile(profilingService.dumpContinuous());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<Resource> jfrFile(Path file) {
+        log.info("📦 Descarga de la grabación JFR {}", file.getFileName());
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+            .body(new FileSystemResource(file));
+    }
+}
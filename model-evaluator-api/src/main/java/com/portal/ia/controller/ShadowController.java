@@ -0,0 +1,45 @@
+package com.portal.ia.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.portal.ia.entity.ShadowResult;
+import com.portal.ia.service.ShadowService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/shadow")
+@RequiredArgsConstructor
+@CrossOrigin
+public class ShadowController {
+
+    private final ShadowService shadowService;
+
+    @GetMapping("/results")
+    public ResponseEntity<Page<ShadowResult>> getResults(
+            @RequestParam(name = "primaryModel", required = false) String primaryModel,
+            @RequestParam(name = "shadowModel", required = false) String shadowModel,
+            Pageable pageable) {
+        return ResponseEntity.ok(shadowService.getResults(primaryModel, shadowModel, pageable));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<List<Map<String, Object>>> getSummary() {
+        return ResponseEntity.ok(shadowService.getSummary());
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(shadowService.getStatus());
+    }
+}
@@ -0,0 +1,37 @@
+package com.portal.ia.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.portal.ia.service.SyncService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 🔹 Sincronización incremental de tareas, notas, proyectos y servidores: sin
+ * {@code since} devuelve todo y un token; con él, sólo lo cambiado desde entonces.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@CrossOrigin
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<?> sync(@RequestParam(name = "since", required = false) String since) {
+        try {
+            return ResponseEntity.ok(syncService.changesSince(since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
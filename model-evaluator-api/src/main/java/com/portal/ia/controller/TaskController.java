@@ -1,5 +1,7 @@
 package com.portal.ia.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -8,7 +10,10 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,8 +26,22 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portal.ia.dto.TaskBatchRequest;
+import com.portal.ia.dto.TaskBatchResult;
+import com.portal.ia.dto.TaskBoard;
+import com.portal.ia.dto.TaskCursorPage;
+import com.portal.ia.dto.TaskMoveRequest;
+import com.portal.ia.dto.TaskSearchHit;
+import com.portal.ia.dto.TaskTimelineWindow;
 import com.portal.ia.entity.Task;
+import com.portal.ia.service.TaskBatchService;
+import com.portal.ia.service.TaskExportService;
+import com.portal.ia.service.TaskSearchService;
 import com.portal.ia.service.TaskService;
+import com.portal.ia.service.TaskTimelineService;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 // DTO para recibir datos del frontend - ACTUALIZADO con startDate
 class TaskCreateRequest {
@@ -73,10 +92,22 @@ class TaskCreateRequest {
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskSearchService taskSearchService;
+    private final TaskBatchService taskBatchService;
+    private final TaskExportService taskExportService;
+    private final TaskTimelineService taskTimelineService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskSearchService taskSearchService,
+            TaskBatchService taskBatchService, TaskExportService taskExportService,
+            TaskTimelineService taskTimelineService, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.taskSearchService = taskSearchService;
+        this.taskBatchService = taskBatchService;
+        this.taskExportService = taskExportService;
+        this.taskTimelineService = taskTimelineService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -96,6 +127,117 @@ public class TaskController {
         return ResponseEntity.ok(result);
     }
 
+    // Paginación por cursor: sin COUNT y con coste constante en páginas profundas
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollTasks(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "title", required = false) String title,
+            @RequestParam(name = "description", required = false) String description,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "priority", required = false) String priority,
+            @RequestParam(name = "assignedTo", required = false) String assignedTo,
+            @RequestParam(name = "projectId", required = false) Long projectId,
+            @RequestParam(name = "orderBy", defaultValue = "updatedAt") String orderBy,
+            @RequestParam(name = "isOrderDesc", defaultValue = "true") boolean isOrderDesc,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
+        try {
+            TaskCursorPage result = taskService.getTasksByCursor(
+                title, description, status, priority, assignedTo, projectId, orderBy, isOrderDesc, size, cursor, withTotal);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Tablero kanban: total y primeras tareas de cada estado, con cursor por columna
+    @GetMapping("/board")
+    public ResponseEntity<?> getBoard(
+            @RequestParam(name = "perColumn", defaultValue = "20") int perColumn,
+            @RequestParam(name = "assignedTo", required = false) String assignedTo,
+            @RequestParam(name = "projectId", required = false) Long projectId) {
+        try {
+            TaskBoard board = taskService.getBoard(perColumn, assignedTo, projectId);
+            return ResponseEntity.ok(board);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Una columna del tablero (proyecto, estado) en su orden manual; sin projectId, las tareas sin proyecto
+    @GetMapping("/column")
+    public ResponseEntity<?> getColumn(
+            @RequestParam(name = "status") String status,
+            @RequestParam(name = "projectId", required = false) Long projectId) {
+        try {
+            return ResponseEntity.ok(taskService.getColumn(projectId, status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Búsqueda por texto con ranking (índice en memoria, o BBDD mientras no lo hay), pensada para buscar mientras se escribe
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTasks(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "El límite debe estar entre 1 y 100"));
+        }
+        List<TaskSearchHit> hits = taskSearchService.search(query, limit);
+        return ResponseEntity.ok(hits);
+    }
+
+    // Tareas cuyo [inicio, fecha límite] se solapa con la ventana visible del timeline
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "projectId", required = false) Long projectId,
+            @RequestParam(name = "withoutProject", defaultValue = "false") boolean withoutProject,
+            @RequestParam(name = "assignedTo", required = false) String assignedTo) {
+        try {
+            TaskTimelineWindow window = taskTimelineService.window(from, to, projectId, withoutProject, assignedTo);
+            return ResponseEntity.ok(window);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Exportación completa en NDJSON o CSV, escrita según se lee de la BBDD (memoria constante)
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "title", required = false) String title,
+            @RequestParam(name = "description", required = false) String description,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "priority", required = false) String priority,
+            @RequestParam(name = "assignedTo", required = false) String assignedTo,
+            @RequestParam(name = "projectId", required = false) Long projectId,
+            HttpServletResponse response) throws IOException {
+        TaskExportService.Format exportFormat;
+        try {
+            exportFormat = TaskExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getWriter(), Map.of("error", e.getMessage()));
+            return;
+        }
+        // Sin StreamingResponseBody: una exportación larga no debe cortarse por el timeout de las peticiones asíncronas
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tareas." + exportFormat.getExtension() + "\"");
+        taskExportService.export(exportFormat, title, description, status, priority, assignedTo, projectId,
+                response.getOutputStream());
+    }
+
     @GetMapping("/list")
     public ResponseEntity<List<Task>> list() {
         return ResponseEntity.ok(taskService.getAll());
@@ -223,6 +365,25 @@ public class TaskController {
         }
     }
 
+    // Arrastrar y soltar: coloca la tarea entre dos vecinas (y opcionalmente en otro estado)
+    @PutMapping("/{id}/position")
+    public ResponseEntity<?> moveTask(
+            @PathVariable("id") Long id,
+            @RequestBody TaskMoveRequest request) {
+        try {
+            Task moved = taskService.move(id, request.getStatus(), request.getPreviousId(), request.getNextId());
+            return ResponseEntity.ok(moved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage()));
+        } catch (jakarta.persistence.EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteTask(@PathVariable("id") Long id) {
         try {
@@ -236,6 +397,26 @@ public class TaskController {
         }
     }
 
+    // Muchas altas, cambios y borrados en una transacción, con un resultado por operación
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody TaskBatchRequest request) {
+        try {
+            TaskBatchResult result = taskBatchService.apply(request);
+            // Atómico y con alguna operación inválida: no se ha aplicado nada
+            return result.isApplied() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // Una tarea del lote cambió de columna mientras se aplicaba: no se ha guardado nada
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error interno del servidor: " + e.getMessage()));
+        }
+    }
+
     // Endpoints específicos por filtros
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable("status") String status) {
@@ -0,0 +1,47 @@
+package com.portal.ia.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.portal.ia.dto.TokenUsageBucket;
+import com.portal.ia.service.TokenUsageService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/metrics/llm/usage")
+@RequiredArgsConstructor
+@CrossOrigin
+public class TokenUsageController {
+
+    private final TokenUsageService tokenUsageService;
+
+    // granularity: "hour" (por defecto, últimas 24 h) o "day" (últimos 30 días)
+    @GetMapping
+    public ResponseEntity<?> getUsage(
+            @RequestParam(name = "model", required = false) String model,
+            @RequestParam(name = "granularity", defaultValue = "hour") String granularity,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!"hour".equals(granularity) && !"day".equals(granularity)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Granularidad no válida: " + granularity + " (usa hour o day)"));
+        }
+        List<TokenUsageBucket> rollup = tokenUsageService.getRollup(model, "day".equals(granularity), from, to);
+        return ResponseEntity.ok(rollup);
+    }
+
+    @GetMapping("/budget")
+    public ResponseEntity<Map<String, Object>> getBudgets() {
+        return ResponseEntity.ok(tokenUsageService.getBudgets());
+    }
+}
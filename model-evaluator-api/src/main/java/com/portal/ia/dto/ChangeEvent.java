@@ -0,0 +1,21 @@
+package com.portal.ia.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent {
+    private long version;                   // posición en el feed: crece con cada cambio (id del evento SSE)
+    private String entity;                  // task, note, project o server
+    private Long id;
+    private String op;                      // created, updated o deleted
+    private Long projectId;                 // proyecto de la tarea (o el propio, en los proyectos)
+    private Long previousProjectId;         // sólo si una tarea cambia de proyecto
+    private Map<String, Object> changes;    // campos cambiados con su valor nuevo; nulo en deleted
+}
@@ -0,0 +1,12 @@
+package com.portal.ia.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class CompareRequest {
+    private String prompt;
+    private List<String> models; // vacío = todos los modelos de comparación
+    private Long timeoutMs;      // plazo global; null = el configurado por defecto
+}
@@ -0,0 +1,14 @@
+package com.portal.ia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CompareResult {
+    private String model;
+    private String status; // ok | error | timeout
+    private String respuesta;
+    private String error;
+    private long latencyMs;
+}
@@ -0,0 +1,23 @@
+package com.portal.ia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Histograma en formato intercambiable: sólo los cubos no vacíos, como pares
+ * (indexes[i], counts[i]). Se pueden sumar los de varios nodos si comparten subBucketBits.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyHistogramExport {
+    private String name;
+    private String window;
+    private int subBucketBits;
+    private long count;
+    private long sumMicros;
+    private long maxMicros;
+    private long[] indexes;
+    private long[] counts;
+}
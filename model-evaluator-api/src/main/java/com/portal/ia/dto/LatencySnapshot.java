@@ -0,0 +1,19 @@
+package com.portal.ia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LatencySnapshot {
+    private String name;   // "endpoint:TaskController.getTasks", "backend:ollama /responder_ollama_mistral"...
+    private String window; // 1m | 5m | 60m
+    private long count;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+}
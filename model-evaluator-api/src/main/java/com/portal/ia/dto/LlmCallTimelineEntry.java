@@ -0,0 +1,20 @@
+package com.portal.ia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LlmCallTimelineEntry {
+    private String model;
+    private long startedAt;
+    private long endedAt;
+    private long latencyMs;
+    private int promptChars;
+    private int responseChars;
+    private boolean success;
+    private int gpuSamples;
+    private Double gpuUtilizationAvg;
+    private Double gpuUtilizationMax;
+    private Double gpuMemoryUsedPctAvg;
+}
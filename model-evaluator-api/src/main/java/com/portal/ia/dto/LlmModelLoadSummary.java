@@ -0,0 +1,21 @@
+package com.portal.ia.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LlmModelLoadSummary {
+    private String model;
+    private long calls;
+    private long errors;
+    private double avgLatencyMs;
+    private long maxLatencyMs;
+    private double callsPerMinute;
+    private double responseCharsPerSecond;
+    private Double gpuUtilizationAvg;
+    private Double gpuMemoryUsedPctAvg;
+    private Map<String, Map<String, Object>> byGpuLoad; // tramo de utilización -> llamadas y latencia media
+}
@@ -0,0 +1,15 @@
+package com.portal.ia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProfilingRecordingInfo {
+    private long id;
+    private String settings;     // default | profile
+    private String state;        // RUNNING | CLOSED (ya escrita en disco)
+    private long startedAt;
+    private long durationSeconds;
+    private long sizeBytes;      // tamaño del .jfr una vez escrito, 0 mientras graba
+}
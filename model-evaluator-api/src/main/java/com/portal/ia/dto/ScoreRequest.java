@@ -0,0 +1,11 @@
+package com.portal.ia.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ScoreRequest {
+    private List<String> metrics; // exact, f1, rougeL, bleu, cosine (vacío = todas)
+    private List<ScorePair> pairs;
+}
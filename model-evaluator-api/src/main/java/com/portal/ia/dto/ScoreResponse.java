@@ -0,0 +1,15 @@
+package com.portal.ia.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ScoreResponse {
+    private int count;
+    private long elapsedMs;
+    private Map<String, Double> mean;
+    private Map<String, double[]> scores; // métrica -> puntuación de cada par, en el orden de la petición
+}
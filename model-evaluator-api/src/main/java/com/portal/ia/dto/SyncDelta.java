@@ -0,0 +1,31 @@
+package com.portal.ia.dto;
+
+import java.util.List;
+
+import com.portal.ia.entity.DailyNote;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Server;
+import com.portal.ia.entity.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SyncDelta {
+    private String token;                   // para la próxima llamada (?since=...)
+    private boolean full;                   // true: es todo, hay que sustituir la caché en vez de aplicar el delta
+    private boolean hasMore;                // quedan cambios: volver a llamar enseguida con el token
+    private List<Task> tasks;               // altas y cambios, en su estado actual
+    private List<DailyNote> notes;
+    private List<Project> projects;
+    private List<Server> servers;
+    private List<Tombstone> deleted;        // borrados desde el token; vacío si full
+
+    @Data
+    @AllArgsConstructor
+    public static class Tombstone {
+        private String entity;              // task, note, project o server
+        private long id;
+    }
+}
@@ -0,0 +1,28 @@
+package com.portal.ia.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class TaskBatchRequest {
+    private boolean atomic;                 // true = si falla una operación no se aplica ninguna
+    private List<Operation> operations;
+
+    @Data
+    public static class Operation {
+        private String op;                  // create, update, status, shift, delete
+        private Long id;                    // todas salvo create
+        private String title;
+        private String description;
+        private String priority;
+        private String status;
+        private LocalDate startDate;
+        private LocalDate dueDate;
+        private LocalDate completedDate;
+        private String assignedTo;
+        private Long projectId;
+        private Integer days;               // shift: días que se mueven inicio y fecha límite (negativo = antes)
+    }
+}
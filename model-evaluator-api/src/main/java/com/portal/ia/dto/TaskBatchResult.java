@@ -0,0 +1,25 @@
+package com.portal.ia.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TaskBatchResult {
+    private boolean applied;                // false si era atómico y alguna operación falló
+    private int succeeded;
+    private int failed;
+    private List<Item> results;             // una por operación, en el mismo orden
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private int index;
+        private String op;
+        private Long id;                    // en create, el id asignado
+        private boolean ok;
+        private String error;
+    }
+}
@@ -0,0 +1,24 @@
+package com.portal.ia.dto;
+
+import java.util.List;
+
+import com.portal.ia.entity.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TaskBoard {
+    private List<Column> columns;           // pendiente, en_progreso y completada, siempre las tres
+
+    @Data
+    @AllArgsConstructor
+    public static class Column {
+        private String status;
+        private long total;                 // todas las tareas del estado con los filtros aplicados
+        private List<Task> tasks;           // las primeras, por updatedAt e id descendentes
+        private boolean hasMore;
+        private String nextCursor;          // para seguir con /api/tasks/scroll?status=...; null si no hay más
+    }
+}
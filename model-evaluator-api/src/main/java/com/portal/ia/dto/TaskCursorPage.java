@@ -0,0 +1,18 @@
+package com.portal.ia.dto;
+
+import java.util.List;
+
+import com.portal.ia.entity.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TaskCursorPage {
+    private List<Task> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;      // null en la última página
+    private Long approximateTotal;  // sólo con withTotal=true; puede ir con retraso (caché)
+}
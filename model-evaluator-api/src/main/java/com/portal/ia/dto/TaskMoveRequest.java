@@ -0,0 +1,10 @@
+package com.portal.ia.dto;
+
+import lombok.Data;
+
+@Data
+public class TaskMoveRequest {
+    private String status;          // nulo: se queda en su estado
+    private Long previousId;        // la tarea que queda justo encima; nulo: al principio
+    private Long nextId;            // la que queda justo debajo; nulo: al final (sin ninguna de las dos, también)
+}
@@ -0,0 +1,17 @@
+package com.portal.ia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TaskSearchHit {
+    private Long id;
+    private String title;
+    private String status;
+    private String priority;
+    private Long projectId;
+    private float score;
+    private String titleHighlight;  // HTML escapado, coincidencias entre <mark>
+    private String snippet;         // fragmento de la descripción, mismo formato
+}
@@ -0,0 +1,18 @@
+package com.portal.ia.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.portal.ia.entity.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TaskTimelineWindow {
+    private LocalDate from;
+    private LocalDate to;
+    private List<Task> tasks;       // por fecha de inicio
+    private boolean truncated;      // había más de ia.tasks.timeline.max-results: acotar la ventana o filtrar
+}
@@ -0,0 +1,21 @@
+package com.portal.ia.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenUsageBucket {
+    private String model;
+    private LocalDateTime bucketStart;
+    private long calls;
+    private long errors;
+    private long estimatedCalls; // llamadas cuyos tokens se han estimado (el backend no los devuelve)
+    private long promptTokens;
+    private long completionTokens;
+    private long totalTokens;
+    private double avgLatencyMs;
+    private double tokensPerSecond; // tokens generados por segundo de llamada
+}
@@ -0,0 +1,32 @@
+package com.portal.ia.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Una fila por evento del feed de cambios, con su versión como clave: GET /api/sync
+ * recorre las posteriores a la del cliente. Las inserta {@code ChangeFeedService}
+ * por lotes de JDBC.
+ */
+@Entity
+@Data
+@Table(name = "change_log", indexes = @Index(name = "idx_change_log_changed_at", columnList = "changed_at"))
+public class ChangeLogEntry {
+    @Id
+    private Long seq;                   // versión del evento en ChangeFeedService
+
+    @Column(nullable = false, length = 16)
+    private String entity;              // task, note, project o server
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,35 @@
+package com.portal.ia.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila única con lo que {@code ChangeFeedService} necesita saber de la ejecución
+ * anterior al arrancar: hasta qué versión había numerado y si paró con todo
+ * guardado en change_log.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "change_log_state")
+public class ChangeLogState {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "reserved_until", nullable = false)
+    private Long reservedUntil;         // versiones reservadas: al arrancar se numera desde la siguiente
+
+    @Column(name = "resync_below", nullable = false)
+    private Long resyncBelow;           // un token anterior a esta versión tiene huecos en change_log
+
+    @Column(name = "clean_shutdown", nullable = false)
+    private boolean cleanShutdown;      // false mientras está en marcha o si no llegó a guardarlo todo
+}
@@ -0,0 +1,32 @@
+package com.portal.ia.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "eval_item",
+       uniqueConstraints = @UniqueConstraint(name = "uk_eval_item_run_index", columnNames = {"run_id", "item_index"}))
+public class EvalItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "item_index", nullable = false)
+    private Long itemIndex; // posición en el dataset, empezando en 0
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String prompt;
+
+    @Column(columnDefinition = "TEXT")
+    private String expected;
+}
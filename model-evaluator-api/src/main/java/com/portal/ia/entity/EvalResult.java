@@ -0,0 +1,52 @@
+package com.portal.ia.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "eval_result",
+       uniqueConstraints = @UniqueConstraint(name = "uk_eval_result_run_item_model", columnNames = {"run_id", "model", "item_index"}))
+public class EvalResult {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "item_index", nullable = false)
+    private Long itemIndex;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(columnDefinition = "TEXT")
+    private String answer;
+
+    @Column(name = "latency_ms")
+    private Long latencyMs;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,60 @@
+package com.portal.ia.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "eval_run")
+public class EvalRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+
+    @Column(nullable = false)
+    private String models; // claves de modelo separadas por comas
+
+    @Column(nullable = false)
+    private String status; // 'pendiente', 'cargando', 'en_progreso', 'completada', 'cancelada', 'error'
+
+    @Column(name = "dataset_format", nullable = false)
+    private String datasetFormat; // 'csv', 'jsonl'
+
+    @Column(name = "dataset_path", nullable = false)
+    private String datasetPath;
+
+    @Column(name = "total_items")
+    private Long totalItems;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
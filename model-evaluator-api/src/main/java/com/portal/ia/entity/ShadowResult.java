@@ -0,0 +1,56 @@
+package com.portal.ia.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "shadow_result")
+public class ShadowResult {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "primary_model", nullable = false)
+    private String primaryModel;
+
+    @Column(name = "shadow_model", nullable = false)
+    private String shadowModel;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String prompt;
+
+    @Column(name = "primary_answer", columnDefinition = "TEXT")
+    private String primaryAnswer;
+
+    @Column(name = "shadow_answer", columnDefinition = "TEXT")
+    private String shadowAnswer;
+
+    @Column(name = "primary_latency_ms")
+    private Long primaryLatencyMs;
+
+    @Column(name = "shadow_latency_ms")
+    private Long shadowLatencyMs;
+
+    @Column(name = "shadow_success", nullable = false)
+    private boolean shadowSuccess;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -12,18 +12,33 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
 @Data
+@Table(name = "task",
+       indexes = {
+           @Index(name = "idx_task_updated_at_id", columnList = "updated_at, id"),
+           @Index(name = "idx_task_created_at_id", columnList = "created_at, id"),
+           @Index(name = "idx_task_status_updated_at_id", columnList = "status, updated_at, id"),
+           @Index(name = "idx_task_project_status_sort_key", columnList = "project_id, status, sort_key"),
+           @Index(name = "idx_task_start_due", columnList = "start_date, due_date"),
+           @Index(name = "idx_task_project_start_due", columnList = "project_id, start_date, due_date")
+       })
 public class Task {
+    // Secuencia (en MySQL, la tabla task_seq) con ids reservados de 50 en 50: con IDENTITY
+    // Hibernate tiene que insertar fila a fila para conocer el id y no agrupa los INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -49,6 +64,10 @@ public class Task {
 
     private String assignedTo;
 
+    // Orden manual dentro de su columna (proyecto, estado); ver TaskRankService
+    @Column(name = "sort_key")
+    private String sortKey;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     @JsonIgnore  // Evita la serialización del objeto completo
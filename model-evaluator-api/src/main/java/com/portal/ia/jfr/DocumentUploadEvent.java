@@ -0,0 +1,31 @@
+package com.portal.ia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 🔹 Evento JFR por cada subida de documentos al servicio RAG. La duración del
+ * evento es la de la petición a Flask.
+ */
+@Name("portal.DocumentUpload")
+@Label("Document Upload")
+@Category({ "Portal IA", "Documentos" })
+@Description("Subida de documentos al servicio de Flask")
+@StackTrace(false)
+public class DocumentUploadEvent extends Event {
+
+    @Label("Files")
+    public int files;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Status")
+    public int status;
+}
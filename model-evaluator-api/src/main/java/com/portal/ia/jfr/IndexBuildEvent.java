@@ -0,0 +1,23 @@
+package com.portal.ia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 🔹 Evento JFR por cada construcción del índice FAISS. La duración del evento
+ * es la de la petición a Flask.
+ */
+@Name("portal.IndexBuild")
+@Label("Index Build")
+@Category({ "Portal IA", "Documentos" })
+@Description("Construcción del índice FAISS de documentos")
+@StackTrace(false)
+public class IndexBuildEvent extends Event {
+
+    @Label("Status")
+    public int status;
+}
@@ -0,0 +1,38 @@
+package com.portal.ia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 🔹 Evento JFR por cada llamada a un modelo (Ollama, Hugging Face, OpenAI o documentos).
+ */
+@Name("portal.LlmCall")
+@Label("LLM Call")
+@Category({ "Portal IA", "LLM" })
+@Description("Llamada completa a un modelo del portal")
+@StackTrace(false)
+public class LlmCallEvent extends Event {
+
+    @Label("Model")
+    public String model;
+
+    @Label("Latency")
+    @Timespan(Timespan.MILLISECONDS)
+    public long latency;
+
+    @Label("Prompt Size")
+    @Description("Longitud del prompt en caracteres")
+    public int promptChars;
+
+    @Label("Response Size")
+    @Description("Longitud de la respuesta en caracteres")
+    public int responseChars;
+
+    @Label("Success")
+    public boolean success;
+}
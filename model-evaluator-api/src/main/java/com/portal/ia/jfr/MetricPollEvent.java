@@ -0,0 +1,28 @@
+package com.portal.ia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 🔹 Evento JFR por cada lectura real (no cacheada) de métricas de GPU de un nodo.
+ */
+@Name("portal.MetricPoll")
+@Label("GPU Metric Poll")
+@Category({ "Portal IA", "Métricas" })
+@Description("Petición de métricas de GPU a un nodo")
+@StackTrace(false)
+public class MetricPollEvent extends Event {
+
+    @Label("URL")
+    public String url;
+
+    @Label("GPUs")
+    public int gpus;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,32 @@
+package com.portal.ia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 🔹 Evento JFR por cada consulta JDBC que supera el umbral {@code ia.jfr.slow-query-ms}.
+ * Conserva la traza de pila para localizar el repositorio que la lanzó.
+ */
+@Name("portal.SlowQuery")
+@Label("Slow JPA Query")
+@Category({ "Portal IA", "JDBC" })
+@Description("Consulta JDBC por encima del umbral configurado")
+public class SlowQueryEvent extends Event {
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.MILLISECONDS)
+    public long elapsed;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,18 @@
+package com.portal.ia.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.portal.ia.entity.ChangeLogState;
+
+public interface ChangeLogStateRepository extends JpaRepository<ChangeLogState, Integer> {
+
+    // Las versiones sólo suben: dos guardados que se confirman en otro orden no bajan la reserva
+    @Modifying
+    @Query("UPDATE ChangeLogState s SET s.reservedUntil = GREATEST(s.reservedUntil, :reservedUntil), " +
+           "s.resyncBelow = GREATEST(s.resyncBelow, :resyncBelow), s.cleanShutdown = :cleanShutdown WHERE s.id = :id")
+    int raise(@Param("id") Integer id, @Param("reservedUntil") long reservedUntil,
+            @Param("resyncBelow") long resyncBelow, @Param("cleanShutdown") boolean cleanShutdown);
+}
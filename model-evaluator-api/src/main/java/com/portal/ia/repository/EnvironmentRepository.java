@@ -1,9 +1,11 @@
 package com.portal.ia.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,6 +18,12 @@ public interface EnvironmentRepository extends JpaRepository<Environment, Long>
     Optional<Environment> findByType(String type);
     void deleteById(Long id);
 
+    // project y server son EAGER: se traen en la misma consulta para evitar un SELECT por entorno
+    @Override
+    @EntityGraph(attributePaths = {"project", "server"})
+    List<Environment> findAll();
+
+    @EntityGraph(attributePaths = {"project", "server"})
     @Query("SELECT p FROM Environment p WHERE " +
            "(:type IS NULL OR LOWER(p.type) LIKE LOWER(CONCAT('%', :type, '%')))")
     Page<Environment> findByFilters(@Param("type") String type, Pageable pageable);
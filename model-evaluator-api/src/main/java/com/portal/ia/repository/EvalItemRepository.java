@@ -0,0 +1,22 @@
+package com.portal.ia.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.portal.ia.entity.EvalItem;
+
+public interface EvalItemRepository extends JpaRepository<EvalItem, Long> {
+
+    // Lectura por tramos de item_index: usa el índice único (run_id, item_index) y no hace COUNT
+    @Query("SELECT i FROM EvalItem i WHERE i.runId = :runId AND i.itemIndex > :after ORDER BY i.itemIndex ASC")
+    List<EvalItem> findNextItems(@Param("runId") Long runId, @Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT MAX(i.itemIndex) FROM EvalItem i WHERE i.runId = :runId")
+    Long findMaxItemIndex(@Param("runId") Long runId);
+
+    long countByRunId(Long runId);
+}
@@ -0,0 +1,32 @@
+package com.portal.ia.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.portal.ia.entity.EvalResult;
+
+public interface EvalResultRepository extends JpaRepository<EvalResult, Long> {
+
+    @Query("SELECT r.itemIndex FROM EvalResult r WHERE r.runId = :runId AND r.model = :model " +
+           "AND r.itemIndex BETWEEN :fromIndex AND :toIndex")
+    List<Long> findDoneItemIndexes(
+        @Param("runId") Long runId,
+        @Param("model") String model,
+        @Param("fromIndex") Long fromIndex,
+        @Param("toIndex") Long toIndex
+    );
+
+    // model, completados, fallidos, latencia media
+    @Query("SELECT r.model, COUNT(r), SUM(CASE WHEN r.success = false THEN 1 ELSE 0 END), AVG(r.latencyMs) " +
+           "FROM EvalResult r WHERE r.runId = :runId GROUP BY r.model")
+    List<Object[]> summarizeByModel(@Param("runId") Long runId);
+
+    @Query("SELECT r FROM EvalResult r WHERE r.runId = :runId AND " +
+           "(:model IS NULL OR r.model = :model)")
+    Page<EvalResult> findByFilters(@Param("runId") Long runId, @Param("model") String model, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.portal.ia.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.portal.ia.entity.EvalRun;
+
+public interface EvalRunRepository extends JpaRepository<EvalRun, Long> {
+
+    List<EvalRun> findByStatusIn(Collection<String> statuses);
+}
@@ -1,5 +1,7 @@
 package com.portal.ia.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -20,6 +22,10 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
            "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')))")
     Page<Project> findByFilters(@Param("name") String name, Pageable pageable);
     
+    // Sólo comprueba qué ids existen, sin cargar los proyectos
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     @EntityGraph(attributePaths = {"environments", "environments.server"})
     Optional<Project> findById(Long id);
 }
@@ -0,0 +1,30 @@
+package com.portal.ia.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.portal.ia.entity.ShadowResult;
+
+public interface ShadowResultRepository extends JpaRepository<ShadowResult, Long> {
+
+    @Query("SELECT s FROM ShadowResult s WHERE " +
+           "(:primaryModel IS NULL OR s.primaryModel = :primaryModel) AND " +
+           "(:shadowModel IS NULL OR s.shadowModel = :shadowModel)")
+    Page<ShadowResult> findByFilters(
+        @Param("primaryModel") String primaryModel,
+        @Param("shadowModel") String shadowModel,
+        Pageable pageable
+    );
+
+    // primario, sombra, pares, fallos de la sombra, latencia media primario, latencia media sombra
+    @Query("SELECT s.primaryModel, s.shadowModel, COUNT(s), " +
+           "SUM(CASE WHEN s.shadowSuccess = false THEN 1 ELSE 0 END), " +
+           "AVG(s.primaryLatencyMs), AVG(s.shadowLatencyMs) " +
+           "FROM ShadowResult s GROUP BY s.primaryModel, s.shadowModel")
+    List<Object[]> summarize();
+}
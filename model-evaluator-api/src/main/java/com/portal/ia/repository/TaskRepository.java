@@ -1,17 +1,24 @@
 package com.portal.ia.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.portal.ia.entity.Task;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+
+    // Filas que pide cada viaje del cursor de exportación (TaskExportService, con useCursorFetch=true en MySQL)
+    int EXPORT_FETCH_SIZE = 500;
     
     Optional<Task> findByTitle(String title);
     
@@ -41,6 +48,85 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
         Pageable pageable
     );
 
+    // Recorrido por lotes para reconstruir el índice de búsqueda, sin cargar entidades
+    @Query("SELECT t.id, t.title, t.description FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findSearchableAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Respaldo de la búsqueda mientras no hay índice: las más recientes que contienen una palabra
+    @Query("SELECT t.id, t.title, t.description FROM Task t WHERE " +
+           "LOWER(t.title) LIKE LOWER(CONCAT('%', :word, '%')) OR " +
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :word, '%')) ORDER BY t.id DESC")
+    List<Object[]> findSearchableContaining(@Param("word") String word, Pageable pageable);
+
+    // Carga por lotes del índice del timeline: sólo fechas y filtros, sin entidades
+    @Query("SELECT t.id, t.startDate, t.dueDate, t.project.id, t.assignedTo FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findTimelineAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Ventana del timeline en BBDD (mientras se construye el índice en memoria);
+    // la apoyan los índices (start_date, due_date) y (project_id, start_date, due_date)
+    @Query("SELECT t FROM Task t WHERE t.startDate <= :to AND t.dueDate >= :from AND " +
+           "(:projectId IS NULL OR t.project.id = :projectId) AND " +
+           "(:withoutProject = false OR t.project IS NULL) AND " +
+           "(:assignedTo IS NULL OR t.assignedTo = :assignedTo) " +
+           "ORDER BY t.startDate, t.id")
+    List<Task> findOverlapping(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("projectId") Long projectId,
+        @Param("withoutProject") boolean withoutProject,
+        @Param("assignedTo") String assignedTo,
+        Pageable pageable
+    );
+
+    // Tablero kanban en una sola consulta: por cada estado, su total y las primeras
+    // :perColumn tareas (id y estado) en el orden de /api/tasks/scroll (updatedAt, id desc).
+    // Con los mismos filtros que findByFilters para que el cursor de cada columna continúe igual
+    @Query("SELECT r.id, r.status, r.total FROM (" +
+           "SELECT t.id AS id, t.status AS status, " +
+           "ROW_NUMBER() OVER (PARTITION BY t.status ORDER BY t.updatedAt DESC, t.id DESC) AS rn, " +
+           "COUNT(*) OVER (PARTITION BY t.status) AS total " +
+           "FROM Task t WHERE t.status IN :statuses AND " +
+           "(:assignedTo IS NULL OR LOWER(t.assignedTo) LIKE LOWER(CONCAT('%', :assignedTo, '%'))) AND " +
+           "(:projectId IS NULL OR t.project.id = :projectId)" +
+           ") r WHERE r.rn <= :perColumn ORDER BY r.status, r.rn")
+    List<Object[]> findBoardColumns(
+        @Param("statuses") List<String> statuses,
+        @Param("assignedTo") String assignedTo,
+        @Param("projectId") Long projectId,
+        @Param("perColumn") long perColumn
+    );
+
+    // Orden manual de una columna (proyecto, estado): recorrido del índice
+    // (project_id, status, sort_key); el id desempata las claves repetidas
+    List<Task> findByProject_IdAndStatusOrderBySortKeyAscIdAsc(Long projectId, String status);
+
+    List<Task> findByProjectIsNullAndStatusOrderBySortKeyAscIdAsc(String status);
+
+    // Última clave de orden de la columna, para poner las tareas nuevas al final
+    @Query("SELECT MAX(t.sortKey) FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
+    String findLastSortKeyInProject(@Param("projectId") Long projectId, @Param("status") String status);
+
+    @Query("SELECT MAX(t.sortKey) FROM Task t WHERE t.project IS NULL AND t.status = :status")
+    String findLastSortKeyWithoutProject(@Param("status") String status);
+
+    // Columnas con tareas aún sin clave de orden (anteriores al orden manual)
+    @Query("SELECT DISTINCT t.project.id, t.status FROM Task t WHERE t.sortKey IS NULL")
+    List<Object[]> findColumnsWithoutSortKey();
+
+    // Columna (proyecto, estado) actual de cada tarea, sin cargarlas
+    @Query("SELECT t.id, p.id, t.status FROM Task t LEFT JOIN t.project p WHERE t.id IN :ids")
+    List<Object[]> findColumnsByIds(@Param("ids") Collection<Long> ids);
+
+    // Reequilibrado: sólo la clave, sin pasar por @PreUpdate (no es un cambio de la tarea)
+    @Modifying
+    @Query("UPDATE Task t SET t.sortKey = :sortKey WHERE t.id = :id")
+    int updateSortKey(@Param("id") Long id, @Param("sortKey") String sortKey);
+
+    // Recuento para reconciliar las estadísticas en memoria de TaskStatsService
+    @Query("SELECT t.status, t.priority, t.project.id, t.assignedTo, COUNT(t) FROM Task t " +
+           "GROUP BY t.status, t.priority, t.project.id, t.assignedTo")
+    List<Object[]> countGroupedForStats();
+
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
     Long countByStatus(@Param("status") String status);
 
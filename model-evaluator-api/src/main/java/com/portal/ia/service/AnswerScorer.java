@@ -0,0 +1,300 @@
+package com.portal.ia.service;
+
+import java.util.Arrays;
+
+/**
+ * 🔹 Métricas de similitud entre una respuesta de referencia y una candidata.
+ *
+ * Los textos se normalizan (minúsculas, sin tildes, sin puntuación) y se tokenizan
+ * directamente a hashes enteros, sin crear un String por token. Todos los buffers
+ * (tokens, n-gramas, fila de LCS, vectores de embedding) se reutilizan entre pares,
+ * así que una instancia no es thread-safe: se usa una por hilo.
+ *
+ * El "embedding" de la similitud coseno es un vector de hashing de tokens y
+ * trigramas de caracteres calculado en proceso, no un modelo de lenguaje.
+ */
+public final class AnswerScorer {
+
+    public enum Metric {
+        EXACT("exact"),
+        F1("f1"),
+        ROUGE_L("rougeL"),
+        BLEU("bleu"),
+        COSINE("cosine");
+
+        private final String key;
+
+        Metric(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Metric fromKey(String key) {
+            for (Metric metric : values()) {
+                if (metric.key.equalsIgnoreCase(key)) {
+                    return metric;
+                }
+            }
+            throw new IllegalArgumentException("Métrica desconocida: " + key);
+        }
+    }
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int BLEU_MAX_N = 4;
+    private static final int EMBEDDING_DIM = 512;
+
+    private final Tokens reference = new Tokens();
+    private final Tokens candidate = new Tokens();
+
+    private int[] sortedRef = new int[64];
+    private int[] sortedCand = new int[64];
+    private int[] lcsRow = new int[64];
+    private long[] refGrams = new long[64];
+    private long[] candGrams = new long[64];
+
+    /**
+     * Carga un par de textos. Hay que llamarlo antes de pedir cualquier métrica.
+     */
+    public void load(String referenceText, String candidateText, boolean withEmbedding) {
+        reference.tokenize(referenceText, withEmbedding);
+        candidate.tokenize(candidateText, withEmbedding);
+    }
+
+    public double score(Metric metric) {
+        return switch (metric) {
+            case EXACT -> exactMatch();
+            case F1 -> tokenF1();
+            case ROUGE_L -> rougeL();
+            case BLEU -> bleu();
+            case COSINE -> cosine();
+        };
+    }
+
+    /** 1 si ambos textos coinciden tras normalizar, 0 si no. */
+    public double exactMatch() {
+        return Arrays.equals(reference.ids, 0, reference.length, candidate.ids, 0, candidate.length) ? 1 : 0;
+    }
+
+    /** F1 sobre la bolsa de tokens (estilo SQuAD). */
+    public double tokenF1() {
+        int refLen = reference.length, candLen = candidate.length;
+        if (refLen == 0 || candLen == 0) {
+            return refLen == candLen ? 1 : 0;
+        }
+        sortedRef = copySorted(reference.ids, refLen, sortedRef);
+        sortedCand = copySorted(candidate.ids, candLen, sortedCand);
+
+        int common = 0;
+        for (int i = 0, j = 0; i < refLen && j < candLen;) {
+            if (sortedRef[i] == sortedCand[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (sortedRef[i] < sortedCand[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return f1(common, candLen, refLen);
+    }
+
+    /** ROUGE-L (F1 de la subsecuencia común más larga de tokens). */
+    public double rougeL() {
+        int refLen = reference.length, candLen = candidate.length;
+        if (refLen == 0 || candLen == 0) {
+            return refLen == candLen ? 1 : 0;
+        }
+        if (lcsRow.length < candLen + 1) {
+            lcsRow = new int[Math.max(candLen + 1, lcsRow.length * 2)];
+        }
+        int[] row = lcsRow;
+        Arrays.fill(row, 0, candLen + 1, 0);
+        int[] ref = reference.ids, cand = candidate.ids;
+        for (int i = 1; i <= refLen; i++) {
+            int diagonal = 0;
+            int token = ref[i - 1];
+            for (int j = 1; j <= candLen; j++) {
+                int above = row[j];
+                row[j] = token == cand[j - 1] ? diagonal + 1 : Math.max(above, row[j - 1]);
+                diagonal = above;
+            }
+        }
+        return f1(row[candLen], candLen, refLen);
+    }
+
+    /**
+     * BLEU de frase hasta 4-gramas, con suavizado +1 para n > 1 (Lin y Och)
+     * y penalización por brevedad.
+     */
+    public double bleu() {
+        int refLen = reference.length, candLen = candidate.length;
+        if (candLen == 0 || refLen == 0) {
+            return refLen == candLen ? 1 : 0;
+        }
+        double logSum = 0;
+        for (int n = 1; n <= BLEU_MAX_N; n++) {
+            int refCount = refLen - n + 1;
+            int candCount = candLen - n + 1;
+            int matches = 0;
+            if (candCount > 0 && refCount > 0) {
+                refGrams = ngrams(reference.ids, refLen, n, refGrams);
+                candGrams = ngrams(candidate.ids, candLen, n, candGrams);
+                Arrays.sort(refGrams, 0, refCount);
+                Arrays.sort(candGrams, 0, candCount);
+                matches = clippedMatches(refGrams, refCount, candGrams, candCount);
+            }
+            int total = Math.max(candCount, 0);
+            int smoothing = n > 1 ? 1 : 0;
+            if (matches + smoothing == 0) {
+                return 0;
+            }
+            logSum += Math.log((matches + smoothing) / (double) (total + smoothing));
+        }
+        double brevity = candLen >= refLen ? 1 : Math.exp(1 - refLen / (double) candLen);
+        return brevity * Math.exp(logSum / BLEU_MAX_N);
+    }
+
+    /** Similitud coseno entre los vectores de hashing (requiere cargar con embedding). */
+    public double cosine() {
+        float[] a = reference.embedding, b = candidate.embedding;
+        double dot = 0, normA = 0, normB = 0;
+        for (int i = 0; i < EMBEDDING_DIM; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0 || normB == 0) {
+            return normA == normB ? 1 : 0;
+        }
+        return Math.max(0, dot / Math.sqrt(normA * normB));
+    }
+
+    private static double f1(int common, int candLen, int refLen) {
+        if (common == 0) {
+            return 0;
+        }
+        double precision = common / (double) candLen;
+        double recall = common / (double) refLen;
+        return 2 * precision * recall / (precision + recall);
+    }
+
+    private static int[] copySorted(int[] source, int length, int[] target) {
+        int[] buffer = target.length >= length ? target : new int[Math.max(length, target.length * 2)];
+        System.arraycopy(source, 0, buffer, 0, length);
+        Arrays.sort(buffer, 0, length);
+        return buffer;
+    }
+
+    private static long[] ngrams(int[] tokens, int length, int n, long[] target) {
+        int count = length - n + 1;
+        long[] buffer = target.length >= count ? target : new long[Math.max(count, target.length * 2)];
+        for (int i = 0; i < count; i++) {
+            long h = n;
+            for (int k = 0; k < n; k++) {
+                h = h * 0x9E3779B97F4A7C15L + tokens[i + k];
+            }
+            buffer[i] = h;
+        }
+        return buffer;
+    }
+
+    private static int clippedMatches(long[] ref, int refCount, long[] cand, int candCount) {
+        int matches = 0;
+        for (int i = 0, j = 0; i < refCount && j < candCount;) {
+            if (ref[i] == cand[j]) {
+                matches++;
+                i++;
+                j++;
+            } else if (ref[i] < cand[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Normaliza un carácter: minúsculas y sin tildes ni diéresis (los datos son en español).
+     */
+    static char fold(char c) {
+        char lower = Character.toLowerCase(c);
+        return switch (lower) {
+            case 'á', 'à', 'ä', 'â' -> 'a';
+            case 'é', 'è', 'ë', 'ê' -> 'e';
+            case 'í', 'ì', 'ï', 'î' -> 'i';
+            case 'ó', 'ò', 'ö', 'ô' -> 'o';
+            case 'ú', 'ù', 'ü', 'û' -> 'u';
+            case 'ñ' -> 'n';
+            case 'ç' -> 'c';
+            default -> lower;
+        };
+    }
+
+    /**
+     * Tokens de un texto como hashes FNV-1a, más el vector de hashing opcional.
+     */
+    private static final class Tokens {
+        int[] ids = new int[64];
+        int length;
+        final float[] embedding = new float[EMBEDDING_DIM];
+
+        void tokenize(String text, boolean withEmbedding) {
+            length = 0;
+            if (withEmbedding) {
+                Arrays.fill(embedding, 0f);
+            }
+            if (text == null) {
+                return;
+            }
+            int hash = FNV_OFFSET;
+            boolean inToken = false;
+            // Ventana de trigramas de caracteres; ' ' marca el borde de palabra
+            char c1 = ' ', c2 = ' ';
+            for (int i = 0, n = text.length(); i < n; i++) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    char folded = fold(c);
+                    hash = (hash ^ folded) * FNV_PRIME;
+                    if (withEmbedding) {
+                        addFeature((c1 * 31 + c2) * 31 + folded, 1f);
+                    }
+                    c1 = c2;
+                    c2 = folded;
+                    inToken = true;
+                } else if (inToken) {
+                    endToken(hash, withEmbedding, c1, c2);
+                    hash = FNV_OFFSET;
+                    c1 = ' ';
+                    c2 = ' ';
+                    inToken = false;
+                }
+            }
+            if (inToken) {
+                endToken(hash, withEmbedding, c1, c2);
+            }
+        }
+
+        private void endToken(int hash, boolean withEmbedding, char c1, char c2) {
+            if (length == ids.length) {
+                ids = Arrays.copyOf(ids, length * 2);
+            }
+            ids[length++] = hash;
+            if (withEmbedding) {
+                addFeature((c1 * 31 + c2) * 31 + ' ', 1f);
+                addFeature(hash, 2f); // la palabra completa pesa más que sus trigramas
+            }
+        }
+
+        private void addFeature(int feature, float weight) {
+            int mixed = feature * 0x9E3779B1;
+            int slot = (mixed >>> 7) & (EMBEDDING_DIM - 1);
+            embedding[slot] += (mixed & 1) == 0 ? weight : -weight;
+        }
+    }
+}
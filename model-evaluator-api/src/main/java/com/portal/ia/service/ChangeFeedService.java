@@ -0,0 +1,556 @@
+package com.portal.ia.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.portal.ia.dto.ChangeEvent;
+import com.portal.ia.entity.ChangeLogState;
+import com.portal.ia.entity.DailyNote;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Server;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ChangeLogRepository;
+import com.portal.ia.repository.ChangeLogStateRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Feed de cambios de tareas, notas, proyectos y servidores (GET /api/changes/stream): los
+ * servicios publican cada alta, cambio y borrado tras el commit y los paneles
+ * abiertos lo reciben por SSE para parchear su estado en vez de recargar listas.
+ *
+ * Los eventos van a un log circular en memoria (ia.changes.log-size) con una
+ * versión creciente. Cada suscriptor sólo guarda por qué versión va y un hilo del
+ * pool de envío le manda lo pendiente, así que publicar nunca espera a ningún
+ * cliente. Si uno se queda tan atrás que el log ya ha sobrescrito lo que le
+ * faltaba, recibe un evento "reset" y debe recargar. Al reconectar con
+ * Last-Event-ID se sigue desde esa versión si aún está en el log.
+ *
+ * Además, un único hilo guarda cada versión en la tabla change_log, en orden y con
+ * un INSERT por lotes de JDBC, para GET /api/sync ({@link SyncService}). Las
+ * versiones se reservan por bloques en change_log_state antes de usarlas; el bloque
+ * siguiente se reserva en segundo plano antes de agotar el actual, así que publicar
+ * no espera a la BBDD (ni pide otra conexión desde afterCommit). Tras un reinicio (o una caída con versiones sin guardar) nunca se repite una que
+ * ya tenga un cliente. Si la ejecución anterior no paró con todo guardado, los
+ * tokens de antes de arrancar dejan de valer ({@link #canResumeFrom}).
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    public static final String TASK = "task";
+    public static final String NOTE = "note";
+    public static final String PROJECT = "project";
+    public static final String SERVER = "server";
+    public static final Set<String> ENTITIES = Set.of(TASK, NOTE, PROJECT, SERVER);
+
+    // Eventos por pasada de envío, para repartir los hilos entre suscriptores
+    private static final int MAX_EVENTS_PER_DRAIN = 256;
+    // Filas de change_log por transacción
+    private static final int MAX_ROWS_PER_WRITE = 1000;
+    // Versiones que se reservan de cada vez en change_log_state
+    private static final int VERSIONS_PER_RESERVATION = 1000;
+    // Con menos versiones libres que estas se reserva ya el bloque siguiente
+    private static final int RESERVE_AHEAD = VERSIONS_PER_RESERVATION / 2;
+
+    private final ChangeEvent[] events;
+    private final long firstVersion;        // la primera desde el arranque: las anteriores no están en memoria
+    private long nextVersion;               // versión del próximo evento; protegido por events
+    private long reservedUntil;             // última versión reservada en change_log_state; protegido por events
+    private long resyncBelow;               // un token anterior no tiene todo en change_log; protegido por events
+    private boolean reserving;              // hay una reserva adelantada en curso; protegido por events
+    private final long emitterTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Queue<ChangeEvent> unsaved = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger writerWip = new AtomicInteger();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService reserver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-log-reserve");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ChangeLogStateRepository stateRepository;
+
+    public ChangeFeedService(
+            ChangeLogRepository changeLogRepository,
+            ChangeLogStateRepository stateRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${ia.changes.log-size:10000}") int logSize,
+            @Value("${ia.changes.sender-threads:4}") int senderThreads,
+            @Value("${ia.changes.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stateRepository = stateRepository;
+        // Puede llamarse desde afterCommit de otra transacción: la suya propia
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        ChangeLogState previous = stateRepository.findById(ChangeLogState.ID).orElse(null);
+        Long lastSaved = changeLogRepository.findMaxSeq();
+        long lastUsed = Math.max(lastSaved == null ? 0 : lastSaved, previous == null ? 0 : previous.getReservedUntil());
+        this.firstVersion = lastUsed + 1;
+        this.nextVersion = firstVersion;
+        this.resyncBelow = previous == null ? 0 : previous.getResyncBelow();
+        if (previous == null ? lastSaved != null : !previous.isCleanShutdown()) {
+            // Pudo quedarse sin guardar cualquier versión tras la última de change_log
+            log.warn("⚠️ La ejecución anterior no guardó todo en change_log: los tokens de sync anteriores a {} recargarán todo",
+                    firstVersion);
+            this.resyncBelow = firstVersion;
+        }
+        this.reservedUntil = firstVersion - 1 + VERSIONS_PER_RESERVATION;
+        stateRepository.save(state(false));
+
+        this.events = new ChangeEvent[logSize];
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Antes de la parada ordenada del servidor web, que si no esperaría a que se cerrasen los streams
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closeStreams();
+        senders.shutdownNow();
+        // Lo pendiente de change_log se guarda antes de cerrar
+        reserver.shutdown();
+        writer.shutdown();
+        try {
+            reserver.awaitTermination(5, TimeUnit.SECONDS);
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("⚠️ Quedan {} cambios sin guardar en change_log al parar", unsaved.size());
+                return; // sin parada limpia: al arrancar, los tokens de ahora recargarán todo
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        synchronized (events) {
+            if (unsaved.isEmpty()) {
+                saveState(true);
+            }
+        }
+    }
+
+    private ChangeLogState state(boolean cleanShutdown) {
+        return new ChangeLogState(ChangeLogState.ID, reservedUntil, resyncBelow, cleanShutdown);
+    }
+
+    // Con events tomado
+    private void saveState(boolean cleanShutdown) {
+        writeState(state(cleanShutdown));
+    }
+
+    private boolean writeState(ChangeLogState state) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> stateRepository.raise(state.getId(),
+                    state.getReservedUntil(), state.getResyncBelow(), state.isCleanShutdown()));
+            return true;
+        } catch (RuntimeException e) {
+            // Sin parada limpia registrada: al arrancar se tratará como una caída
+            log.error("❌ Error guardando change_log_state (reservadas hasta {})", state.getReservedUntil(), e);
+            return false;
+        }
+    }
+
+    // En su propio hilo: quien publica no espera a la BBDD; el bloque sólo se usa una vez guardado
+    private void reserveNextBlock() {
+        try {
+            reserver.execute(() -> {
+                ChangeLogState state;
+                synchronized (events) {
+                    state = new ChangeLogState(ChangeLogState.ID, reservedUntil + VERSIONS_PER_RESERVATION,
+                            resyncBelow, false);
+                }
+                boolean saved = writeState(state);
+                synchronized (events) {
+                    if (saved) {
+                        reservedUntil = Math.max(reservedUntil, state.getReservedUntil());
+                    }
+                    reserving = false;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (events) {
+                reserving = false;
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- publicación
+
+    /** Campos de una tarea que viajan en el feed. */
+    public static Map<String, Object> fields(Task task) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", task.getTitle());
+        fields.put("description", task.getDescription());
+        fields.put("priority", task.getPriority());
+        fields.put("status", task.getStatus());
+        fields.put("startDate", task.getStartDate());
+        fields.put("dueDate", task.getDueDate());
+        fields.put("completedDate", task.getCompletedDate());
+        fields.put("assignedTo", task.getAssignedTo());
+        fields.put("projectId", task.getProjectId());
+        fields.put("sortKey", task.getSortKey());
+        fields.put("updatedAt", task.getUpdatedAt());
+        return fields;
+    }
+
+    public static Map<String, Object> fields(DailyNote note) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("date", note.getDate());
+        fields.put("content", note.getContent());
+        fields.put("updatedAt", note.getUpdatedAt());
+        return fields;
+    }
+
+    public static Map<String, Object> fields(Server server) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", server.getName());
+        fields.put("ip", server.getIp());
+        fields.put("os", server.getOs());
+        fields.put("notes", server.getNotes());
+        return fields;
+    }
+
+    public static Map<String, Object> fields(Project project) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", project.getName());
+        fields.put("description", project.getDescription());
+        fields.put("status", project.getStatus());
+        fields.put("tags", project.getTags());
+        fields.put("techStack", project.getTechStack());
+        fields.put("informacion", project.getInformacion());
+        fields.put("creationDate", project.getCreationDate());
+        return fields;
+    }
+
+    public void created(String entity, Long id, Map<String, Object> fields) {
+        publish(new ChangeEvent(0, entity, id, "created", projectId(entity, id, fields), null, fields));
+    }
+
+    /**
+     * Un cambio: viajan sólo los campos distintos de {@code before}. Sin
+     * {@code before} (no se sabe cómo estaba) viajan todos.
+     */
+    public void updated(String entity, Long id, Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> changes = after;
+        if (before != null) {
+            changes = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : after.entrySet()) {
+                if (!Objects.equals(before.get(field.getKey()), field.getValue())) {
+                    changes.put(field.getKey(), field.getValue());
+                }
+            }
+            if (changes.isEmpty()) {
+                return;
+            }
+        }
+        Long projectId = projectId(entity, id, after);
+        Long previousProjectId = before == null ? null : projectId(entity, id, before);
+        publish(new ChangeEvent(0, entity, id, "updated", projectId,
+                Objects.equals(projectId, previousProjectId) ? null : previousProjectId, changes));
+    }
+
+    public void deleted(String entity, Long id, Map<String, Object> before) {
+        publish(new ChangeEvent(0, entity, id, "deleted", projectId(entity, id, before), null, null));
+    }
+
+    private static Long projectId(String entity, Long id, Map<String, Object> fields) {
+        if (PROJECT.equals(entity)) {
+            return id;
+        }
+        return fields == null ? null : (Long) fields.get("projectId");
+    }
+
+    // Dentro de una transacción, al confirmarse; si se deshace no se publica nada
+    private void publish(ChangeEvent event) {
+        if (event.getId() == null) {
+            return; // entidad sin guardar
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(event);
+                }
+            });
+        } else {
+            append(event);
+        }
+    }
+
+    private void append(ChangeEvent event) {
+        boolean reserveAhead = false;
+        synchronized (events) {
+            if (nextVersion > reservedUntil) {
+                // La reserva adelantada no llegó a tiempo: no se puede dar una versión sin reservar
+                log.warn("⚠️ Versiones del feed agotadas antes de reservar el bloque siguiente; se reserva ahora");
+                reservedUntil += VERSIONS_PER_RESERVATION;
+                saveState(false);
+            }
+            event.setVersion(nextVersion);
+            events[(int) (nextVersion % events.length)] = event;
+            nextVersion++;
+            unsaved.add(event); // dentro del cerrojo: la cola queda en orden de versión
+            if (!reserving && reservedUntil - nextVersion < RESERVE_AHEAD) {
+                reserving = true;
+                reserveAhead = true;
+            }
+        }
+        if (reserveAhead) {
+            reserveNextBlock();
+        }
+        signalWriter();
+        subscribers.forEach(this::signal);
+    }
+
+    private void signalWriter() {
+        if (writerWip.getAndIncrement() == 0) {
+            try {
+                writer.execute(this::writeLog);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ change_log ya está parado: {} cambios sin guardar", unsaved.size());
+            }
+        }
+    }
+
+    // Un solo hilo y en orden: una versión sólo se ve en change_log con todas las anteriores
+    private void writeLog() {
+        int missed = 1;
+        do {
+            while (!unsaved.isEmpty()) {
+                List<Object[]> rows = new ArrayList<>();
+                ChangeEvent event;
+                while (rows.size() < MAX_ROWS_PER_WRITE && (event = unsaved.poll()) != null) {
+                    rows.add(new Object[] { event.getVersion(), event.getEntity(), event.getId(), LocalDateTime.now() });
+                }
+                save(rows);
+            }
+            missed = writerWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // Sin pasar por Hibernate: sólo se inserta y no hace falta contexto de persistencia
+    private void save(List<Object[]> rows) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO change_log (seq, entity, entity_id, changed_at) VALUES (?, ?, ?, ?)", rows));
+        } catch (RuntimeException e) {
+            long lastLost = (Long) rows.get(rows.size() - 1)[0];
+            log.error("❌ Error guardando {} cambios en change_log (versiones {}-{})",
+                    rows.size(), rows.get(0)[0], lastLost, e);
+            // Quien sincronizó antes de estas versiones tendrá que recargar todo, también tras reiniciar
+            synchronized (events) {
+                resyncBelow = Math.max(resyncBelow, lastLost);
+                saveState(false);
+            }
+        }
+    }
+
+    /**
+     * Si un cliente que tiene todo hasta {@code version} puede seguir con lo que hay
+     * en change_log: no es posterior a lo publicado y no le falta nada que no se
+     * llegara a guardar (en esta ejecución o en una anterior que no paró limpia).
+     */
+    public boolean canResumeFrom(long version) {
+        synchronized (events) {
+            return version >= resyncBelow && version < nextVersion;
+        }
+    }
+
+    /** Versión del último evento publicado (0 si no hay ninguno). */
+    public long currentVersion() {
+        synchronized (events) {
+            return nextVersion - 1;
+        }
+    }
+
+    // ---------------------------------------------------------------- suscripción
+
+    /**
+     * Abre un stream SSE con los cambios de {@code entities} (y, con
+     * {@code projectId}, sólo los de ese proyecto) a partir de {@code lastVersion}
+     * (nulo: sólo los nuevos).
+     */
+    public SseEmitter subscribe(Set<String> entities, Long projectId, Long lastVersion) {
+        for (String entity : entities) {
+            if (!ENTITIES.contains(entity)) {
+                throw new IllegalArgumentException("Entidad no válida: '" + entity + "' (task, note, project o server)");
+            }
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        long from;
+        boolean reset = false;
+        synchronized (events) {
+            from = lastVersion == null ? nextVersion : lastVersion + 1;
+            if (from > nextVersion) {
+                // Un Last-Event-ID por delante del log (de antes de reiniciar): esas versiones
+                // se volverán a usar y saltarlas perdería eventos, así que recarga desde aquí
+                from = nextVersion;
+                reset = true;
+            }
+        }
+        Subscriber subscriber = new Subscriber(emitter, entities.isEmpty() ? ENTITIES : Set.copyOf(entities), projectId, from);
+        subscriber.resetDue = reset;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.heartbeatDue = true; // abre el stream enseguida
+        signal(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Comentario cada tanto para que proxies y navegadores no corten la conexión
+    @Scheduled(fixedDelayString = "${ia.changes.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            signal(subscriber);
+        }
+    }
+
+    // Como mucho un envío en marcha por suscriptor; las señales que llegan mientras tanto se acumulan en wip
+    private void signal(Subscriber subscriber) {
+        if (subscriber.wip.getAndIncrement() == 0) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscribers.remove(subscriber); // pool parado: la aplicación se está cerrando
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        int missed = 1;
+        do {
+            try {
+                while (send(subscriber)) {
+                    // Se sigue hasta ponerse al día
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Suscriptor del feed de cambios desconectado: {}", e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+            missed = subscriber.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // Manda lo pendiente (hasta MAX_EVENTS_PER_DRAIN); true si aún queda más
+    private boolean send(Subscriber subscriber) throws IOException {
+        List<ChangeEvent> pending = new ArrayList<>();
+        boolean reset = false;
+        long head;
+        synchronized (events) {
+            head = nextVersion;
+            long oldest = Math.max(firstVersion, nextVersion - events.length);
+            // Demasiado atrás: el log ya ha sobrescrito lo que le faltaba
+            if (subscriber.resetDue || subscriber.nextVersion < oldest) {
+                subscriber.resetDue = false;
+                reset = true;
+                subscriber.nextVersion = head;
+            }
+            long until = Math.min(head, subscriber.nextVersion + MAX_EVENTS_PER_DRAIN);
+            for (long version = subscriber.nextVersion; version < until; version++) {
+                pending.add(events[(int) (version % events.length)]);
+            }
+        }
+
+        if (subscriber.heartbeatDue) {
+            subscriber.heartbeatDue = false;
+            subscriber.emitter.send(SseEmitter.event().comment("ping"));
+        }
+        if (reset) {
+            // Lo que le faltaba ya no está en el log: que recargue y siga desde aquí
+            subscriber.emitter.send(SseEmitter.event().name("reset").id(String.valueOf(head - 1))
+                    .data(Map.of("version", head - 1)));
+        }
+        for (ChangeEvent event : pending) {
+            if (subscriber.accepts(event)) {
+                subscriber.emitter.send(SseEmitter.event().name("change").id(String.valueOf(event.getVersion())).data(event));
+            }
+            subscriber.nextVersion = event.getVersion() + 1;
+        }
+        return !pending.isEmpty() && subscriber.nextVersion < head;
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<String> entities;
+        final Long projectId;
+        final AtomicInteger wip = new AtomicInteger();
+        volatile long nextVersion;
+        volatile boolean heartbeatDue;
+        volatile boolean resetDue;
+
+        Subscriber(SseEmitter emitter, Set<String> entities, Long projectId, long nextVersion) {
+            this.emitter = emitter;
+            this.entities = entities;
+            this.projectId = projectId;
+            this.nextVersion = nextVersion;
+        }
+
+        boolean accepts(ChangeEvent event) {
+            if (!entities.contains(event.getEntity())) {
+                return false;
+            }
+            // Con proyecto: sus tareas (también las que entran o salen de él) y el propio proyecto
+            return projectId == null
+                    || projectId.equals(event.getProjectId())
+                    || projectId.equals(event.getPreviousProjectId());
+        }
+    }
+}
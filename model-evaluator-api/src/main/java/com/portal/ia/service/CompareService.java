@@ -0,0 +1,213 @@
+package com.portal.ia.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.CompareResult;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Lanza un mismo prompt contra varios modelos a la vez y entrega cada
+ * respuesta en cuanto llega, con un plazo global para toda la comparación.
+ *
+ * Las llamadas van a un pool fijo con cola acotada (ia.compare.queue-capacity):
+ * si se llena, el modelo sale enseguida como error en vez de acumular trabajo.
+ * Cada llamada HTTP lleva como plazo lo que queda de la comparación, así que un
+ * backend colgado no retiene el hilo más allá de ese plazo aunque la
+ * interrupción no llegue a cortarla (RestTemplate no la atiende).
+ */
+@Service
+@Slf4j
+public class CompareService {
+
+    public static final String STATUS_OK = "ok";
+    public static final String STATUS_ERROR = "error";
+    public static final String STATUS_TIMEOUT = "timeout";
+
+    public static final List<String> DEFAULT_MODELS = List.of(
+            OllamaService.MODEL_MISTRAL,
+            OllamaService.MODEL_DEEPSEEK,
+            HugginFaceService.MODEL_MISTRAL,
+            OpenAIService.MODEL_OPENAI);
+
+    public interface Listener {
+        /** Se llama una vez por modelo, desde el hilo que termina (o desde el del plazo). */
+        void onResult(CompareResult result);
+
+        /** Se llama una sola vez, cuando todos los modelos han terminado o vencido. */
+        void onComplete(long elapsedMs);
+    }
+
+    private final ModelGatewayService modelGatewayService;
+    private final long defaultTimeoutMs;
+    private final long maxTimeoutMs;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor();
+
+    public CompareService(
+            ModelGatewayService modelGatewayService,
+            @Value("${ia.compare.threads:16}") int threads,
+            @Value("${ia.compare.queue-capacity:64}") int queueCapacity,
+            @Value("${ia.compare.default-timeout-ms:60000}") long defaultTimeoutMs,
+            @Value("${ia.compare.max-timeout-ms:300000}") long maxTimeoutMs) {
+        this.modelGatewayService = modelGatewayService;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "compare-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Valida los modelos pedidos (sin repetidos). Se separa de {@link #compare}
+     * para poder rechazar con 400 antes de abrir el stream.
+     */
+    public List<String> resolveModels(List<String> models) {
+        if (models == null || models.isEmpty()) {
+            return DEFAULT_MODELS;
+        }
+        Set<String> unique = new LinkedHashSet<>(models);
+        for (String model : unique) {
+            if (!modelGatewayService.supports(model)) {
+                throw new IllegalArgumentException("Modelo desconocido: " + model);
+            }
+        }
+        return new ArrayList<>(unique);
+    }
+
+    public long resolveTimeout(Long timeoutMs) {
+        if (timeoutMs == null) {
+            return defaultTimeoutMs;
+        }
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("El plazo debe ser positivo");
+        }
+        return Math.min(timeoutMs, maxTimeoutMs);
+    }
+
+    public void compare(String prompt, List<String> models, long timeoutMs, Listener listener) {
+        if (prompt == null || prompt.isBlank()) {
+            throw new IllegalArgumentException("El prompt es obligatorio");
+        }
+        Comparison comparison = new Comparison(models.size(), timeoutMs, listener);
+        log.info("⚖️ Comparando {} modelos (plazo {} ms)", models.size(), timeoutMs);
+
+        for (String model : models) {
+            try {
+                comparison.pending.put(model, executor.submit(() -> run(comparison, model, prompt)));
+            } catch (RejectedExecutionException e) {
+                comparison.deliver(new CompareResult(model, STATUS_ERROR, null, "Comparador saturado", 0));
+            }
+        }
+        // Si todos terminan antes, deliver() cancela esta tarea
+        comparison.deadline = deadlines.schedule(() -> comparison.expire(models), timeoutMs, TimeUnit.MILLISECONDS);
+        if (comparison.isFinished()) {
+            comparison.deadline.cancel(false);
+        }
+    }
+
+    private void run(Comparison comparison, String model, String prompt) {
+        long start = System.nanoTime();
+        long remaining = comparison.deadlineNanos - start;
+        if (remaining <= 0) {
+            return; // esperó en la cola más que el plazo: ya se entregó como timeout
+        }
+        CompareResult result;
+        try {
+            String respuesta = modelGatewayService.invoke(model, prompt, Duration.ofNanos(remaining));
+            result = new CompareResult(model, STATUS_OK, respuesta, null, elapsedMs(start));
+        } catch (Exception e) {
+            result = new CompareResult(model, STATUS_ERROR, null, e.getMessage(), elapsedMs(start));
+        }
+        comparison.deliver(result);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        deadlines.shutdownNow();
+    }
+
+    /**
+     * Estado de una comparación: cada modelo se entrega exactamente una vez,
+     * gane quien gane la carrera entre su respuesta y el plazo.
+     */
+    private static final class Comparison {
+        final long start = System.nanoTime();
+        final long deadlineNanos;
+        final Map<String, Future<?>> pending = new ConcurrentHashMap<>();
+        final Set<String> delivered = ConcurrentHashMap.newKeySet();
+        final AtomicInteger remaining;
+        final Listener listener;
+        volatile ScheduledFuture<?> deadline;
+
+        Comparison(int models, long timeoutMs, Listener listener) {
+            this.deadlineNanos = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            this.remaining = new AtomicInteger(models);
+            this.listener = listener;
+        }
+
+        boolean isFinished() {
+            return remaining.get() == 0;
+        }
+
+        void deliver(CompareResult result) {
+            if (!delivered.add(result.getModel())) {
+                return;
+            }
+            listener.onResult(result);
+            if (remaining.decrementAndGet() == 0) {
+                ScheduledFuture<?> scheduled = deadline;
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+                listener.onComplete(elapsedMs(start));
+            }
+        }
+
+        void expire(List<String> models) {
+            long elapsed = elapsedMs(start);
+            for (String model : models) {
+                if (!delivered.contains(model)) {
+                    deliver(new CompareResult(model, STATUS_TIMEOUT, null, "Plazo agotado", elapsed));
+                    // Corta la espera de plaza GPU y las llamadas con java.net.http; las de
+                    // RestTemplate terminan por su plazo de lectura, que es este mismo
+                    Future<?> future = pending.get(model);
+                    if (future != null) {
+                        future.cancel(true);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -17,9 +17,11 @@ import org.springframework.dao.DataIntegrityViolationException;
 public class DailyNoteService {
 
     private final DailyNoteRepository dailyNoteRepository;
+    private final ChangeFeedService changeFeed;
 
-    public DailyNoteService(DailyNoteRepository dailyNoteRepository) {
+    public DailyNoteService(DailyNoteRepository dailyNoteRepository, ChangeFeedService changeFeed) {
         this.dailyNoteRepository = dailyNoteRepository;
+        this.changeFeed = changeFeed;
     }
 
     public List<DailyNote> getAll() {
@@ -78,11 +80,20 @@ public class DailyNoteService {
             throw new IllegalArgumentException("El contenido debe tener al menos 3 caracteres");
         }
 
+        boolean isNew = dailyNote.getId() == null;
+        DailyNote saved;
         try {
-            return dailyNoteRepository.save(dailyNote);
+            saved = dailyNoteRepository.save(dailyNote);
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Ya existe una nota para la fecha " + dailyNote.getDate());
         }
+        // Sin el estado anterior, un cambio manda todos los campos
+        if (isNew) {
+            changeFeed.created(ChangeFeedService.NOTE, saved.getId(), ChangeFeedService.fields(saved));
+        } else {
+            changeFeed.updated(ChangeFeedService.NOTE, saved.getId(), null, ChangeFeedService.fields(saved));
+        }
+        return saved;
     }
 
     public DailyNote create(DailyNote dailyNote) {
@@ -107,6 +118,7 @@ public class DailyNoteService {
             Optional<DailyNote> existingNote = dailyNoteRepository.findByDate(date);
             if (existingNote.isPresent()) {
                 dailyNoteRepository.delete(existingNote.get());
+                changeFeed.deleted(ChangeFeedService.NOTE, existingNote.get().getId(), null);
             }
             return null; // Nota eliminada
         }
@@ -171,12 +183,14 @@ public class DailyNoteService {
             throw new EntityNotFoundException("Nota diaria con ID " + id + " no encontrada.");
         }
         dailyNoteRepository.deleteById(id);
+        changeFeed.deleted(ChangeFeedService.NOTE, id, null);
     }
 
     public boolean deleteByDate(LocalDate date) {
         Optional<DailyNote> optionalNote = dailyNoteRepository.findByDate(date);
         if (optionalNote.isPresent()) {
             dailyNoteRepository.delete(optionalNote.get());
+            changeFeed.deleted(ChangeFeedService.NOTE, optionalNote.get().getId(), null);
             return true;
         }
         return false;
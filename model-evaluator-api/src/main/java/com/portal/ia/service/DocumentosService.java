@@ -1,14 +1,18 @@
 package com.portal.ia.service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -16,17 +20,29 @@ import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portal.ia.jfr.DocumentUploadEvent;
+import com.portal.ia.jfr.IndexBuildEvent;
 
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class DocumentosService {
 
-    private static final String FLASK_BASE_URL = "http://10.0.3.172:5000";
+    public static final String MODEL_DOCUMENTOS = "documentos-rag";
+
+    @Value("${ia.backend.url:http://10.0.3.172:5000}")
+    private String flaskBaseUrl;
 
     private final RestTemplate restTemplate = new RestTemplate();
 
+    private final LlmTimelineService llmTimelineService;
+    private final TokenUsageService tokenUsageService;
+    private final LatencyService latencyService;
+    private final ObservationRegistry observationRegistry;
+
     {
         restTemplate.setErrorHandler(new ResponseErrorHandler() {
             @Override
@@ -39,45 +55,133 @@ public class DocumentosService {
                 // No hacer nada
             }
         });
+        // Latencia de cada llamada a Flask, por ruta (subir, crear índice, preguntar...)
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            long sentAt = System.nanoTime();
+            try {
+                return execution.execute(request, body);
+            } finally {
+                recordLatency(request.getURI().getPath(), System.nanoTime() - sentAt);
+            }
+        });
+    }
+
+    @PostConstruct
+    void initTracing() {
+        // Span de cliente por llamada a Flask y propagación de traceparent
+        restTemplate.setObservationRegistry(observationRegistry);
+    }
+
+    private void recordLatency(String path, long nanos) {
+        latencyService.recordNanos(LatencyService.KIND_BACKEND, "flask", path, nanos);
     }
 
     public ResponseEntity<String> subirDocumento(LinkedMultiValueMap<String, Object> files) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
         HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(files, headers);
-        return restTemplate.postForEntity(FLASK_BASE_URL + "/subir_documentos", entity, String.class);
+
+        DocumentUploadEvent event = new DocumentUploadEvent();
+        event.begin();
+        ResponseEntity<String> response = null;
+        try {
+            response = restTemplate.postForEntity(flaskBaseUrl + "/subir_documentos", entity, String.class);
+            return response;
+        } finally {
+            if (event.shouldCommit()) {
+                files.values().forEach(parts -> parts.forEach(part -> {
+                    event.files++;
+                    event.bytes += sizeOf(part);
+                }));
+                event.status = response != null ? response.getStatusCode().value() : -1;
+                event.commit();
+            }
+        }
     }
 
     public ResponseEntity<String> crearIndice() {
-        return restTemplate.postForEntity(FLASK_BASE_URL + "/crear_indice", null, String.class);
+        IndexBuildEvent event = new IndexBuildEvent();
+        event.begin();
+        ResponseEntity<String> response = null;
+        try {
+            response = restTemplate.postForEntity(flaskBaseUrl + "/crear_indice", null, String.class);
+            return response;
+        } finally {
+            if (event.shouldCommit()) {
+                event.status = response != null ? response.getStatusCode().value() : -1;
+                event.commit();
+            }
+        }
+    }
+
+    private static long sizeOf(Object part) {
+        if (part instanceof Resource resource) {
+            try {
+                return resource.contentLength();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+        return 0;
     }
 
     public ResponseEntity<String> estadoIndice() {
-        return restTemplate.getForEntity(FLASK_BASE_URL + "/estado_indice", String.class);
+        return restTemplate.getForEntity(flaskBaseUrl + "/estado_indice", String.class);
     }
 
     public ResponseEntity<String> limpiarDocumentos() {
-        return restTemplate.postForEntity(FLASK_BASE_URL + "/limpiar_documentos", null, String.class);
+        return restTemplate.postForEntity(flaskBaseUrl + "/limpiar_documentos", null, String.class);
     }
 
     public ResponseEntity<String> preguntar(String question) {
-        return postPregunta("/preguntar_documentos", question);
+        return postPregunta("/preguntar_documentos", question, null);
     }
 
     public ResponseEntity<String> preguntarSimple(String question) {
-        return postPregunta("/preguntar_documentos_simple", question);
+        return postPregunta("/preguntar_documentos_simple", question, null);
     }
 
-    
-    private ResponseEntity<String> postPregunta(String endpoint, String question) {
+    /** Con {@code timeout}, conexión y lectura se cortan pasado ese plazo. */
+    public ResponseEntity<String> preguntarSimple(String question, Duration timeout) {
+        return postPregunta("/preguntar_documentos_simple", question, timeout);
+    }
+
+    // El plazo va en la fábrica de peticiones: con plazo se usa una copia del RestTemplate con la suya
+    private RestTemplate restTemplate(Duration timeout) {
+        if (timeout == null) {
+            return restTemplate;
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        RestTemplate timed = new RestTemplate(requestFactory);
+        timed.setErrorHandler(restTemplate.getErrorHandler());
+        timed.setInterceptors(restTemplate.getInterceptors());
+        timed.setObservationRegistry(observationRegistry);
+        return timed;
+    }
+
+    private ResponseEntity<String> postPregunta(String endpoint, String question, Duration timeout) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         Map<String, String> body = Map.of("question", question);
         HttpEntity<Map<String, String>> entity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<String> response = restTemplate.postForEntity(
-            FLASK_BASE_URL + endpoint, entity, String.class
-        );
+        long startedAt = llmTimelineService.begin();
+        ResponseEntity<String> response = null;
+        try {
+            response = restTemplate(timeout).postForEntity(
+                flaskBaseUrl + endpoint, entity, String.class
+            );
+        } finally {
+            String respuesta = response != null ? response.getBody() : null;
+            boolean ok = response != null && response.getStatusCode().is2xxSuccessful();
+            llmTimelineService.record(MODEL_DOCUMENTOS, startedAt,
+                    question != null ? question.length() : 0,
+                    respuesta != null ? respuesta.length() : 0, ok);
+            tokenUsageService.recordCall(MODEL_DOCUMENTOS, question, respuesta, null, null,
+                    System.currentTimeMillis() - startedAt, ok);
+        }
 
         return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
     }
@@ -89,13 +193,13 @@ public class DocumentosService {
         HttpEntity<Map<String, String>> entity = new HttpEntity<>(body, headers);
 
         return restTemplate.postForEntity(
-            FLASK_BASE_URL + "/eliminar_documento",
+            flaskBaseUrl + "/eliminar_documento",
             entity,
             String.class
         );
     }
     public ResponseEntity<List<String>> listarDocumentos() {
-        String url = FLASK_BASE_URL + "/listar_documentos";
+        String url = flaskBaseUrl + "/listar_documentos";
         ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
 
         if (response.getStatusCode().is2xxSuccessful()) {
@@ -0,0 +1,197 @@
+package com.portal.ia.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 🔹 Lector en streaming de datasets de evaluación (CSV o JSONL).
+ *
+ * Recorre el fichero fila a fila sin cargarlo entero en memoria. Cada fila debe
+ * tener un prompt (columna/campo "prompt", "question" o "pregunta") y puede
+ * tener una respuesta esperada ("expected", "expected_answer" o "respuesta_esperada").
+ */
+public final class EvalDatasetReader {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSONL = "jsonl";
+
+    private static final List<String> PROMPT_FIELDS = List.of("prompt", "question", "pregunta");
+    private static final List<String> EXPECTED_FIELDS = List.of("expected", "expected_answer", "respuesta_esperada");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EvalDatasetReader() {
+    }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(long index, String prompt, String expected);
+    }
+
+    /**
+     * Deduce el formato a partir del nombre del fichero.
+     */
+    public static String formatOf(String filename) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return FORMAT_CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return FORMAT_JSONL;
+        }
+        throw new IllegalArgumentException("Formato de dataset no soportado: " + filename + " (usa .csv o .jsonl)");
+    }
+
+    /**
+     * Lee el dataset y llama a {@code handler} por cada fila válida.
+     *
+     * @return número total de filas leídas
+     */
+    public static long read(Path path, String format, RowHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return FORMAT_CSV.equals(format) ? readCsv(reader, handler) : readJsonl(reader, handler);
+        }
+    }
+
+    private static long readJsonl(BufferedReader reader, RowHandler handler) throws IOException {
+        long index = 0;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode json;
+            try {
+                json = objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("JSON no válido en la línea " + lineNumber);
+            }
+            String prompt = firstText(json, PROMPT_FIELDS);
+            if (prompt == null || prompt.isBlank()) {
+                throw new IllegalArgumentException("Falta el prompt en la línea " + lineNumber);
+            }
+            handler.handle(index++, prompt, firstText(json, EXPECTED_FIELDS));
+        }
+        return index;
+    }
+
+    private static String firstText(JsonNode json, List<String> fields) {
+        for (String field : fields) {
+            JsonNode value = json.get(field);
+            if (value != null && !value.isNull()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    private static long readCsv(BufferedReader reader, RowHandler handler) throws IOException {
+        CsvRecords records = new CsvRecords(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            return 0;
+        }
+        int promptColumn = columnOf(header, PROMPT_FIELDS);
+        int expectedColumn = columnOf(header, EXPECTED_FIELDS);
+        if (promptColumn < 0) {
+            throw new IllegalArgumentException("El CSV necesita una columna 'prompt' (o 'question'/'pregunta')");
+        }
+
+        long index = 0;
+        List<String> record;
+        while ((record = records.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            String prompt = promptColumn < record.size() ? record.get(promptColumn) : null;
+            if (prompt == null || prompt.isBlank()) {
+                throw new IllegalArgumentException("Falta el prompt en la fila " + (index + 2));
+            }
+            String expected = expectedColumn >= 0 && expectedColumn < record.size() ? record.get(expectedColumn) : null;
+            handler.handle(index++, prompt, expected);
+        }
+        return index;
+    }
+
+    private static int columnOf(List<String> header, List<String> names) {
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT); // BOM de Excel
+            if (names.contains(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parser CSV mínimo (RFC 4180): comillas dobles, comillas escapadas ("")
+     * y saltos de línea dentro de campos entrecomillados.
+     */
+    private static final class CsvRecords {
+        private final Reader reader;
+        private final StringBuilder field = new StringBuilder();
+        private boolean eof;
+
+        CsvRecords(Reader reader) {
+            this.reader = reader;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> record = new ArrayList<>();
+            boolean quoted = false;
+            boolean any = false;
+            field.setLength(0);
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int n = reader.read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (n != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    record.add(field.toString());
+                    return record;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            record.add(field.toString());
+            return record;
+        }
+    }
+}
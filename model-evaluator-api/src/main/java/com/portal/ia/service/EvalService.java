@@ -0,0 +1,427 @@
+package com.portal.ia.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.portal.ia.entity.EvalItem;
+import com.portal.ia.entity.EvalResult;
+import com.portal.ia.entity.EvalRun;
+import com.portal.ia.repository.EvalItemRepository;
+import com.portal.ia.repository.EvalResultRepository;
+import com.portal.ia.repository.EvalRunRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Motor de evaluación por lotes: ejecuta un dataset de prompts contra varios
+ * modelos en segundo plano.
+ *
+ * - El dataset se guarda en disco y se vuelca a BBDD por lotes, sin tenerlo entero en memoria.
+ * - Cada modelo se recorre por tramos de item_index con un límite de llamadas concurrentes
+ *   por modelo, compartido entre todas las ejecuciones.
+ * - Cada resultado se persiste en cuanto llega, con clave (run, item, modelo), así que
+ *   una ejecución interrumpida se reanuda saltándose lo ya evaluado.
+ */
+@Service
+@Slf4j
+public class EvalService {
+
+    public static final String STATUS_PENDIENTE = "pendiente";
+    public static final String STATUS_CARGANDO = "cargando";
+    public static final String STATUS_EN_PROGRESO = "en_progreso";
+    public static final String STATUS_COMPLETADA = "completada";
+    public static final String STATUS_CANCELADA = "cancelada";
+    public static final String STATUS_ERROR = "error";
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final EvalRunRepository evalRunRepository;
+    private final EvalItemRepository evalItemRepository;
+    private final EvalResultRepository evalResultRepository;
+    private final ModelGatewayService modelGatewayService;
+
+    private final Path dataDir;
+    private final int parallelismPerModel;
+    private final int pageSize;
+    private final int ingestBatchSize;
+    private final boolean resumeOnStartup;
+
+    // Un hilo "conductor" por ejecución y por (ejecución, modelo); las llamadas van al pool de trabajo
+    private final ExecutorService drivers = Executors.newCachedThreadPool();
+    private final ExecutorService workers;
+
+    private final Map<String, Semaphore> modelPermits = new ConcurrentHashMap<>();
+    private final Set<Long> activeRuns = ConcurrentHashMap.newKeySet();
+    private final Set<Long> cancelledRuns = ConcurrentHashMap.newKeySet();
+    // Serializa cancel() con los cambios de estado de la ejecución, para que no pisen "cancelada"
+    private final Object statusLock = new Object();
+
+    public EvalService(
+            EvalRunRepository evalRunRepository,
+            EvalItemRepository evalItemRepository,
+            EvalResultRepository evalResultRepository,
+            ModelGatewayService modelGatewayService,
+            @Value("${ia.eval.data-dir:eval-data}") String dataDir,
+            @Value("${ia.eval.parallelism-per-model:2}") int parallelismPerModel,
+            @Value("${ia.eval.threads:16}") int threads,
+            @Value("${ia.eval.page-size:200}") int pageSize,
+            @Value("${ia.eval.ingest-batch-size:500}") int ingestBatchSize,
+            @Value("${ia.eval.resume-on-startup:true}") boolean resumeOnStartup) {
+        this.evalRunRepository = evalRunRepository;
+        this.evalItemRepository = evalItemRepository;
+        this.evalResultRepository = evalResultRepository;
+        this.modelGatewayService = modelGatewayService;
+        this.dataDir = Paths.get(dataDir);
+        this.parallelismPerModel = parallelismPerModel;
+        this.pageSize = pageSize;
+        this.ingestBatchSize = ingestBatchSize;
+        this.resumeOnStartup = resumeOnStartup;
+        this.workers = Executors.newFixedThreadPool(threads);
+    }
+
+    public Page<EvalRun> getRuns(Pageable pageable) {
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id").descending());
+        return evalRunRepository.findAll(sorted);
+    }
+
+    public Optional<EvalRun> getById(Long id) {
+        return evalRunRepository.findById(id);
+    }
+
+    public Page<EvalResult> getResults(Long runId, String model, Pageable pageable) {
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by("itemIndex").ascending().and(Sort.by("model")));
+        return evalResultRepository.findByFilters(runId, model, sorted);
+    }
+
+    public EvalRun createRun(String name, List<String> models, MultipartFile dataset) throws IOException {
+        if (models == null || models.isEmpty()) {
+            throw new IllegalArgumentException("Hay que indicar al menos un modelo");
+        }
+        for (String model : models) {
+            if (!modelGatewayService.supports(model)) {
+                throw new IllegalArgumentException("Modelo desconocido: " + model);
+            }
+        }
+        if (dataset == null || dataset.isEmpty()) {
+            throw new IllegalArgumentException("El dataset está vacío");
+        }
+        String format = EvalDatasetReader.formatOf(dataset.getOriginalFilename());
+
+        // Se copia a disco tal cual (en streaming) para poder reanudar la carga tras un reinicio
+        Files.createDirectories(dataDir);
+        Path path = dataDir.resolve("run-" + UUID.randomUUID() + "." + format).toAbsolutePath();
+        dataset.transferTo(path);
+
+        EvalRun run = new EvalRun();
+        run.setName(name != null && !name.isBlank() ? name.trim() : dataset.getOriginalFilename());
+        run.setModels(String.join(",", models));
+        run.setStatus(STATUS_PENDIENTE);
+        run.setDatasetFormat(format);
+        run.setDatasetPath(path.toString());
+        EvalRun saved = evalRunRepository.save(run);
+
+        start(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Arranca (o reanuda) una ejecución en segundo plano. Devuelve false si ya
+     * estaba activa.
+     *
+     * @throws IllegalStateException si se canceló y aún está terminando lo que tenía en curso
+     */
+    public boolean start(Long runId) {
+        EvalRun run = evalRunRepository.findById(runId)
+                .orElseThrow(() -> new EntityNotFoundException("Evaluación con ID " + runId + " no encontrada."));
+        if (STATUS_COMPLETADA.equals(run.getStatus())) {
+            throw new IllegalArgumentException("La evaluación " + runId + " ya está completada");
+        }
+        if (!activeRuns.add(runId)) {
+            // Sus hilos ya han visto la cancelación y van a parar: reanudarla ahora no haría nada
+            if (cancelledRuns.contains(runId)) {
+                throw new IllegalStateException("La evaluación " + runId + " se está deteniendo; reanúdala cuando termine");
+            }
+            return false;
+        }
+        cancelledRuns.remove(runId);
+        drivers.execute(() -> execute(runId));
+        return true;
+    }
+
+    public void cancel(Long runId) {
+        EvalRun run = evalRunRepository.findById(runId)
+                .orElseThrow(() -> new EntityNotFoundException("Evaluación con ID " + runId + " no encontrada."));
+        synchronized (statusLock) {
+            cancelledRuns.add(runId);
+            if (!STATUS_COMPLETADA.equals(run.getStatus())) {
+                updateStatus(runId, STATUS_CANCELADA, null);
+            }
+        }
+    }
+
+    public Map<String, Object> getProgress(Long runId) {
+        EvalRun run = evalRunRepository.findById(runId)
+                .orElseThrow(() -> new EntityNotFoundException("Evaluación con ID " + runId + " no encontrada."));
+
+        Map<String, Map<String, Object>> porModelo = new LinkedHashMap<>();
+        for (String model : modelsOf(run)) {
+            porModelo.put(model, modelProgress(run, 0, 0, null));
+        }
+        for (Object[] row : evalResultRepository.summarizeByModel(runId)) {
+            String model = (String) row[0];
+            long completed = ((Number) row[1]).longValue();
+            long failed = row[2] != null ? ((Number) row[2]).longValue() : 0;
+            Double avgLatency = row[3] != null ? ((Number) row[3]).doubleValue() : null;
+            porModelo.put(model, modelProgress(run, completed, failed, avgLatency));
+        }
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("run", run);
+        progress.put("activa", activeRuns.contains(runId));
+        progress.put("por_modelo", porModelo);
+        return progress;
+    }
+
+    private static Map<String, Object> modelProgress(EvalRun run, long completed, long failed, Double avgLatency) {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("completados", completed);
+        progress.put("fallidos", failed);
+        progress.put("latencia_media_ms", avgLatency);
+        Long total = run.getTotalItems();
+        progress.put("porcentaje", total != null && total > 0 ? completed * 100.0 / total : 0.0);
+        return progress;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        for (EvalRun run : evalRunRepository.findByStatusIn(
+                List.of(STATUS_PENDIENTE, STATUS_CARGANDO, STATUS_EN_PROGRESO))) {
+            log.info("🔁 Reanudando evaluación {} ({})", run.getId(), run.getName());
+            start(run.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Las ejecuciones interrumpidas quedan "en_progreso" y se reanudan al arrancar
+        drivers.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void execute(Long runId) {
+        try {
+            EvalRun run = evalRunRepository.findById(runId).orElseThrow();
+            ingest(run);
+            if (cancelledRuns.contains(runId)) {
+                return;
+            }
+
+            List<Future<?>> perModel = new ArrayList<>();
+            for (String model : modelsOf(run)) {
+                perModel.add(drivers.submit(() -> {
+                    evaluateModel(runId, model);
+                    return null;
+                }));
+            }
+            for (Future<?> future : perModel) {
+                future.get();
+            }
+
+            if (updateStatusUnlessCancelled(runId, STATUS_COMPLETADA)) {
+                log.info("✅ Evaluación {} completada", runId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("❌ Error en la evaluación {}: {}", runId, e.getMessage(), e);
+            updateStatus(runId, STATUS_ERROR, e.getMessage());
+        } finally {
+            activeRuns.remove(runId);
+        }
+    }
+
+    /**
+     * Vuelca el dataset a eval_item por lotes. Si la carga se interrumpió, continúa
+     * a partir del último item guardado.
+     */
+    private void ingest(EvalRun run) throws IOException {
+        if (run.getTotalItems() != null) {
+            updateStatusUnlessCancelled(run.getId(), STATUS_EN_PROGRESO);
+            return;
+        }
+        if (!updateStatusUnlessCancelled(run.getId(), STATUS_CARGANDO)) {
+            return;
+        }
+
+        Long maxIndex = evalItemRepository.findMaxItemIndex(run.getId());
+        long resumeAfter = maxIndex != null ? maxIndex : -1;
+        List<EvalItem> batch = new ArrayList<>(ingestBatchSize);
+
+        long total = EvalDatasetReader.read(Paths.get(run.getDatasetPath()), run.getDatasetFormat(),
+                (index, prompt, expected) -> {
+                    if (index <= resumeAfter) {
+                        return;
+                    }
+                    EvalItem item = new EvalItem();
+                    item.setRunId(run.getId());
+                    item.setItemIndex(index);
+                    item.setPrompt(prompt);
+                    item.setExpected(expected);
+                    batch.add(item);
+                    if (batch.size() >= ingestBatchSize) {
+                        evalItemRepository.saveAll(batch);
+                        batch.clear();
+                    }
+                });
+        if (!batch.isEmpty()) {
+            evalItemRepository.saveAll(batch);
+        }
+
+        synchronized (statusLock) {
+            EvalRun loaded = evalRunRepository.findById(run.getId()).orElseThrow();
+            loaded.setTotalItems(total);
+            if (!cancelledRuns.contains(run.getId())) {
+                loaded.setStatus(STATUS_EN_PROGRESO);
+            }
+            evalRunRepository.save(loaded);
+        }
+        log.info("📥 Evaluación {}: {} items cargados", run.getId(), total);
+    }
+
+    private void evaluateModel(Long runId, String model) throws InterruptedException {
+        Semaphore permits = modelPermits.computeIfAbsent(model, k -> new Semaphore(parallelismPerModel));
+        Phaser inFlight = new Phaser(1);
+        long after = -1;
+
+        try {
+            while (!cancelledRuns.contains(runId)) {
+                List<EvalItem> page = evalItemRepository.findNextItems(runId, after, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                long first = page.get(0).getItemIndex();
+                long last = page.get(page.size() - 1).getItemIndex();
+                Set<Long> done = new HashSet<>(evalResultRepository.findDoneItemIndexes(runId, model, first, last));
+
+                for (EvalItem item : page) {
+                    if (done.contains(item.getItemIndex())) {
+                        continue;
+                    }
+                    permits.acquire();
+                    if (cancelledRuns.contains(runId)) {
+                        permits.release();
+                        break;
+                    }
+                    inFlight.register();
+                    workers.execute(() -> {
+                        try {
+                            evaluateItem(runId, model, item);
+                        } finally {
+                            permits.release();
+                            inFlight.arriveAndDeregister();
+                        }
+                    });
+                }
+                after = last;
+            }
+        } finally {
+            inFlight.arriveAndAwaitAdvance();
+        }
+    }
+
+    private void evaluateItem(Long runId, String model, EvalItem item) {
+        EvalResult result = new EvalResult();
+        result.setRunId(runId);
+        result.setItemIndex(item.getItemIndex());
+        result.setModel(model);
+
+        long start = System.nanoTime();
+        try {
+            result.setAnswer(modelGatewayService.invoke(model, item.getPrompt()));
+            result.setSuccess(true);
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.setErrorMessage(truncate(e.getMessage()));
+        }
+        result.setLatencyMs((System.nanoTime() - start) / 1_000_000);
+
+        try {
+            evalResultRepository.save(result);
+        } catch (DataIntegrityViolationException e) {
+            // Ya existía (reanudación concurrente): el resultado guardado antes es válido
+            log.debug("Resultado duplicado ignorado: run={} item={} model={}", runId, item.getItemIndex(), model);
+        }
+    }
+
+    /**
+     * Cambia el estado salvo que la ejecución se haya cancelado. Devuelve false si
+     * estaba cancelada y no se ha escrito nada.
+     */
+    private boolean updateStatusUnlessCancelled(Long runId, String status) {
+        synchronized (statusLock) {
+            if (cancelledRuns.contains(runId)) {
+                return false;
+            }
+            updateStatus(runId, status, null);
+            return true;
+        }
+    }
+
+    private void updateStatus(Long runId, String status, String errorMessage) {
+        evalRunRepository.findById(runId).ifPresent(run -> {
+            run.setStatus(status);
+            run.setErrorMessage(truncate(errorMessage));
+            evalRunRepository.save(run);
+        });
+    }
+
+    private static List<String> modelsOf(EvalRun run) {
+        List<String> models = new ArrayList<>();
+        for (String model : run.getModels().split(",")) {
+            if (!model.isBlank()) {
+                models.add(model.trim());
+            }
+        }
+        return models;
+    }
+
+    private static String truncate(String text) {
+        if (text == null) {
+            return null;
+        }
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+    }
+}
@@ -0,0 +1,12 @@
+package com.portal.ia.service;
+
+/**
+ * No hay ningún nodo GPU con capacidad para atender la petición dentro del
+ * tiempo de espera configurado (o la cola de espera está llena).
+ */
+public class GpuCapacityException extends RuntimeException {
+
+    public GpuCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,378 @@
+package com.portal.ia.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Enrutado de peticiones de inferencia entre nodos GPU con control de admisión.
+ *
+ * Las métricas de cada nodo se refrescan en segundo plano desde
+ * {@link MetricaGpusService}; en el camino de la petición sólo se leen los datos
+ * ya cacheados. El refresco tiene su propio hilo y consulta los nodos en paralelo,
+ * así que un nodo que no responde no retrasa a los demás ni ocupa el planificador
+ * compartido de Spring. La elección usa "power of two choices": se toman dos nodos al azar
+ * entre los admisibles y se queda el de menor carga, así que mientras alguno de
+ * los dos tenga plaza cuesta lo mismo sea cual sea el número de nodos. Si los dos
+ * están llenos se recorre el resto (O(n), con n el número de nodos, que es
+ * pequeño) antes de hacer esperar a la petición. Si todos los nodos superan la
+ * marca de memoria (o su límite de peticiones en curso), la petición espera en
+ * cola en vez de provocar un OOM en el servidor del modelo; al liberarse una
+ * plaza se despierta sólo a una de las que esperan.
+ */
+@Service
+@Slf4j
+public class GpuRouterService {
+
+    private static final int IN_FLIGHT_PENALTY = 15;
+    private static final int UNKNOWN_METRICS_SCORE = 100; // nodo sin métricas: ni preferido ni descartado
+
+    private final MetricaGpusService metricaGpusService;
+    private final BackendNode[] nodes;
+    private final double memoryWatermarkPct;
+    private final int maxInFlightPerNode;
+    private final int maxQueued;
+    private final long queueTimeoutMs;
+    private final long refreshMs;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gpu-router-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService pollers;
+
+    private volatile BackendNode[] eligible;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacity = lock.newCondition();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * @param nodes lista separada por comas de "urlBackend;urlMetricas"
+     */
+    public GpuRouterService(
+            MetricaGpusService metricaGpusService,
+            @Value("${ia.router.nodes}") List<String> nodes,
+            @Value("${ia.router.memory-watermark-pct:95}") double memoryWatermarkPct,
+            @Value("${ia.router.max-in-flight-per-node:8}") int maxInFlightPerNode,
+            @Value("${ia.router.max-queued:200}") int maxQueued,
+            @Value("${ia.router.queue-timeout-ms:30000}") long queueTimeoutMs,
+            @Value("${ia.router.refresh-ms:2000}") long refreshMs) {
+        this.metricaGpusService = metricaGpusService;
+        this.memoryWatermarkPct = memoryWatermarkPct;
+        this.maxInFlightPerNode = maxInFlightPerNode;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.refreshMs = refreshMs;
+
+        List<BackendNode> parsed = new ArrayList<>();
+        for (String node : nodes) {
+            String[] parts = node.trim().split(";");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Nodo mal configurado en ia.router.nodes: " + node);
+            }
+            parsed.add(new BackendNode(parts[0].trim(), parts[1].trim()));
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("ia.router.nodes debe contener al menos un nodo");
+        }
+        this.nodes = parsed.toArray(new BackendNode[0]);
+        // Hasta la primera lectura de métricas todos los nodos son admisibles
+        this.eligible = this.nodes;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pollers = Executors.newFixedThreadPool(Math.min(this.nodes.length, 8), runnable -> {
+            Thread thread = new Thread(runnable, "gpu-router-poll-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void startRefresh() {
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.error("[GpuRouter] Error refrescando las métricas de los nodos", e);
+            }
+        }, 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+        pollers.shutdownNow();
+    }
+
+    /**
+     * Reserva un nodo para una petición. Hay que cerrar el {@link NodeLease}
+     * al terminar (try-with-resources).
+     *
+     * @throws GpuCapacityException si no hay capacidad y la cola está llena o vence la espera
+     */
+    public NodeLease acquire() {
+        BackendNode node = tryChoose();
+        if (node != null) {
+            return new NodeLease(node);
+        }
+        return new NodeLease(awaitNode());
+    }
+
+    /**
+     * Como {@link #acquire()}, pero sin esperar: para tráfico que se puede
+     * descartar (sombra). Si hay peticiones en cola, las plazas que se liberen son
+     * suyas.
+     *
+     * @throws GpuCapacityException si ahora mismo no hay ninguna plaza libre
+     */
+    public NodeLease tryAcquire() {
+        BackendNode node = queued.get() > 0 ? null : tryChoose();
+        if (node == null) {
+            throw new GpuCapacityException("Sin capacidad GPU libre");
+        }
+        return new NodeLease(node);
+    }
+
+    private BackendNode tryChoose() {
+        BackendNode[] candidates = eligible;
+        int n = candidates.length;
+        if (n == 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(n);
+        // Segundo nodo distinto del primero, para no comparar un nodo consigo mismo
+        int j = n > 1 ? (i + 1 + random.nextInt(n - 1)) % n : i;
+        BackendNode first = candidates[i];
+        BackendNode second = candidates[j];
+
+        BackendNode best = first.score() <= second.score() ? first : second;
+        BackendNode other = best == first ? second : first;
+        if (best.tryAcquire(maxInFlightPerNode)) {
+            return best;
+        }
+        if (other != best && other.tryAcquire(maxInFlightPerNode)) {
+            return other;
+        }
+        // Los dos elegidos están llenos: se recorre el resto antes de hacer esperar
+        // a la petición, que sólo se despierta cuando se libera alguna plaza
+        for (int k = 0; k < n; k++) {
+            BackendNode node = candidates[k];
+            if (k != i && k != j && node.tryAcquire(maxInFlightPerNode)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private BackendNode awaitNode() {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new GpuCapacityException("Cola de inferencia llena (" + maxQueued + " peticiones en espera)");
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        lock.lock();
+        try {
+            while (true) {
+                BackendNode node = tryChoose();
+                if (node != null) {
+                    return node;
+                }
+                if (remaining <= 0) {
+                    throw new GpuCapacityException("Sin capacidad GPU disponible tras " + queueTimeoutMs + " ms en cola");
+                }
+                remaining = capacity.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            capacity.signal(); // la plaza por la que le despertaron, si era eso, pasa a otra
+            Thread.currentThread().interrupt();
+            throw new GpuCapacityException("Espera de capacidad GPU interrumpida");
+        } finally {
+            queued.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    private void signalOne() {
+        lock.lock();
+        try {
+            capacity.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalCapacity() {
+        lock.lock();
+        try {
+            capacity.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 🔹 Refresca las métricas de todos los nodos y recalcula los admisibles.
+     * Las llamadas remotas se hacen aquí, nunca en el camino de la petición, y
+     * todas a la vez: cada una está acotada por los plazos de {@link MetricaGpusService}.
+     */
+    public void refresh() {
+        CompletableFuture<?>[] polls = new CompletableFuture<?>[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            BackendNode node = nodes[i];
+            polls[i] = CompletableFuture.runAsync(() -> node.update(metricaGpusService.getGpuMetrics(node.metricsUrl)), pollers);
+        }
+        CompletableFuture.allOf(polls).join();
+
+        List<BackendNode> admissible = new ArrayList<>(nodes.length);
+        for (BackendNode node : nodes) {
+            if (!node.metricsKnown || node.memoryUsedPct < memoryWatermarkPct) {
+                admissible.add(node);
+            }
+        }
+        if (admissible.size() < nodes.length) {
+            log.debug("[GpuRouter] {} de {} nodos por encima de la marca de memoria ({}%)",
+                    nodes.length - admissible.size(), nodes.length, memoryWatermarkPct);
+        }
+        eligible = admissible.toArray(new BackendNode[0]);
+        if (queued.get() > 0) {
+            signalCapacity();
+        }
+    }
+
+    /** Peticiones esperando capacidad ahora mismo (lectura barata, sin bloqueo). */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public Map<String, Object> getStatus() {
+        List<Map<String, Object>> nodeStatus = new ArrayList<>();
+        BackendNode[] admissible = eligible;
+        for (BackendNode node : nodes) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("backendUrl", node.backendUrl);
+            status.put("metricsKnown", node.metricsKnown);
+            status.put("gpuUtilization", node.utilization);
+            status.put("memoryUsedPct", node.memoryUsedPct);
+            status.put("memoryFreeMb", node.memoryFreeMb);
+            status.put("inFlight", node.inFlight.get());
+            status.put("eligible", List.of(admissible).contains(node));
+            nodeStatus.add(status);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("nodes", nodeStatus);
+        status.put("queued", queued.get());
+        status.put("memoryWatermarkPct", memoryWatermarkPct);
+        status.put("maxInFlightPerNode", maxInFlightPerNode);
+        return status;
+    }
+
+    /**
+     * Nodo de inferencia y la última foto de sus métricas. Los campos de métricas
+     * sólo los escribe el hilo de refresco; son volátiles para que los hilos de
+     * petición vean siempre la última lectura.
+     */
+    static final class BackendNode {
+        final String backendUrl;
+        final String metricsUrl;
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile boolean metricsKnown;
+        volatile double utilization;
+        volatile double memoryUsedPct;
+        volatile double memoryFreeMb;
+
+        BackendNode(String backendUrl, String metricsUrl) {
+            this.backendUrl = backendUrl;
+            this.metricsUrl = metricsUrl;
+        }
+
+        void update(List<Map<String, Object>> metrics) {
+            double utilSum = 0, used = 0, total = 0;
+            int gpus = 0;
+            for (Map<String, Object> gpu : metrics) {
+                double util = toDouble(gpu.get("gpu_utilization"));
+                if (util < 0) {
+                    continue;
+                }
+                gpus++;
+                utilSum += util;
+                used += Math.max(0, toDouble(gpu.get("memory_used_mb")));
+                total += Math.max(0, toDouble(gpu.get("memory_total_mb")));
+            }
+            metricsKnown = gpus > 0 && total > 0;
+            if (metricsKnown) {
+                utilization = utilSum / gpus;
+                memoryUsedPct = used * 100.0 / total;
+                memoryFreeMb = total - used;
+            }
+        }
+
+        double score() {
+            double base = metricsKnown ? utilization + memoryUsedPct : UNKNOWN_METRICS_SCORE;
+            return base + inFlight.get() * IN_FLIGHT_PENALTY;
+        }
+
+        boolean tryAcquire(int max) {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= max) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private static double toDouble(Object value) {
+            return value instanceof Number n ? n.doubleValue() : -1;
+        }
+    }
+
+    /**
+     * Reserva de un nodo. Al cerrarla se libera su plaza y se despierta a las
+     * peticiones en cola, si las hay.
+     */
+    public final class NodeLease implements AutoCloseable {
+        private final BackendNode node;
+        private boolean released;
+
+        private NodeLease(BackendNode node) {
+            this.node = node;
+        }
+
+        public String getBackendUrl() {
+            return node.backendUrl;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            node.inFlight.decrementAndGet();
+            if (queued.get() > 0) {
+                signalOne(); // una plaza: con despertar a todas sólo competirían por ella
+            }
+        }
+    }
+}
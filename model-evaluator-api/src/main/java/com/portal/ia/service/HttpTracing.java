@@ -0,0 +1,52 @@
+package com.portal.ia.service;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.RequestReplySenderContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 🔹 Envío con {@link HttpClient} dentro de una observación: abre un span de
+ * cliente y propaga la cabecera W3C {@code traceparent} al backend (Flask).
+ * RestTemplate ya lo hace solo al darle el ObservationRegistry.
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpTracing {
+
+    public static final String OBSERVATION_NAME = "portal.backend.http";
+
+    private final ObservationRegistry observationRegistry;
+
+    public HttpResponse<String> send(HttpClient client, HttpRequest.Builder request, String backend, String path)
+            throws IOException, InterruptedException {
+        RequestReplySenderContext<HttpRequest.Builder, HttpResponse<String>> context =
+                new RequestReplySenderContext<>(HttpRequest.Builder::header);
+        context.setCarrier(request);
+        context.setRemoteServiceName(backend);
+
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, () -> context, observationRegistry)
+                .contextualName(backend + " " + path)
+                .lowCardinalityKeyValue("backend", backend)
+                .lowCardinalityKeyValue("path", path)
+                .start(); // aquí se inyecta traceparent en el builder
+        try (Observation.Scope scope = observation.openScope()) {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            context.setResponse(response);
+            observation.lowCardinalityKeyValue("status", String.valueOf(response.statusCode()));
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -13,6 +14,9 @@ import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,40 +25,114 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class HugginFaceService {
 
+    public static final String MODEL_MISTRAL = "mistral-hugginface";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final HttpClient client = HttpClient.newHttpClient();
 
     // Puedes inyectar un bean asyncExecutor si lo tienes configurado
-    private final Executor asyncExecutor = Executors.newFixedThreadPool(4);
+    // (envuelto para que la traza de la petición siga en el hilo del pool)
+    private final Executor asyncExecutor = ContextExecutorService.wrap(
+            Executors.newFixedThreadPool(4), ContextSnapshotFactory.builder().build()::captureAll);
+
+    private final LlmTimelineService llmTimelineService;
+    private final GpuRouterService gpuRouterService;
+    private final TokenUsageService tokenUsageService;
+    private final LatencyService latencyService;
+    private final HttpTracing httpTracing;
 
     public CompletableFuture<String> responderConsultaGeneral(String pregunta) {
+        // La espera de plaza GPU se hace aquí, en el hilo que llama: los hilos del
+        // pool sólo hacen la llamada HTTP y nunca se quedan parados en la cola del enrutador
+        GpuRouterService.NodeLease node;
+        try {
+            node = acquire(true);
+        } catch (GpuCapacityException e) {
+            return CompletableFuture.completedFuture("Servicio general saturado, inténtalo de nuevo en unos segundos.");
+        }
         return CompletableFuture.supplyAsync(() -> {
-            try {
-                log.info("🤖 Llamando a Mistral Flask con pregunta general: {}", pregunta);
-
-                Map<String, String> body = Map.of("question", pregunta);
-                String jsonBody = objectMapper.writeValueAsString(body);
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(new URI("http://10.0.3.172:5000/responder_general"))
-                        .header("Content-Type", "application/json")
-                        .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                        .build();
-
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    Map<String, Object> result = objectMapper.readValue(response.body(), Map.class);
-                    return (String) result.getOrDefault("respuesta", "Sin respuesta generada.");
-                } else {
-                    log.error("❌ Error del servicio Mistral Flask: {}", response.body());
-                    return "Error al generar respuesta general.";
-                }
-
-            } catch (Exception e) {
-                log.error("❌ Error en responderConsultaGeneral: {}", e.getMessage());
-                return "Error al comunicarse con el servicio general.";
+            // Para el chat: el error se le muestra al usuario como si fuera la respuesta
+            try (node) {
+                return send(pregunta, node, null);
+            } catch (ModelInvocationException e) {
+                return e.getMessage();
             }
         }, asyncExecutor);
     }
+
+    /**
+     * Consulta general en el hilo que llama; un fallo lanza excepción en vez de
+     * devolverse como respuesta. Sin {@code waitForCapacity}, si no hay plaza GPU
+     * libre se lanza {@link GpuCapacityException} enseguida en vez de esperar en cola.
+     * Con {@code timeout} (puede ser nulo) la llamada HTTP se corta pasado ese plazo.
+     */
+    public String generate(String pregunta, boolean waitForCapacity, Duration timeout) {
+        try (GpuRouterService.NodeLease node = acquire(waitForCapacity)) {
+            return send(pregunta, node, timeout);
+        }
+    }
+
+    private GpuRouterService.NodeLease acquire(boolean waitForCapacity) {
+        try {
+            return waitForCapacity ? gpuRouterService.acquire() : gpuRouterService.tryAcquire();
+        } catch (GpuCapacityException e) {
+            log.warn("⏳ Consulta general rechazada por falta de capacidad GPU: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    // Se mide desde que hay nodo: la espera en la cola del enrutador no es latencia del modelo
+    private String send(String pregunta, GpuRouterService.NodeLease node, Duration timeout) {
+        long startedAt = llmTimelineService.begin();
+        String respuesta = null;
+        boolean ok = false;
+        Map<String, Object> result = null;
+        try {
+            log.info("🤖 Llamando a Mistral Flask con pregunta general: {}", LogPayload.of(pregunta));
+
+            Map<String, String> body = Map.of("question", pregunta);
+            String jsonBody = objectMapper.writeValueAsString(body);
+
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(new URI(node.getBackendUrl() + "/responder_general"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
+            if (timeout != null) {
+                request.timeout(timeout);
+            }
+
+            HttpResponse<String> response;
+            long sentAt = System.nanoTime();
+            try {
+                response = httpTracing.send(client, request, "flask", "/responder_general");
+            } finally {
+                latencyService.recordNanos(LatencyService.KIND_BACKEND, "flask", "/responder_general",
+                        System.nanoTime() - sentAt);
+            }
+
+            if (response.statusCode() == 200) {
+                result = objectMapper.readValue(response.body(), Map.class);
+                respuesta = (String) result.getOrDefault("respuesta", "Sin respuesta generada.");
+                ok = true;
+                return respuesta;
+            } else {
+                log.error("❌ Error del servicio Mistral Flask: {}", LogPayload.of(response.body()));
+                throw new ModelInvocationException("Error al generar respuesta general.");
+            }
+
+        } catch (ModelInvocationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("❌ Error en responderConsultaGeneral: {}", e.getMessage());
+            throw new ModelInvocationException("Error al comunicarse con el servicio general.", e);
+        } finally {
+            llmTimelineService.record(MODEL_MISTRAL, startedAt,
+                    pregunta != null ? pregunta.length() : 0,
+                    respuesta != null ? respuesta.length() : 0, ok);
+            tokenUsageService.recordCall(MODEL_MISTRAL, pregunta, respuesta,
+                    TokenUsageService.tokenCount(result, "prompt_tokens"),
+                    TokenUsageService.tokenCount(result, "completion_tokens"),
+                    System.currentTimeMillis() - startedAt, ok);
+        }
+    }
 }
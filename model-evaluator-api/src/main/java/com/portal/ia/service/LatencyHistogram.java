@@ -0,0 +1,127 @@
+package com.portal.ia.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 🔹 Histograma de latencias de rango dinámico alto (al estilo HdrHistogram).
+ *
+ * Valores en microsegundos, de 0 a ~71 minutos, en cubos log-lineales: exactos
+ * por debajo de 64 µs y con un error relativo máximo de 1/32 (~3%) por encima.
+ * Registrar es un incremento atómico sobre un array fijo, sin reservar memoria.
+ * Dos histogramas con el mismo esquema se combinan sumando cubo a cubo.
+ */
+public final class LatencyHistogram {
+
+    public static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 31;
+    public static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    public static final int BUCKET_COUNT = SUB_BUCKETS * (MAX_MAGNITUDE - SUB_BUCKET_BITS) + 2 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordMicros(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        long max;
+        while (value > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, value)) {
+            // reintenta
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    /** Suma a este histograma los cubos de otro (mismo esquema). */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        addTotals(other.totalCount.get(), other.totalMicros.get(), other.maxMicros.get());
+    }
+
+    /** Suma cubos exportados como pares (índice, recuento). */
+    public void add(long[] indexes, long[] bucketCounts, long count, long sumMicros, long max) {
+        for (int i = 0; i < indexes.length; i++) {
+            int index = (int) indexes[i];
+            if (index < 0 || index >= BUCKET_COUNT) {
+                throw new IllegalArgumentException("Índice de cubo fuera de rango: " + index);
+            }
+            counts.addAndGet(index, bucketCounts[i]);
+        }
+        addTotals(count, sumMicros, max);
+    }
+
+    private void addTotals(long count, long sumMicros, long max) {
+        totalCount.addAndGet(count);
+        totalMicros.addAndGet(sumMicros);
+        long current;
+        while (max > (current = maxMicros.get()) && !maxMicros.compareAndSet(current, max)) {
+            // reintenta
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getTotalMicros() {
+        return totalMicros.get();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public long getCount(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Valor (µs) bajo el que queda el {@code percentile}% de las muestras, con la
+     * precisión del cubo (se devuelve el límite superior del cubo, acotado al máximo visto).
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKETS * shift + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index - (long) SUB_BUCKETS * shift;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,302 @@
+package com.portal.ia.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.LatencyHistogramExport;
+import com.portal.ia.dto.LatencySnapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 🔹 Latencias por endpoint y por llamada saliente, en ventanas móviles de 1, 5 y 60 minutos.
+ *
+ * Cada métrica guarda un histograma por minuto (anillo de 6) y otro por cada
+ * 5 minutos (anillo de 13). Registrar incrementa ambos; los huecos caducados se
+ * reciclan con un CAS al cambiar de periodo. Una ventana de N minutos suma los
+ * periodos completos de los últimos N minutos más el periodo en curso.
+ *
+ * Las llamadas salientes se publican además en Micrometer como
+ * {@code portal.backend.requests}, etiquetadas sólo por backend y ruta.
+ */
+@Service
+public class LatencyService {
+
+    public static final String KIND_ENDPOINT = "endpoint";
+    public static final String KIND_BACKEND = "backend";
+
+    public static final Map<String, Integer> WINDOWS = Map.of("1m", 1, "5m", 5, "60m", 60);
+
+    private static final long MINUTE_MS = 60_000;
+    private static final int MINUTE_SLOTS = 6;
+    private static final int COARSE_MINUTES = 5;
+    private static final int COARSE_SLOTS = 13;
+
+    // tipo -> nombre -> registrador; dos niveles para no concatenar claves en cada llamada
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Map<String, Recorder>> recorders = Map.of(
+            KIND_ENDPOINT, new ConcurrentHashMap<>(),
+            KIND_BACKEND, new ConcurrentHashMap<>());
+    // tipo -> prefijo -> sufijo -> registrador, para los nombres "prefijo sufijo" (backend y ruta)
+    private final Map<String, Map<String, Map<String, Recorder>>> prefixed = Map.of(
+            KIND_ENDPOINT, new ConcurrentHashMap<>(),
+            KIND_BACKEND, new ConcurrentHashMap<>());
+
+    public LatencyService() {
+        this(null);
+    }
+
+    @Autowired
+    public LatencyService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Devuelve el registrador de una métrica. {@link Recorder#recordNanos(long)}
+     * no reserva memoria salvo al empezar un periodo nuevo.
+     */
+    public Recorder recorder(String kind, String name) {
+        Map<String, Recorder> byName = recorders.get(kind);
+        if (byName == null) {
+            throw new IllegalArgumentException("Tipo de métrica desconocido: " + kind);
+        }
+        Recorder recorder = byName.get(name);
+        return recorder != null ? recorder : byName.computeIfAbsent(name, n -> new Recorder(kind + ":" + n, timer(kind, n)));
+    }
+
+    /**
+     * Registrador de la métrica {@code prefix + " " + suffix} (p. ej. "flask" y la
+     * ruta llamada). El nombre sólo se compone la primera vez.
+     */
+    public Recorder recorder(String kind, String prefix, String suffix) {
+        Map<String, Map<String, Recorder>> byPrefix = prefixed.get(kind);
+        if (byPrefix == null) {
+            throw new IllegalArgumentException("Tipo de métrica desconocido: " + kind);
+        }
+        Map<String, Recorder> bySuffix = byPrefix.get(prefix);
+        if (bySuffix == null) {
+            bySuffix = byPrefix.computeIfAbsent(prefix, p -> new ConcurrentHashMap<>());
+        }
+        Recorder recorder = bySuffix.get(suffix);
+        return recorder != null ? recorder : bySuffix.computeIfAbsent(suffix, s -> recorder(kind, prefix + " " + s));
+    }
+
+    public void recordNanos(String kind, String name, long nanos) {
+        recorder(kind, name).recordNanos(nanos);
+    }
+
+    public void recordNanos(String kind, String prefix, String suffix, long nanos) {
+        recorder(kind, prefix, suffix).recordNanos(nanos);
+    }
+
+    public List<LatencySnapshot> getSnapshots(String window, String kind) {
+        int minutes = minutesOf(window);
+        long now = System.currentTimeMillis();
+        List<LatencySnapshot> result = new ArrayList<>();
+        for (Recorder recorder : recorders(kind)) {
+            LatencyHistogram histogram = recorder.window(minutes, now);
+            if (histogram.getTotalCount() > 0) {
+                result.add(toSnapshot(recorder.name, window, histogram));
+            }
+        }
+        result.sort(Comparator.comparing(LatencySnapshot::getName));
+        return result;
+    }
+
+    public List<LatencyHistogramExport> export(String window) {
+        int minutes = minutesOf(window);
+        long now = System.currentTimeMillis();
+        List<LatencyHistogramExport> result = new ArrayList<>();
+        for (Recorder recorder : recorders(null)) {
+            LatencyHistogram histogram = recorder.window(minutes, now);
+            if (histogram.getTotalCount() > 0) {
+                result.add(toExport(recorder.name, window, histogram));
+            }
+        }
+        result.sort(Comparator.comparing(LatencyHistogramExport::getName));
+        return result;
+    }
+
+    /**
+     * Combina exportaciones (p. ej. de varios nodos) por nombre y calcula sus percentiles.
+     */
+    public List<LatencySnapshot> merge(List<LatencyHistogramExport> exports) {
+        Map<String, LatencyHistogram> merged = new LinkedHashMap<>();
+        Map<String, String> windows = new LinkedHashMap<>();
+        for (LatencyHistogramExport export : exports) {
+            if (export.getSubBucketBits() != LatencyHistogram.SUB_BUCKET_BITS) {
+                throw new IllegalArgumentException("Esquema de histograma incompatible: subBucketBits="
+                        + export.getSubBucketBits());
+            }
+            long[] indexes = export.getIndexes() != null ? export.getIndexes() : new long[0];
+            long[] counts = export.getCounts() != null ? export.getCounts() : new long[0];
+            if (indexes.length != counts.length) {
+                throw new IllegalArgumentException("indexes y counts deben tener la misma longitud en " + export.getName());
+            }
+            merged.computeIfAbsent(export.getName(), n -> new LatencyHistogram())
+                .add(indexes, counts, export.getCount(), export.getSumMicros(), export.getMaxMicros());
+            windows.putIfAbsent(export.getName(), export.getWindow());
+        }
+        List<LatencySnapshot> result = new ArrayList<>();
+        merged.forEach((name, histogram) -> result.add(toSnapshot(name, windows.get(name), histogram)));
+        return result;
+    }
+
+    private Timer timer(String kind, String name) {
+        // Los endpoints ya los mide Spring (http.server.requests)
+        if (meterRegistry == null || !KIND_BACKEND.equals(kind)) {
+            return null;
+        }
+        return Timer.builder("portal.backend.requests")
+                .description("Llamadas salientes a los backends de IA y métricas")
+                .tag("backend", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private List<Recorder> recorders(String kind) {
+        List<Recorder> result = new ArrayList<>();
+        recorders.forEach((k, byName) -> {
+            if (kind == null || kind.equals(k)) {
+                result.addAll(byName.values());
+            }
+        });
+        return result;
+    }
+
+    private static int minutesOf(String window) {
+        Integer minutes = WINDOWS.get(window);
+        if (minutes == null) {
+            throw new IllegalArgumentException("Ventana no válida: " + window + " (usa 1m, 5m o 60m)");
+        }
+        return minutes;
+    }
+
+    private static LatencySnapshot toSnapshot(String name, String window, LatencyHistogram histogram) {
+        long count = histogram.getTotalCount();
+        return new LatencySnapshot(name, window, count,
+                count == 0 ? 0 : histogram.getTotalMicros() / 1000.0 / count,
+                ms(histogram.valueAtPercentile(50)),
+                ms(histogram.valueAtPercentile(90)),
+                ms(histogram.valueAtPercentile(95)),
+                ms(histogram.valueAtPercentile(99)),
+                ms(histogram.valueAtPercentile(99.9)),
+                ms(histogram.getMaxMicros()));
+    }
+
+    private static LatencyHistogramExport toExport(String name, String window, LatencyHistogram histogram) {
+        int nonEmpty = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            if (histogram.getCount(i) != 0) {
+                nonEmpty++;
+            }
+        }
+        long[] indexes = new long[nonEmpty];
+        long[] counts = new long[nonEmpty];
+        for (int i = 0, j = 0; i < LatencyHistogram.BUCKET_COUNT && j < nonEmpty; i++) {
+            long count = histogram.getCount(i);
+            if (count != 0) {
+                indexes[j] = i;
+                counts[j++] = count;
+            }
+        }
+        return new LatencyHistogramExport(name, window, LatencyHistogram.SUB_BUCKET_BITS,
+                histogram.getTotalCount(), histogram.getTotalMicros(), histogram.getMaxMicros(), indexes, counts);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Histogramas de una métrica por periodo. Thread-safe y sin bloqueos.
+     */
+    public static final class Recorder {
+        private final String name;
+        private final AtomicReferenceArray<Period> minutes = new AtomicReferenceArray<>(MINUTE_SLOTS);
+        private final AtomicReferenceArray<Period> coarse = new AtomicReferenceArray<>(COARSE_SLOTS);
+        private final Timer timer;
+
+        Recorder(String name, Timer timer) {
+            this.name = name;
+            this.timer = timer;
+        }
+
+        public void recordNanos(long nanos) {
+            record(nanos, System.currentTimeMillis());
+            if (timer != null) {
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void record(long nanos, long nowMillis) {
+            long minute = nowMillis / MINUTE_MS;
+            long micros = nanos / 1000;
+            Period fine = periodFor(minutes, minute);
+            if (fine != null) {
+                fine.histogram.recordMicros(micros);
+            }
+            Period wide = periodFor(coarse, minute / COARSE_MINUTES);
+            if (wide != null) {
+                wide.histogram.recordMicros(micros);
+            }
+        }
+
+        LatencyHistogram window(int windowMinutes, long nowMillis) {
+            long minute = nowMillis / MINUTE_MS;
+            LatencyHistogram result = new LatencyHistogram();
+            if (windowMinutes < MINUTE_SLOTS) {
+                sum(minutes, minute - windowMinutes, minute, result);
+            } else {
+                sum(coarse, (minute - windowMinutes) / COARSE_MINUTES, minute / COARSE_MINUTES, result);
+            }
+            return result;
+        }
+
+        private static void sum(AtomicReferenceArray<Period> ring, long from, long to, LatencyHistogram target) {
+            for (int i = 0; i < ring.length(); i++) {
+                Period period = ring.get(i);
+                if (period != null && period.index >= from && period.index <= to) {
+                    target.add(period.histogram);
+                }
+            }
+        }
+
+        private static Period periodFor(AtomicReferenceArray<Period> ring, long index) {
+            int slot = (int) Math.floorMod(index, (long) ring.length());
+            while (true) {
+                Period period = ring.get(slot);
+                if (period != null && period.index == index) {
+                    return period;
+                }
+                if (period != null && period.index > index) {
+                    return null;
+                }
+                Period fresh = new Period(index);
+                if (ring.compareAndSet(slot, period, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+    }
+
+    private static final class Period {
+        final long index;
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        Period(long index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.portal.ia.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.LlmCallTimelineEntry;
+import com.portal.ia.dto.LlmModelLoadSummary;
+import com.portal.ia.jfr.LlmCallEvent;
+
+/**
+ * 🔹 Línea temporal de llamadas a modelos LLM correlada con las métricas de GPU.
+ *
+ * Cada llamada se añade a un buffer circular sin bloqueos (un getAndIncrement y
+ * una escritura en un AtomicReferenceArray), de modo que el coste en el camino
+ * de la petición es despreciable. Mientras haya llamadas en curso se muestrean
+ * las métricas cacheadas de {@link MetricaGpusService} en otro buffer circular,
+ * y al consultar se cruzan ambos por rango de tiempo.
+ */
+@Service
+public class LlmTimelineService {
+
+    private static final String[] GPU_LOAD_BUCKETS = { "0-25", "25-50", "50-75", "75-100" };
+
+    private final MetricaGpusService metricaGpusService;
+    private final boolean sampleWhenIdle;
+    private final long sampleIntervalMs;
+
+    private final AtomicReferenceArray<LlmCall> calls;
+    private final int callMask;
+    private final AtomicLong callCursor = new AtomicLong();
+
+    private final AtomicReferenceArray<GpuSample> samples;
+    private final int sampleMask;
+    private final AtomicLong sampleCursor = new AtomicLong();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile List<Map<String, Object>> lastSampledMetrics;
+
+    public LlmTimelineService(
+            MetricaGpusService metricaGpusService,
+            @Value("${ia.llm.timeline.capacity:4096}") int capacity,
+            @Value("${ia.llm.timeline.gpu-samples:2048}") int sampleCapacity,
+            @Value("${ia.llm.timeline.sample-interval-ms:2000}") long sampleIntervalMs,
+            @Value("${ia.llm.timeline.sample-when-idle:false}") boolean sampleWhenIdle) {
+        this.metricaGpusService = metricaGpusService;
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.sampleWhenIdle = sampleWhenIdle;
+
+        int callSize = powerOfTwo(capacity);
+        this.calls = new AtomicReferenceArray<>(callSize);
+        this.callMask = callSize - 1;
+
+        int sampleSize = powerOfTwo(sampleCapacity);
+        this.samples = new AtomicReferenceArray<>(sampleSize);
+        this.sampleMask = sampleSize - 1;
+    }
+
+    /**
+     * Marca el inicio de una llamada. Devuelve el instante de inicio (epoch ms)
+     * que se debe pasar a {@link #record}.
+     */
+    public long begin() {
+        inFlight.incrementAndGet();
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Registra el fin de una llamada iniciada con {@link #begin()}.
+     */
+    public void record(String model, long startedAt, int promptChars, int responseChars, boolean success) {
+        long endedAt = System.currentTimeMillis();
+        inFlight.decrementAndGet();
+        long seq = callCursor.getAndIncrement();
+        calls.set((int) (seq & callMask),
+                new LlmCall(seq, model, startedAt, endedAt, promptChars, responseChars, success));
+
+        LlmCallEvent event = new LlmCallEvent();
+        if (event.shouldCommit()) {
+            event.model = model;
+            event.latency = endedAt - startedAt;
+            event.promptChars = promptChars;
+            event.responseChars = responseChars;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 🔹 Muestreo periódico de la GPU. Sólo lee la caché de {@link MetricaGpusService}
+     * y sólo mientras haya llamadas en curso (salvo que se configure lo contrario).
+     */
+    @Scheduled(fixedDelayString = "${ia.llm.timeline.sample-interval-ms:2000}")
+    public void sampleGpu() {
+        if (inFlight.get() == 0 && !sampleWhenIdle) {
+            return;
+        }
+        // Nunca llama al nodo: un servicio de métricas caído no retiene al planificador compartido
+        List<Map<String, Object>> metrics = metricaGpusService.getCachedGpuMetrics();
+        if (metrics == null || metrics == lastSampledMetrics) {
+            return; // misma lectura cacheada, no aporta una muestra nueva
+        }
+        lastSampledMetrics = metrics;
+
+        GpuSample sample = GpuSample.from(System.currentTimeMillis(), metrics);
+        if (sample != null) {
+            long seq = sampleCursor.getAndIncrement();
+            samples.set((int) (seq & sampleMask), sample);
+        }
+    }
+
+    /**
+     * Devuelve las llamadas más recientes (de nuevas a antiguas) con las muestras
+     * de GPU observadas durante cada una.
+     */
+    public List<LlmCallTimelineEntry> getTimeline(String model, Long from, Long to, int limit) {
+        GpuSample[] gpu = snapshotSamples();
+        long[] gpuTimes = timesOf(gpu);
+
+        List<LlmCallTimelineEntry> result = new ArrayList<>();
+        for (LlmCall call : snapshotCalls()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (matches(call, model, from, to)) {
+                result.add(toEntry(call, gpu, gpuTimes));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resumen por modelo: latencia, rendimiento y carga media de GPU, más un
+     * desglose por tramos de utilización de GPU para ver rendimiento frente a carga.
+     */
+    public List<LlmModelLoadSummary> getSummary(String model, Long from, Long to) {
+        GpuSample[] gpu = snapshotSamples();
+        long[] gpuTimes = timesOf(gpu);
+
+        Map<String, SummaryAccumulator> byModel = new TreeMap<>();
+        for (LlmCall call : snapshotCalls()) {
+            if (matches(call, model, from, to)) {
+                byModel.computeIfAbsent(call.model(), k -> new SummaryAccumulator())
+                        .add(call, toEntry(call, gpu, gpuTimes));
+            }
+        }
+
+        List<LlmModelLoadSummary> result = new ArrayList<>();
+        byModel.forEach((name, acc) -> result.add(acc.toSummary(name)));
+        return result;
+    }
+
+    private static boolean matches(LlmCall call, String model, Long from, Long to) {
+        return (model == null || model.equals(call.model()))
+                && (from == null || call.endedAt() >= from)
+                && (to == null || call.startedAt() <= to);
+    }
+
+    private LlmCallTimelineEntry toEntry(LlmCall call, GpuSample[] gpu, long[] gpuTimes) {
+        // Se incluyen también las muestras del intervalo previo al inicio: describen
+        // el estado de la GPU en el momento en que arrancó la llamada.
+        int lo = lowerBound(gpuTimes, call.startedAt() - sampleIntervalMs);
+        int hi = lowerBound(gpuTimes, call.endedAt() + 1);
+
+        int count = 0;
+        double utilSum = 0, utilMax = 0, memPctSum = 0;
+        for (int i = lo; i < hi; i++) {
+            GpuSample s = gpu[i];
+            count++;
+            utilSum += s.utilization();
+            utilMax = Math.max(utilMax, s.maxUtilization());
+            memPctSum += s.memoryUsedPct();
+        }
+
+        return new LlmCallTimelineEntry(
+                call.model(),
+                call.startedAt(),
+                call.endedAt(),
+                call.endedAt() - call.startedAt(),
+                call.promptChars(),
+                call.responseChars(),
+                call.success(),
+                count,
+                count > 0 ? utilSum / count : null,
+                count > 0 ? utilMax : null,
+                count > 0 ? memPctSum / count : null);
+    }
+
+    private List<LlmCall> snapshotCalls() {
+        long end = callCursor.get();
+        long start = Math.max(0, end - calls.length());
+        List<LlmCall> snapshot = new ArrayList<>((int) (end - start));
+        for (long seq = end - 1; seq >= start; seq--) {
+            LlmCall call = calls.get((int) (seq & callMask));
+            // El hueco puede estar aún vacío o ya sobrescrito por una llamada más nueva
+            if (call != null && call.seq() == seq) {
+                snapshot.add(call);
+            }
+        }
+        return snapshot;
+    }
+
+    private GpuSample[] snapshotSamples() {
+        long end = sampleCursor.get();
+        long start = Math.max(0, end - samples.length());
+        List<GpuSample> snapshot = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            GpuSample sample = samples.get((int) (seq & sampleMask));
+            if (sample != null) {
+                snapshot.add(sample);
+            }
+        }
+        GpuSample[] sorted = snapshot.toArray(new GpuSample[0]);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.timestamp(), b.timestamp()));
+        return sorted;
+    }
+
+    private static long[] timesOf(GpuSample[] gpu) {
+        long[] times = new long[gpu.length];
+        for (int i = 0; i < gpu.length; i++) {
+            times[i] = gpu[i].timestamp();
+        }
+        return times;
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int powerOfTwo(int value) {
+        int n = Math.max(16, value);
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static int gpuLoadBucket(double utilization) {
+        return Math.min(GPU_LOAD_BUCKETS.length - 1, Math.max(0, (int) (utilization / 25)));
+    }
+
+    record LlmCall(long seq, String model, long startedAt, long endedAt,
+            int promptChars, int responseChars, boolean success) {
+    }
+
+    record GpuSample(long timestamp, double utilization, double maxUtilization, double memoryUsedPct) {
+
+        static GpuSample from(long timestamp, List<Map<String, Object>> metrics) {
+            double utilSum = 0, utilMax = 0, memUsed = 0, memTotal = 0;
+            int gpus = 0;
+            for (Map<String, Object> gpu : metrics) {
+                double util = toDouble(gpu.get("gpu_utilization"));
+                if (util < 0) {
+                    continue; // valores por defecto cuando falla la consulta
+                }
+                gpus++;
+                utilSum += util;
+                utilMax = Math.max(utilMax, util);
+                memUsed += Math.max(0, toDouble(gpu.get("memory_used_mb")));
+                memTotal += Math.max(0, toDouble(gpu.get("memory_total_mb")));
+            }
+            if (gpus == 0) {
+                return null;
+            }
+            double memPct = memTotal > 0 ? memUsed * 100.0 / memTotal : 0;
+            return new GpuSample(timestamp, utilSum / gpus, utilMax, memPct);
+        }
+
+        private static double toDouble(Object value) {
+            return value instanceof Number n ? n.doubleValue() : -1;
+        }
+    }
+
+    private static final class SummaryAccumulator {
+        private long calls;
+        private long errors;
+        private long latencySum;
+        private long latencyMax;
+        private long responseChars;
+        private long firstStart = Long.MAX_VALUE;
+        private long lastEnd = Long.MIN_VALUE;
+        private long gpuCalls;
+        private double gpuUtilSum;
+        private double gpuMemSum;
+        private final long[] bucketCalls = new long[GPU_LOAD_BUCKETS.length];
+        private final long[] bucketLatency = new long[GPU_LOAD_BUCKETS.length];
+
+        void add(LlmCall call, LlmCallTimelineEntry entry) {
+            long latency = entry.getLatencyMs();
+            calls++;
+            if (!call.success()) {
+                errors++;
+            }
+            latencySum += latency;
+            latencyMax = Math.max(latencyMax, latency);
+            responseChars += call.responseChars();
+            firstStart = Math.min(firstStart, call.startedAt());
+            lastEnd = Math.max(lastEnd, call.endedAt());
+
+            if (entry.getGpuUtilizationAvg() != null) {
+                gpuCalls++;
+                gpuUtilSum += entry.getGpuUtilizationAvg();
+                gpuMemSum += entry.getGpuMemoryUsedPctAvg();
+                int bucket = gpuLoadBucket(entry.getGpuUtilizationAvg());
+                bucketCalls[bucket]++;
+                bucketLatency[bucket] += latency;
+            }
+        }
+
+        LlmModelLoadSummary toSummary(String model) {
+            double windowMinutes = Math.max(1, lastEnd - firstStart) / 60000.0;
+            Map<String, Map<String, Object>> byGpuLoad = new LinkedHashMap<>();
+            for (int i = 0; i < GPU_LOAD_BUCKETS.length; i++) {
+                if (bucketCalls[i] > 0) {
+                    byGpuLoad.put(GPU_LOAD_BUCKETS[i], Map.of(
+                            "calls", bucketCalls[i],
+                            "avgLatencyMs", bucketLatency[i] / (double) bucketCalls[i]));
+                }
+            }
+            return new LlmModelLoadSummary(
+                    model,
+                    calls,
+                    errors,
+                    latencySum / (double) calls,
+                    latencyMax,
+                    calls / windowMinutes,
+                    latencySum > 0 ? responseChars * 1000.0 / latencySum : 0,
+                    gpuCalls > 0 ? gpuUtilSum / gpuCalls : null,
+                    gpuCalls > 0 ? gpuMemSum / gpuCalls : null,
+                    byGpuLoad);
+        }
+    }
+}
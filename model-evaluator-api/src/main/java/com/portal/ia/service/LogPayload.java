@@ -0,0 +1,47 @@
+package com.portal.ia.service;
+
+/**
+ * 🔹 Envoltorio para registrar prompts, respuestas y otros textos grandes.
+ *
+ * El texto sólo se convierte y recorta cuando el mensaje se formatea de verdad,
+ * es decir, si el nivel está activo y el muestreo lo deja pasar. Lo que pase de
+ * ia.logging.max-payload-chars se sustituye por la longitud total y un hash, de
+ * modo que dos trazas del mismo texto se pueden seguir relacionando.
+ */
+public final class LogPayload {
+
+    private static volatile int maxChars = 300;
+
+    private final Object payload;
+
+    private LogPayload(Object payload) {
+        this.payload = payload;
+    }
+
+    public static Object of(Object payload) {
+        if (payload == null || payload instanceof CharSequence text && text.length() <= maxChars) {
+            return payload; // lo habitual: nada que recortar, sin reservar memoria
+        }
+        return new LogPayload(payload);
+    }
+
+    public static void setMaxChars(int chars) {
+        maxChars = Math.max(16, chars);
+    }
+
+    public static int getMaxChars() {
+        return maxChars;
+    }
+
+    @Override
+    public String toString() {
+        return truncate(String.valueOf(payload), maxChars);
+    }
+
+    static String truncate(String text, int max) {
+        if (text.length() <= max) {
+            return text;
+        }
+        return text.substring(0, max) + "… [" + text.length() + " caracteres, #" + Integer.toHexString(text.hashCode()) + "]";
+    }
+}
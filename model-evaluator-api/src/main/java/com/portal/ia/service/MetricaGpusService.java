@@ -1,20 +1,24 @@
 package com.portal.ia.service;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 
-import lombok.AllArgsConstructor;
+import com.portal.ia.jfr.MetricPollEvent;
+
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 @Slf4j
 
-//@AllArgsConstructor
 @Service
 public class MetricaGpusService {
 
@@ -23,38 +27,88 @@ public class MetricaGpusService {
      */
 	
    
-    private static final String SYSTEM_METRICS_URL = "http://10.0.3.172:5001/system_metrics";
-    private static final String GPU_METRICS_URL = "http://10.0.3.172:5001/gpu_metrics";
+    public static final String METRICS_BASE_URL = "http://10.0.3.172:5001";
+    private static final String GPU_METRICS_PATH = "/gpu_metrics";
 
-    private static final RestTemplate restTemplate = new RestTemplate();
+    // Propio de cada instancia: cada contexto de Spring le pone su registro de observaciones
+    private final RestTemplate restTemplate;
 
-    // 🔹 Cache de métricas para evitar hacer llamadas innecesarias
+    // 🔹 Cache de métricas por nodo para evitar hacer llamadas innecesarias.
+    // Cada entrada es inmutable, así que las lecturas concurrentes no necesitan bloqueo.
     private Map<String, Object> cachedSystemMetrics = new HashMap<>();
-    private List<Map<String, Object>> cachedGpuMetrics = new ArrayList<>();
+    private final Map<String, CachedGpuMetrics> cachedGpuMetrics = new ConcurrentHashMap<>();
     private long lastSystemMetricsFetch = 0;
-    private long lastGpuMetricsFetch = 0;
     private static final long CACHE_EXPIRATION_MS = 2000; // 2 segundos
+
+    @Value("${ia.metrics.url:" + METRICS_BASE_URL + "}")
+    private String metricsBaseUrl = METRICS_BASE_URL;
+
+    private final LatencyService latencyService;
+
+    // Plazos por debajo de ia.router.refresh-ms: un nodo caído no retiene el refresco del enrutador
+    public MetricaGpusService(LatencyService latencyService, ObservationRegistry observationRegistry,
+            @Value("${ia.metrics.connect-timeout-ms:500}") long connectTimeoutMs,
+            @Value("${ia.metrics.read-timeout-ms:1500}") long readTimeoutMs) {
+        this.latencyService = latencyService;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.restTemplate.setObservationRegistry(observationRegistry);
+    }
    
     
     
     public List<Map<String, Object>> getGpuMetrics() {
+        return getGpuMetrics(metricsBaseUrl);
+    }
+
+    /**
+     * 🔹 Última lectura ya cacheada del nodo por defecto, sin llamar al servicio de
+     * métricas (la mantiene al día el refresco de {@link GpuRouterService}); nula si
+     * aún no hay ninguna.
+     */
+    public List<Map<String, Object>> getCachedGpuMetrics() {
+        CachedGpuMetrics cached = cachedGpuMetrics.get(metricsBaseUrl);
+        return cached != null ? cached.metrics() : null;
+    }
+
+    /**
+     * 🔹 Métricas de GPU de un nodo concreto (URL base del servicio de métricas).
+     */
+    public List<Map<String, Object>> getGpuMetrics(String metricsBaseUrl) {
         long now = System.currentTimeMillis();
-        if (now - lastGpuMetricsFetch < CACHE_EXPIRATION_MS) {
-            return cachedGpuMetrics;
+        CachedGpuMetrics cached = cachedGpuMetrics.get(metricsBaseUrl);
+        if (cached != null && now - cached.fetchedAt() < CACHE_EXPIRATION_MS) {
+            return cached.metrics();
         }
 
+        String url = metricsBaseUrl + GPU_METRICS_PATH;
         try {
-            log.trace("[AIMetrics] Solicitando métricas de GPU a {}", GPU_METRICS_URL);
-            List<Map<String, Object>> response = restTemplate.getForObject(GPU_METRICS_URL, List.class);
+            log.trace("[AIMetrics] Solicitando métricas de GPU a {}", url);
+            List<Map<String, Object>> response = null;
+            MetricPollEvent event = new MetricPollEvent();
+            event.begin();
+            long sentAt = System.nanoTime();
+            try {
+                response = restTemplate.getForObject(url, List.class);
+            } finally {
+                latencyService.recordNanos(LatencyService.KIND_BACKEND, "metricas", url, System.nanoTime() - sentAt);
+                if (event.shouldCommit()) {
+                    event.url = url;
+                    event.gpus = response != null ? response.size() : 0;
+                    event.success = response != null;
+                    event.commit();
+                }
+            }
 
             if (response != null) {
-                cachedGpuMetrics = response;
-                lastGpuMetricsFetch = now;
-                return cachedGpuMetrics;
+                cachedGpuMetrics.put(metricsBaseUrl, new CachedGpuMetrics(response, now));
+                return response;
             }
         } catch (Exception e) {
            // incrementErrorCounter("ai.gpu.metrics.errors");
-            log.error("[AIMetrics] Error al obtener métricas de GPU: {}", e.getMessage());
+            log.error("[AIMetrics] Error al obtener métricas de GPU de {}: {}", url, e.getMessage());
         }
 
         // En caso de error, devolver valores predeterminados
@@ -66,5 +120,8 @@ public class MetricaGpusService {
             "memory_used_mb", -1
         ));
     }
-	
+
+    private record CachedGpuMetrics(List<Map<String, Object>> metrics, long fetchedAt) {
+    }
+
 }
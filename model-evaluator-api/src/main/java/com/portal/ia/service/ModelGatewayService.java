@@ -0,0 +1,93 @@
+package com.portal.ia.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 🔹 Punto único para invocar cualquiera de los modelos del portal por su clave
+ * (la misma que usa el dashboard), de forma síncrona. Si el modelo falla se lanza
+ * excepción, nunca se devuelve el texto de error como respuesta.
+ */
+@Service
+public class ModelGatewayService {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Invoker> models = new LinkedHashMap<>();
+
+    @FunctionalInterface
+    private interface Invoker {
+        String invoke(String prompt, boolean waitForCapacity, Duration timeout);
+    }
+
+    public ModelGatewayService(
+            OllamaService ollamaService,
+            HugginFaceService hugginFaceService,
+            OpenAIService openAIService,
+            DocumentosService documentosService) {
+        // Las variantes que lanzan excepción: un error no puede contar como respuesta
+        models.put(OllamaService.MODEL_MISTRAL, ollamaService::generateMistral);
+        models.put(OllamaService.MODEL_DEEPSEEK, ollamaService::generateDeepSeek);
+        models.put(HugginFaceService.MODEL_MISTRAL, hugginFaceService::generate);
+        // Sin pasar por el enrutador GPU: no hay cola que esperar
+        models.put(OpenAIService.MODEL_OPENAI, (prompt, wait, timeout) -> openAIService.callOpenAI(prompt, timeout));
+        models.put(DocumentosService.MODEL_DOCUMENTOS,
+                (prompt, wait, timeout) -> respuestaDocumentos(documentosService.preguntarSimple(prompt, timeout)));
+    }
+
+    public Set<String> getAvailableModels() {
+        return models.keySet();
+    }
+
+    public boolean supports(String model) {
+        return models.containsKey(model);
+    }
+
+    public String invoke(String model, String prompt) {
+        return invoke(model, prompt, true, null);
+    }
+
+    /**
+     * Como {@link #invoke}, pero la llamada HTTP al modelo se corta pasado
+     * {@code timeout}, así que el hilo no se queda esperando a un backend colgado.
+     */
+    public String invoke(String model, String prompt, Duration timeout) {
+        return invoke(model, prompt, true, timeout);
+    }
+
+    /**
+     * Como {@link #invoke}, pero si el modelo necesita GPU y ahora no hay plaza libre
+     * lanza {@link GpuCapacityException} enseguida en vez de esperar en la cola del
+     * enrutador. Para tráfico que se puede descartar.
+     */
+    public String invokeIfCapacity(String model, String prompt) {
+        return invoke(model, prompt, false, null);
+    }
+
+    private String invoke(String model, String prompt, boolean waitForCapacity, Duration timeout) {
+        Invoker invoker = models.get(model);
+        if (invoker == null) {
+            throw new IllegalArgumentException("Modelo desconocido: " + model);
+        }
+        return invoker.invoke(prompt, waitForCapacity, timeout);
+    }
+
+    private String respuestaDocumentos(ResponseEntity<String> response) {
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new IllegalStateException("Error del servicio de documentos: " + response.getStatusCode());
+        }
+        try {
+            JsonNode json = objectMapper.readTree(response.getBody());
+            return json.path("respuesta").asText("Sin respuesta generada.");
+        } catch (Exception e) {
+            throw new IllegalStateException("Respuesta no válida del servicio de documentos", e);
+        }
+    }
+}
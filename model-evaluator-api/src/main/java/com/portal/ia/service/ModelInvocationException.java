@@ -0,0 +1,16 @@
+package com.portal.ia.service;
+
+/**
+ * El modelo no ha devuelto una respuesta: error HTTP del backend o fallo al
+ * comunicarse con él. El mensaje es el que se enseña al usuario.
+ */
+public class ModelInvocationException extends RuntimeException {
+
+    public ModelInvocationException(String message) {
+        super(message);
+    }
+
+    public ModelInvocationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
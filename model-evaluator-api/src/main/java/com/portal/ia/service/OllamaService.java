@@ -4,91 +4,144 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class OllamaService {
 
+    public static final String MODEL_MISTRAL = "mistral-ollama";
+    public static final String MODEL_DEEPSEEK = "deepseek-ollama";
+
 	private final ObjectMapper objectMapper = new ObjectMapper();
     private final HttpClient client = HttpClient.newHttpClient();
 
-    private static final String OLLAMA_MISTRAL_URL = "http://10.0.3.172:5000/responder_ollama_mistral";
-    private static final String OLLAMA_DEEPSEEK_URL = "http://10.0.3.172:5000/responder_ollama_deepseek";
-
-    public String callMistral(String question) {
-        try {
-            if (question == null || question.trim().isEmpty()) {
-                throw new IllegalArgumentException("La pregunta está vacía.");
-            }
+    private final LlmTimelineService llmTimelineService;
+    private final GpuRouterService gpuRouterService;
+    private final TokenUsageService tokenUsageService;
+    private final LatencyService latencyService;
+    private final HttpTracing httpTracing;
 
-            log.info("🧠 Enviando pregunta a Mistral vía Flask: {}", question);
+    private static final String OLLAMA_MISTRAL_PATH = "/responder_ollama_mistral";
+    private static final String OLLAMA_DEEPSEEK_PATH = "/responder_ollama_deepseek";
 
-            Map<String, String> body = Map.of("question", question);
-            String requestBody = objectMapper.writeValueAsString(body);
+    public String callMistral(String question) {
+        return callOllama("Mistral", () -> generateMistral(question, true, null));
+    }
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI(OLLAMA_MISTRAL_URL))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .build();
+	public String callDeepSeek(String question) {
+        return callOllama("DeepSeek", () -> generateDeepSeek(question, true, null));
+	}
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Como {@link #callMistral}, pero un fallo lanza excepción en vez de devolverse
+     * como respuesta. Sin {@code waitForCapacity}, si no hay plaza GPU libre se
+     * lanza {@link GpuCapacityException} enseguida en vez de esperar en cola. Con
+     * {@code timeout} (puede ser nulo) la llamada HTTP se corta pasado ese plazo.
+     */
+    public String generateMistral(String question, boolean waitForCapacity, Duration timeout) {
+        return generate(MODEL_MISTRAL, "Mistral", OLLAMA_MISTRAL_PATH, question, waitForCapacity, timeout);
+    }
 
-            if (response.statusCode() == 200) {
-                Map<String, Object> result = objectMapper.readValue(response.body(), Map.class);
-                String respuesta = (String) result.getOrDefault("respuesta", "Sin respuesta generada.");
-                log.info("✅ Respuesta Mistral (Ollama): {}", respuesta);
-                return respuesta;
-            } else {
-                log.error("❌ Error desde Flask/Ollama: {}", response.body());
-                return "Error al generar respuesta desde Mistral (Ollama).";
-            }
+    /** Como {@link #generateMistral}, con DeepSeek. */
+    public String generateDeepSeek(String question, boolean waitForCapacity, Duration timeout) {
+        return generate(MODEL_DEEPSEEK, "DeepSeek", OLLAMA_DEEPSEEK_PATH, question, waitForCapacity, timeout);
+    }
 
-        } catch (Exception e) {
-            log.error("❌ Excepción al contactar con Mistral/Ollama: {}", e.getMessage(), e);
-            return "Error al comunicarse con el servicio Mistral.";
+    // Para el chat: el error se le muestra al usuario como si fuera la respuesta
+    private static String callOllama(String nombre, Supplier<String> generate) {
+        try {
+            return generate.get();
+        } catch (GpuCapacityException e) {
+            return "Servicio " + nombre + " saturado, inténtalo de nuevo en unos segundos.";
+        } catch (ModelInvocationException e) {
+            return e.getMessage();
         }
     }
 
-	public String callDeepSeek(String question) {
-		try {
-            if (question == null || question.trim().isEmpty()) {
-                throw new IllegalArgumentException("La pregunta está vacía.");
-            }
+    private String generate(String model, String nombre, String path, String question, boolean waitForCapacity,
+            Duration timeout) {
+        if (question == null || question.trim().isEmpty()) {
+            throw new ModelInvocationException("La pregunta está vacía.");
+        }
+        GpuRouterService.NodeLease node;
+        try {
+            node = waitForCapacity ? gpuRouterService.acquire() : gpuRouterService.tryAcquire();
+        } catch (GpuCapacityException e) {
+            log.warn("⏳ Petición a {} rechazada por falta de capacidad GPU: {}", nombre, e.getMessage());
+            throw e;
+        }
+        try (node) {
+            return send(model, nombre, path, question, node, timeout);
+        }
+    }
 
-            log.info("🧠 Enviando pregunta a DeepSeek vía Flask: {}", question);
+    // Se mide desde que hay nodo: la espera en la cola del enrutador no es latencia del modelo
+    private String send(String model, String nombre, String path, String question, GpuRouterService.NodeLease node,
+            Duration timeout) {
+        long startedAt = llmTimelineService.begin();
+        String respuesta = null;
+        boolean ok = false;
+        Map<String, Object> result = null;
+        try {
+            log.info("🧠 Enviando pregunta a {} vía Flask: {}", nombre, LogPayload.of(question));
 
             Map<String, String> body = Map.of("question", question);
             String requestBody = objectMapper.writeValueAsString(body);
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI(OLLAMA_DEEPSEEK_URL))
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(new URI(node.getBackendUrl() + path))
                     .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .build();
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody));
+            if (timeout != null) {
+                request.timeout(timeout);
+            }
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response;
+            long sentAt = System.nanoTime();
+            try {
+                response = httpTracing.send(client, request, "flask", path);
+            } finally {
+                latencyService.recordNanos(LatencyService.KIND_BACKEND, "flask", path, System.nanoTime() - sentAt);
+            }
 
             if (response.statusCode() == 200) {
-                Map<String, Object> result = objectMapper.readValue(response.body(), Map.class);
-                String respuesta = (String) result.getOrDefault("respuesta", "Sin respuesta generada.");
-                log.info("✅ Respuesta DeepSeek (Ollama): {}", respuesta);
+                result = objectMapper.readValue(response.body(), Map.class);
+                respuesta = (String) result.getOrDefault("respuesta", "Sin respuesta generada.");
+                log.info("✅ Respuesta {} (Ollama): {}", nombre, LogPayload.of(respuesta));
+                ok = true;
                 return respuesta;
             } else {
-                log.error("❌ Error desde Flask/Ollama: {}", response.body());
-                return "Error al generar respuesta desde DeepSeek (Ollama).";
+                log.error("❌ Error desde Flask/Ollama: {}", LogPayload.of(response.body()));
+                throw new ModelInvocationException("Error al generar respuesta desde " + nombre + " (Ollama).");
             }
 
+        } catch (ModelInvocationException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("❌ Excepción al contactar con DeepSeek/Ollama: {}", e.getMessage(), e);
-            return "Error al comunicarse con el servicio DeepSeek.";
+            log.error("❌ Excepción al contactar con {}/Ollama: {}", nombre, e.getMessage(), e);
+            throw new ModelInvocationException("Error al comunicarse con el servicio " + nombre + ".", e);
+        } finally {
+            llmTimelineService.record(model, startedAt, lengthOf(question), lengthOf(respuesta), ok);
+            // Ollama devuelve prompt_eval_count/eval_count si Flask los reenvía
+            tokenUsageService.recordCall(model, question, respuesta,
+                    TokenUsageService.tokenCount(result, "prompt_eval_count"),
+                    TokenUsageService.tokenCount(result, "eval_count"),
+                    System.currentTimeMillis() - startedAt, ok);
         }
-	}
+    }
+
+    private static int lengthOf(String text) {
+        return text != null ? text.length() : 0;
+    }
 }
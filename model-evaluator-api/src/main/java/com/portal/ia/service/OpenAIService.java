@@ -1,5 +1,7 @@
 package com.portal.ia.service;
 
+import java.time.Duration;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,23 +10,45 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class OpenAIService {
 
+    public static final String MODEL_OPENAI = "openai";
+
 	@Value("${openai.api.key}")
 	private String openaiApiKey;
 	
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
-    
+    @Value("${ia.openai.url:https://api.openai.com/v1/chat/completions}")
+    private String openaiApiUrl;
+
+    private final LlmTimelineService llmTimelineService;
+    private final TokenUsageService tokenUsageService;
+    private final LatencyService latencyService;
+    private final ObservationRegistry observationRegistry;
 
     public String callOpenAI(String prompt) {
+        return callOpenAI(prompt, null);
+    }
+
+    /** Con {@code timeout} (puede ser nulo), conexión y lectura se cortan pasado ese plazo. */
+    public String callOpenAI(String prompt, Duration timeout) {
+        tokenUsageService.checkBudget(MODEL_OPENAI);
         RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setObservationRegistry(observationRegistry);
+        if (timeout != null) {
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(timeout);
+            requestFactory.setReadTimeout(timeout);
+            restTemplate.setRequestFactory(requestFactory);
+        }
 
         // Crear JSON de mensaje
         JSONArray messages = new JSONArray();
@@ -46,18 +70,43 @@ public class OpenAIService {
 
         HttpEntity<String> entity = new HttpEntity<>(requestBody.toString(), headers);
 
-        ResponseEntity<String> response = restTemplate.postForEntity(OPENAI_API_URL, entity, String.class);
-
-        if (response.getStatusCode() == HttpStatus.OK) {
-            JSONObject json = new JSONObject(response.getBody());
-            return json
-                .getJSONArray("choices")
-                .getJSONObject(0)
-                .getJSONObject("message")
-                .getString("content")
-                .trim();
-        } else {
-            throw new RuntimeException("Error al llamar a OpenAI: " + response.getStatusCode());
+        long startedAt = llmTimelineService.begin();
+        String content = null;
+        Long promptTokens = null;
+        Long completionTokens = null;
+        try {
+            long sentAt = System.nanoTime();
+            ResponseEntity<String> response;
+            try {
+                response = restTemplate.postForEntity(openaiApiUrl, entity, String.class);
+            } finally {
+                latencyService.recordNanos(LatencyService.KIND_BACKEND, "openai", "/v1/chat/completions",
+                        System.nanoTime() - sentAt);
+            }
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JSONObject json = new JSONObject(response.getBody());
+                content = json
+                    .getJSONArray("choices")
+                    .getJSONObject(0)
+                    .getJSONObject("message")
+                    .getString("content")
+                    .trim();
+                JSONObject usage = json.optJSONObject("usage");
+                if (usage != null) {
+                    promptTokens = usage.optLong("prompt_tokens");
+                    completionTokens = usage.optLong("completion_tokens");
+                }
+                return content;
+            } else {
+                throw new RuntimeException("Error al llamar a OpenAI: " + response.getStatusCode());
+            }
+        } finally {
+            llmTimelineService.record(MODEL_OPENAI, startedAt,
+                    prompt != null ? prompt.length() : 0,
+                    content != null ? content.length() : 0, content != null);
+            tokenUsageService.recordCall(MODEL_OPENAI, prompt, content, promptTokens, completionTokens,
+                    System.currentTimeMillis() - startedAt, content != null);
         }
     }
 }
@@ -0,0 +1,254 @@
+package com.portal.ia.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.ProfilingRecordingInfo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Grabaciones de JDK Flight Recorder bajo demanda.
+ *
+ * Una grabación a demanda dura como mucho ia.jfr.max-duration-seconds y sólo
+ * puede haber una en curso a la vez; al terminar (o al pararla) el .jfr queda
+ * en ia.jfr.directory. Opcionalmente se mantiene una grabación continua en
+ * anillo (configuración "default", limitada por edad y tamaño) que se puede
+ * volcar en cualquier momento sin reiniciar nada; de los volcados también se
+ * conservan sólo los ia.jfr.retained-recordings más recientes.
+ */
+@Service
+@Slf4j
+public class ProfilingService {
+
+    static final String CONTINUOUS_NAME = "portal-continuous";
+    private static final String DUMP_PREFIX = "portal-continuous-";
+    private static final List<String> SETTINGS = List.of("default", "profile");
+
+    private final Path directory;
+    private final long maxDurationSeconds;
+    private final int retainedRecordings;
+    private final boolean continuousEnabled;
+    private final Duration continuousMaxAge;
+    private final long continuousMaxSizeBytes;
+
+    // Grabaciones a demanda por id, de la más antigua a la más reciente
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+    private Recording continuous;
+    // Marca del último volcado; siempre crece, así los nombres no chocan y ordenan por antigüedad
+    private long lastDumpMillis;
+
+    public ProfilingService(
+            @Value("${ia.jfr.directory:${java.io.tmpdir}/portal-jfr}") String directory,
+            @Value("${ia.jfr.max-duration-seconds:600}") long maxDurationSeconds,
+            @Value("${ia.jfr.retained-recordings:5}") int retainedRecordings,
+            @Value("${ia.jfr.continuous.enabled:false}") boolean continuousEnabled,
+            @Value("${ia.jfr.continuous.max-age-minutes:15}") long continuousMaxAgeMinutes,
+            @Value("${ia.jfr.continuous.max-size-mb:100}") long continuousMaxSizeMb) {
+        this.directory = Paths.get(directory);
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.retainedRecordings = Math.max(1, retainedRecordings);
+        this.continuousEnabled = continuousEnabled;
+        this.continuousMaxAge = Duration.ofMinutes(continuousMaxAgeMinutes);
+        this.continuousMaxSizeBytes = continuousMaxSizeMb * 1024 * 1024;
+    }
+
+    @PostConstruct
+    void startContinuous() throws IOException, ParseException {
+        if (!continuousEnabled) {
+            return;
+        }
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName(CONTINUOUS_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(continuousMaxAge);
+        recording.setMaxSize(continuousMaxSizeBytes);
+        recording.start();
+        continuous = recording;
+        log.info("🎥 Grabación JFR continua activa (máx. {} / {} MB)", continuousMaxAge, continuousMaxSizeBytes / (1024 * 1024));
+    }
+
+    /**
+     * 🔹 Inicia una grabación acotada en el tiempo. Se detiene sola al cumplirse
+     * la duración y escribe el .jfr en el directorio configurado.
+     */
+    public synchronized ProfilingRecordingInfo start(long durationSeconds, String settings) throws IOException {
+        if (durationSeconds <= 0 || durationSeconds > maxDurationSeconds) {
+            throw new IllegalArgumentException("La duración debe estar entre 1 y " + maxDurationSeconds + " segundos");
+        }
+        String configName = settings == null || settings.isBlank() ? "profile" : settings;
+        if (!SETTINGS.contains(configName)) {
+            throw new IllegalArgumentException("Configuración JFR desconocida: " + settings + " (usa default o profile)");
+        }
+        if (recordings.values().stream().anyMatch(r -> r.getState() == RecordingState.RUNNING)) {
+            throw new IllegalStateException("Ya hay una grabación JFR en curso");
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configName);
+        } catch (ParseException e) {
+            throw new IllegalStateException("No se pudo leer la configuración JFR " + configName, e);
+        }
+        Files.createDirectories(directory);
+        Recording recording = new Recording(configuration);
+        recording.setName("portal-" + configName);
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(durationSeconds));
+        recording.setDestination(fileOf(recording));
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        evictOldRecordings();
+
+        log.info("🎥 Grabación JFR {} iniciada ({} s, {})", recording.getId(), durationSeconds, configName);
+        return info(recording);
+    }
+
+    /**
+     * 🔹 Detiene la grabación (si sigue en curso) y devuelve el .jfr.
+     */
+    public synchronized Optional<Path> stop(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+            recording.stop();
+            log.info("🎥 Grabación JFR {} detenida", id);
+        }
+        return file(id);
+    }
+
+    /**
+     * 🔹 Fichero .jfr de una grabación ya terminada; vacío si no existe o aún graba.
+     */
+    public synchronized Optional<Path> file(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null || recording.getState() == RecordingState.RUNNING
+                || recording.getState() == RecordingState.DELAYED) {
+            return Optional.empty();
+        }
+        Path file = recording.getDestination();
+        return file != null && Files.exists(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    public synchronized List<ProfilingRecordingInfo> list() {
+        List<ProfilingRecordingInfo> result = new ArrayList<>();
+        for (Recording recording : recordings.values()) {
+            result.add(info(recording));
+        }
+        return result;
+    }
+
+    public boolean isContinuousEnabled() {
+        return continuous != null;
+    }
+
+    /**
+     * 🔹 Vuelca la ventana actual de la grabación continua a un .jfr nuevo y
+     * borra los volcados más antiguos por encima del límite de retención.
+     */
+    public synchronized Path dumpContinuous() throws IOException {
+        if (continuous == null) {
+            throw new IllegalStateException("La grabación JFR continua no está activa (ia.jfr.continuous.enabled)");
+        }
+        Files.createDirectories(directory);
+        lastDumpMillis = Math.max(System.currentTimeMillis(), lastDumpMillis + 1);
+        Path file = directory.resolve(DUMP_PREFIX + lastDumpMillis + ".jfr");
+        continuous.dump(file);
+        log.info("🎥 Volcado de la grabación JFR continua en {}", file);
+        evictOldDumps();
+        return file;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        recordings.values().forEach(Recording::close);
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    private Path fileOf(Recording recording) {
+        return directory.resolve("portal-" + recording.getId() + ".jfr");
+    }
+
+    private void evictOldRecordings() {
+        Iterator<Recording> iterator = recordings.values().iterator();
+        while (recordings.size() > retainedRecordings && iterator.hasNext()) {
+            Recording oldest = iterator.next();
+            if (oldest.getState() == RecordingState.RUNNING) {
+                continue;
+            }
+            Path destination = oldest.getDestination();
+            oldest.close();
+            iterator.remove();
+            try {
+                if (destination != null) {
+                    Files.deleteIfExists(destination);
+                }
+            } catch (IOException e) {
+                log.warn("⚠️ No se pudo borrar la grabación JFR {}: {}", destination, e.getMessage());
+            }
+        }
+    }
+
+    // Incluye volcados de ejecuciones anteriores que sigan en el directorio
+    private void evictOldDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files
+                .filter(f -> f.getFileName().toString().startsWith(DUMP_PREFIX))
+                .sorted(Comparator.comparing((Path f) -> f.getFileName().toString().length())
+                    .thenComparing(f -> f.getFileName().toString()))
+                .toList();
+        }
+        for (Path dump : dumps.subList(0, Math.max(0, dumps.size() - retainedRecordings))) {
+            try {
+                Files.deleteIfExists(dump);
+            } catch (IOException e) {
+                log.warn("⚠️ No se pudo borrar el volcado JFR {}: {}", dump, e.getMessage());
+            }
+        }
+    }
+
+    private static ProfilingRecordingInfo info(Recording recording) {
+        Duration duration = recording.getDuration();
+        long size = 0;
+        Path destination = recording.getDestination();
+        if (recording.getState() != RecordingState.RUNNING && destination != null) {
+            try {
+                size = Files.size(destination);
+            } catch (IOException e) {
+                size = 0;
+            }
+        }
+        return new ProfilingRecordingInfo(
+            recording.getId(),
+            recording.getName().substring("portal-".length()),
+            recording.getState().name(),
+            recording.getStartTime() != null ? recording.getStartTime().toEpochMilli() : 0,
+            duration != null ? duration.getSeconds() : 0,
+            size);
+    }
+}
@@ -14,10 +14,13 @@ public class ProjectService {
 
     private final ProjectRepository repository;
     private final ReadmeSyncService readmeSyncService;
+    private final ChangeFeedService changeFeed;
 
-    public ProjectService(ProjectRepository repository, ReadmeSyncService readmeSyncService) {
+    public ProjectService(ProjectRepository repository, ReadmeSyncService readmeSyncService,
+            ChangeFeedService changeFeed) {
         this.repository = repository;
         this.readmeSyncService = readmeSyncService;
+        this.changeFeed = changeFeed;
     }
 
     public List<Project> getAll() {
@@ -40,8 +43,15 @@ public class ProjectService {
     }
 
     public Project save(Project project) {
+        boolean isNew = project.getId() == null;
         Project saved = repository.save(project);
         readmeSyncService.sync(saved);
+        // Sin el estado anterior (cargarlo traería también entornos y servidores), un cambio manda todos los campos
+        if (isNew) {
+            changeFeed.created(ChangeFeedService.PROJECT, saved.getId(), ChangeFeedService.fields(saved));
+        } else {
+            changeFeed.updated(ChangeFeedService.PROJECT, saved.getId(), null, ChangeFeedService.fields(saved));
+        }
         return saved;
     }
 
@@ -49,6 +59,7 @@ public class ProjectService {
         Optional<Project> opt = repository.findByName(name);
         if (opt.isPresent()) {
             repository.delete(opt.get());
+            changeFeed.deleted(ChangeFeedService.PROJECT, opt.get().getId(), null);
             return true;
         }
         return false;
@@ -67,6 +78,7 @@ public class ProjectService {
 
         // Luego eliminar el proyecto de la BBDD
         repository.deleteById(id);
+        changeFeed.deleted(ChangeFeedService.PROJECT, id, null);
     }
 
 
@@ -0,0 +1,194 @@
+package com.portal.ia.service;
+
+/**
+ * 🔹 Claves de orden fraccionarias para el orden manual de las tareas: entre dos
+ * claves siempre cabe otra, así que mover una tarea sólo cambia su propia clave.
+ *
+ * Una clave es una parte entera de longitud variable (la primera letra dice cuántos
+ * dígitos lleva: 'a' uno, 'b' dos... y 'A'-'Z' para los negativos) seguida de una
+ * parte fraccionaria en base 62 que nunca acaba en '0'. Se comparan como cadenas
+ * ASCII, igual que {@link String#compareTo} y la columna sort_key (ascii_bin).
+ * Poner al principio o al final incrementa la parte entera, así que las claves
+ * crecen despacio; insertar una y otra vez en el mismo hueco alarga la parte
+ * fraccionaria y por eso {@link TaskRankService} reequilibra las columnas.
+ */
+final class RankKeys {
+
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final char ZERO = DIGITS.charAt(0);
+    private static final char LAST = DIGITS.charAt(DIGITS.length() - 1);
+    // La menor parte entera posible: delante de ella sólo caben fracciones
+    private static final String SMALLEST_INTEGER = "A" + String.valueOf(ZERO).repeat(26);
+
+    private RankKeys() {
+    }
+
+    /**
+     * Una clave estrictamente entre {@code before} y {@code after}; nulo en
+     * {@code before} es "al principio" y en {@code after} "al final".
+     */
+    static String between(String before, String after) {
+        if (before != null) {
+            validate(before);
+        }
+        if (after != null) {
+            validate(after);
+        }
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Claves de orden desordenadas: " + before + " >= " + after);
+        }
+
+        if (before == null) {
+            if (after == null) {
+                return "a" + ZERO;
+            }
+            String integer = integerPart(after);
+            if (integer.equals(SMALLEST_INTEGER)) {
+                return integer + midpoint("", after.substring(integer.length()));
+            }
+            if (integer.compareTo(after) < 0) {
+                return integer;
+            }
+            String decremented = decrement(integer);
+            if (decremented == null) {
+                throw new IllegalStateException("No quedan claves de orden por delante de " + after);
+            }
+            return decremented;
+        }
+
+        String integerBefore = integerPart(before);
+        String fractionBefore = before.substring(integerBefore.length());
+        if (after == null) {
+            String incremented = increment(integerBefore);
+            return incremented == null ? integerBefore + midpoint(fractionBefore, null) : incremented;
+        }
+
+        String integerAfter = integerPart(after);
+        if (integerBefore.equals(integerAfter)) {
+            return integerBefore + midpoint(fractionBefore, after.substring(integerAfter.length()));
+        }
+        String incremented = increment(integerBefore);
+        if (incremented == null) {
+            throw new IllegalStateException("No quedan claves de orden detrás de " + before);
+        }
+        if (incremented.compareTo(after) < 0) {
+            return incremented;
+        }
+        return integerBefore + midpoint(fractionBefore, null);
+    }
+
+    // Fracción entre a y b (b nulo: hasta el final); ninguna de las dos acaba en cero
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            // Se copia el prefijo común (a se completa con ceros)
+            int n = 0;
+            while (n < b.length() && (n < a.length() ? a.charAt(n) : ZERO) == b.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(a.length() > n ? a.substring(n) : "", b.substring(n));
+            }
+        }
+        // Los primeros dígitos (o su ausencia) ya son distintos
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b != null ? DIGITS.indexOf(b.charAt(0)) : DIGITS.length();
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB + 1) / 2));
+        }
+        // Dígitos consecutivos: se baja una posición
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.isEmpty() ? "" : a.substring(1), null);
+    }
+
+    private static int integerLength(char head) {
+        if (head >= 'a' && head <= 'z') {
+            return head - 'a' + 2;
+        }
+        if (head >= 'A' && head <= 'Z') {
+            return 'Z' - head + 2;
+        }
+        throw new IllegalArgumentException("Clave de orden no válida: cabecera '" + head + "'");
+    }
+
+    private static String integerPart(String key) {
+        int length = integerLength(key.charAt(0));
+        if (length > key.length()) {
+            throw new IllegalArgumentException("Clave de orden no válida: " + key);
+        }
+        return key.substring(0, length);
+    }
+
+    static void validate(String key) {
+        if (key.isEmpty() || key.equals(SMALLEST_INTEGER)) {
+            throw new IllegalArgumentException("Clave de orden no válida: " + key);
+        }
+        String integer = integerPart(key);
+        for (int i = 1; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Clave de orden no válida: " + key);
+            }
+        }
+        if (key.length() > integer.length() && key.charAt(key.length() - 1) == ZERO) {
+            throw new IllegalArgumentException("Clave de orden no válida: " + key);
+        }
+    }
+
+    // Siguiente parte entera; nulo si ya es la mayor
+    private static String increment(String integer) {
+        char head = integer.charAt(0);
+        char[] digits = integer.substring(1).toCharArray();
+        boolean carry = true;
+        for (int i = digits.length - 1; carry && i >= 0; i--) {
+            int d = DIGITS.indexOf(digits[i]) + 1;
+            if (d == DIGITS.length()) {
+                digits[i] = ZERO;
+            } else {
+                digits[i] = DIGITS.charAt(d);
+                carry = false;
+            }
+        }
+        if (!carry) {
+            return head + new String(digits);
+        }
+        if (head == 'Z') {
+            return "a" + ZERO;
+        }
+        if (head == 'z') {
+            return null;
+        }
+        char nextHead = (char) (head + 1);
+        String rest = new String(digits);
+        // Con la cabecera siguiente, los positivos ganan un dígito y los negativos lo pierden
+        return nextHead > 'a' ? nextHead + rest + ZERO : nextHead + rest.substring(0, rest.length() - 1);
+    }
+
+    // Parte entera anterior; nulo si ya es la menor
+    private static String decrement(String integer) {
+        char head = integer.charAt(0);
+        char[] digits = integer.substring(1).toCharArray();
+        boolean borrow = true;
+        for (int i = digits.length - 1; borrow && i >= 0; i--) {
+            int d = DIGITS.indexOf(digits[i]) - 1;
+            if (d == -1) {
+                digits[i] = LAST;
+            } else {
+                digits[i] = DIGITS.charAt(d);
+                borrow = false;
+            }
+        }
+        if (!borrow) {
+            return head + new String(digits);
+        }
+        if (head == 'a') {
+            return "Z" + LAST;
+        }
+        if (head == 'A') {
+            return null;
+        }
+        char previousHead = (char) (head - 1);
+        String rest = new String(digits);
+        return previousHead < 'Z' ? previousHead + rest + LAST : previousHead + rest.substring(0, rest.length() - 1);
+    }
+}
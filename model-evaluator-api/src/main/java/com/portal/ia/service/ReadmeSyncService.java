@@ -1,6 +1,7 @@
 package com.portal.ia.service;
 	
 import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +20,9 @@ public class ReadmeSyncService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReadmeSyncService.class);
 
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern GUIONES_EXTREMOS = Pattern.compile("(^-|-$)");
+
     private final DocumentosService documentosService;
     private final ProjectRepository projectRepository;
 
@@ -40,10 +44,7 @@ public class ReadmeSyncService {
             ByteArrayResource resource = new ByteArrayResource(readmeBytes) {
                 @Override
                 public String getFilename() {
-                	String slug = project.getName()
-                		    .toLowerCase()
-                		    .replaceAll("[^a-z0-9]+", "-") // reemplaza todo lo no alfanumérico por "-"
-                		    .replaceAll("(^-|-$)", "");    // quita guiones al inicio y fin
+                	String slug = slugOf(project.getName());
 
                 		String nombreFichero = "readme-" + project.getId() + "-" + slug + ".md";
 
@@ -79,10 +80,7 @@ public class ReadmeSyncService {
 
     public void eliminarReadme(Project project) {
         try {
-            String slug = project.getName()
-                .toLowerCase()
-                .replaceAll("[^a-z0-9]+", "-")
-                .replaceAll("(^-|-$)", "");
+            String slug = slugOf(project.getName());
 
             String filename = "readme-project-" + slug + ".md";
 
@@ -103,5 +101,11 @@ public class ReadmeSyncService {
         }
     }
 
-} 
-
+    /**
+     * 🔹 Slug del nombre del proyecto para el fichero del README en la IA.
+     */
+    public static String slugOf(String name) {
+        String slug = NO_ALFANUMERICO.matcher(name.toLowerCase()).replaceAll("-"); // todo lo no alfanumérico por "-"
+        return GUIONES_EXTREMOS.matcher(slug).replaceAll("");                      // quita guiones al inicio y fin
+    }
+}
@@ -0,0 +1,149 @@
+package com.portal.ia.service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.ScorePair;
+import com.portal.ia.dto.ScoreRequest;
+import com.portal.ia.dto.ScoreResponse;
+import com.portal.ia.service.AnswerScorer.Metric;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 🔹 Puntuación en paralelo de pares (referencia, candidata) con fork/join.
+ *
+ * El lote se divide en tramos hasta {@code ia.scoring.batch-threshold} pares; cada
+ * hoja puntúa su tramo con el {@link AnswerScorer} de su hilo, así que los buffers
+ * de tokenización se reutilizan y no se reserva nada por token.
+ */
+@Service
+public class ScoringService {
+
+    private static final ThreadLocal<AnswerScorer> SCORERS = ThreadLocal.withInitial(AnswerScorer::new);
+
+    private final ForkJoinPool pool;
+    private final int batchThreshold;
+    private final int maxPairs;
+
+    public ScoringService(
+            @Value("${ia.scoring.parallelism:0}") int parallelism,
+            @Value("${ia.scoring.batch-threshold:64}") int batchThreshold,
+            @Value("${ia.scoring.max-pairs:200000}") int maxPairs) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.batchThreshold = Math.max(1, batchThreshold);
+        this.maxPairs = maxPairs;
+    }
+
+    public ScoreResponse score(ScoreRequest request) {
+        List<ScorePair> pairs = request.getPairs();
+        if (pairs == null || pairs.isEmpty()) {
+            throw new IllegalArgumentException("No hay pares que puntuar");
+        }
+        if (pairs.size() > maxPairs) {
+            throw new IllegalArgumentException("Demasiados pares en un lote (máximo " + maxPairs + ")");
+        }
+        Metric[] metrics = parseMetrics(request.getMetrics());
+
+        int n = pairs.size();
+        String[] references = new String[n];
+        String[] candidates = new String[n];
+        for (int i = 0; i < n; i++) {
+            ScorePair pair = pairs.get(i);
+            references[i] = pair.getReference();
+            candidates[i] = pair.getCandidate();
+        }
+
+        long start = System.nanoTime();
+        double[][] scores = score(references, candidates, metrics);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Double> mean = new LinkedHashMap<>();
+        Map<String, double[]> byMetric = new LinkedHashMap<>();
+        for (int m = 0; m < metrics.length; m++) {
+            double sum = 0;
+            for (double value : scores[m]) {
+                sum += value;
+            }
+            mean.put(metrics[m].getKey(), sum / n);
+            byMetric.put(metrics[m].getKey(), scores[m]);
+        }
+        return new ScoreResponse(n, elapsedMs, mean, byMetric);
+    }
+
+    /**
+     * Puntúa todos los pares. Devuelve una matriz [métrica][par].
+     */
+    public double[][] score(String[] references, String[] candidates, Metric[] metrics) {
+        double[][] scores = new double[metrics.length][references.length];
+        pool.invoke(new ScoreTask(references, candidates, metrics, scores, 0, references.length));
+        return scores;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static Metric[] parseMetrics(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Metric.values();
+        }
+        EnumSet<Metric> metrics = EnumSet.noneOf(Metric.class);
+        for (String key : keys) {
+            metrics.add(Metric.fromKey(key));
+        }
+        return new ArrayList<>(metrics).toArray(new Metric[0]);
+    }
+
+    private final class ScoreTask extends RecursiveAction {
+        private final String[] references;
+        private final String[] candidates;
+        private final Metric[] metrics;
+        private final double[][] scores;
+        private final int from;
+        private final int to;
+
+        ScoreTask(String[] references, String[] candidates, Metric[] metrics, double[][] scores, int from, int to) {
+            this.references = references;
+            this.candidates = candidates;
+            this.metrics = metrics;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchThreshold) {
+                scoreRange();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(references, candidates, metrics, scores, from, mid),
+                    new ScoreTask(references, candidates, metrics, scores, mid, to));
+        }
+
+        private void scoreRange() {
+            AnswerScorer scorer = SCORERS.get();
+            boolean withEmbedding = false;
+            for (Metric metric : metrics) {
+                withEmbedding |= metric == Metric.COSINE;
+            }
+            for (int i = from; i < to; i++) {
+                scorer.load(references[i], candidates[i], withEmbedding);
+                for (int m = 0; m < metrics.length; m++) {
+                    scores[m][i] = scorer.score(metrics[m]);
+                }
+            }
+        }
+    }
+}
@@ -14,9 +14,11 @@ import java.util.Optional;
 public class ServerService {
 
     private final ServerRepository repository;
+    private final ChangeFeedService changeFeed;
 
-    public ServerService(ServerRepository repository) {
+    public ServerService(ServerRepository repository, ChangeFeedService changeFeed) {
         this.repository = repository;
+        this.changeFeed = changeFeed;
     }
 
     public List<Server> getAll() {
@@ -40,13 +42,22 @@ public class ServerService {
 
 
     public Server save(Server server) {
-        return repository.save(server);
+        boolean isNew = server.getId() == null;
+        Server saved = repository.save(server);
+        // Sin el estado anterior, un cambio manda todos los campos
+        if (isNew) {
+            changeFeed.created(ChangeFeedService.SERVER, saved.getId(), ChangeFeedService.fields(saved));
+        } else {
+            changeFeed.updated(ChangeFeedService.SERVER, saved.getId(), null, ChangeFeedService.fields(saved));
+        }
+        return saved;
     }
 
     public boolean deleteByName(String name) {
         Optional<Server> opt = repository.findByName(name);
         if (opt.isPresent()) {
             repository.delete(opt.get());
+            changeFeed.deleted(ChangeFeedService.SERVER, opt.get().getId(), null);
             return true;
         }
         return false;
@@ -54,6 +65,7 @@ public class ServerService {
 
     public void deleteById(Long id) {
         repository.deleteById(id);
+        changeFeed.deleted(ChangeFeedService.SERVER, id, null);
     }
 
 	
@@ -0,0 +1,186 @@
+package com.portal.ia.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.entity.ShadowResult;
+import com.portal.ia.repository.ShadowResultRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Tráfico sombra: replica una fracción de los prompts reales a un modelo
+ * candidato y guarda las dos respuestas para compararlas, sin que el usuario
+ * lo note.
+ *
+ * La réplica se encola en un pool propio de baja prioridad con cola acotada;
+ * si la cola está llena, el enrutador GPU ya tiene peticiones esperando o no
+ * queda ninguna plaza GPU libre al ir a llamar, el prompt simplemente no se
+ * replica. Ni la petición del usuario ni el hilo sombra esperan nunca.
+ */
+@Service
+@Slf4j
+public class ShadowService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final ModelGatewayService modelGatewayService;
+    private final GpuRouterService gpuRouterService;
+    private final ShadowResultRepository shadowResultRepository;
+
+    private final boolean enabled;
+    private final String candidateModel;
+    private final double fraction;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong mirrored = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public ShadowService(
+            ModelGatewayService modelGatewayService,
+            GpuRouterService gpuRouterService,
+            ShadowResultRepository shadowResultRepository,
+            @Value("${ia.shadow.enabled:false}") boolean enabled,
+            @Value("${ia.shadow.candidate-model:deepseek-ollama}") String candidateModel,
+            @Value("${ia.shadow.fraction:0.1}") double fraction,
+            @Value("${ia.shadow.threads:1}") int threads,
+            @Value("${ia.shadow.queue-capacity:20}") int queueCapacity) {
+        if (enabled && !modelGatewayService.supports(candidateModel)) {
+            throw new IllegalArgumentException("Modelo candidato desconocido: " + candidateModel);
+        }
+        this.modelGatewayService = modelGatewayService;
+        this.gpuRouterService = gpuRouterService;
+        this.shadowResultRepository = shadowResultRepository;
+        this.enabled = enabled;
+        this.candidateModel = candidateModel;
+        this.fraction = fraction;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "shadow-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Decide si replicar y, en su caso, encola la llamada al candidato. Vuelve
+     * enseguida en cualquier caso.
+     */
+    public void mirror(String primaryModel, String prompt, String primaryAnswer, long primaryLatencyMs) {
+        if (!enabled || candidateModel.equals(primaryModel) || prompt == null || prompt.isBlank()) {
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= fraction) {
+            return;
+        }
+        if (gpuRouterService.getQueued() > 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+        try {
+            executor.execute(() -> runShadow(primaryModel, prompt, primaryAnswer, primaryLatencyMs));
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void runShadow(String primaryModel, String prompt, String primaryAnswer, long primaryLatencyMs) {
+        // La carga ha podido subir mientras esperaba en la cola: el tráfico real va primero
+        if (gpuRouterService.getQueued() > 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+        ShadowResult result = new ShadowResult();
+        result.setPrimaryModel(primaryModel);
+        result.setShadowModel(candidateModel);
+        result.setPrompt(prompt);
+        result.setPrimaryAnswer(primaryAnswer);
+        result.setPrimaryLatencyMs(primaryLatencyMs);
+
+        long start = System.nanoTime();
+        try {
+            // Sin esperar en la cola del enrutador: ocuparía la plaza de una petición real
+            result.setShadowAnswer(modelGatewayService.invokeIfCapacity(candidateModel, prompt));
+            result.setShadowSuccess(true);
+        } catch (GpuCapacityException e) {
+            dropped.incrementAndGet();
+            return;
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            result.setErrorMessage(truncate(e.getMessage()));
+        }
+        result.setShadowLatencyMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        try {
+            shadowResultRepository.save(result);
+            mirrored.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo guardar el resultado sombra: {}", e.getMessage());
+        }
+    }
+
+    public Page<ShadowResult> getResults(String primaryModel, String shadowModel, Pageable pageable) {
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id").descending());
+        return shadowResultRepository.findByFilters(primaryModel, shadowModel, sorted);
+    }
+
+    public List<Map<String, Object>> getSummary() {
+        return shadowResultRepository.summarize().stream().map(row -> {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("primaryModel", row[0]);
+            summary.put("shadowModel", row[1]);
+            summary.put("pairs", row[2]);
+            summary.put("shadowErrors", row[3]);
+            summary.put("avgPrimaryLatencyMs", row[4]);
+            summary.put("avgShadowLatencyMs", row[5]);
+            return summary;
+        }).toList();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("candidateModel", candidateModel);
+        status.put("fraction", fraction);
+        status.put("queued", executor.getQueue().size());
+        status.put("active", executor.getActiveCount());
+        status.put("mirrored", mirrored.get());
+        status.put("dropped", dropped.get());
+        status.put("failed", failed.get());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,173 @@
+package com.portal.ia.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.portal.ia.dto.SyncDelta;
+import com.portal.ia.entity.ChangeLogEntry;
+import com.portal.ia.entity.DailyNote;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Server;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ChangeLogRepository;
+import com.portal.ia.repository.DailyNoteRepository;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.ServerRepository;
+import com.portal.ia.repository.TaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Sincronización incremental del panel (GET /api/sync): en vez de pedir las
+ * listas enteras de tareas, notas, proyectos y servidores al abrirlo, el cliente
+ * manda el token de la última vez y recibe sólo lo que se ha creado, cambiado o
+ * borrado desde entonces, con el token siguiente.
+ *
+ * El token es la versión de {@link ChangeFeedService} hasta la que llega el
+ * cliente; los cambios posteriores salen de change_log recorriendo su clave, y
+ * de cada entidad se manda su estado actual o, si ya no existe, una lápida. Sin
+ * token, si es más antiguo que lo que guarda change_log (ia.sync.retention-days)
+ * o si a change_log le faltan versiones posteriores, se devuelve todo con
+ * {@code full}.
+ */
+@Service
+@Slf4j
+public class SyncService {
+
+    // change_log guarda un día más de lo que dura un token: cubre las versiones que aún se estaban guardando
+    private static final Duration PRUNE_MARGIN = Duration.ofDays(1);
+
+    private final ChangeLogRepository changeLogRepository;
+    private final TaskRepository taskRepository;
+    private final DailyNoteRepository dailyNoteRepository;
+    private final ProjectRepository projectRepository;
+    private final ServerRepository serverRepository;
+    private final ChangeFeedService changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int maxChanges;
+
+    public SyncService(ChangeLogRepository changeLogRepository, TaskRepository taskRepository,
+            DailyNoteRepository dailyNoteRepository, ProjectRepository projectRepository,
+            ServerRepository serverRepository, ChangeFeedService changeFeed,
+            PlatformTransactionManager transactionManager,
+            @Value("${ia.sync.retention-days:30}") int retentionDays,
+            @Value("${ia.sync.max-changes:2000}") int maxChanges) {
+        this.changeLogRepository = changeLogRepository;
+        this.taskRepository = taskRepository;
+        this.dailyNoteRepository = dailyNoteRepository;
+        this.projectRepository = projectRepository;
+        this.serverRepository = serverRepository;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofDays(retentionDays);
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * Cambios desde {@code since} (nulo: todo). Con {@code hasMore} hay que volver
+     * a llamar con el token devuelto hasta que sea false.
+     */
+    public SyncDelta changesSince(String since) {
+        if (since == null || since.isBlank()) {
+            return snapshot();
+        }
+        Token token = decode(since);
+        if (token.issuedAt() < System.currentTimeMillis() - retention.toMillis()
+                || !changeFeed.canResumeFrom(token.version())) {
+            // Caducado, con huecos en change_log (también de antes de una caída) o de otra BBDD: se empieza de cero
+            return snapshot();
+        }
+
+        List<ChangeLogEntry> rows = changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(token.version(),
+                PageRequest.of(0, maxChanges + 1));
+        boolean hasMore = rows.size() > maxChanges;
+        if (hasMore) {
+            rows = rows.subList(0, maxChanges);
+        }
+        // Una entidad cambiada varias veces sale una sola vez
+        Map<String, Set<Long>> changed = new LinkedHashMap<>();
+        for (ChangeLogEntry row : rows) {
+            changed.computeIfAbsent(row.getEntity(), entity -> new LinkedHashSet<>()).add(row.getEntityId());
+        }
+
+        List<SyncDelta.Tombstone> deleted = new ArrayList<>();
+        List<Task> tasks = load(ChangeFeedService.TASK, changed, taskRepository, Task::getId, deleted);
+        List<DailyNote> notes = load(ChangeFeedService.NOTE, changed, dailyNoteRepository, DailyNote::getId, deleted);
+        List<Project> projects = load(ChangeFeedService.PROJECT, changed, projectRepository, Project::getId, deleted);
+        List<Server> servers = load(ChangeFeedService.SERVER, changed, serverRepository, Server::getId, deleted);
+
+        // Mientras quedan páginas se conserva la fecha del token: lo que falta puede ser tan antiguo como él
+        Token next = rows.isEmpty() ? new Token(token.version(), System.currentTimeMillis())
+                : new Token(rows.get(rows.size() - 1).getSeq(), hasMore ? token.issuedAt() : System.currentTimeMillis());
+        return new SyncDelta(encode(next), false, hasMore, tasks, notes, projects, servers, deleted);
+    }
+
+    private SyncDelta snapshot() {
+        // La versión se lee antes: lo que cambie mientras se cargan las listas vuelve en el siguiente delta
+        Token token = new Token(changeFeed.currentVersion(), System.currentTimeMillis());
+        return new SyncDelta(encode(token), true, false, taskRepository.findAll(), dailyNoteRepository.findAll(),
+                projectRepository.findAll(), serverRepository.findAll(), List.of());
+    }
+
+    // Las que siguen existiendo, en su estado actual; las demás, como lápida
+    private static <T> List<T> load(String entity, Map<String, Set<Long>> changed, JpaRepository<T, Long> repository,
+            Function<T, Long> id, List<SyncDelta.Tombstone> deleted) {
+        Set<Long> ids = changed.getOrDefault(entity, Set.of());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<T> found = repository.findAllById(ids);
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        found.forEach(item -> missing.remove(id.apply(item)));
+        missing.forEach(missingId -> deleted.add(new SyncDelta.Tombstone(entity, missingId)));
+        return found;
+    }
+
+    @Scheduled(fixedDelayString = "${ia.sync.prune-ms:3600000}", initialDelayString = "${ia.sync.prune-ms:3600000}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention).minus(PRUNE_MARGIN);
+        Integer removed = transactionTemplate.execute(tx -> changeLogRepository.deleteOlderThan(cutoff));
+        if (removed != null && removed > 0) {
+            log.info("🧹 change_log: {} cambios anteriores a {} eliminados", removed, cutoff);
+        }
+    }
+
+    private record Token(long version, long issuedAt) {
+    }
+
+    /** Token opaco: "versión|emitido en ms" en base64 URL-safe. */
+    private static String encode(Token token) {
+        String raw = token.version() + "|" + token.issuedAt();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Token decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Token de sincronización no válido");
+            }
+            return new Token(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token de sincronización no válido");
+        }
+    }
+}
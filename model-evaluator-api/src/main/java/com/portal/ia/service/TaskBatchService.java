@@ -0,0 +1,305 @@
+package com.portal.ia.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.portal.ia.dto.TaskBatchRequest;
+import com.portal.ia.dto.TaskBatchResult;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Altas, cambios, cambios de estado, desplazamientos de fechas y borrados de
+ * muchas tareas en una sola petición (POST /api/tasks/batch), por ejemplo al mover
+ * un proyecto entero en el timeline o al cerrar tareas en bloque.
+ *
+ * Todo va en una transacción: las tareas se leen con un único SELECT ... IN, cada
+ * operación se valida como en {@link TaskService} y Hibernate manda las sentencias
+ * por lotes de JDBC (hibernate.jdbc.batch_size) al hacer flush. Una operación
+ * inválida se informa en su resultado y no se aplica; con {@code atomic} no se
+ * aplica ninguna. La búsqueda, el timeline, las estadísticas y el feed de cambios
+ * se actualizan tras el commit. Las altas y las tareas que cambian de columna del
+ * tablero van al final de la suya; para eso el lote toma antes de la transacción
+ * los cerrojos de esas columnas (ver {@link TaskRankService}) y los suelta tras el
+ * commit.
+ */
+@Service
+@Slf4j
+public class TaskBatchService {
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskSearchService taskSearchService;
+    private final TaskStatsService taskStatsService;
+    private final TaskTimelineService taskTimelineService;
+    private final TaskRankService taskRankService;
+    private final ChangeFeedService changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOperations;
+
+    public TaskBatchService(TaskRepository taskRepository, ProjectRepository projectRepository,
+            TaskSearchService taskSearchService, TaskStatsService taskStatsService,
+            TaskTimelineService taskTimelineService, TaskRankService taskRankService,
+            ChangeFeedService changeFeed, PlatformTransactionManager transactionManager,
+            @Value("${ia.tasks.batch.max-operations:1000}") int maxOperations) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.taskSearchService = taskSearchService;
+        this.taskStatsService = taskStatsService;
+        this.taskTimelineService = taskTimelineService;
+        this.taskRankService = taskRankService;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOperations = maxOperations;
+    }
+
+    public TaskBatchResult apply(TaskBatchRequest request) {
+        List<TaskBatchRequest.Operation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("El lote no tiene operaciones");
+        }
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("Un lote admite como mucho " + maxOperations + " operaciones");
+        }
+
+        Changes changes = new Changes();
+        // Con los cerrojos tomados antes de abrir la transacción, la última clave que se lee dentro ya es la buena
+        TaskBatchResult result = taskRankService.inColumns(targetColumns(operations),
+                () -> transactionTemplate.execute(status -> {
+                    TaskBatchResult applied = applyAll(operations, changes);
+                    if (request.isAtomic() && applied.getFailed() > 0) {
+                        status.setRollbackOnly();
+                        applied.setApplied(false);
+                    }
+                    return applied;
+                }));
+        if (result.isApplied()) {
+            changes.publish(taskSearchService, taskStatsService, taskTimelineService, changeFeed);
+        }
+        log.debug("📦 Lote de tareas: {} operaciones, {} fallidas, aplicado={}",
+                operations.size(), result.getFailed(), result.isApplied());
+        return result;
+    }
+
+    // Columnas a cuyo final puede ir alguna tarea del lote: las de las altas y las de destino de los cambios
+    private Set<List<Object>> targetColumns(List<TaskBatchRequest.Operation> operations) {
+        Set<Long> changingColumn = operations.stream()
+                .filter(operation -> operation.getId() != null
+                        && ("update".equals(operation.getOp()) || "status".equals(operation.getOp()))
+                        && (operation.getStatus() != null || operation.getProjectId() != null))
+                .map(TaskBatchRequest.Operation::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Object[]> current = new HashMap<>();
+        if (!changingColumn.isEmpty()) {
+            taskRepository.findColumnsByIds(changingColumn).forEach(row -> current.put((Long) row[0], row));
+        }
+        Set<List<Object>> columns = new HashSet<>();
+        for (TaskBatchRequest.Operation operation : operations) {
+            if ("create".equals(operation.getOp())) {
+                columns.add(TaskRankService.column(operation.getProjectId(), operation.getStatus()));
+            } else if (current.containsKey(operation.getId())) {
+                Object[] row = current.get(operation.getId());
+                Long projectId = "update".equals(operation.getOp()) && operation.getProjectId() != null
+                        ? operation.getProjectId() : (Long) row[1];
+                String status = operation.getStatus() != null ? operation.getStatus() : (String) row[2];
+                columns.add(TaskRankService.column(projectId, status));
+            }
+        }
+        return columns;
+    }
+
+    private TaskBatchResult applyAll(List<TaskBatchRequest.Operation> operations, Changes changes) {
+        // Una consulta para todas las tareas y otra para comprobar los proyectos
+        Set<Long> taskIds = operations.stream().map(TaskBatchRequest.Operation::getId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Task> tasks = taskIds.isEmpty() ? Map.of()
+                : taskRepository.findAllById(taskIds).stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+        Set<Long> projectIds = operations.stream().map(TaskBatchRequest.Operation::getProjectId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> existingProjects = projectIds.isEmpty() ? Set.of()
+                : new HashSet<>(projectRepository.findExistingIds(projectIds));
+
+        // Las altas y los cambios de columna van al final; la última clave de cada una se consulta una vez
+        TaskRankService.Appender appender = taskRankService.appender();
+
+        List<TaskBatchResult.Item> results = new ArrayList<>(operations.size());
+        int failed = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchRequest.Operation operation = operations.get(i);
+            try {
+                Long id = apply(operation, tasks, existingProjects, appender, changes);
+                results.add(new TaskBatchResult.Item(i, operation.getOp(), id, true, null));
+            } catch (IllegalArgumentException | EntityNotFoundException e) {
+                results.add(new TaskBatchResult.Item(i, operation.getOp(), operation.getId(), false, e.getMessage()));
+                failed++;
+            }
+        }
+        return new TaskBatchResult(true, operations.size() - failed, failed, results);
+    }
+
+    private Long apply(TaskBatchRequest.Operation operation, Map<Long, Task> tasks, Set<Long> existingProjects,
+            TaskRankService.Appender appender, Changes changes) {
+        String op = operation.getOp() == null ? "" : operation.getOp();
+        if ("create".equals(op)) {
+            if (operation.getId() != null) {
+                throw new IllegalArgumentException("No se puede especificar ID al crear una nueva tarea");
+            }
+            Task task = new Task();
+            copyRequested(operation, task, existingProjects);
+            TaskService.applyCompletionRules(task, null);
+            TaskService.validate(task);
+            appender.placeAtEnd(task);
+            Task created = taskRepository.save(task);
+            changes.created.add(created);
+            return created.getId();
+        }
+
+        Task task = operation.getId() == null || changes.deleted.contains(operation.getId())
+                ? null : tasks.get(operation.getId());
+        if (task == null) {
+            throw new EntityNotFoundException("Tarea con ID " + operation.getId() + " no encontrada.");
+        }
+        // Se valida sobre una copia: la entidad sólo cambia si la operación es válida
+        Task draft = new Task();
+        copyFields(task, draft);
+        switch (op) {
+            case "update" -> copyRequested(operation, draft, existingProjects);
+            case "status" -> draft.setStatus(operation.getStatus());
+            case "shift" -> {
+                if (operation.getDays() == null) {
+                    throw new IllegalArgumentException("Para desplazar una tarea hace falta 'days'");
+                }
+                if (draft.getStartDate() != null) {
+                    draft.setStartDate(draft.getStartDate().plusDays(operation.getDays()));
+                }
+                if (draft.getDueDate() != null) {
+                    draft.setDueDate(draft.getDueDate().plusDays(operation.getDays()));
+                }
+            }
+            case "delete" -> {
+                changes.remember(task);
+                taskRepository.delete(task);
+                changes.deleted.add(task.getId());
+                return task.getId();
+            }
+            default -> throw new IllegalArgumentException(
+                    "Operación no válida: '" + op + "' (create, update, status, shift o delete)");
+        }
+        TaskService.applyCompletionRules(draft, null);
+        TaskService.validate(draft);
+
+        changes.remember(task);
+        TaskStatsService.Slice current = TaskStatsService.Slice.of(task);
+        copyFields(draft, task);
+        if (!TaskService.inSameColumn(current, task)) {
+            appender.placeAtEnd(task);
+        }
+        changes.updated.put(task.getId(), task);
+        return task.getId();
+    }
+
+    // Los campos que vienen informados, como en TaskService.update
+    private void copyRequested(TaskBatchRequest.Operation operation, Task task, Set<Long> existingProjects) {
+        if (operation.getTitle() != null) {
+            task.setTitle(operation.getTitle());
+        }
+        if (operation.getDescription() != null) {
+            task.setDescription(operation.getDescription());
+        }
+        if (operation.getPriority() != null) {
+            task.setPriority(operation.getPriority());
+        }
+        if (operation.getStatus() != null) {
+            task.setStatus(operation.getStatus());
+        }
+        if (operation.getStartDate() != null) {
+            task.setStartDate(operation.getStartDate());
+        }
+        if (operation.getDueDate() != null) {
+            task.setDueDate(operation.getDueDate());
+        }
+        if (operation.getCompletedDate() != null) {
+            task.setCompletedDate(operation.getCompletedDate());
+        }
+        if (operation.getAssignedTo() != null) {
+            task.setAssignedTo(operation.getAssignedTo());
+        }
+        if (operation.getProjectId() != null) {
+            if (!existingProjects.contains(operation.getProjectId())) {
+                throw new EntityNotFoundException("Proyecto con ID " + operation.getProjectId() + " no encontrado.");
+            }
+            task.setProject(projectRepository.getReferenceById(operation.getProjectId()));
+        }
+    }
+
+    private static void copyFields(Task from, Task to) {
+        to.setTitle(from.getTitle());
+        to.setDescription(from.getDescription());
+        to.setPriority(from.getPriority());
+        to.setStatus(from.getStatus());
+        to.setStartDate(from.getStartDate());
+        to.setDueDate(from.getDueDate());
+        to.setCompletedDate(from.getCompletedDate());
+        to.setAssignedTo(from.getAssignedTo());
+        to.setProject(from.getProject());
+    }
+
+    /** Lo que hay que contar a la búsqueda y a las estadísticas cuando el lote se confirma. */
+    private static final class Changes {
+        final List<Task> created = new ArrayList<>();
+        final Map<Long, Task> updated = new LinkedHashMap<>();
+        final Set<Long> deleted = new HashSet<>();
+        final Map<Long, TaskStatsService.Slice> before = new LinkedHashMap<>();
+        final Map<Long, Map<String, Object>> beforeFields = new HashMap<>();
+
+        // Cómo estaba la tarea antes de la primera operación del lote que la toca
+        void remember(Task task) {
+            if (!before.containsKey(task.getId())) {
+                before.put(task.getId(), TaskStatsService.Slice.of(task));
+                beforeFields.put(task.getId(), ChangeFeedService.fields(task));
+            }
+        }
+
+        void publish(TaskSearchService search, TaskStatsService stats, TaskTimelineService timeline,
+                ChangeFeedService feed) {
+            for (Task task : created) {
+                search.indexed(task);
+                timeline.indexed(task);
+                stats.changed(null, TaskStatsService.Slice.of(task));
+                feed.created(ChangeFeedService.TASK, task.getId(), ChangeFeedService.fields(task));
+            }
+            for (Map.Entry<Long, TaskStatsService.Slice> entry : before.entrySet()) {
+                Long id = entry.getKey();
+                if (deleted.contains(id)) {
+                    search.removed(id);
+                    timeline.removed(id);
+                    stats.changed(entry.getValue(), null);
+                    feed.deleted(ChangeFeedService.TASK, id, beforeFields.get(id));
+                } else {
+                    Task task = updated.get(id);
+                    search.indexed(task);
+                    timeline.indexed(task);
+                    stats.changed(entry.getValue(), TaskStatsService.Slice.of(task));
+                    feed.updated(ChangeFeedService.TASK, id, beforeFields.get(id), ChangeFeedService.fields(task));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.portal.ia.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.TaskRepository;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Exportación de tareas en NDJSON o CSV (GET /api/tasks/export) escribiendo
+ * según se lee, en vez de cargar la tabla entera como /api/tasks/list.
+ *
+ * Las tareas llegan con un cursor en el servidor, {@link TaskRepository#EXPORT_FETCH_SIZE}
+ * filas por viaje, y cada tanto se vacía la sesión: la memoria no depende del tamaño
+ * de la tabla.
+ *
+ * El cursor necesita useCursorFetch=true en MySQL, que además pasa todas las sentencias
+ * a preparadas en el servidor (un viaje más por PREPARE). Por eso la exportación no usa
+ * el pool de la aplicación sino uno propio y pequeño, con la misma URL y la opción sólo
+ * en sus conexiones (ia.tasks.export.cursor-fetch, ia.tasks.export.max-connections), y
+ * una sesión de Hibernate abierta sobre su conexión.
+ */
+@Service
+@Slf4j
+public class TaskExportService {
+
+    static final String CSV_HEADER = "id,title,description,priority,status,startDate,dueDate,completedDate,"
+            + "assignedTo,projectId,createdAt,updatedAt";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Formato de exportación no válido: '" + format + "' (ndjson o csv)");
+            }
+        }
+    }
+
+    // Los mismos filtros que TaskRepository.findByFilters, por orden de id
+    static final String EXPORT_QUERY = "SELECT t FROM Task t WHERE "
+            + "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND "
+            + "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND "
+            + "(:status IS NULL OR t.status = :status) AND "
+            + "(:priority IS NULL OR t.priority = :priority) AND "
+            + "(:assignedTo IS NULL OR LOWER(t.assignedTo) LIKE LOWER(CONCAT('%', :assignedTo, '%'))) AND "
+            + "(:projectId IS NULL OR t.project.id = :projectId) "
+            + "ORDER BY t.id";
+
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter taskWriter;
+    private final HikariDataSource exportDataSource;
+
+    public TaskExportService(EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper,
+            DataSourceProperties dataSourceProperties,
+            @Value("${ia.tasks.export.cursor-fetch:true}") boolean cursorFetch,
+            @Value("${ia.tasks.export.max-connections:2}") int maxConnections) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+        // Sin flush por fila: se vacía el búfer una vez por lote
+        this.taskWriter = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Misma URL, driver y credenciales que la aplicación. No abre conexiones hasta exportar
+        this.exportDataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (cursorFetch) {
+            this.exportDataSource.addDataSourceProperty("useCursorFetch", "true");
+        }
+        this.exportDataSource.setPoolName("task-export");
+        this.exportDataSource.setMaximumPoolSize(maxConnections);
+        this.exportDataSource.setMinimumIdle(0);
+        this.exportDataSource.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exportDataSource.close();
+    }
+
+    /** Escribe en {@code out} las tareas que cumplen los filtros y devuelve cuántas han sido. */
+    public long export(Format format, String title, String description, String status, String priority,
+            String assignedTo, Long projectId, OutputStream out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        // El stream necesita la conexión abierta, y en una transacción, mientras se recorre
+        long written;
+        try (Connection connection = exportDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Session session = sessionFactory.withOptions().connection(connection).openSession();
+                    Stream<Task> tasks = session.createSelectionQuery(EXPORT_QUERY, Task.class)
+                        .setParameter("title", title)
+                        .setParameter("description", description)
+                        .setParameter("status", status)
+                        .setParameter("priority", priority)
+                        .setParameter("assignedTo", assignedTo)
+                        .setParameter("projectId", projectId)
+                        .setFetchSize(TaskRepository.EXPORT_FETCH_SIZE)
+                        .setReadOnly(true)
+                        .getResultStream()) {
+                written = format == Format.CSV
+                        ? writeCsv(tasks.iterator(), writer, session)
+                        : writeNdjson(tasks.iterator(), writer, session);
+            } finally {
+                connection.rollback(); // sólo lectura: no hay nada que confirmar
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error leyendo las tareas a exportar", e);
+        }
+        writer.flush();
+        log.info("📤 Exportadas {} tareas en {} ({} ms)", written, format, System.currentTimeMillis() - startedAt);
+        return written;
+    }
+
+    private long writeNdjson(Iterator<Task> tasks, Writer writer, Session session) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null); // el separador es el salto de línea
+        long count = 0;
+        while (tasks.hasNext()) {
+            taskWriter.writeValue(generator, tasks.next());
+            generator.writeRaw('\n');
+            count = written(count, writer, generator, session);
+        }
+        generator.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Task> tasks, Writer writer, Session session) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long count = 0;
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            Object[] values = { task.getId(), task.getTitle(), task.getDescription(), task.getPriority(),
+                    task.getStatus(), task.getStartDate(), task.getDueDate(), task.getCompletedDate(),
+                    task.getAssignedTo(), task.getProjectId(), task.getCreatedAt(), task.getUpdatedAt() };
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values[i]));
+            }
+            writer.write("\r\n");
+            count = written(count, writer, null, session);
+        }
+        return count;
+    }
+
+    // Cada lote del cursor: fuera las entidades ya escritas y lo pendiente, a la respuesta
+    private long written(long count, Writer writer, JsonGenerator generator, Session session) throws IOException {
+        count++;
+        if (count % TaskRepository.EXPORT_FETCH_SIZE == 0) {
+            session.clear();
+            if (generator != null) {
+                generator.flush();
+            }
+            writer.flush();
+        }
+        return count;
+    }
+
+    /** Campo CSV (RFC 4180): entre comillas si lleva separador, comillas o saltos de línea. */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,278 @@
+package com.portal.ia.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.TaskRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Orden manual de las tareas dentro de cada columna (proyecto, estado) con las
+ * claves fraccionarias de {@link RankKeys}: mover una tarea es un UPDATE de su
+ * sort_key, sin renumerar al resto de la columna.
+ *
+ * Las tareas nuevas van al final de su columna. Cuando una clave pasa de
+ * ia.tasks.rank.rebalance-length (muchas inserciones en el mismo hueco), la columna
+ * se reequilibra en segundo plano con claves cortas y consecutivas; lo mismo se hace
+ * al arrancar con las columnas que tengan tareas sin clave.
+ *
+ * Quien calcula una clave a partir de las de otras tareas (altas, mover, pasar al
+ * final de otra columna) escribe con el cerrojo de la columna, el mismo que toma el
+ * reequilibrado, así que dos altas simultáneas no reciben la misma clave; si la
+ * columna se reequilibró después de leer las vecinas, el movimiento se rechaza en
+ * vez de guardar una clave calculada con las viejas. Los lotes toman los cerrojos de
+ * todas sus columnas antes de abrir la transacción y los sueltan tras el commit.
+ */
+@Service
+@Slf4j
+public class TaskRankService {
+
+    private final TaskRepository taskRepository;
+    private final ChangeFeedService changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebalanceLength;
+    private final boolean backfillOnStartup;
+
+    // Un solo hilo: los reequilibrados no compiten entre sí
+    private final ExecutorService rebalancer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-rank-rebalance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<List<Object>> scheduled = ConcurrentHashMap.newKeySet();
+
+    // Cerrojos por columna, repartidos en un número fijo para no crecer con cada estado recibido
+    private final ReentrantLock[] columnLocks = new ReentrantLock[64];
+    // Número de reequilibrados y el último de cada columna
+    private final AtomicLong rebalances = new AtomicLong();
+    private final Map<List<Object>, Long> rebalancedAt = new ConcurrentHashMap<>();
+
+    public TaskRankService(
+            TaskRepository taskRepository,
+            ChangeFeedService changeFeed,
+            PlatformTransactionManager transactionManager,
+            @Value("${ia.tasks.rank.rebalance-length:32}") int rebalanceLength,
+            @Value("${ia.tasks.rank.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.taskRepository = taskRepository;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebalanceLength = rebalanceLength;
+        this.backfillOnStartup = backfillOnStartup;
+        for (int i = 0; i < columnLocks.length; i++) {
+            columnLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        for (Object[] column : taskRepository.findColumnsWithoutSortKey()) {
+            scheduleRebalance((Long) column[0], (String) column[1]);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebalancer.shutdownNow();
+    }
+
+    /** Tareas de la columna en su orden manual. */
+    public List<Task> getColumn(Long projectId, String status) {
+        return projectId == null
+                ? taskRepository.findByProjectIsNullAndStatusOrderBySortKeyAscIdAsc(status)
+                : taskRepository.findByProject_IdAndStatusOrderBySortKeyAscIdAsc(projectId, status);
+    }
+
+    /**
+     * Pone al final de su columna las tareas nuevas. Guarda la última clave de cada
+     * columna, así que un lote de altas sólo consulta la BBDD una vez por columna.
+     */
+    public Appender appender() {
+        return new Appender();
+    }
+
+    public final class Appender {
+
+        private final Map<List<Object>, String> lastKeys = new HashMap<>();
+
+        /**
+         * @throws IllegalStateException si no se tiene el cerrojo de la columna (p. ej.
+         *         una tarea de un lote cambió de columna mientras se aplicaba)
+         */
+        public void placeAtEnd(Task task) {
+            List<Object> column = column(task.getProjectId(), task.getStatus());
+            if (!lockOf(column).isHeldByCurrentThread()) {
+                throw new IllegalStateException("La columna ha cambiado mientras se escribía; vuelve a intentarlo");
+            }
+            String last = lastKeys.containsKey(column) ? lastKeys.get(column) : lastKey(task.getProjectId(), task.getStatus());
+            String key = RankKeys.between(last, null);
+            lastKeys.put(column, key);
+            task.setSortKey(key);
+        }
+    }
+
+    /** Clave de una columna del tablero para {@link #inColumns(Collection, Supplier)}. */
+    public static List<Object> column(Long projectId, String status) {
+        return Arrays.asList(projectId, status);
+    }
+
+    /**
+     * Marca de los reequilibrados hechos hasta ahora. Se toma antes de leer las
+     * vecinas y se pasa a {@link #inColumn(Long, String, long, Supplier)}.
+     */
+    public long rebalanceCount() {
+        return rebalances.get();
+    }
+
+    /** Escribe con el cerrojo de la columna: no se cruza con su reequilibrado. */
+    public <T> T inColumn(Long projectId, String status, Supplier<T> write) {
+        return inColumn(projectId, status, Long.MAX_VALUE, write);
+    }
+
+    /**
+     * Como {@link #inColumn(Long, String, Supplier)}, pero falla si la columna se ha
+     * reequilibrado después de {@code seen}: las claves leídas ya no valen.
+     *
+     * @throws IllegalStateException si la columna se reequilibró entretanto
+     */
+    public <T> T inColumn(Long projectId, String status, long seen, Supplier<T> write) {
+        List<Object> column = column(projectId, status);
+        ReentrantLock lock = lockOf(column);
+        lock.lock();
+        try {
+            if (rebalancedAt.getOrDefault(column, 0L) > seen) {
+                throw new IllegalStateException("El orden de la columna ha cambiado; vuelve a cargarla");
+            }
+            return write.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Escribe con los cerrojos de varias columnas a la vez, para los lotes. Se toman
+     * siempre en el mismo orden, así que dos lotes no se bloquean entre sí.
+     */
+    public <T> T inColumns(Collection<List<Object>> columns, Supplier<T> write) {
+        Set<Integer> stripes = new TreeSet<>();
+        columns.forEach(column -> stripes.add(stripeOf(column)));
+        List<ReentrantLock> locked = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                columnLocks[stripe].lock();
+                locked.add(columnLocks[stripe]);
+            }
+            return write.get();
+        } finally {
+            locked.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private ReentrantLock lockOf(List<Object> column) {
+        return columnLocks[stripeOf(column)];
+    }
+
+    private int stripeOf(List<Object> column) {
+        return Math.floorMod(column.hashCode(), columnLocks.length);
+    }
+
+    private String lastKey(Long projectId, String status) {
+        return projectId == null
+                ? taskRepository.findLastSortKeyWithoutProject(status)
+                : taskRepository.findLastSortKeyInProject(projectId, status);
+    }
+
+    /** Si la clave ya es demasiado larga, reequilibra su columna en segundo plano. */
+    public void checkLength(Task task) {
+        if (task.getSortKey() != null && task.getSortKey().length() > rebalanceLength) {
+            scheduleRebalance(task.getProjectId(), task.getStatus());
+        }
+    }
+
+    public void scheduleRebalance(Long projectId, String status) {
+        List<Object> column = column(projectId, status);
+        if (!scheduled.add(column)) {
+            return; // ya está en cola
+        }
+        rebalancer.execute(() -> {
+            scheduled.remove(column);
+            try {
+                rebalance(projectId, status);
+            } catch (RuntimeException e) {
+                log.error("❌ Error reequilibrando el orden de la columna proyecto={} estado={}", projectId, status, e);
+            }
+        });
+    }
+
+    /**
+     * Da a toda la columna claves cortas y consecutivas conservando el orden (las
+     * tareas sin clave quedan al final, por id). Sólo cambia sort_key, no updatedAt;
+     * el feed de cambios lo cuenta tras el commit.
+     */
+    public void rebalance(Long projectId, String status) {
+        List<Object> column = column(projectId, status);
+        ReentrantLock lock = lockOf(column);
+        lock.lock();
+        try {
+            int changed = rebalanceColumn(projectId, status);
+            if (changed > 0) {
+                rebalancedAt.put(column, rebalances.incrementAndGet());
+            }
+            log.info("↕️ Orden de la columna proyecto={} estado={} reequilibrado: {} claves nuevas", projectId, status, changed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int rebalanceColumn(Long projectId, String status) {
+        return transactionTemplate.execute(tx -> {
+            List<Task> tasks = getColumn(projectId, status);
+            // Las que no tienen clave salen primero (NULL va delante): se pasan al final
+            List<Task> ordered = new ArrayList<>(tasks.stream().filter(task -> task.getSortKey() != null).toList());
+            tasks.stream().filter(task -> task.getSortKey() == null).forEach(ordered::add);
+            int updates = 0;
+            String key = null;
+            for (Task task : ordered) {
+                key = RankKeys.between(key, null);
+                if (!key.equals(task.getSortKey())) {
+                    taskRepository.updateSortKey(task.getId(), key);
+                    changeFeed.updated(ChangeFeedService.TASK, task.getId(),
+                            sortKey(task.getSortKey(), projectId), sortKey(key, projectId));
+                    updates++;
+                }
+            }
+            return updates;
+        });
+    }
+
+    private static Map<String, Object> sortKey(String key, Long projectId) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("sortKey", key);
+        fields.put("projectId", projectId);
+        return fields;
+    }
+}
@@ -0,0 +1,608 @@
+package com.portal.ia.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 🔹 Índice invertido en memoria para la búsqueda de tareas por texto.
+ *
+ * Cada término apunta a una lista de postings con arrays primitivos (documento
+ * interno y frecuencia), ordenada por documento porque los documentos sólo se
+ * añaden al final. Actualizar una tarea la marca como borrada y la añade de
+ * nuevo; cuando los borrados pasan de un cuarto del índice se compacta.
+ *
+ * La búsqueda normaliza como la indexación (minúsculas y sin tildes), exige
+ * todos los términos de la consulta, toma el último como prefijo si la consulta
+ * no termina en espacio y ordena por BM25, con el título valiendo el doble que
+ * la descripción. Se empieza por el término más raro y el resto se cruza sólo
+ * con esos candidatos, por búsqueda binaria cuando hay pocos.
+ */
+public final class TaskSearchIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+    static final int TITLE_WEIGHT = 2;
+    static final float PREFIX_WEIGHT = 0.8f;   // una palabra que sólo empieza por el prefijo puntúa algo menos
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final char[] FOLD = new char[0x250];
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "o", "para", "pero",
+        "por", "que", "se", "su", "sus", "un", "una", "y");
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            if (Character.isLetterOrDigit(c)) {
+                char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+                FOLD[c] = Character.toLowerCase(base);
+            }
+        }
+    }
+
+    /** Tarea ya tokenizada, lista para añadir al índice (se puede preparar en paralelo). */
+    public record Document(long taskId, String[] terms, int[] frequencies, int length) {
+    }
+
+    public record Hit(long taskId, float score) {
+    }
+
+    /** Resultado de una búsqueda: las tareas mejor puntuadas y los términos que casaron, para resaltar. */
+    public record Result(List<Hit> hits, Set<String> terms) {
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private final int maxPrefixExpansions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> docByTask = new HashMap<>();
+    private long[] taskIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+
+    public TaskSearchIndex(int maxPrefixExpansions) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    // ---------------------------------------------------------------- análisis
+
+    /** Recorre las palabras de {@code text} normalizadas, con su posición en el texto original. */
+    interface TokenSink {
+        void token(String term, int start, int end);
+    }
+
+    static void tokenize(String text, TokenSink sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder term = new StringBuilder();
+        int start = -1;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char folded = i < n ? fold(text.charAt(i)) : 0;
+            if (folded != 0) {
+                if (start < 0) {
+                    start = i;
+                }
+                if (term.length() < MAX_TOKEN_LENGTH) {
+                    term.append(folded);
+                }
+            } else if (start >= 0) {
+                sink.token(term.toString(), start, i);
+                term.setLength(0);
+                start = -1;
+            }
+        }
+    }
+
+    private static char fold(char c) {
+        if (c < FOLD.length) {
+            return FOLD[c];
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : 0;
+    }
+
+    public static Document analyze(long taskId, String title, String description) {
+        Map<String, int[]> frequencies = new LinkedHashMap<>();
+        int[] length = new int[1];
+        TokenSink titleSink = (term, start, end) -> {
+            if (!STOPWORDS.contains(term)) {
+                frequencies.computeIfAbsent(term, t -> new int[1])[0] += TITLE_WEIGHT;
+                length[0] += TITLE_WEIGHT;
+            }
+        };
+        TokenSink descriptionSink = (term, start, end) -> {
+            if (!STOPWORDS.contains(term)) {
+                frequencies.computeIfAbsent(term, t -> new int[1])[0]++;
+                length[0]++;
+            }
+        };
+        tokenize(title, titleSink);
+        tokenize(description, descriptionSink);
+
+        String[] terms = new String[frequencies.size()];
+        int[] freqs = new int[terms.length];
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            terms[i] = entry.getKey();
+            freqs[i++] = entry.getValue()[0];
+        }
+        return new Document(taskId, terms, freqs, length[0]);
+    }
+
+    // ----------------------------------------------------------- actualización
+
+    public void put(long taskId, String title, String description) {
+        put(analyze(taskId, title, description));
+    }
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.taskId());
+            compactIfNeeded();
+            int doc = docCount++;
+            if (doc == taskIds.length) {
+                taskIds = Arrays.copyOf(taskIds, doc * 2);
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            taskIds[doc] = document.taskId();
+            lengths[doc] = document.length();
+            totalLength += document.length();
+            docByTask.put(document.taskId(), doc);
+            String[] terms = document.terms();
+            int[] freqs = document.frequencies();
+            for (int i = 0; i < terms.length; i++) {
+                dictionary.computeIfAbsent(terms[i], t -> new Postings()).add(doc, freqs[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long taskId) {
+        Integer doc = docByTask.remove(taskId);
+        if (doc != null) {
+            deleted.set(doc);
+            deletedCount++;
+            totalLength -= lengths[doc];
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount > 1024 && deletedCount * 4 > docCount) {
+            compact();
+        }
+    }
+
+    /** Quita los documentos borrados de todas las listas y renumera los vivos. */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                taskIds[live] = taskIds[doc];
+                lengths[live] = lengths[doc];
+                docByTask.put(taskIds[live], live);
+                live++;
+            }
+        }
+        dictionary.values().removeIf(postings -> {
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int doc = remap[postings.docs[i]];
+                if (doc >= 0) {
+                    postings.docs[kept] = doc;
+                    postings.freqs[kept++] = postings.freqs[i];
+                }
+            }
+            postings.size = kept;
+            return kept == 0;
+        });
+        docCount = live;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------- búsqueda
+
+    public Result search(String query, int limit) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(query, (term, start, end) -> tokens.add(term));
+        if (tokens.isEmpty() || limit <= 0) {
+            return new Result(List.of(), Set.of());
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1))
+                && tokens.get(tokens.size() - 1).length() >= MIN_PREFIX_LENGTH;
+        String prefix = lastIsPrefix ? tokens.remove(tokens.size() - 1) : null;
+        List<String> exact = tokens.stream().filter(t -> !STOPWORDS.contains(t)).distinct().toList();
+        if (exact.isEmpty() && prefix == null) {
+            exact = tokens.stream().distinct().toList(); // sólo palabras vacías: no se indexan, no habrá resultados
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = docCount - deletedCount;
+            if (live == 0) {
+                return new Result(List.of(), Set.of());
+            }
+            float averageLength = Math.max(1f, (float) totalLength / live);
+
+            // Cada palabra de la consulta se convierte en una o varias listas con su peso
+            List<List<Map.Entry<Postings, Float>>> clauses = new ArrayList<>();
+            Set<String> matchedTerms = new LinkedHashSet<>();
+            for (String term : exact) {
+                Postings postings = dictionary.get(term);
+                if (postings == null) {
+                    return new Result(List.of(), Set.of());
+                }
+                clauses.add(List.of(Map.entry(postings, idf(postings.size, live))));
+                matchedTerms.add(term);
+            }
+            if (prefix != null) {
+                List<Map.Entry<Postings, Float>> expansions = new ArrayList<>();
+                NavigableMap<String, Postings> completions = dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+                for (Map.Entry<String, Postings> completion : completions.entrySet()) {
+                    if (expansions.size() == maxPrefixExpansions) {
+                        break;
+                    }
+                    float weight = completion.getKey().equals(prefix) ? 1f : PREFIX_WEIGHT;
+                    expansions.add(Map.entry(completion.getValue(), weight * idf(completion.getValue().size, live)));
+                    matchedTerms.add(completion.getKey());
+                }
+                if (expansions.isEmpty()) {
+                    return new Result(List.of(), Set.of());
+                }
+                clauses.add(expansions);
+            }
+            // Manda la cláusula con menos documentos: el resto sólo se consulta para los candidatos
+            clauses.sort((a, b) -> Long.compare(documentFrequency(a), documentFrequency(b)));
+
+            Candidates candidates = Candidates.of(clauses.get(0), lengths, averageLength);
+            for (int c = 1; c < clauses.size() && candidates.size > 0; c++) {
+                candidates.intersect(clauses.get(c), lengths, averageLength);
+            }
+            return new Result(topHits(candidates, limit, averageLength), matchedTerms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long documentFrequency(List<Map.Entry<Postings, Float>> clause) {
+        long df = 0;
+        for (Map.Entry<Postings, Float> entry : clause) {
+            df += entry.getKey().size;
+        }
+        return df;
+    }
+
+    private static int log2(long n) {
+        return 64 - Long.numberOfLeadingZeros(Math.max(1, n));
+    }
+
+    private static float idf(int df, int docs) {
+        // Las listas aún conservan documentos borrados hasta compactar: df no puede pasar de los vivos
+        int liveDf = Math.min(df, docs);
+        return (float) Math.log(1 + (docs - liveDf + 0.5) / (liveDf + 0.5));
+    }
+
+    private static float bm25(float idf, int tf, int length, float averageLength) {
+        return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private List<Hit> topHits(Candidates candidates, int limit, float averageLength) {
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(a.score(), b.score()));
+        for (int i = 0; i < candidates.size; i++) {
+            int doc = candidates.docs[i];
+            if (deleted.get(doc)) {
+                continue;
+            }
+            float score = candidates.score(i, lengths, averageLength);
+            if (top.size() < limit) {
+                top.add(new Hit(taskIds[doc], score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new Hit(taskIds[doc], score));
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort((a, b) -> Float.compare(b.score(), a.score()));
+        return hits;
+    }
+
+    /**
+     * Mejor puntuación por documento al unir las listas de un prefijo expandido, sin
+     * ordenar: se indexa por documento y se deja a cero después de cada uso.
+     */
+    private static final class Scratch {
+        float[] scores = new float[0];
+        final BitSet seen = new BitSet();
+
+        static Scratch forDocs(int docs) {
+            Scratch scratch = SCRATCH.get();
+            if (scratch.scores.length < docs) {
+                scratch.scores = new float[docs];
+            }
+            return scratch;
+        }
+
+        void fill(List<Map.Entry<Postings, Float>> clause, int[] lengths, float averageLength, boolean track) {
+            for (Map.Entry<Postings, Float> entry : clause) {
+                Postings postings = entry.getKey();
+                float idf = entry.getValue();
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    // Varias formas de la misma palabra en la tarea: cuenta la mejor
+                    float score = bm25(idf, postings.freqs[i], lengths[doc], averageLength);
+                    if (score > scores[doc]) {
+                        scores[doc] = score;
+                    }
+                    if (track) {
+                        seen.set(doc);
+                    }
+                }
+            }
+        }
+
+        void clear(List<Map.Entry<Postings, Float>> clause) {
+            for (Map.Entry<Postings, Float> entry : clause) {
+                Postings postings = entry.getKey();
+                for (int i = 0; i < postings.size; i++) {
+                    scores[postings.docs[i]] = 0;
+                }
+            }
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Documentos candidatos ordenados. La cláusula que manda sólo guarda la frecuencia:
+     * su puntuación se calcula al final para los que sobreviven al cruce.
+     */
+    private static final class Candidates {
+        int[] docs;
+        int[] freqs;       // de la cláusula que manda, si es una sola lista
+        float driverIdf;
+        float[] scores;    // lo acumulado por el resto de cláusulas
+        int size;
+
+        static Candidates of(List<Map.Entry<Postings, Float>> clause, int[] lengths, float averageLength) {
+            Candidates candidates = new Candidates();
+            if (clause.size() == 1) {
+                Postings postings = clause.get(0).getKey();
+                candidates.docs = Arrays.copyOf(postings.docs, postings.size);
+                candidates.freqs = Arrays.copyOf(postings.freqs, postings.size);
+                candidates.driverIdf = clause.get(0).getValue();
+                candidates.scores = new float[postings.size];
+                candidates.size = postings.size;
+                return candidates;
+            }
+            // Unión de varias listas (prefijo expandido): el bitset las devuelve ya ordenadas
+            Scratch scratch = Scratch.forDocs(lengths.length);
+            scratch.fill(clause, lengths, averageLength, true);
+            candidates.docs = new int[scratch.seen.cardinality()];
+            candidates.scores = new float[candidates.docs.length];
+            for (int doc = scratch.seen.nextSetBit(0); doc >= 0; doc = scratch.seen.nextSetBit(doc + 1)) {
+                candidates.docs[candidates.size] = doc;
+                candidates.scores[candidates.size++] = scratch.scores[doc];
+                scratch.scores[doc] = 0;
+            }
+            scratch.seen.clear();
+            return candidates;
+        }
+
+        float score(int candidate, int[] lengths, float averageLength) {
+            float driver = freqs == null ? 0 : bm25(driverIdf, freqs[candidate], lengths[docs[candidate]], averageLength);
+            return driver + scores[candidate];
+        }
+
+        /**
+         * Se queda con los candidatos que aparecen en alguna lista de la cláusula y suma su puntuación.
+         * Cada lista se cruza de la forma más barata: recorriendo las dos a la vez, buscando cada
+         * candidato en la lista o buscando cada posting entre los candidatos. Si la cláusula tiene
+         * muchas listas grandes, sale más barato unirlas primero en {@link Scratch}.
+         */
+        void intersect(List<Map.Entry<Postings, Float>> clause, int[] lengths, float averageLength) {
+            float[] added = new float[size];
+            boolean[] matched = new boolean[size];
+            long separately = 0;
+            for (Map.Entry<Postings, Float> entry : clause) {
+                separately += cheapest(entry.getKey().size);
+            }
+            if (clause.size() > 1 && 2 * documentFrequency(clause) + size < separately) {
+                Scratch scratch = Scratch.forDocs(lengths.length);
+                scratch.fill(clause, lengths, averageLength, false);
+                for (int i = 0; i < size; i++) {
+                    float score = scratch.scores[docs[i]];
+                    if (score > 0) {
+                        added[i] = score;
+                        matched[i] = true;
+                    }
+                }
+                scratch.clear(clause);
+            } else {
+                for (Map.Entry<Postings, Float> entry : clause) {
+                    intersect(entry.getKey(), entry.getValue(), lengths, averageLength, added, matched);
+                }
+            }
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (matched[i]) {
+                    docs[kept] = docs[i];
+                    if (freqs != null) {
+                        freqs[kept] = freqs[i];
+                    }
+                    scores[kept++] = scores[i] + added[i];
+                }
+            }
+            size = kept;
+        }
+
+        private long cheapest(int postings) {
+            return Math.min((long) size + postings, Math.min((long) size * log2(postings), (long) postings * log2(size)));
+        }
+
+        private void intersect(Postings postings, float idf, int[] lengths, float averageLength,
+                float[] added, boolean[] matched) {
+            long merge = (long) size + postings.size;
+            long probePostings = (long) size * log2(postings.size);
+            long probeCandidates = (long) postings.size * log2(size);
+            if (probeCandidates < merge && probeCandidates < probePostings) {
+                for (int p = 0, from = 0; p < postings.size && from < size; p++) {
+                    int at = Arrays.binarySearch(docs, from, size, postings.docs[p]);
+                    if (at >= 0) {
+                        score(at, postings, p, idf, lengths, averageLength, added, matched);
+                        from = at + 1;
+                    } else {
+                        from = -at - 1;
+                    }
+                }
+            } else if (probePostings < merge) {
+                for (int i = 0, from = 0; i < size && from < postings.size; i++) {
+                    int at = Arrays.binarySearch(postings.docs, from, postings.size, docs[i]);
+                    if (at >= 0) {
+                        score(i, postings, at, idf, lengths, averageLength, added, matched);
+                        from = at + 1;
+                    } else {
+                        from = -at - 1;
+                    }
+                }
+            } else {
+                for (int i = 0, p = 0; i < size && p < postings.size; i++) {
+                    while (p < postings.size && postings.docs[p] < docs[i]) {
+                        p++;
+                    }
+                    if (p < postings.size && postings.docs[p] == docs[i]) {
+                        score(i, postings, p, idf, lengths, averageLength, added, matched);
+                    }
+                }
+            }
+        }
+
+        private void score(int candidate, Postings postings, int at, float idf, int[] lengths, float averageLength,
+                float[] added, boolean[] matched) {
+            float score = bm25(idf, postings.freqs[at], lengths[docs[candidate]], averageLength);
+            added[candidate] = Math.max(added[candidate], score);
+            matched[candidate] = true;
+        }
+    }
+
+    // ------------------------------------------------------------ resaltado
+
+    /**
+     * Fragmento de {@code text} de unos {@code maxChars} caracteres alrededor de la
+     * primera coincidencia, con HTML escapado y las coincidencias entre {@code <mark>}.
+     */
+    public static String highlight(String text, Set<String> terms, int maxChars) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        List<int[]> matches = new ArrayList<>();
+        tokenize(text, (term, start, end) -> {
+            if (terms.contains(term)) {
+                matches.add(new int[] { start, end });
+            }
+        });
+
+        int from = 0;
+        if (!matches.isEmpty() && text.length() > maxChars) {
+            from = Math.max(0, matches.get(0)[0] - maxChars / 4);
+            while (from > 0 && !Character.isWhitespace(text.charAt(from - 1))) {
+                from--;
+            }
+        }
+        int to = Math.min(text.length(), from + maxChars);
+        while (to < text.length() && to > from && !Character.isWhitespace(text.charAt(to))) {
+            to--;
+        }
+        if (to <= from) {
+            to = Math.min(text.length(), from + maxChars);
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (from > 0) {
+            snippet.append('…');
+        }
+        int position = from;
+        for (int[] match : matches) {
+            if (match[0] < from || match[1] > to) {
+                continue;
+            }
+            escape(text, position, match[0], snippet);
+            snippet.append("<mark>");
+            escape(text, match[0], match[1], snippet);
+            snippet.append("</mark>");
+            position = match[1];
+        }
+        escape(text, position, to, snippet);
+        if (to < text.length()) {
+            snippet.append('…');
+        }
+        return snippet.toString();
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.portal.ia.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.TaskSearchHit;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.TaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Búsqueda de tareas por texto sobre {@link TaskSearchIndex}, en vez de los
+ * LIKE '%x%' de {@link TaskRepository#findByFilters}, que recorren la tabla entera.
+ *
+ * El índice se reconstruye al arrancar, en segundo plano: la BBDD se lee por
+ * lotes de id y cada lote se tokeniza en paralelo. {@link TaskService} avisa de
+ * cada alta, cambio y borrado; los que llegan durante la reconstrucción se
+ * aplican también al índice nuevo antes de ponerlo en uso. Si la reconstrucción
+ * falla se reintenta con esperas crecientes (ia.search.retry-*).
+ *
+ * Mientras no hay índice (reconstruyéndose, desactivado o fallando) la búsqueda va
+ * a la BBDD, como el timeline: las ia.search.fallback-max-candidates tareas más
+ * recientes que contienen la palabra más larga de la consulta se puntúan con un
+ * índice temporal. Es más lenta y sólo mira esas candidatas, pero responde.
+ */
+@Service
+@Slf4j
+public class TaskSearchService {
+
+    static final int SNIPPET_CHARS = 160;
+
+    private final TaskRepository taskRepository;
+    private final boolean rebuildOnStartup;
+    private final int rebuildThreads;
+    private final int batchSize;
+    private final int maxPrefixExpansions;
+    private final long retryInitialMs;
+    private final long retryMaxMs;
+    private final int fallbackMaxCandidates;
+
+    private final Object writeLock = new Object();
+    private volatile TaskSearchIndex index;
+    private volatile boolean ready;
+    private List<Consumer<TaskSearchIndex>> pendingDuringRebuild;
+
+    public TaskSearchService(
+            TaskRepository taskRepository,
+            @Value("${ia.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+            @Value("${ia.search.rebuild-threads:4}") int rebuildThreads,
+            @Value("${ia.search.batch-size:5000}") int batchSize,
+            @Value("${ia.search.max-prefix-expansions:64}") int maxPrefixExpansions,
+            @Value("${ia.search.retry-initial-ms:1000}") long retryInitialMs,
+            @Value("${ia.search.retry-max-ms:60000}") long retryMaxMs,
+            @Value("${ia.search.fallback-max-candidates:500}") int fallbackMaxCandidates) {
+        this.taskRepository = taskRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.rebuildThreads = rebuildThreads;
+        this.batchSize = batchSize;
+        this.maxPrefixExpansions = maxPrefixExpansions;
+        this.retryInitialMs = retryInitialMs;
+        this.retryMaxMs = retryMaxMs;
+        this.fallbackMaxCandidates = fallbackMaxCandidates;
+        this.index = new TaskSearchIndex(maxPrefixExpansions);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        Thread rebuilder = new Thread(this::rebuildUntilReady, "task-search-rebuild");
+        rebuilder.setDaemon(true);
+        rebuilder.start();
+    }
+
+    /** Reconstruye el índice hasta conseguirlo, esperando cada vez el doble entre intentos. */
+    void rebuildUntilReady() {
+        long delayMs = retryInitialMs;
+        while (!rebuild() && !ready) {
+            log.warn("⚠️ Índice de búsqueda de tareas sin construir; nuevo intento en {} ms (mientras, se busca en BBDD)",
+                    delayMs);
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delayMs = Math.min(delayMs * 2, retryMaxMs);
+        }
+    }
+
+    /**
+     * Reconstruye el índice entero desde la BBDD y lo sustituye al terminar.
+     *
+     * @return si el índice se ha construido (falso si ha fallado o ya había otra reconstrucción en marcha)
+     */
+    public boolean rebuild() {
+        synchronized (writeLock) {
+            if (pendingDuringRebuild != null) {
+                return false; // ya hay una reconstrucción en marcha
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        long startedAt = System.currentTimeMillis();
+        TaskSearchIndex fresh = new TaskSearchIndex(maxPrefixExpansions);
+        ForkJoinPool pool = new ForkJoinPool(rebuildThreads);
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Object[]> rows = taskRepository.findSearchableAfter(afterId, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<TaskSearchIndex.Document> documents = pool.submit(() -> rows.parallelStream()
+                        .map(row -> TaskSearchIndex.analyze((Long) row[0], (String) row[1], (String) row[2]))
+                        .toList()).get();
+                documents.forEach(fresh::put);
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            synchronized (writeLock) {
+                pendingDuringRebuild.forEach(change -> change.accept(fresh));
+                index = fresh;
+                ready = true;
+            }
+            log.info("🔎 Índice de búsqueda de tareas construido: {} tareas en {} ms",
+                    fresh.size(), System.currentTimeMillis() - startedAt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("❌ Error construyendo el índice de búsqueda de tareas", e);
+            return false;
+        } finally {
+            pool.shutdown();
+            synchronized (writeLock) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void indexed(Task task) {
+        if (task.getId() == null) {
+            return;
+        }
+        TaskSearchIndex.Document document = TaskSearchIndex.analyze(task.getId(), task.getTitle(), task.getDescription());
+        apply(target -> target.put(document));
+    }
+
+    public void removed(Long taskId) {
+        apply(target -> target.remove(taskId));
+    }
+
+    private void apply(Consumer<TaskSearchIndex> change) {
+        synchronized (writeLock) {
+            change.accept(index);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        }
+    }
+
+    /**
+     * Tareas que contienen todas las palabras de {@code query} (la última como
+     * prefijo), de más a menos relevante, con el título y un fragmento resaltados.
+     * Sin índice, se buscan en la BBDD.
+     */
+    public List<TaskSearchHit> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        TaskSearchIndex.Result result = ready ? index.search(query, limit) : searchDatabase(query, limit);
+        if (result.hits().isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = result.hits().stream().map(TaskSearchIndex.Hit::taskId).toList();
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<TaskSearchHit> hits = new ArrayList<>(ids.size());
+        for (TaskSearchIndex.Hit hit : result.hits()) {
+            Task task = tasks.get(hit.taskId());
+            if (task == null) {
+                continue; // borrada entre la búsqueda y la carga
+            }
+            hits.add(new TaskSearchHit(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(),
+                    task.getProjectId(), hit.score(),
+                    TaskSearchIndex.highlight(task.getTitle(), result.terms(), Integer.MAX_VALUE),
+                    TaskSearchIndex.highlight(task.getDescription(), result.terms(), SNIPPET_CHARS)));
+        }
+        return hits;
+    }
+
+    // Candidatas por LIKE de la palabra más larga, puntuadas con un índice sólo para ellas
+    private TaskSearchIndex.Result searchDatabase(String query, int limit) {
+        String[] longest = {null};
+        TaskSearchIndex.tokenize(query, (term, start, end) -> {
+            if (longest[0] == null || end - start > longest[0].length()) {
+                longest[0] = query.substring(start, end);
+            }
+        });
+        if (longest[0] == null) {
+            return new TaskSearchIndex.Result(List.of(), Set.of());
+        }
+        TaskSearchIndex candidates = new TaskSearchIndex(maxPrefixExpansions);
+        for (Object[] row : taskRepository.findSearchableContaining(longest[0],
+                PageRequest.of(0, fallbackMaxCandidates))) {
+            candidates.put(TaskSearchIndex.analyze((Long) row[0], (String) row[1], (String) row[2]));
+        }
+        return candidates.search(query, limit);
+    }
+}
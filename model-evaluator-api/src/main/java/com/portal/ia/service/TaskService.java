@@ -1,17 +1,33 @@
 package com.portal.ia.service;
 
+import com.portal.ia.dto.TaskBoard;
+import com.portal.ia.dto.TaskCursorPage;
 import com.portal.ia.entity.Task;
 import com.portal.ia.entity.Project;
 import com.portal.ia.repository.TaskRepository;
 import com.portal.ia.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
@@ -19,12 +35,40 @@ public class TaskService {
 	
 	private static final String STATUS_COMPLETADA = "completada";
 
+    // Columnas válidas para paginar con cursor: siempre informadas y únicas junto al id
+    private static final Set<String> CURSOR_ORDER_FIELDS = Set.of("updatedAt", "createdAt", "id");
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+    private static final int MAX_TOTAL_ESTIMATES = 1000;
+    // Columnas del tablero kanban, en el orden en que se pintan
+    private static final List<String> BOARD_STATUSES = List.of("pendiente", "en_progreso", STATUS_COMPLETADA);
+
+    @Value("${ia.tasks.total-estimate-ttl-ms:60000}")
+    private long totalEstimateTtlMs;
+
+    private final Map<List<Object>, CachedTotal> totalEstimates = new ConcurrentHashMap<>();
+
+    private record CachedTotal(long count, long computedAt) {
+    }
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
-
-    public TaskService(TaskRepository taskRepository, ProjectRepository projectRepository) {
+    private final TaskSearchService taskSearchService;
+    private final TaskStatsService taskStatsService;
+    private final TaskTimelineService taskTimelineService;
+    private final TaskRankService taskRankService;
+    private final ChangeFeedService changeFeed;
+
+    public TaskService(TaskRepository taskRepository, ProjectRepository projectRepository,
+            TaskSearchService taskSearchService, TaskStatsService taskStatsService,
+            TaskTimelineService taskTimelineService, TaskRankService taskRankService,
+            ChangeFeedService changeFeed) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
+        this.taskSearchService = taskSearchService;
+        this.taskStatsService = taskStatsService;
+        this.taskTimelineService = taskTimelineService;
+        this.taskRankService = taskRankService;
+        this.changeFeed = changeFeed;
     }
 
     public List<Task> getAll() {
@@ -72,7 +116,300 @@ public class TaskService {
         return taskRepository.findByFilters(title, description, status, priority, assignedTo, projectId, sortedPageable);
     }
 
+    /**
+     * 🔹 Paginación por cursor (keyset) para listados grandes: en vez de OFFSET
+     * se filtra a partir de la clave (orden, id) de la última fila devuelta, así
+     * que cualquier página cuesta lo mismo que la primera, y no se lanza el
+     * COUNT(*) de cada página. El total aproximado es opcional y sale de una
+     * caché por combinación de filtros (ia.tasks.total-estimate-ttl-ms).
+     */
+    public TaskCursorPage getTasksByCursor(
+            String title,
+            String description,
+            String status,
+            String priority,
+            String assignedTo,
+            Long projectId,
+            String orderBy,
+            boolean isOrderDesc,
+            int size,
+            String cursor,
+            boolean withTotal) {
+
+        if (!CURSOR_ORDER_FIELDS.contains(orderBy)) {
+            throw new IllegalArgumentException("Con cursor sólo se puede ordenar por " + CURSOR_ORDER_FIELDS);
+        }
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        Sort.Direction direction = isOrderDesc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // El id desempata filas con el mismo valor de orden
+        Sort sort = "id".equals(orderBy) ? Sort.by(direction, "id") : Sort.by(direction, orderBy, "id");
+        ScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : decodeCursor(cursor, orderBy, isOrderDesc);
+
+        Specification<Task> filters = filters(title, description, status, priority, assignedTo, projectId);
+        Window<Task> window = taskRepository.findBy(filters,
+                query -> query.sortBy(sort).limit(size).scroll(position));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encodeCursor(orderBy, isOrderDesc, window.positionAt(window.size() - 1))
+                : null;
+        Long approximateTotal = withTotal
+                ? estimateTotal(filters, title, description, status, priority, assignedTo, projectId)
+                : null;
+        return new TaskCursorPage(window.getContent(), window.size(), window.hasNext(), nextCursor, approximateTotal);
+    }
+
+    /**
+     * 🔹 Tablero kanban: por cada estado, cuántas tareas hay y las primeras
+     * {@code perColumn} en el orden de /api/tasks/scroll (updatedAt e id
+     * descendentes). Una consulta con ROW_NUMBER() por estado trae los ids y los
+     * totales y otra carga esas tareas, así que abrir un tablero con miles de tareas
+     * cuesta lo mismo que con unas pocas. Cada columna lleva el cursor para seguir
+     * cargando con /api/tasks/scroll y los mismos filtros.
+     */
+    public TaskBoard getBoard(int perColumn, String assignedTo, Long projectId) {
+        if (perColumn < 1 || perColumn > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Las tareas por columna deben estar entre 1 y " + MAX_CURSOR_PAGE_SIZE);
+        }
+        String assignee = assignedTo == null || assignedTo.isEmpty() ? null : assignedTo;
+
+        Map<String, List<Long>> idsByStatus = new HashMap<>();
+        Map<String, Long> totals = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (Object[] row : taskRepository.findBoardColumns(BOARD_STATUSES, assignee, projectId, perColumn)) {
+            Long id = ((Number) row[0]).longValue();
+            String status = (String) row[1];
+            idsByStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(id);
+            totals.put(status, ((Number) row[2]).longValue());
+            ids.add(id);
+        }
+        Map<Long, Task> loaded = ids.isEmpty() ? Map.of()
+                : taskRepository.findAllById(ids).stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<TaskBoard.Column> columns = new ArrayList<>(BOARD_STATUSES.size());
+        for (String status : BOARD_STATUSES) {
+            List<Task> tasks = new ArrayList<>();
+            for (Long id : idsByStatus.getOrDefault(status, List.of())) {
+                Task task = loaded.get(id);
+                if (task != null) { // borrada entre las dos consultas
+                    tasks.add(task);
+                }
+            }
+            long total = totals.getOrDefault(status, 0L);
+            boolean hasMore = total > tasks.size() && !tasks.isEmpty();
+            String nextCursor = null;
+            if (hasMore) {
+                Task last = tasks.get(tasks.size() - 1);
+                Map<String, Object> keys = new LinkedHashMap<>();
+                keys.put("updatedAt", last.getUpdatedAt());
+                keys.put("id", last.getId());
+                nextCursor = encodeCursor("updatedAt", true, ScrollPosition.forward(keys));
+            }
+            columns.add(new TaskBoard.Column(status, total, tasks, hasMore, nextCursor));
+        }
+        return new TaskBoard(columns);
+    }
+
+    private static Specification<Task> filters(String title, String description, String status, String priority,
+            String assignedTo, Long projectId) {
+        Specification<Task> spec = Specification.where(null);
+        if (title != null && !title.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("title")), "%" + title.toLowerCase() + "%"));
+        }
+        if (description != null && !description.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("description")), "%" + description.toLowerCase() + "%"));
+        }
+        if (status != null && !status.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (priority != null && !priority.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("priority"), priority));
+        }
+        if (assignedTo != null && !assignedTo.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("assignedTo")), "%" + assignedTo.toLowerCase() + "%"));
+        }
+        if (projectId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("project").get("id"), projectId));
+        }
+        return spec;
+    }
+
+    private long estimateTotal(Specification<Task> filters, Object... key) {
+        List<Object> cacheKey = Arrays.asList(key);
+        long now = System.currentTimeMillis();
+        CachedTotal cached = totalEstimates.get(cacheKey);
+        if (cached != null && now - cached.computedAt() < totalEstimateTtlMs) {
+            return cached.count();
+        }
+        long count = taskRepository.count(filters);
+        if (totalEstimates.size() >= MAX_TOTAL_ESTIMATES) {
+            totalEstimates.clear();
+        }
+        totalEstimates.put(cacheKey, new CachedTotal(count, now));
+        return count;
+    }
+
+    /** Cursor opaco: "orden|dirección|valor|id" en base64 URL-safe. */
+    static String encodeCursor(String orderBy, boolean isOrderDesc, ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        String raw = orderBy + "|" + (isOrderDesc ? "desc" : "asc") + "|" + keys.get(orderBy) + "|" + keys.get("id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ScrollPosition decodeCursor(String cursor, String orderBy, boolean isOrderDesc) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor no válido");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Cursor no válido");
+        }
+        if (!parts[0].equals(orderBy) || !parts[1].equals(isOrderDesc ? "desc" : "asc")) {
+            throw new IllegalArgumentException("El cursor no corresponde a este orden (" + parts[0] + " " + parts[1] + ")");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            if (!"id".equals(orderBy)) {
+                keys.put(orderBy, LocalDateTime.parse(parts[2]));
+            }
+            keys.put("id", Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor no válido");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /** Tareas de una columna del tablero (proyecto, estado) en su orden manual. */
+    public List<Task> getColumn(Long projectId, String status) {
+        if (!BOARD_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("El estado debe ser 'pendiente', 'en_progreso' o 'completada'");
+        }
+        return taskRankService.getColumn(projectId, status);
+    }
+
+    /**
+     * 🔹 Mueve una tarea en el tablero: la deja entre {@code previousId} y
+     * {@code nextId} de su columna (sólo una: al principio o al final; ninguna:
+     * al final) y, si se indica, en otro estado. Sólo se actualiza la fila de la tarea, con una clave
+     * fraccionaria entre las de sus vecinas.
+     *
+     * @throws IllegalStateException si las vecinas ya no están en ese orden o la
+     *         columna se ha reequilibrado: ha cambiado desde que se leyó
+     */
+    public Task move(Long id, String status, Long previousId, Long nextId) {
+        if (id.equals(previousId) || id.equals(nextId)) {
+            throw new IllegalArgumentException("Una tarea no puede ser su propia vecina");
+        }
+        if (previousId != null && previousId.equals(nextId)) {
+            throw new IllegalArgumentException("La tarea anterior y la siguiente no pueden ser la misma");
+        }
+        if (status != null && !BOARD_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("El estado debe ser 'pendiente', 'en_progreso' o 'completada'");
+        }
+        // Antes de leer las vecinas: si la columna se reequilibra después, sus claves ya no valen
+        long seen = taskRankService.rebalanceCount();
+        // Tarea y vecinas en un solo SELECT ... IN
+        Set<Long> ids = new HashSet<>();
+        ids.add(id);
+        if (previousId != null) {
+            ids.add(previousId);
+        }
+        if (nextId != null) {
+            ids.add(nextId);
+        }
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Task task = tasks.get(id);
+        if (task == null) {
+            throw new EntityNotFoundException("Tarea con ID " + id + " no encontrada.");
+        }
+        String targetStatus = status == null ? task.getStatus() : status;
+        Task previous = neighbour(tasks, previousId, task.getProjectId(), targetStatus);
+        Task next = neighbour(tasks, nextId, task.getProjectId(), targetStatus);
+
+        String previousKey = previous == null ? null : previous.getSortKey();
+        String nextKey = next == null ? null : next.getSortKey();
+        if ((previous != null && previousKey == null) || (next != null && nextKey == null)) {
+            // Columna con tareas anteriores al orden manual que aún no se ha reequilibrado
+            taskRankService.scheduleRebalance(task.getProjectId(), targetStatus);
+            throw new IllegalStateException("La columna aún no tiene orden manual; inténtalo de nuevo en unos segundos");
+        }
+        if (previousKey != null && nextKey != null && previousKey.compareTo(nextKey) >= 0) {
+            if (previousKey.equals(nextKey)) {
+                // Dos altas simultáneas al final de la columna: hay que separarlas
+                taskRankService.scheduleRebalance(task.getProjectId(), targetStatus);
+            }
+            throw new IllegalStateException("El orden de la columna ha cambiado; vuelve a cargarla");
+        }
+
+        TaskStatsService.Slice before = TaskStatsService.Slice.of(task);
+        Map<String, Object> beforeFields = ChangeFeedService.fields(task);
+        String previousStatus = task.getStatus();
+        task.setStatus(targetStatus);
+        applyCompletionRules(task, previousStatus);
+        Task saved = taskRankService.inColumn(task.getProjectId(), targetStatus, seen, () -> {
+            if (previous == null && next == null) {
+                // Sin vecinas (p. ej. soltada sobre la columna): al final
+                taskRankService.appender().placeAtEnd(task);
+            } else {
+                task.setSortKey(RankKeys.between(previousKey, nextKey));
+            }
+            return save(task, before, beforeFields);
+        });
+        taskRankService.checkLength(saved);
+        return saved;
+    }
+
+    private static Task neighbour(Map<Long, Task> tasks, Long id, Long projectId, String status) {
+        if (id == null) {
+            return null;
+        }
+        Task neighbour = tasks.get(id);
+        if (neighbour == null) {
+            throw new EntityNotFoundException("Tarea con ID " + id + " no encontrada.");
+        }
+        if (!Objects.equals(neighbour.getProjectId(), projectId) || !status.equals(neighbour.getStatus())) {
+            throw new IllegalArgumentException("La tarea " + id + " no está en la misma columna (proyecto y estado)");
+        }
+        return neighbour;
+    }
+
     public Task save(Task task) {
+        Optional<Task> existing = task.getId() == null ? Optional.empty() : taskRepository.findById(task.getId());
+        return save(task, existing.map(TaskStatsService.Slice::of).orElse(null),
+                existing.map(ChangeFeedService::fields).orElse(null));
+    }
+
+    // before y beforeFields: cómo estaba la tarea antes del cambio (nulos si es nueva)
+    private Task save(Task task, TaskStatsService.Slice before, Map<String, Object> beforeFields) {
+        validate(task);
+        boolean isNew = task.getId() == null;
+        // Al final de su columna: la última clave se lee y se usa con el cerrojo de la columna
+        Task saved = isNew && task.getSortKey() == null
+                ? taskRankService.inColumn(task.getProjectId(), task.getStatus(), () -> {
+                    taskRankService.appender().placeAtEnd(task);
+                    return taskRepository.save(task);
+                })
+                : taskRepository.save(task);
+        taskSearchService.indexed(saved);
+        taskTimelineService.indexed(saved);
+        taskStatsService.changed(before, TaskStatsService.Slice.of(saved));
+        if (isNew) {
+            changeFeed.created(ChangeFeedService.TASK, saved.getId(), ChangeFeedService.fields(saved));
+        } else {
+            changeFeed.updated(ChangeFeedService.TASK, saved.getId(), beforeFields, ChangeFeedService.fields(saved));
+        }
+        return saved;
+    }
+
+    /** Validaciones de una tarea antes de guardarla; también las usa {@link TaskBatchService}. */
+    static void validate(Task task) {
         // Validaciones básicas
         if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("El título es obligatorio");
@@ -95,8 +432,6 @@ public class TaskService {
                 throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha límite");
             }
         }
-
-        return taskRepository.save(task);
     }
 
     public Task create(Task task) {
@@ -104,7 +439,7 @@ public class TaskService {
             throw new IllegalArgumentException("No se puede especificar ID al crear una nueva tarea");
         }
         applyCompletionRules(task, null);
-        return save(task);
+        return save(task, null, null);
     }
 
     public Task createWithProjectId(Task task, Long projectId) {
@@ -121,7 +456,7 @@ public class TaskService {
             task.setProject(optionalProject.get());
         }
         
-        return save(task);
+        return save(task, null, null);
     }
 
     public Task update(Long id, Task updatedTaskData) {
@@ -131,6 +466,8 @@ public class TaskService {
         }
 
         Task existingTask = optionalTask.get();
+        TaskStatsService.Slice before = TaskStatsService.Slice.of(existingTask);
+        Map<String, Object> beforeFields = ChangeFeedService.fields(existingTask);
         
         // Actualizar solo los campos que no son null
         if (updatedTaskData.getTitle() != null) {
@@ -169,7 +506,20 @@ public class TaskService {
             existingTask.setProject(updatedTaskData.getProject());
         }
         applyCompletionRules(existingTask, /*previousStatus*/ null);
-        return save(existingTask);
+        if (!inSameColumn(before, existingTask)) {
+            // Cambia de columna del tablero: pasa al final de la nueva
+            return taskRankService.inColumn(existingTask.getProjectId(), existingTask.getStatus(), () -> {
+                taskRankService.appender().placeAtEnd(existingTask);
+                return save(existingTask, before, beforeFields);
+            });
+        }
+        return save(existingTask, before, beforeFields);
+    }
+
+    /** Si la tarea sigue en la misma columna (proyecto, estado) del tablero que antes del cambio. */
+    static boolean inSameColumn(TaskStatsService.Slice before, Task task) {
+        return Objects.equals(before.projectId(), task.getProjectId())
+                && Objects.equals(before.status(), task.getStatus());
     }
 
     public void deleteById(Long id) {
@@ -178,34 +528,28 @@ public class TaskService {
             throw new EntityNotFoundException("Tarea con ID " + id + " no encontrada.");
         }
         taskRepository.deleteById(id);
+        taskSearchService.removed(id);
+        taskTimelineService.removed(id);
+        taskStatsService.changed(TaskStatsService.Slice.of(optionalTask.get()), null);
+        changeFeed.deleted(ChangeFeedService.TASK, id, ChangeFeedService.fields(optionalTask.get()));
     }
 
     public boolean deleteByTitle(String title) {
         Optional<Task> optionalTask = taskRepository.findByTitle(title);
         if (optionalTask.isPresent()) {
             taskRepository.delete(optionalTask.get());
+            taskSearchService.removed(optionalTask.get().getId());
+            taskTimelineService.removed(optionalTask.get().getId());
+            taskStatsService.changed(TaskStatsService.Slice.of(optionalTask.get()), null);
+            changeFeed.deleted(ChangeFeedService.TASK, optionalTask.get().getId(), ChangeFeedService.fields(optionalTask.get()));
             return true;
         }
         return false;
     }
 
+    /** Sale de los contadores en memoria de {@link TaskStatsService}, sin consultar la BBDD. */
     public Map<String, Object> getTaskStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Estadísticas por estado
-        stats.put("total", taskRepository.count());
-        stats.put("pendientes", taskRepository.countByStatus("pendiente"));
-        stats.put("en_progreso", taskRepository.countByStatus("en_progreso"));
-        stats.put("completadas", taskRepository.countByStatus("completada"));
-        
-        // Estadísticas por prioridad
-        Map<String, Long> porPrioridad = new HashMap<>();
-        porPrioridad.put("alta", taskRepository.countByPriority("alta"));
-        porPrioridad.put("media", taskRepository.countByPriority("media"));
-        porPrioridad.put("baja", taskRepository.countByPriority("baja"));
-        stats.put("por_prioridad", porPrioridad);
-        
-        return stats;
+        return taskStatsService.getStats();
     }
 
     public Task assignToProject(Long taskId, Long projectId) {
@@ -214,16 +558,22 @@ public class TaskService {
             throw new EntityNotFoundException("Tarea con ID " + taskId + " no encontrada.");
         }
 
-        Optional<Project> optionalProject = projectRepository.findById(projectId);
-        if (optionalProject.isEmpty()) {
+        // Basta con una referencia: findById cargaría también entornos y servidores
+        if (!projectRepository.existsById(projectId)) {
             throw new EntityNotFoundException("Proyecto con ID " + projectId + " no encontrado.");
         }
 
         Task task = optionalTask.get();
-        Project project = optionalProject.get();
+        TaskStatsService.Slice before = TaskStatsService.Slice.of(task);
+        Map<String, Object> beforeFields = ChangeFeedService.fields(task);
+        Project project = projectRepository.getReferenceById(projectId);
         task.setProject(project);
 
-        return taskRepository.save(task);
+        Task saved = saveInColumn(task, before);
+        taskTimelineService.indexed(saved);
+        taskStatsService.changed(before, TaskStatsService.Slice.of(saved));
+        changeFeed.updated(ChangeFeedService.TASK, saved.getId(), beforeFields, ChangeFeedService.fields(saved));
+        return saved;
     }
 
     public Task unassignFromProject(Long taskId) {
@@ -233,12 +583,29 @@ public class TaskService {
         }
 
         Task task = optionalTask.get();
+        TaskStatsService.Slice before = TaskStatsService.Slice.of(task);
+        Map<String, Object> beforeFields = ChangeFeedService.fields(task);
         task.setProject(null);
 
-        return taskRepository.save(task);
+        Task saved = saveInColumn(task, before);
+        taskTimelineService.indexed(saved);
+        taskStatsService.changed(before, TaskStatsService.Slice.of(saved));
+        changeFeed.updated(ChangeFeedService.TASK, saved.getId(), beforeFields, ChangeFeedService.fields(saved));
+        return saved;
     }
     
-    private void applyCompletionRules(Task task, String previousStatus) {
+    // Al cambiar de proyecto la tarea cambia de columna: va al final de la nueva
+    private Task saveInColumn(Task task, TaskStatsService.Slice before) {
+        if (inSameColumn(before, task)) {
+            return taskRepository.save(task);
+        }
+        return taskRankService.inColumn(task.getProjectId(), task.getStatus(), () -> {
+            taskRankService.appender().placeAtEnd(task);
+            return taskRepository.save(task);
+        });
+    }
+
+    static void applyCompletionRules(Task task, String previousStatus) {
         String status = task.getStatus();
         LocalDate requestedCompleted = task.getCompletedDate();
 
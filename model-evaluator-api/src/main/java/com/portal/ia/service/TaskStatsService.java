@@ -0,0 +1,157 @@
+package com.portal.ia.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.TaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Estadísticas de tareas en memoria para /api/tasks/stats, que el panel
+ * consulta sin parar: antes eran siete COUNT por llamada, ahora ninguno.
+ *
+ * {@link TaskService} avisa de cada alta, cambio y borrado con lo que contaba la
+ * tarea antes y después (estado, prioridad, proyecto y asignado). Lo que cambie
+ * por otros caminos (SQL a mano, borrado de un proyecto) se corrige al
+ * reconciliar con un único GROUP BY, al arrancar y cada ia.tasks.stats.reconcile-ms.
+ */
+@Service
+@Slf4j
+public class TaskStatsService {
+
+    static final String SIN_PROYECTO = "sin_proyecto";
+    static final String SIN_ASIGNAR = "sin_asignar";
+
+    /** Lo que cuenta de una tarea para las estadísticas. */
+    public record Slice(String status, String priority, Long projectId, String assignedTo) {
+
+        public static Slice of(Task task) {
+            return new Slice(task.getStatus(), task.getPriority(), task.getProjectId(), task.getAssignedTo());
+        }
+    }
+
+    private final TaskRepository taskRepository;
+
+    private final Object lock = new Object();
+    private Counters counters = new Counters();
+    // Respuesta ya montada; se invalida con cada cambio
+    private volatile Map<String, Object> snapshot;
+
+    public TaskStatsService(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recalcula los contadores desde la BBDD. Un cambio que se confirme mientras
+     * corre la consulta puede quedar contado de más o de menos hasta la siguiente.
+     */
+    @Scheduled(fixedDelayString = "${ia.tasks.stats.reconcile-ms:300000}",
+            initialDelayString = "${ia.tasks.stats.reconcile-ms:300000}")
+    public void reconcile() {
+        Counters fresh = new Counters();
+        for (Object[] row : taskRepository.countGroupedForStats()) {
+            fresh.add(new Slice((String) row[0], (String) row[1], (Long) row[2], (String) row[3]), (Long) row[4]);
+        }
+        synchronized (lock) {
+            if (!fresh.equals(counters)) {
+                log.info("📊 Estadísticas de tareas reconciliadas: {} tareas (antes {})", fresh.total, counters.total);
+            }
+            counters = fresh;
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Aplica un alta ({@code before} nulo), un cambio o un borrado ({@code after} nulo).
+     */
+    public void changed(Slice before, Slice after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        synchronized (lock) {
+            if (before != null) {
+                counters.add(before, -1);
+            }
+            if (after != null) {
+                counters.add(after, 1);
+            }
+            snapshot = null;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = snapshot;
+        if (stats == null) {
+            synchronized (lock) {
+                stats = counters.toResponse();
+                snapshot = stats;
+            }
+        }
+        return stats;
+    }
+
+    private static final class Counters {
+        long total;
+        final Map<String, Long> byStatus = new TreeMap<>();
+        final Map<String, Long> byPriority = new TreeMap<>();
+        final Map<String, Long> byProject = new TreeMap<>();
+        final Map<String, Long> byAssignee = new TreeMap<>();
+
+        void add(Slice slice, long delta) {
+            total += delta;
+            add(byStatus, slice.status(), delta);
+            add(byPriority, slice.priority(), delta);
+            add(byProject, slice.projectId() == null ? SIN_PROYECTO : String.valueOf(slice.projectId()), delta);
+            add(byAssignee, slice.assignedTo() == null || slice.assignedTo().isBlank() ? SIN_ASIGNAR : slice.assignedTo(), delta);
+        }
+
+        private static void add(Map<String, Long> counts, String key, long delta) {
+            // Los contadores a cero desaparecen, para que proyectos y asignados borrados no se queden
+            counts.merge(String.valueOf(key), delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        Map<String, Object> toResponse() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("total", total);
+            stats.put("pendientes", byStatus.getOrDefault("pendiente", 0L));
+            stats.put("en_progreso", byStatus.getOrDefault("en_progreso", 0L));
+            stats.put("completadas", byStatus.getOrDefault("completada", 0L));
+
+            Map<String, Long> porPrioridad = new LinkedHashMap<>();
+            for (String priority : List.of("alta", "media", "baja")) {
+                porPrioridad.put(priority, byPriority.getOrDefault(priority, 0L));
+            }
+            stats.put("por_prioridad", porPrioridad);
+            stats.put("por_proyecto", Collections.unmodifiableMap(new TreeMap<>(byProject)));
+            stats.put("por_asignado", Collections.unmodifiableMap(new TreeMap<>(byAssignee)));
+            return Collections.unmodifiableMap(stats);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Counters that && total == that.total && byStatus.equals(that.byStatus)
+                    && byPriority.equals(that.byPriority) && byProject.equals(that.byProject)
+                    && byAssignee.equals(that.byAssignee);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(total);
+        }
+    }
+}
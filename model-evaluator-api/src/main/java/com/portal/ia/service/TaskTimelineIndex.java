@@ -0,0 +1,197 @@
+package com.portal.ia.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 🔹 Índice de intervalos en memoria para el timeline: qué tareas tienen su
+ * [inicio, fecha límite] solapado con una ventana de fechas.
+ *
+ * Las tareas se guardan en arrays ordenados por inicio, con un árbol implícito
+ * encima que guarda el fin máximo de cada rango. Una consulta baja sólo por los
+ * rangos que empiezan antes del final de la ventana y terminan después de su
+ * principio, así que cuesta O(log n + k) y devuelve las tareas por fecha de inicio.
+ *
+ * Las altas y cambios van a una lista pendiente sin ordenar (que se recorre entera)
+ * y la versión anterior se marca como borrada; cuando hay bastantes pendientes o
+ * borradas se vuelve a ordenar todo, igual que compacta {@link TaskSearchIndex}.
+ */
+public final class TaskTimelineIndex {
+
+    static final int MIN_PENDING_BEFORE_MERGE = 1024;
+
+    /** Lo que el índice sabe de una tarea: su intervalo en días y los campos por los que se filtra. */
+    public record Entry(long taskId, int start, int end, Long projectId, String assignedTo) {
+
+        static final Comparator<Entry> BY_START = Comparator.comparingInt(Entry::start).thenComparingLong(Entry::taskId);
+
+        /** Nulo si a la tarea le falta alguna de las dos fechas: no sale en el timeline. */
+        public static Entry of(long taskId, LocalDate startDate, LocalDate dueDate, Long projectId, String assignedTo) {
+            if (startDate == null || dueDate == null) {
+                return null;
+            }
+            int start = (int) startDate.toEpochDay();
+            int end = (int) dueDate.toEpochDay();
+            return new Entry(taskId, Math.min(start, end), Math.max(start, end), projectId, assignedTo);
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Entry[] sorted = new Entry[0];
+    private int[] starts = new int[0];
+    private int[] maxEnd = new int[2];     // árbol implícito: el nodo i tiene hijos 2i y 2i+1
+    private int leaves = 1;
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private final Map<Long, Integer> positionByTask = new HashMap<>();
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+
+    /** Alta o cambio; con {@code entry} nulo (tarea sin fechas) sólo se quita la versión anterior. */
+    public void put(long taskId, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+            if (entry != null) {
+                pending.put(taskId, entry);
+            }
+            mergeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Carga inicial: todo de una vez y un solo ordenado. */
+    public void putAll(Collection<Entry> entries) {
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : entries) {
+                removeLocked(entry.taskId());
+                pending.put(entry.taskId(), entry);
+            }
+            rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+            mergeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long taskId) {
+        if (pending.remove(taskId) != null) {
+            return;
+        }
+        Integer position = positionByTask.remove(taskId);
+        if (position != null) {
+            deleted.set(position);
+            deletedCount++;
+        }
+    }
+
+    private void mergeIfNeeded() {
+        if (pending.size() >= MIN_PENDING_BEFORE_MERGE
+                || deletedCount >= Math.max(MIN_PENDING_BEFORE_MERGE, sorted.length / 4)) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        List<Entry> live = new ArrayList<>(sorted.length - deletedCount + pending.size());
+        for (int i = 0; i < sorted.length; i++) {
+            if (!deleted.get(i)) {
+                live.add(sorted[i]);
+            }
+        }
+        live.addAll(pending.values());
+        live.sort(Entry.BY_START);
+
+        int n = live.size();
+        sorted = live.toArray(new Entry[0]);
+        starts = new int[n];
+        leaves = Integer.highestOneBit(Math.max(1, n - 1)) << 1;
+        maxEnd = new int[2 * leaves];
+        Arrays.fill(maxEnd, Integer.MIN_VALUE);
+        positionByTask.clear();
+        for (int i = 0; i < n; i++) {
+            starts[i] = sorted[i].start();
+            maxEnd[leaves + i] = sorted[i].end();
+            positionByTask.put(sorted[i].taskId(), i);
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            maxEnd[node] = Math.max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+        }
+        pending.clear();
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return sorted.length - deletedCount + pending.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tareas cuyo intervalo se solapa con [from, to] y cumplen {@code filter}, por
+     * fecha de inicio. Devuelve como mucho {@code limit} + 1, para saber si hay más.
+     */
+    public List<Entry> overlapping(LocalDate from, LocalDate to, Predicate<Entry> filter, int limit) {
+        int windowStart = (int) from.toEpochDay();
+        int windowEnd = (int) to.toEpochDay();
+        lock.readLock().lock();
+        try {
+            List<Entry> matches = new ArrayList<>();
+            collect(1, 0, leaves, windowStart, windowEnd, filter, limit + 1, matches);
+            if (pending.isEmpty()) {
+                return matches;
+            }
+            for (Entry entry : pending.values()) {
+                if (entry.start() <= windowEnd && entry.end() >= windowStart && filter.test(entry)) {
+                    matches.add(entry);
+                }
+            }
+            matches.sort(Entry.BY_START);
+            return matches.size() > limit + 1 ? new ArrayList<>(matches.subList(0, limit + 1)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Recorre en orden el rango [lo, hi) del nodo, podando lo que empieza tarde o acaba pronto
+    private void collect(int node, int lo, int hi, int windowStart, int windowEnd, Predicate<Entry> filter,
+            int wanted, List<Entry> matches) {
+        if (lo >= sorted.length || starts[lo] > windowEnd || maxEnd[node] < windowStart || matches.size() >= wanted) {
+            return;
+        }
+        if (hi - lo == 1) {
+            Entry entry = sorted[lo];
+            if (!deleted.get(lo) && filter.test(entry)) {
+                matches.add(entry);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        collect(2 * node, lo, mid, windowStart, windowEnd, filter, wanted, matches);
+        collect(2 * node + 1, mid, hi, windowStart, windowEnd, filter, wanted, matches);
+    }
+}
@@ -0,0 +1,180 @@
+package com.portal.ia.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.TaskTimelineWindow;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.TaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔹 Tareas visibles en una ventana del timeline (GET /api/tasks/timeline), en vez
+ * de traer todas y filtrar por fechas en el navegador.
+ *
+ * Las ventanas se resuelven con {@link TaskTimelineIndex} y sólo se cargan de la
+ * BBDD las tareas que salen. El índice se construye al arrancar, en segundo plano;
+ * mientras tanto la consulta va a la BBDD, apoyada en los índices por fechas de
+ * la tabla task. {@link TaskService} avisa de cada alta, cambio y borrado.
+ */
+@Service
+@Slf4j
+public class TaskTimelineService {
+
+    static final int LOAD_BATCH_SIZE = 5000;
+
+    private final TaskRepository taskRepository;
+    private final boolean rebuildOnStartup;
+    private final int maxResults;
+
+    private final Object writeLock = new Object();
+    private volatile TaskTimelineIndex index = new TaskTimelineIndex();
+    private volatile boolean ready;
+    private List<Consumer<TaskTimelineIndex>> pendingDuringRebuild;
+
+    public TaskTimelineService(
+            TaskRepository taskRepository,
+            @Value("${ia.tasks.timeline.rebuild-on-startup:true}") boolean rebuildOnStartup,
+            @Value("${ia.tasks.timeline.max-results:2000}") int maxResults) {
+        this.taskRepository = taskRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        Thread rebuilder = new Thread(this::rebuild, "task-timeline-rebuild");
+        rebuilder.setDaemon(true);
+        rebuilder.start();
+    }
+
+    /** Reconstruye el índice entero desde la BBDD y lo sustituye al terminar. */
+    public void rebuild() {
+        synchronized (writeLock) {
+            if (pendingDuringRebuild != null) {
+                return; // ya hay una reconstrucción en marcha
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        long startedAt = System.currentTimeMillis();
+        try {
+            List<TaskTimelineIndex.Entry> entries = new ArrayList<>();
+            long afterId = 0;
+            while (true) {
+                List<Object[]> rows = taskRepository.findTimelineAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    TaskTimelineIndex.Entry entry = TaskTimelineIndex.Entry.of((Long) row[0], (LocalDate) row[1],
+                            (LocalDate) row[2], (Long) row[3], (String) row[4]);
+                    if (entry != null) {
+                        entries.add(entry);
+                    }
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            TaskTimelineIndex fresh = new TaskTimelineIndex();
+            fresh.putAll(entries);
+            synchronized (writeLock) {
+                pendingDuringRebuild.forEach(change -> change.accept(fresh));
+                index = fresh;
+                ready = true;
+            }
+            log.info("📅 Índice del timeline construido: {} tareas con fechas en {} ms",
+                    fresh.size(), System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            log.error("❌ Error construyendo el índice del timeline", e);
+        } finally {
+            synchronized (writeLock) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void indexed(Task task) {
+        if (task.getId() == null) {
+            return;
+        }
+        TaskTimelineIndex.Entry entry = TaskTimelineIndex.Entry.of(task.getId(), task.getStartDate(), task.getDueDate(),
+                task.getProjectId(), task.getAssignedTo());
+        long taskId = task.getId();
+        apply(target -> target.put(taskId, entry));
+    }
+
+    public void removed(Long taskId) {
+        apply(target -> target.remove(taskId));
+    }
+
+    private void apply(Consumer<TaskTimelineIndex> change) {
+        synchronized (writeLock) {
+            change.accept(index);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        }
+    }
+
+    /**
+     * Tareas con inicio y fecha límite cuyo intervalo se solapa con [from, to], por
+     * fecha de inicio. {@code withoutProject} se queda con las que no tienen proyecto.
+     */
+    public TaskTimelineWindow window(LocalDate from, LocalDate to, Long projectId, boolean withoutProject,
+            String assignedTo) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Hay que indicar 'from' y 'to'");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' no puede ser posterior a 'to'");
+        }
+        if (projectId != null && withoutProject) {
+            throw new IllegalArgumentException("'projectId' y 'withoutProject' no se pueden combinar");
+        }
+        String assignee = assignedTo == null || assignedTo.isBlank() ? null : assignedTo;
+
+        List<Task> tasks;
+        if (ready) {
+            Predicate<TaskTimelineIndex.Entry> filter = entry ->
+                    (projectId == null || projectId.equals(entry.projectId()))
+                    && (!withoutProject || entry.projectId() == null)
+                    && (assignee == null || assignee.equals(entry.assignedTo()));
+            List<TaskTimelineIndex.Entry> entries = index.overlapping(from, to, filter, maxResults);
+            List<Long> ids = entries.stream().map(TaskTimelineIndex.Entry::taskId).toList();
+            Map<Long, Task> loaded = ids.isEmpty() ? Map.of()
+                    : taskRepository.findAllById(ids).stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+            tasks = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Task task = loaded.get(id);
+                if (task != null) { // borrada entre la consulta al índice y la carga
+                    tasks.add(task);
+                }
+            }
+        } else {
+            tasks = taskRepository.findOverlapping(from, to, projectId, withoutProject, assignee,
+                    PageRequest.of(0, maxResults + 1));
+        }
+
+        boolean truncated = tasks.size() > maxResults;
+        return new TaskTimelineWindow(from, to, truncated ? tasks.subList(0, maxResults) : tasks, truncated);
+    }
+}
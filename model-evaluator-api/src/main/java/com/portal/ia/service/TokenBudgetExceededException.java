@@ -0,0 +1,11 @@
+package com.portal.ia.service;
+
+/**
+ * Se ha agotado el presupuesto diario de tokens configurado para un modelo.
+ */
+public class TokenBudgetExceededException extends RuntimeException {
+
+    public TokenBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,278 @@
+package com.portal.ia.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.portal.ia.dto.TokenUsageBucket;
+
+/**
+ * 🔹 Contabilidad de tokens y rendimiento por modelo.
+ *
+ * Cada llamada suma a dos cubos (hora y día) de su modelo. Los cubos son
+ * contadores {@link LongAdder}, repartidos por celdas, así que los hilos que
+ * registran no compiten por la misma línea de caché. Los cubos viven en anillos
+ * de tamaño fijo: cuando cambia la hora (o el día) el hueco se recicla con un CAS.
+ *
+ * Si el backend no devuelve el recuento de tokens se estima con
+ * {@link #estimateTokens(CharSequence)}.
+ */
+@Service
+public class TokenUsageService {
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final int retentionHours;
+    private final int retentionDays;
+    private final Map<String, Long> dailyBudgets = new ConcurrentHashMap<>();
+
+    private final Map<String, ModelUsage> usageByModel = new ConcurrentHashMap<>();
+
+    public TokenUsageService(
+            @Value("${ia.usage.retention-hours:168}") int retentionHours,
+            @Value("${ia.usage.retention-days:90}") int retentionDays,
+            @Value("${ia.usage.openai.daily-token-budget:0}") long openAiDailyBudget) {
+        this.retentionHours = retentionHours;
+        this.retentionDays = retentionDays;
+        if (openAiDailyBudget > 0) {
+            dailyBudgets.put(OpenAIService.MODEL_OPENAI, openAiDailyBudget);
+        }
+    }
+
+    /**
+     * Registra una llamada terminada. {@code estimated} indica que los tokens no
+     * los ha dado el backend.
+     */
+    public void record(String model, long promptTokens, long completionTokens, long latencyMs,
+            boolean success, boolean estimated) {
+        record(model, promptTokens, completionTokens, latencyMs, success, estimated, System.currentTimeMillis());
+    }
+
+    /**
+     * Registra una llamada con los recuentos del backend si los hay; el que
+     * falte (null) se estima a partir del texto.
+     */
+    public void recordCall(String model, String prompt, String answer, Long promptTokens, Long completionTokens,
+            long latencyMs, boolean success) {
+        boolean estimated = promptTokens == null || completionTokens == null;
+        record(model,
+                promptTokens != null ? promptTokens : estimateTokens(prompt),
+                completionTokens != null ? completionTokens : estimateTokens(answer),
+                latencyMs, success, estimated);
+    }
+
+    /**
+     * Recuento de tokens de una respuesta JSON ya parseada, o null si el campo no viene.
+     */
+    public static Long tokenCount(Map<?, ?> result, String field) {
+        Object value = result != null ? result.get(field) : null;
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    void record(String model, long promptTokens, long completionTokens, long latencyMs,
+            boolean success, boolean estimated, long atMillis) {
+        ModelUsage usage = usageByModel.computeIfAbsent(model, m -> new ModelUsage(retentionHours, retentionDays));
+        ZonedDateTime at = Instant.ofEpochMilli(atMillis).atZone(zone);
+        add(usage.hourly, hourIndex(at), promptTokens, completionTokens, latencyMs, success, estimated);
+        add(usage.daily, at.toLocalDate().toEpochDay(), promptTokens, completionTokens, latencyMs, success, estimated);
+    }
+
+    /**
+     * Lanza {@link TokenBudgetExceededException} si el modelo ya ha consumido hoy su presupuesto.
+     */
+    public void checkBudget(String model) {
+        Long budget = dailyBudgets.get(model);
+        if (budget == null) {
+            return;
+        }
+        long used = getTokensToday(model);
+        if (used >= budget) {
+            throw new TokenBudgetExceededException(
+                    "Presupuesto diario de tokens agotado para " + model + " (" + used + "/" + budget + ")");
+        }
+    }
+
+    public long getTokensToday(String model) {
+        ModelUsage usage = usageByModel.get(model);
+        if (usage == null) {
+            return 0;
+        }
+        Bucket bucket = current(usage.daily, LocalDate.now(zone).toEpochDay());
+        return bucket == null ? 0 : bucket.promptTokens.sum() + bucket.completionTokens.sum();
+    }
+
+    public Map<String, Object> getBudgets() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        dailyBudgets.forEach((model, budget) -> {
+            long used = getTokensToday(model);
+            result.put(model, Map.of("dailyBudget", budget, "usedToday", used, "remaining", Math.max(0, budget - used)));
+        });
+        return result;
+    }
+
+    /**
+     * Acumulados por hora o por día ({@code daily}) en el rango [from, to], por modelo.
+     */
+    public List<TokenUsageBucket> getRollup(String model, boolean daily, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now(zone);
+        LocalDateTime start = from != null ? from : (daily ? end.minusDays(30) : end.minusHours(24));
+        long first = daily ? start.toLocalDate().toEpochDay() : hourIndex(start.atZone(zone));
+        long last = daily ? end.toLocalDate().toEpochDay() : hourIndex(end.atZone(zone));
+
+        List<TokenUsageBucket> result = new ArrayList<>();
+        usageByModel.forEach((name, usage) -> {
+            if (model != null && !model.equals(name)) {
+                return;
+            }
+            AtomicReferenceArray<Bucket> ring = daily ? usage.daily : usage.hourly;
+            for (int i = 0; i < ring.length(); i++) {
+                Bucket bucket = ring.get(i);
+                if (bucket != null && bucket.index >= first && bucket.index <= last) {
+                    result.add(toDto(name, bucket, daily));
+                }
+            }
+        });
+        result.sort(Comparator.comparing(TokenUsageBucket::getBucketStart).thenComparing(TokenUsageBucket::getModel));
+        return result;
+    }
+
+    /**
+     * Estimación rápida de tokens, sin vocabulario: 1 token por palabra de hasta
+     * 6 letras, ~4 letras por token en las más largas, 1 por signo de puntuación
+     * y 1 por cada 3 dígitos. Se queda cerca de los tokenizadores BPE en texto normal.
+     */
+    public static long estimateTokens(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        long tokens = 0;
+        int letters = 0;
+        int digits = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                letters++;
+                tokens += flushDigits(digits);
+                digits = 0;
+            } else if (Character.isDigit(c)) {
+                digits++;
+                tokens += flushLetters(letters);
+                letters = 0;
+            } else {
+                tokens += flushLetters(letters) + flushDigits(digits);
+                letters = 0;
+                digits = 0;
+                if (!Character.isWhitespace(c)) {
+                    tokens++;
+                }
+            }
+        }
+        return tokens + flushLetters(letters) + flushDigits(digits);
+    }
+
+    private static long flushLetters(int letters) {
+        if (letters == 0) {
+            return 0;
+        }
+        return letters <= 6 ? 1 : (letters + 3) / 4;
+    }
+
+    private static long flushDigits(int digits) {
+        return (digits + 2) / 3;
+    }
+
+    private static long hourIndex(ZonedDateTime at) {
+        return at.toEpochSecond() / 3600;
+    }
+
+    private void add(AtomicReferenceArray<Bucket> ring, long index, long promptTokens, long completionTokens,
+            long latencyMs, boolean success, boolean estimated) {
+        Bucket bucket = bucketFor(ring, index);
+        if (bucket == null) {
+            return; // registro tardío de un cubo ya reciclado
+        }
+        bucket.calls.increment();
+        if (!success) {
+            bucket.errors.increment();
+        }
+        if (estimated) {
+            bucket.estimatedCalls.increment();
+        }
+        bucket.promptTokens.add(promptTokens);
+        bucket.completionTokens.add(completionTokens);
+        bucket.latencyMs.add(latencyMs);
+    }
+
+    private static Bucket current(AtomicReferenceArray<Bucket> ring, long index) {
+        Bucket bucket = ring.get((int) Math.floorMod(index, (long) ring.length()));
+        return bucket != null && bucket.index == index ? bucket : null;
+    }
+
+    private static Bucket bucketFor(AtomicReferenceArray<Bucket> ring, long index) {
+        int slot = (int) Math.floorMod(index, (long) ring.length());
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.index == index) {
+                return bucket;
+            }
+            if (bucket != null && bucket.index > index) {
+                return null;
+            }
+            Bucket fresh = new Bucket(index);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private TokenUsageBucket toDto(String model, Bucket bucket, boolean daily) {
+        long calls = bucket.calls.sum();
+        long prompt = bucket.promptTokens.sum();
+        long completion = bucket.completionTokens.sum();
+        long latency = bucket.latencyMs.sum();
+        LocalDateTime start = daily
+                ? LocalDate.ofEpochDay(bucket.index).atStartOfDay()
+                : LocalDateTime.ofInstant(Instant.ofEpochSecond(bucket.index * 3600), zone).truncatedTo(ChronoUnit.HOURS);
+        return new TokenUsageBucket(model, start, calls, bucket.errors.sum(), bucket.estimatedCalls.sum(),
+                prompt, completion, prompt + completion,
+                calls == 0 ? 0 : latency / (double) calls,
+                latency == 0 ? 0 : completion * 1000.0 / latency);
+    }
+
+    private static final class ModelUsage {
+        final AtomicReferenceArray<Bucket> hourly;
+        final AtomicReferenceArray<Bucket> daily;
+
+        ModelUsage(int hours, int days) {
+            this.hourly = new AtomicReferenceArray<>(Math.max(1, hours));
+            this.daily = new AtomicReferenceArray<>(Math.max(1, days));
+        }
+    }
+
+    private static final class Bucket {
+        final long index; // horas o días desde epoch
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder estimatedCalls = new LongAdder();
+        final LongAdder promptTokens = new LongAdder();
+        final LongAdder completionTokens = new LongAdder();
+        final LongAdder latencyMs = new LongAdder();
+
+        Bucket(long index) {
+            this.index = index;
+        }
+    }
+}
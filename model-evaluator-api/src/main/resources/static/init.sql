@@ -30,3 +30,112 @@ CREATE TABLE environment (
     FOREIGN KEY (project_id) REFERENCES project(id) ON DELETE CASCADE,
     FOREIGN KEY (server_id) REFERENCES server(id) ON DELETE SET NULL
 );
+
+-- Evaluación por lotes: ejecuciones, items del dataset y resultados por (run, item, modelo)
+CREATE TABLE eval_run (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255),
+    models VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL, -- Ej: 'pendiente', 'en_progreso', 'completada'
+    dataset_format VARCHAR(20) NOT NULL,
+    dataset_path VARCHAR(1024) NOT NULL,
+    total_items BIGINT,
+    error_message VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6)
+);
+
+CREATE TABLE eval_item (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    item_index BIGINT NOT NULL,
+    prompt TEXT NOT NULL,
+    expected TEXT,
+
+    CONSTRAINT uk_eval_item_run_index UNIQUE (run_id, item_index),
+    FOREIGN KEY (run_id) REFERENCES eval_run(id) ON DELETE CASCADE
+);
+
+CREATE TABLE eval_result (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    item_index BIGINT NOT NULL,
+    model VARCHAR(100) NOT NULL,
+    answer TEXT,
+    latency_ms BIGINT,
+    success BIT NOT NULL,
+    error_message VARCHAR(255),
+    created_at DATETIME(6),
+
+    CONSTRAINT uk_eval_result_run_item_model UNIQUE (run_id, model, item_index),
+    FOREIGN KEY (run_id) REFERENCES eval_run(id) ON DELETE CASCADE
+);
+
+-- Tráfico sombra: pares (respuesta del modelo primario, respuesta del candidato)
+CREATE TABLE shadow_result (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    primary_model VARCHAR(100) NOT NULL,
+    shadow_model VARCHAR(100) NOT NULL,
+    prompt TEXT NOT NULL,
+    primary_answer TEXT,
+    shadow_answer TEXT,
+    primary_latency_ms BIGINT,
+    shadow_latency_ms BIGINT,
+    shadow_success BIT NOT NULL,
+    error_message VARCHAR(255),
+    created_at DATETIME(6),
+
+    INDEX idx_shadow_result_models (primary_model, shadow_model)
+);
+
+-- Índices para la paginación por cursor de tareas (GET /api/tasks/scroll).
+-- La tabla task ya existe; las filas antiguas sin fechas se rellenan para que no
+-- queden fuera del recorrido por cursor.
+UPDATE task SET created_at = COALESCE(updated_at, NOW()) WHERE created_at IS NULL;
+UPDATE task SET updated_at = created_at WHERE updated_at IS NULL;
+CREATE INDEX idx_task_updated_at_id ON task (updated_at, id);
+CREATE INDEX idx_task_created_at_id ON task (created_at, id);
+
+-- Ids de task por secuencia (MySQL no tiene secuencias: Hibernate usa esta tabla) para
+-- poder agrupar los INSERT de POST /api/tasks/batch. Se reservan de 50 en 50, así que
+-- el primer valor tiene que dejar 50 ids libres por encima del máximo actual.
+CREATE TABLE task_seq (
+    next_val BIGINT
+);
+INSERT INTO task_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM task;
+
+-- Índices para las ventanas del timeline (GET /api/tasks/timeline) mientras el
+-- índice en memoria aún se está construyendo
+CREATE INDEX idx_task_start_due ON task (start_date, due_date);
+CREATE INDEX idx_task_project_start_due ON task (project_id, start_date, due_date);
+
+-- Índice para el tablero kanban (GET /api/tasks/board) y el scroll de cada columna:
+-- las tareas de un estado ya salen ordenadas por (updated_at, id) sin ordenar en memoria
+CREATE INDEX idx_task_status_updated_at_id ON task (status, updated_at, id);
+
+-- Orden manual de las tareas dentro de cada columna (proyecto, estado) con claves
+-- fraccionarias. Se comparan byte a byte: con la intercalación por defecto 'a' y 'A'
+-- serían iguales. Las tareas existentes reciben clave al arrancar la aplicación.
+ALTER TABLE task ADD COLUMN sort_key VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin;
+CREATE INDEX idx_task_project_status_sort_key ON task (project_id, status, sort_key);
+
+-- Cambios de tareas, notas, proyectos y servidores para GET /api/sync: una fila por
+-- versión del feed de cambios (la clave no se genera, es la versión). Se borran las
+-- de más de ia.sync.retention-days; un token más antiguo recibe todo de nuevo.
+CREATE TABLE change_log (
+    seq BIGINT NOT NULL PRIMARY KEY,
+    entity VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    changed_at DATETIME(6) NOT NULL
+);
+CREATE INDEX idx_change_log_changed_at ON change_log (changed_at);
+
+-- Estado del feed de cambios entre reinicios (una sola fila): las versiones se
+-- reservan por bloques para no repetir nunca una que ya tenga un cliente, y si la
+-- ejecución anterior no guardó todo en change_log los tokens de antes recargan todo.
+CREATE TABLE change_log_state (
+    id INT NOT NULL PRIMARY KEY,
+    reserved_until BIGINT NOT NULL,
+    resync_below BIGINT NOT NULL,
+    clean_shutdown BIT NOT NULL
+);
@@ -0,0 +1,232 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portal.ia.entity.DailyNote;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.service.ChangeFeedService;
+import com.portal.ia.service.DailyNoteService;
+import com.portal.ia.service.TaskService;
+
+/**
+ * GET /api/changes/stream: eventos tras cada escritura, filtrados por entidad y
+ * proyecto, reanudación con Last-Event-ID y "reset" cuando el log ya no llega.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"ia.changes.log-size=8"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChangeFeedTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private DailyNoteService dailyNoteService;
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Project project;
+
+	@BeforeAll
+	void seed() {
+		project = new Project();
+		project.setName("Proyecto feed");
+		project.setStatus("dev");
+		project = projectRepository.save(project);
+	}
+
+	private static Task task(String title) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription("Descripción de " + title);
+		task.setPriority("media");
+		task.setStatus("pendiente");
+		return task;
+	}
+
+	/** Eventos SSE leídos en segundo plano: id, event y data. */
+	private final class Subscription implements AutoCloseable {
+		final BlockingQueue<Map<String, String>> events = new LinkedBlockingQueue<>();
+		final Stream<String> lines;
+
+		Subscription(String query, Long lastEventId) throws Exception {
+			HttpRequest.Builder request = HttpRequest.newBuilder(
+					URI.create("http://localhost:" + port + "/api/changes/stream" + query));
+			if (lastEventId != null) {
+				request.header("Last-Event-ID", String.valueOf(lastEventId));
+			}
+			HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+				.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+			assertThat(response.statusCode()).isEqualTo(200);
+			lines = response.body();
+			Thread reader = new Thread(() -> {
+				Map<String, String> event = new HashMap<>();
+				try {
+					Iterator<String> it = lines.iterator();
+					while (it.hasNext()) {
+						String line = it.next();
+						if (line.isEmpty()) {
+							if (event.containsKey("event")) {
+								events.add(event);
+							}
+							event = new HashMap<>();
+						} else if (!line.startsWith(":")) {
+							int colon = line.indexOf(':');
+							event.put(line.substring(0, colon), line.substring(colon + 1));
+						}
+					}
+				} catch (RuntimeException e) {
+					// Conexión cerrada al terminar el test
+				}
+			});
+			reader.setDaemon(true);
+			reader.start();
+		}
+
+		Map<String, String> next() throws InterruptedException {
+			Map<String, String> event = events.poll(10, TimeUnit.SECONDS);
+			assertThat(event).as("evento SSE").isNotNull();
+			return event;
+		}
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> nextChange() throws Exception {
+			Map<String, String> event = next();
+			assertThat(event.get("event")).isEqualTo("change");
+			Map<String, Object> data = objectMapper.readValue(event.get("data"), Map.class);
+			assertThat(event.get("id")).isEqualTo(String.valueOf(data.get("version")));
+			return data;
+		}
+
+		@Override
+		public void close() {
+			lines.close();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pushesOnlyTheRequestedEntitiesAndProject() throws Exception {
+		try (Subscription subscription = new Subscription("?entities=task&projectId=" + project.getId(), null)) {
+			Task inProject = taskService.createWithProjectId(task("Del proyecto"), project.getId());
+			taskService.create(task("Sin proyecto"));
+			dailyNoteService.createOrUpdate(LocalDate.of(2025, 6, 1), "Nota que no se pide");
+			Task patch = new Task();
+			patch.setTitle("Del proyecto, renombrada");
+			taskService.update(inProject.getId(), patch);
+			taskService.deleteById(inProject.getId());
+
+			Map<String, Object> created = subscription.nextChange();
+			assertThat(created).containsEntry("entity", "task").containsEntry("op", "created")
+				.containsEntry("id", inProject.getId().intValue())
+				.containsEntry("projectId", project.getId().intValue());
+			assertThat((Map<String, Object>) created.get("changes")).containsEntry("title", "Del proyecto");
+
+			// La tarea sin proyecto y la nota no llegan: lo siguiente es el cambio de título
+			Map<String, Object> updated = subscription.nextChange();
+			assertThat(updated).containsEntry("op", "updated");
+			assertThat((Map<String, Object>) updated.get("changes"))
+				.containsEntry("title", "Del proyecto, renombrada")
+				.doesNotContainKeys("description", "priority", "status");
+
+			Map<String, Object> deleted = subscription.nextChange();
+			assertThat(deleted).containsEntry("op", "deleted").doesNotContainKey("changes");
+		}
+	}
+
+	@Test
+	void resumesAfterTheLastEventId() throws Exception {
+		long before = changeFeedService.currentVersion();
+		DailyNote first = dailyNoteService.createOrUpdate(LocalDate.of(2025, 7, 1), "Primera nota");
+		DailyNote second = dailyNoteService.createOrUpdate(LocalDate.of(2025, 7, 2), "Segunda nota");
+
+		try (Subscription subscription = new Subscription("?entities=note", before)) {
+			assertThat(subscription.nextChange()).containsEntry("id", first.getId().intValue())
+				.containsEntry("version", (int) before + 1);
+			assertThat(subscription.nextChange()).containsEntry("id", second.getId().intValue())
+				.containsEntry("version", (int) before + 2);
+		}
+	}
+
+	@Test
+	void clientsTooFarBehindAreToldToReload() throws Exception {
+		long before = changeFeedService.currentVersion();
+		for (int day = 1; day <= 10; day++) { // más que ia.changes.log-size
+			dailyNoteService.createOrUpdate(LocalDate.of(2025, 8, day), "Nota " + day);
+		}
+
+		try (Subscription subscription = new Subscription("", before)) {
+			Map<String, String> reset = subscription.next();
+			assertThat(reset.get("event")).isEqualTo("reset");
+			assertThat(reset.get("id")).isEqualTo(String.valueOf(changeFeedService.currentVersion()));
+
+			// Y a partir de ahí sigue con lo nuevo
+			Task created = taskService.create(task("Tras el reset"));
+			assertThat(subscription.nextChange()).containsEntry("id", created.getId().intValue());
+		}
+	}
+
+	@Test
+	void lastEventIdsPastTheHeadAreToldToReload() throws Exception {
+		long head = changeFeedService.currentVersion();
+
+		// Un id de antes de un reinicio, por delante de lo publicado desde entonces
+		try (Subscription subscription = new Subscription("", head + 100)) {
+			Map<String, String> reset = subscription.next();
+			assertThat(reset.get("event")).isEqualTo("reset");
+			assertThat(reset.get("id")).isEqualTo(String.valueOf(head));
+
+			// Las versiones siguientes no se saltan
+			Task created = taskService.create(task("Tras el id adelantado"));
+			assertThat(subscription.nextChange()).containsEntry("id", created.getId().intValue())
+				.containsEntry("version", (int) head + 1);
+		}
+	}
+
+	@Test
+	void rejectsUnknownEntities() {
+		assertThat(restTemplate.getForEntity("/api/changes/stream?entities=environment", Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+}
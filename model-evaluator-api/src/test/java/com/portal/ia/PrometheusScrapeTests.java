@@ -0,0 +1,46 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Arranca la aplicación con H2 (modo MySQL) y hace un scrape real de /actuator/prometheus.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+class PrometheusScrapeTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void exposesLowCardinalityMetricsOnThePrometheusEndpoint() {
+		ResponseEntity<String> tasks = restTemplate.getForEntity("/api/tasks?page=0&size=5", String.class);
+		assertThat(tasks.getStatusCode().is2xxSuccessful()).isTrue();
+
+		String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+		assertThat(scrape)
+			.contains("http_server_requests_seconds_count{")
+			.contains("handler=\"TaskController.getAllTasks\"")
+			.contains("uri=\"/api/tasks\"")
+			.contains("spring_data_repository_invocations_seconds_count{")
+			.contains("repository=\"TaskRepository\"")
+			.contains("hikaricp_connections_active")
+			.contains("jvm_memory_used_bytes")
+			.contains("jvm_gc_")
+			.contains("jvm_threads_live_threads")
+			.contains("hibernate_query_executions_total");
+		// Nada de parámetros de la petición en las etiquetas del servidor
+		assertThat(scrape.lines().filter(line -> line.startsWith("http_server_requests")))
+			.noneMatch(line -> line.contains("page=0"));
+	}
+}
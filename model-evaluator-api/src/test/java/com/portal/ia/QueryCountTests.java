@@ -0,0 +1,213 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.entity.DailyNote;
+import com.portal.ia.entity.Environment;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Server;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.DailyNoteRepository;
+import com.portal.ia.repository.EnvironmentRepository;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.ServerRepository;
+import com.portal.ia.repository.TaskRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Presupuesto de consultas SQL y de entidades cargadas por endpoint, medido con
+ * las estadísticas de Hibernate sobre H2 (modo MySQL). Los datos tienen varios
+ * proyectos, entornos y tareas por proyecto, así que un N+1 hace crecer el
+ * número de sentencias por encima del presupuesto y el test falla.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class QueryCountTests {
+
+	private static final int PROJECTS = 4;
+	private static final int ENVIRONMENTS_PER_PROJECT = 3;
+	private static final int TASKS_PER_PROJECT = 6;
+	private static final int PAGE_SIZE = 20;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ServerRepository serverRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private EnvironmentRepository environmentRepository;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private DailyNoteRepository dailyNoteRepository;
+
+	private Long projectId;
+	private Long taskId;
+	private Long serverId;
+
+	record Endpoint(String method, String path, String body, long maxStatements, long maxEntities) {
+
+		@Override
+		public String toString() {
+			return method + " " + path;
+		}
+	}
+
+	// El contexto se comparte con otros tests: los listados completos se miden con lo que haya en la BBDD
+	Stream<Endpoint> endpoints() {
+		long projects = projectRepository.count();
+		long servers = serverRepository.count();
+		// Cada entorno con su proyecto y su servidor
+		long environmentEntities = environmentRepository.count() + projects + servers;
+		long tasks = taskRepository.count();
+		long pending = taskRepository.countByStatus("pendiente");
+		long notes = dailyNoteRepository.count();
+		String taskUpdate = "{\"title\":\"Tarea editada\",\"description\":\"Nueva descripción\","
+				+ "\"priority\":\"alta\",\"status\":\"en_progreso\",\"projectId\":{projectId}}";
+		return Stream.of(
+				new Endpoint("GET", "/api/projects?page=0&size=20", null, 2, Math.min(projects, PAGE_SIZE)),
+				new Endpoint("GET", "/api/projects/list", null, 1, projects),
+				new Endpoint("GET", "/api/projects/{projectId}", null, 1, 1 + ENVIRONMENTS_PER_PROJECT * 2),
+				new Endpoint("GET", "/api/environment?page=0&size=20", null, 2, environmentEntities),
+				new Endpoint("GET", "/api/environment/list", null, 1, environmentEntities),
+				new Endpoint("GET", "/api/server?page=0&size=20", null, 2, Math.min(servers, PAGE_SIZE)),
+				new Endpoint("GET", "/api/server/{serverId}", null, 1, 1),
+				new Endpoint("GET", "/api/tasks?page=0&size=20", null, 2, PAGE_SIZE),
+				// Por cursor: una sola consulta, sin COUNT
+				new Endpoint("GET", "/api/tasks/scroll?size=20", null, 1, PAGE_SIZE + 1),
+				// Ids y totales por estado con ROW_NUMBER() y la carga de esas tareas (hasta 20 por columna)
+				new Endpoint("GET", "/api/tasks/board?perColumn=20", null, 2, 3 * PAGE_SIZE),
+				new Endpoint("GET", "/api/tasks/list", null, 1, tasks),
+				new Endpoint("GET", "/api/tasks/{taskId}", null, 1, 1),
+				new Endpoint("GET", "/api/tasks/project/{projectId}", null, 1, TASKS_PER_PROJECT),
+				new Endpoint("GET", "/api/tasks/status/pendiente", null, 1, pending),
+				// Contadores en memoria: ni una consulta
+				new Endpoint("GET", "/api/tasks/stats", null, 0, 0),
+				// SELECT de la tarea, comprobación del proyecto, última clave de la nueva columna y UPDATE
+				new Endpoint("PUT", "/api/tasks/{taskId}", taskUpdate, 4, 1),
+				new Endpoint("GET", "/api/daily-notes?page=0&size=20", null, 2, Math.min(notes, PAGE_SIZE)),
+				new Endpoint("GET", "/api/daily-notes/list", null, 1, notes));
+	}
+
+	@BeforeAll
+	void seed() {
+		List<Server> servers = new ArrayList<>();
+		for (int s = 0; s < ENVIRONMENTS_PER_PROJECT; s++) {
+			Server server = new Server();
+			server.setName("servidor-" + s);
+			server.setIp("10.0.0." + s);
+			server.setOs("linux");
+			servers.add(serverRepository.save(server));
+		}
+		serverId = servers.get(0).getId();
+
+		for (int p = 0; p < PROJECTS; p++) {
+			Project project = new Project();
+			project.setName("Proyecto " + p);
+			project.setStatus("dev");
+			project = projectRepository.save(project);
+			if (projectId == null) {
+				projectId = project.getId();
+			}
+			for (int e = 0; e < ENVIRONMENTS_PER_PROJECT; e++) {
+				Environment environment = new Environment();
+				environment.setType(e == 0 ? "dev" : e == 1 ? "test" : "prod");
+				environment.setProject(project);
+				environment.setServer(servers.get(e));
+				environmentRepository.save(environment);
+			}
+			for (int t = 0; t < TASKS_PER_PROJECT; t++) {
+				Task task = new Task();
+				task.setTitle("Tarea " + p + "-" + t);
+				task.setDescription("Descripción " + t);
+				task.setPriority("media");
+				task.setStatus("pendiente");
+				task.setProject(project);
+				task = taskRepository.save(task);
+				if (taskId == null) {
+					taskId = task.getId();
+				}
+			}
+		}
+
+		LocalDate day = LocalDate.of(2025, 1, 1);
+		for (int d = 0; d < 31; d++) {
+			DailyNote note = new DailyNote();
+			note.setDate(day.plusDays(d));
+			note.setContent("Nota del día " + (d + 1));
+			dailyNoteRepository.save(note);
+		}
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("endpoints")
+	void staysWithinItsQueryBudget(Endpoint endpoint) {
+		String path = resolve(endpoint.path());
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		ResponseEntity<String> response = restTemplate.exchange(path, HttpMethod.valueOf(endpoint.method()),
+				request(endpoint.body()), String.class);
+
+		long statements = statistics.getPrepareStatementCount();
+		long entities = statistics.getEntityLoadCount();
+		log.debug("{}: sentencias={} entidades={} colecciones={}", endpoint, statements, entities,
+				statistics.getCollectionFetchCount());
+
+		assertThat(response.getStatusCode().is2xxSuccessful()).as("%s -> %s", endpoint, response.getBody()).isTrue();
+		assertThat(statements).as("sentencias SQL de %s", endpoint).isLessThanOrEqualTo(endpoint.maxStatements());
+		assertThat(entities).as("entidades cargadas por %s", endpoint).isLessThanOrEqualTo(endpoint.maxEntities());
+	}
+
+	private String resolve(String template) {
+		return template
+				.replace("{projectId}", String.valueOf(projectId))
+				.replace("{taskId}", String.valueOf(taskId))
+				.replace("{serverId}", String.valueOf(serverId));
+	}
+
+	private HttpEntity<String> request(String body) {
+		if (body == null) {
+			return new HttpEntity<>(null, new HttpHeaders());
+		}
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return new HttpEntity<>(resolve(body), headers);
+	}
+}
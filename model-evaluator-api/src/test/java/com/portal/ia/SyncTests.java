@@ -0,0 +1,184 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.portal.ia.entity.Server;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ChangeLogRepository;
+import com.portal.ia.repository.TaskRepository;
+import com.portal.ia.service.ChangeFeedService;
+import com.portal.ia.service.DailyNoteService;
+import com.portal.ia.service.ServerService;
+import com.portal.ia.service.TaskService;
+
+/**
+ * GET /api/sync: todo sin token, después sólo lo cambiado (con lápidas para los
+ * borrados) por páginas de ia.sync.max-changes, y todo otra vez con un token caducado.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"ia.sync.max-changes=3"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SyncTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private DailyNoteService dailyNoteService;
+
+	@Autowired
+	private ServerService serverService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ChangeLogRepository changeLogRepository;
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	private Task untouched;
+
+	@BeforeAll
+	void seed() {
+		untouched = taskRepository.save(task("Sin cambios"));
+	}
+
+	private static Task task(String title) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription("Descripción de " + title);
+		task.setPriority("media");
+		task.setStatus("pendiente");
+		return task;
+	}
+
+	private JsonNode sync(String since) {
+		ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+				since == null ? "/api/sync" : "/api/sync?since={since}", JsonNode.class, since);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return response.getBody();
+	}
+
+	// change_log se escribe en segundo plano justo después de cada cambio
+	private void awaitChangeLog() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + Duration.ofSeconds(10).toMillis();
+		while (!Objects.equals(changeLogRepository.findMaxSeq(), changeFeedService.currentVersion())
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+	}
+
+	private static List<String> titles(JsonNode tasks) {
+		List<String> titles = new ArrayList<>();
+		tasks.forEach(task -> titles.add(task.get("title").asText()));
+		return titles;
+	}
+
+	@Test
+	void withoutATokenEverythingComesBack() {
+		JsonNode full = sync(null);
+
+		assertThat(full.get("full").asBoolean()).isTrue();
+		assertThat(full.get("hasMore").asBoolean()).isFalse();
+		assertThat(titles(full.get("tasks"))).contains("Sin cambios");
+		assertThat(full.get("deleted")).isEmpty();
+		assertThat(full.get("token").asText()).isNotBlank();
+	}
+
+	@Test
+	void aWarmStartOnlyBringsWhatChanged() throws InterruptedException {
+		Task toUpdate = taskService.create(task("Para cambiar"));
+		Task toDelete = taskService.create(task("Para borrar"));
+		awaitChangeLog();
+		String token = sync(null).get("token").asText();
+
+		Task created = taskService.create(task("Nueva"));
+		Task patch = new Task();
+		patch.setTitle("Cambiada");
+		taskService.update(toUpdate.getId(), patch);
+		taskService.update(toUpdate.getId(), patch); // sin cambios: no cuenta
+		patch.setPriority("alta");
+		taskService.update(toUpdate.getId(), patch);
+		taskService.deleteById(toDelete.getId());
+		dailyNoteService.createOrUpdate(LocalDate.of(2025, 9, 1), "Nota nueva");
+		Server server = new Server();
+		server.setName("gpu-02");
+		server = serverService.save(server);
+		awaitChangeLog();
+
+		// 6 cambios de 3 en 3: dos páginas
+		List<String> tasks = new ArrayList<>();
+		List<String> notes = new ArrayList<>();
+		List<String> servers = new ArrayList<>();
+		List<JsonNode> deleted = new ArrayList<>();
+		int pages = 0;
+		JsonNode delta;
+		do {
+			delta = sync(token);
+			assertThat(delta.get("full").asBoolean()).isFalse();
+			tasks.addAll(titles(delta.get("tasks")));
+			delta.get("notes").forEach(note -> notes.add(note.get("content").asText()));
+			delta.get("servers").forEach(s -> servers.add(s.get("name").asText()));
+			delta.get("deleted").forEach(deleted::add);
+			token = delta.get("token").asText();
+			pages++;
+		} while (delta.get("hasMore").asBoolean());
+
+		assertThat(pages).isEqualTo(2);
+		assertThat(tasks).containsExactlyInAnyOrder("Nueva", "Cambiada")
+			.doesNotContain("Sin cambios", "Para borrar");
+		assertThat(notes).containsExactly("Nota nueva");
+		assertThat(servers).containsExactly("gpu-02");
+		assertThat(deleted).singleElement().satisfies(tombstone -> {
+			assertThat(tombstone.get("entity").asText()).isEqualTo("task");
+			assertThat(tombstone.get("id").asLong()).isEqualTo(toDelete.getId());
+		});
+		assertThat(created.getId()).isNotNull();
+		assertThat(server.getId()).isNotNull();
+
+		// Y al volver sin más cambios no llega nada
+		JsonNode empty = sync(token);
+		assertThat(empty.get("tasks")).isEmpty();
+		assertThat(empty.get("deleted")).isEmpty();
+		assertThat(empty.get("hasMore").asBoolean()).isFalse();
+	}
+
+	@Test
+	void expiredTokensGetEverythingAgainAndBadOnesAreRejected() {
+		long twoMonthsAgo = System.currentTimeMillis() - Duration.ofDays(60).toMillis();
+		String expired = Base64.getUrlEncoder().withoutPadding()
+			.encodeToString(("0|" + twoMonthsAgo).getBytes(StandardCharsets.UTF_8));
+		JsonNode full = sync(expired);
+		assertThat(full.get("full").asBoolean()).isTrue();
+		assertThat(titles(full.get("tasks"))).contains(untouched.getTitle());
+
+		assertThat(restTemplate.getForEntity("/api/sync?since=no-es-un-token", String.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+}
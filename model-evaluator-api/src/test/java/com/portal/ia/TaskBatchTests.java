@@ -0,0 +1,225 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.dto.TaskBatchRequest;
+import com.portal.ia.dto.TaskBatchResult;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+import com.portal.ia.service.TaskSearchService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * POST /api/tasks/batch: resultados por operación, modo atómico y que cientos de
+ * cambios salgan en unas pocas sentencias gracias a los lotes JDBC.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskBatchTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private TaskSearchService taskSearchService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Project project;
+
+	@BeforeAll
+	void seed() {
+		project = new Project();
+		project.setName("Proyecto lotes");
+		project.setStatus("dev");
+		project = projectRepository.save(project);
+		taskSearchService.rebuild();
+	}
+
+	private Task existing(String title) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription("Descripción de " + title);
+		task.setPriority("media");
+		task.setStatus("pendiente");
+		task.setStartDate(LocalDate.of(2025, 3, 1));
+		task.setDueDate(LocalDate.of(2025, 3, 10));
+		return taskRepository.save(task);
+	}
+
+	private static TaskBatchRequest.Operation operation(String op, Long id) {
+		TaskBatchRequest.Operation operation = new TaskBatchRequest.Operation();
+		operation.setOp(op);
+		operation.setId(id);
+		return operation;
+	}
+
+	private ResponseEntity<TaskBatchResult> post(boolean atomic, List<TaskBatchRequest.Operation> operations) {
+		TaskBatchRequest request = new TaskBatchRequest();
+		request.setAtomic(atomic);
+		request.setOperations(operations);
+		return restTemplate.postForEntity("/api/tasks/batch", request, TaskBatchResult.class);
+	}
+
+	@Test
+	void appliesEveryKindOfOperationAndReportsEachOne() {
+		Task toUpdate = existing("Actualizar");
+		Task toClose = existing("Cerrar");
+		Task toShift = existing("Desplazar");
+		Task toDelete = existing("Borrar");
+
+		TaskBatchRequest.Operation create = operation("create", null);
+		create.setTitle("Creada en lote");
+		create.setDescription("Tarea nueva");
+		create.setPriority("alta");
+		create.setStatus("pendiente");
+		create.setProjectId(project.getId());
+		TaskBatchRequest.Operation update = operation("update", toUpdate.getId());
+		update.setTitle("Actualizada en lote");
+		update.setProjectId(project.getId());
+		TaskBatchRequest.Operation close = operation("status", toClose.getId());
+		close.setStatus("completada");
+		TaskBatchRequest.Operation shift = operation("shift", toShift.getId());
+		shift.setDays(7);
+		TaskBatchRequest.Operation badPriority = operation("update", toUpdate.getId());
+		badPriority.setPriority("urgente");
+		TaskBatchRequest.Operation unknownProject = operation("update", toClose.getId());
+		unknownProject.setProjectId(-1L);
+
+		ResponseEntity<TaskBatchResult> response = post(false, List.of(create, update, close, shift,
+				operation("delete", toDelete.getId()), badPriority, operation("delete", -5L), unknownProject,
+				operation("archive", toShift.getId())));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		TaskBatchResult result = response.getBody();
+		assertThat(result.isApplied()).isTrue();
+		assertThat(result.getSucceeded()).isEqualTo(5);
+		assertThat(result.getFailed()).isEqualTo(4);
+		assertThat(result.getResults()).extracting(TaskBatchResult.Item::isOk)
+			.containsExactly(true, true, true, true, true, false, false, false, false);
+		assertThat(result.getResults().get(5).getError()).contains("prioridad");
+		assertThat(result.getResults().get(6).getError()).contains("no encontrada");
+		assertThat(result.getResults().get(7).getError()).contains("Proyecto");
+
+		Long createdId = result.getResults().get(0).getId();
+		assertThat(taskRepository.findById(createdId)).get()
+			.satisfies(task -> assertThat(task.getProjectId()).isEqualTo(project.getId()));
+		assertThat(taskRepository.findById(toUpdate.getId())).get()
+			.satisfies(task -> {
+				assertThat(task.getTitle()).isEqualTo("Actualizada en lote");
+				assertThat(task.getPriority()).isEqualTo("media");
+				assertThat(task.getProjectId()).isEqualTo(project.getId());
+			});
+		assertThat(taskRepository.findById(toClose.getId())).get()
+			.satisfies(task -> assertThat(task.getCompletedDate()).isNotNull());
+		assertThat(taskRepository.findById(toShift.getId())).get()
+			.satisfies(task -> {
+				assertThat(task.getStartDate()).isEqualTo(LocalDate.of(2025, 3, 8));
+				assertThat(task.getDueDate()).isEqualTo(LocalDate.of(2025, 3, 17));
+			});
+		assertThat(taskRepository.existsById(toDelete.getId())).isFalse();
+
+		// La búsqueda se entera tras el commit
+		assertThat(taskSearchService.search("creada en lote", 10)).extracting(hit -> hit.getId()).containsExactly(createdId);
+		assertThat(taskSearchService.search("actualizada", 10)).hasSize(1);
+	}
+
+	@Test
+	void atomicBatchesApplyNothingWhenAnOperationFails() {
+		Task task = existing("Atómica");
+		TaskBatchRequest.Operation close = operation("status", task.getId());
+		close.setStatus("completada");
+		TaskBatchRequest.Operation badDates = operation("update", task.getId());
+		badDates.setStartDate(LocalDate.of(2025, 4, 1));
+		badDates.setDueDate(LocalDate.of(2025, 3, 1));
+
+		ResponseEntity<TaskBatchResult> response = post(true, List.of(close, badDates));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(response.getBody().isApplied()).isFalse();
+		assertThat(response.getBody().getResults()).extracting(TaskBatchResult.Item::isOk).containsExactly(true, false);
+		assertThat(taskRepository.findById(task.getId())).get()
+			.satisfies(reloaded -> assertThat(reloaded.getStatus()).isEqualTo("pendiente"));
+	}
+
+	@Test
+	void rejectsEmptyAndOversizedBatches() {
+		assertThat(restTemplate.postForEntity("/api/tasks/batch", new TaskBatchRequest(), Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+
+		List<TaskBatchRequest.Operation> tooMany = new ArrayList<>();
+		for (long id = 1; id <= 1001; id++) {
+			tooMany.add(operation("delete", id));
+		}
+		assertThat(post(false, tooMany).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void hundredsOfChangesGoOutInAFewStatements() {
+		List<TaskBatchRequest.Operation> creates = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			TaskBatchRequest.Operation create = operation("create", null);
+			create.setTitle("Masiva " + i);
+			create.setDescription("Alta en bloque");
+			create.setPriority("baja");
+			create.setStatus("pendiente");
+			create.setStartDate(LocalDate.of(2025, 5, 1));
+			create.setDueDate(LocalDate.of(2025, 5, 20));
+			creates.add(create);
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		TaskBatchResult created = post(false, creates).getBody();
+		long insertStatements = statistics.getPrepareStatementCount();
+
+		List<TaskBatchRequest.Operation> shifts = new ArrayList<>();
+		for (TaskBatchResult.Item item : created.getResults()) {
+			TaskBatchRequest.Operation shift = operation("shift", item.getId());
+			shift.setDays(-3);
+			shifts.add(shift);
+		}
+		statistics.clear();
+		TaskBatchResult shifted = post(false, shifts).getBody();
+		long updateStatements = statistics.getPrepareStatementCount();
+
+		assertThat(created.getSucceeded()).isEqualTo(300);
+		assertThat(shifted.getSucceeded()).isEqualTo(300);
+		// 300 ids de 50 en 50 (6 llamadas a la secuencia), la última clave de orden de
+		// la columna (una consulta para todas las altas) y un lote de INSERT
+		assertThat(insertStatements).isLessThanOrEqualTo(9);
+		// Un SELECT ... IN y un lote de UPDATE
+		assertThat(updateStatements).isLessThanOrEqualTo(2);
+		assertThat(taskRepository.findById(shifted.getResults().get(0).getId())).get()
+			.satisfies(task -> assertThat(task.getDueDate()).isEqualTo(LocalDate.of(2025, 5, 17)));
+	}
+}
@@ -0,0 +1,137 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.dto.TaskBoard;
+import com.portal.ia.dto.TaskCursorPage;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+
+/**
+ * GET /api/tasks/board: las tres columnas con su total y las primeras tareas en
+ * el orden de /api/tasks/scroll, y el cursor de cada columna sigue justo donde
+ * se quedó el tablero.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskBoardTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	private Project project;
+
+	@BeforeAll
+	void seed() {
+		project = new Project();
+		project.setName("Proyecto tablero");
+		project.setStatus("dev");
+		project = projectRepository.save(project);
+		for (int t = 0; t < 25; t++) {
+			taskRepository.save(task("Pendiente " + t, "pendiente", t % 5 == 0 ? project : null, t < 3 ? "ana-tablero" : null));
+		}
+		for (int t = 0; t < 4; t++) {
+			taskRepository.save(task("En curso " + t, "en_progreso", project, null));
+		}
+	}
+
+	private static Task task(String title, String status, Project project, String assignedTo) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription("Descripción de " + title);
+		task.setStatus(status);
+		task.setPriority("media");
+		task.setProject(project);
+		task.setAssignedTo(assignedTo);
+		return task;
+	}
+
+	private TaskBoard board(String query) {
+		ResponseEntity<TaskBoard> response = restTemplate.getForEntity("/api/tasks/board?" + query, TaskBoard.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return response.getBody();
+	}
+
+	private static List<Long> ids(List<Task> tasks) {
+		return tasks.stream().map(Task::getId).toList();
+	}
+
+	@Test
+	void returnsEveryColumnWithItsTotalAndFirstTasks() {
+		TaskBoard board = board("perColumn=10");
+
+		assertThat(board.getColumns()).extracting(TaskBoard.Column::getStatus)
+			.containsExactly("pendiente", "en_progreso", "completada");
+		// La BBDD se comparte con otros tests: los totales, contra la suya
+		for (TaskBoard.Column column : board.getColumns()) {
+			long total = taskRepository.countByStatus(column.getStatus());
+			assertThat(column.getTotal()).as(column.getStatus()).isEqualTo(total);
+			assertThat(column.getTasks()).hasSize((int) Math.min(total, 10));
+			assertThat(column.isHasMore()).isEqualTo(total > 10);
+			assertThat(column.getNextCursor() == null).isEqualTo(total <= 10);
+		}
+		assertThat(board.getColumns().get(0).getTotal()).isGreaterThanOrEqualTo(25L);
+
+		// Mismo orden que el scroll: updatedAt e id descendentes
+		TaskCursorPage scroll = restTemplate.getForObject("/api/tasks/scroll?status=pendiente&size=10", TaskCursorPage.class);
+		assertThat(ids(board.getColumns().get(0).getTasks())).isEqualTo(ids(scroll.getContent()));
+	}
+
+	@Test
+	void theColumnCursorLoadsTheRestWithoutGapsOrRepeats() {
+		TaskBoard.Column pending = board("perColumn=10").getColumns().get(0);
+		List<Long> seen = new ArrayList<>(ids(pending.getTasks()));
+		String cursor = pending.getNextCursor();
+		while (cursor != null) {
+			TaskCursorPage page = restTemplate.getForObject(
+					"/api/tasks/scroll?status=pendiente&size=10&cursor=" + cursor, TaskCursorPage.class);
+			seen.addAll(ids(page.getContent()));
+			cursor = page.getNextCursor();
+		}
+		assertThat(seen).hasSize(taskRepository.countByStatus("pendiente").intValue()).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void filtersByProjectAndAssignee() {
+		TaskBoard byProject = board("perColumn=3&projectId=" + project.getId());
+		assertThat(byProject.getColumns()).extracting(TaskBoard.Column::getTotal).containsExactly(5L, 4L, 0L);
+		assertThat(byProject.getColumns().get(0).getTasks()).hasSize(3)
+			.extracting(Task::getTitle)
+			.isSubsetOf("Pendiente 0", "Pendiente 5", "Pendiente 10", "Pendiente 15", "Pendiente 20");
+
+		TaskBoard byAssignee = board("perColumn=20&assignedTo=ANA-TABLERO");
+		assertThat(byAssignee.getColumns()).extracting(TaskBoard.Column::getTotal).containsExactly(3L, 0L, 0L);
+		assertThat(byAssignee.getColumns().get(0).isHasMore()).isFalse();
+	}
+
+	@Test
+	void rejectsColumnSizesOutOfRange() {
+		assertThat(restTemplate.getForEntity("/api/tasks/board?perColumn=0", Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.getForEntity("/api/tasks/board?perColumn=201", Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+}
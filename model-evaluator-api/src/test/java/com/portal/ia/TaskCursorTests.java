@@ -0,0 +1,118 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+
+/**
+ * Recorrido completo de /api/tasks/scroll: cada tarea sale exactamente una vez,
+ * en orden, aunque muchas compartan la misma fecha de actualización.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskCursorTests {
+
+	private static final int TASKS = 47;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	private Long projectId;
+
+	@BeforeAll
+	void seed() {
+		Project project = new Project();
+		project.setName("Proyecto cursor");
+		project = projectRepository.save(project);
+		projectId = project.getId();
+
+		List<Task> tasks = new ArrayList<>();
+		for (int t = 0; t < TASKS; t++) {
+			Task task = new Task();
+			task.setTitle("Tarea " + t);
+			task.setDescription("Descripción " + t);
+			task.setPriority(t % 2 == 0 ? "alta" : "baja");
+			task.setStatus("pendiente");
+			task.setProject(project);
+			tasks.add(task);
+		}
+		taskRepository.saveAll(tasks);
+	}
+
+	@Test
+	void walksEveryTaskOnceInOrder() {
+		// Todas las de la BBDD, que puede compartir con otros tests
+		int total = (int) taskRepository.count();
+		List<Long> ids = walk("/api/tasks/scroll?size=10&orderBy=updatedAt&isOrderDesc=true");
+
+		assertThat(total).isGreaterThanOrEqualTo(TASKS);
+		assertThat(ids).hasSize(total);
+		assertThat(new HashSet<>(ids)).hasSize(total);
+		assertThat(walk("/api/tasks/scroll?size=7&orderBy=id&isOrderDesc=false")).isSorted().hasSize(total);
+	}
+
+	@Test
+	void appliesFiltersAndApproximateTotal() {
+		ResponseEntity<Map> response = restTemplate.getForEntity(
+				"/api/tasks/scroll?size=5&priority=alta&withTotal=true&projectId=" + projectId, Map.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).containsEntry("approximateTotal", (TASKS + 1) / 2).containsEntry("hasNext", true);
+		assertThat(walk("/api/tasks/scroll?size=5&priority=alta&projectId=" + projectId)).hasSize((TASKS + 1) / 2);
+	}
+
+	@Test
+	void rejectsForeignOrMalformedCursors() {
+		Map<?, ?> first = restTemplate.getForObject("/api/tasks/scroll?size=5&orderBy=createdAt", Map.class);
+		String cursor = (String) first.get("nextCursor");
+
+		assertThat(restTemplate.getForEntity("/api/tasks/scroll?orderBy=id&cursor=" + cursor, Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.getForEntity("/api/tasks/scroll?cursor=basura", Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.getForEntity("/api/tasks/scroll?orderBy=title", Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	private List<Long> walk(String path) {
+		List<Long> ids = new ArrayList<>();
+		Set<String> cursors = new HashSet<>();
+		String cursor = null;
+		do {
+			String url = cursor == null ? path : path + "&cursor=" + cursor;
+			Map<?, ?> page = restTemplate.getForObject(url, Map.class);
+			for (Object task : (List<?>) page.get("content")) {
+				ids.add(((Number) ((Map<?, ?>) task).get("id")).longValue());
+			}
+			cursor = (String) page.get("nextCursor");
+			assertThat(cursor == null || cursors.add(cursor)).as("cursor repetido").isTrue();
+		} while (cursor != null);
+		return ids;
+	}
+}
@@ -0,0 +1,127 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+
+/**
+ * /api/tasks/export en NDJSON y CSV, con más tareas que el fetch size para que
+ * el contexto de persistencia se vacíe a mitad de exportación.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskExportTests {
+
+	private static final int TASKS = TaskRepository.EXPORT_FETCH_SIZE * 2 + 37;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Project project;
+
+	private long firstId;
+
+	@BeforeAll
+	void seed() {
+		project = new Project();
+		project.setName("Proyecto exportación");
+		project.setStatus("dev");
+		project = projectRepository.save(project);
+
+		List<Task> tasks = new ArrayList<>();
+		for (int t = 0; t < TASKS; t++) {
+			Task task = new Task();
+			task.setTitle(t == 0 ? "Revisar \"p99\", latencias" : "Tarea " + t);
+			task.setDescription(t == 0 ? "Primera línea\nsegunda línea" : "Descripción " + t);
+			task.setPriority(t % 3 == 0 ? "alta" : "baja");
+			task.setStatus("pendiente");
+			task.setProject(t % 2 == 0 ? project : null);
+			tasks.add(task);
+		}
+		firstId = taskRepository.saveAll(tasks).get(0).getId();
+	}
+
+	@Test
+	void exportsEveryTaskAsOneJsonObjectPerLine() throws Exception {
+		ResponseEntity<String> response = restTemplate.getForEntity("/api/tasks/export?format=ndjson", String.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains("tareas.ndjson");
+		String[] lines = response.getBody().split("\n");
+		// Todas las de la BBDD, que puede compartir con otros tests
+		assertThat(lines).hasSize((int) taskRepository.count()).hasSizeGreaterThanOrEqualTo(TASKS);
+		// En orden de id, sin repetidos tras vaciar el contexto
+		long previous = 0;
+		Map<?, ?> first = null;
+		for (String line : lines) {
+			Map<?, ?> task = objectMapper.readValue(line, Map.class);
+			long id = ((Number) task.get("id")).longValue();
+			assertThat(id).isGreaterThan(previous);
+			previous = id;
+			if (id == firstId) {
+				first = task;
+			}
+		}
+		assertThat(first).isNotNull();
+		assertThat(first.get("title")).isEqualTo("Revisar \"p99\", latencias");
+		assertThat(((Number) first.get("projectId")).longValue()).isEqualTo(project.getId());
+	}
+
+	@Test
+	void exportsFilteredCsvWithQuotedFields() {
+		ResponseEntity<String> response = restTemplate.getForEntity(
+				"/api/tasks/export?format=csv&priority=alta&projectId={projectId}", String.class, project.getId());
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType().toString()).startsWith("text/csv");
+		String body = response.getBody();
+		assertThat(body).startsWith("id,title,description,priority,status,");
+		assertThat(body).contains(",\"Revisar \"\"p99\"\", latencias\",\"Primera línea\nsegunda línea\",alta,pendiente,");
+		// alta: t múltiplo de 3; con proyecto: t par -> múltiplos de 6, más la cabecera
+		long expected = (TASKS + 5) / 6;
+		assertThat(body.split("\r\n")).hasSize((int) expected + 1);
+	}
+
+	@Test
+	void rejectsUnknownFormats() {
+		ResponseEntity<Map> response = restTemplate.getForEntity("/api/tasks/export?format=xlsx", Map.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat((String) response.getBody().get("error")).contains("xlsx");
+
+		// Comillas y barras del formato pedido: el error sigue siendo JSON válido
+		ResponseEntity<Map> quoted = restTemplate.getForEntity("/api/tasks/export?format={format}", Map.class, "x\"l\\s");
+		assertThat(quoted.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat((String) quoted.getBody().get("error")).contains("'x\"l\\s'");
+	}
+}
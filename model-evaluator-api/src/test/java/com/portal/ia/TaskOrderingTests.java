@@ -0,0 +1,292 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.dto.TaskBatchRequest;
+import com.portal.ia.dto.TaskMoveRequest;
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+import com.portal.ia.service.TaskBatchService;
+import com.portal.ia.service.TaskRankService;
+import com.portal.ia.service.TaskService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Orden manual por columna: las altas van al final, mover es un solo UPDATE, el
+ * orden se mantiene al leer la columna y el reequilibrado no lo altera.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskOrderingTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRankService taskRankService;
+
+	@Autowired
+	private TaskBatchService taskBatchService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Project project;
+
+	@BeforeAll
+	void seed() {
+		project = new Project();
+		project.setName("Proyecto orden");
+		project.setStatus("dev");
+		project = projectRepository.save(project);
+	}
+
+	private List<Long> createColumn(String prefix, int size) {
+		Project own = new Project();
+		own.setName("Proyecto " + prefix);
+		own.setStatus("dev");
+		own = projectRepository.save(own);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			ids.add(taskService.create(task(prefix + " " + i, own)).getId());
+		}
+		return ids;
+	}
+
+	private static Task task(String title, Project project) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription("Descripción de " + title);
+		task.setStatus("pendiente");
+		task.setPriority("media");
+		task.setProject(project);
+		return task;
+	}
+
+	private Long projectOf(Long taskId) {
+		return taskRepository.findById(taskId).orElseThrow().getProjectId();
+	}
+
+	private List<Long> column(Long projectId, String status) {
+		return taskService.getColumn(projectId, status).stream().map(Task::getId).toList();
+	}
+
+	private ResponseEntity<Map> move(Long id, String status, Long previousId, Long nextId) {
+		TaskMoveRequest request = new TaskMoveRequest();
+		request.setStatus(status);
+		request.setPreviousId(previousId);
+		request.setNextId(nextId);
+		return restTemplate.exchange("/api/tasks/" + id + "/position", HttpMethod.PUT, new HttpEntity<>(request), Map.class);
+	}
+
+	@Test
+	void newTasksGoToTheEndOfTheirColumn() {
+		List<Long> ids = createColumn("Alta", 5);
+		assertThat(column(projectOf(ids.get(0)), "pendiente")).isEqualTo(ids);
+	}
+
+	@Test
+	void movingATaskUpdatesOnlyItsRow() {
+		List<Long> ids = createColumn("Mover", 6);
+		Long projectId = projectOf(ids.get(0));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		ResponseEntity<Map> response = move(ids.get(5), null, ids.get(1), ids.get(2));
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		// Un SELECT ... IN de la tarea y sus vecinas y un UPDATE
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+		assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+
+		assertThat(move(ids.get(0), null, null, null).getStatusCode()).isEqualTo(HttpStatus.OK); // al final
+		assertThat(move(ids.get(4), null, null, ids.get(1)).getStatusCode()).isEqualTo(HttpStatus.OK); // al principio
+		assertThat(column(projectId, "pendiente"))
+			.containsExactly(ids.get(4), ids.get(1), ids.get(5), ids.get(2), ids.get(3), ids.get(0));
+	}
+
+	@Test
+	void movingToAnotherColumnChangesItsStatus() {
+		List<Long> ids = createColumn("Estado", 3);
+		Long projectId = projectOf(ids.get(0));
+
+		assertThat(move(ids.get(1), "completada", null, null).getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(move(ids.get(2), "completada", ids.get(1), null).getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(move(ids.get(0), "completada", null, ids.get(1)).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		assertThat(column(projectId, "pendiente")).isEmpty();
+		assertThat(column(projectId, "completada")).containsExactly(ids.get(0), ids.get(1), ids.get(2));
+		assertThat(taskRepository.findById(ids.get(0))).get()
+			.satisfies(task -> assertThat(task.getCompletedDate()).isNotNull());
+	}
+
+	@Test
+	void changingStatusOrProjectPutsTheTaskAtTheEndOfTheNewColumn() {
+		List<Long> ids = createColumn("Columna", 4);
+		List<Long> others = createColumn("Destino", 2);
+		Long projectId = projectOf(ids.get(0));
+		Long otherProjectId = projectOf(others.get(0));
+
+		// Su clave era la primera de su columna: sin recolocarla quedaría delante
+		taskService.assignToProject(ids.get(0), otherProjectId);
+		assertThat(column(otherProjectId, "pendiente")).containsExactly(others.get(0), others.get(1), ids.get(0));
+
+		Task completed = new Task();
+		completed.setStatus("completada");
+		taskService.update(ids.get(3), completed);
+		taskService.update(ids.get(1), completed);
+
+		TaskBatchRequest.Operation status = new TaskBatchRequest.Operation();
+		status.setOp("status");
+		status.setId(ids.get(2));
+		status.setStatus("completada");
+		TaskBatchRequest batch = new TaskBatchRequest();
+		batch.setOperations(List.of(status));
+		assertThat(taskBatchService.apply(batch).getFailed()).isZero();
+
+		assertThat(column(projectId, "completada")).containsExactly(ids.get(3), ids.get(1), ids.get(2));
+		assertThat(column(projectId, "pendiente")).isEmpty();
+	}
+
+	@Test
+	void concurrentCreatesInTheSameColumnGetDistinctKeys() throws Exception {
+		Project own = new Project();
+		own.setName("Proyecto Simultáneas");
+		own.setStatus("dev");
+		Project saved = projectRepository.save(own);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				String title = "Simultánea " + i;
+				futures.add(pool.submit(() -> taskService.create(task(title, saved))));
+			}
+			// Lotes de altas en la misma columna a la vez que las altas sueltas
+			for (int b = 0; b < 4; b++) {
+				List<TaskBatchRequest.Operation> operations = new ArrayList<>();
+				for (int i = 0; i < 5; i++) {
+					TaskBatchRequest.Operation create = new TaskBatchRequest.Operation();
+					create.setOp("create");
+					create.setTitle("Lote " + b + "-" + i);
+					create.setDescription("Alta en lote");
+					create.setPriority("media");
+					create.setStatus("pendiente");
+					create.setProjectId(saved.getId());
+					operations.add(create);
+				}
+				TaskBatchRequest batch = new TaskBatchRequest();
+				batch.setOperations(operations);
+				futures.add(pool.submit(() -> taskBatchService.apply(batch)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		List<Task> column = taskService.getColumn(saved.getId(), "pendiente");
+		assertThat(column).hasSize(60);
+		assertThat(column).extracting(Task::getSortKey).doesNotContainNull().doesNotHaveDuplicates();
+	}
+
+	@Test
+	void movesWithKeysReadBeforeARebalanceAreRejected() {
+		List<Long> ids = createColumn("Carrera", 3);
+		Long projectId = projectOf(ids.get(0));
+		taskService.move(ids.get(2), null, ids.get(0), ids.get(1));
+
+		// Un movimiento lee las vecinas y, antes de guardar, se reequilibra la columna
+		long seen = taskRankService.rebalanceCount();
+		taskRankService.rebalance(projectId, "pendiente");
+
+		assertThatThrownBy(() -> taskRankService.inColumn(projectId, "pendiente", seen, () -> "guardado"))
+			.isInstanceOf(IllegalStateException.class);
+		assertThat(taskRankService.inColumn(projectId, "pendiente", taskRankService.rebalanceCount(), () -> "guardado"))
+			.isEqualTo("guardado");
+		assertThat(column(projectId, "pendiente")).containsExactly(ids.get(0), ids.get(2), ids.get(1));
+	}
+
+	@Test
+	void rejectsNeighboursFromOtherColumnsOrOutOfOrder() {
+		List<Long> ids = createColumn("Rechazo", 3);
+		List<Long> others = createColumn("Otra", 1);
+
+		assertThat(move(ids.get(0), null, others.get(0), null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(move(ids.get(0), "en_progreso", ids.get(1), null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(move(ids.get(0), "archivada", null, null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(move(ids.get(0), null, ids.get(0), null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		// La anterior va después de la siguiente: el cliente tiene una columna vieja
+		assertThat(move(ids.get(0), null, ids.get(2), ids.get(1)).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(move(-1L, null, null, null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void rebalancingShortensKeysWithoutChangingTheOrder() {
+		List<Long> ids = createColumn("Reequilibrar", 3);
+		Long projectId = projectOf(ids.get(0));
+		// Siempre al mismo hueco: las claves se alargan
+		Long previous = ids.get(0);
+		for (int i = 0; i < 40; i++) {
+			Long moved = taskService.create(task("Hueco " + i, projectRepository.getReferenceById(projectId))).getId();
+			taskService.move(moved, null, previous, ids.get(1));
+			previous = moved;
+		}
+		List<Long> before = column(projectId, "pendiente");
+		assertThat(taskRepository.findById(previous).orElseThrow().getSortKey()).hasSizeGreaterThan(5);
+
+		taskRankService.rebalance(projectId, "pendiente");
+
+		assertThat(column(projectId, "pendiente")).isEqualTo(before);
+		assertThat(taskService.getColumn(projectId, "pendiente"))
+			.allSatisfy(task -> assertThat(task.getSortKey()).hasSizeLessThanOrEqualTo(2));
+	}
+
+	@Test
+	void legacyTasksWithoutKeyGetOneWhenTheColumnIsRebalanced() {
+		Task legacy = taskRepository.save(task("Sin clave", project));
+		assertThat(legacy.getSortKey()).isNull();
+		Task recent = taskService.create(task("Con clave", project));
+
+		taskRankService.rebalance(project.getId(), "pendiente");
+
+		assertThat(column(project.getId(), "pendiente")).containsExactly(recent.getId(), legacy.getId());
+		assertThat(taskRepository.findById(legacy.getId()).orElseThrow().getSortKey()).isNotNull();
+	}
+}
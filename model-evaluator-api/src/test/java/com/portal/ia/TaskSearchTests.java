@@ -0,0 +1,102 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.TaskRepository;
+import com.portal.ia.service.TaskSearchService;
+import com.portal.ia.service.TaskService;
+
+/**
+ * /api/tasks/search de punta a punta: las tareas que ya estaban en BBDD entran
+ * por la reconstrucción, y las altas, cambios y borrados por {@link TaskService}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"ia.search.batch-size=7"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskSearchTests {
+
+	private static final ParameterizedTypeReference<List<Map<String, Object>>> HITS = new ParameterizedTypeReference<>() {
+	};
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskSearchService taskSearchService;
+
+	@BeforeAll
+	void seedAndRebuild() {
+		for (int t = 0; t < 30; t++) {
+			Task task = new Task();
+			task.setTitle(t == 0 ? "Migración del índice FAISS" : "Tarea " + t);
+			task.setDescription(t == 0 ? "Reindexar los documentos con el modelo nuevo" : "Revisión periódica número " + t);
+			task.setPriority("media");
+			task.setStatus("pendiente");
+			taskRepository.save(task); // directo al repositorio: sólo lo verá la reconstrucción
+		}
+		taskSearchService.rebuild();
+	}
+
+	private List<Map<String, Object>> search(String query) {
+		ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+				"/api/tasks/search?q={q}&limit=50", HttpMethod.GET, null, HITS, query);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return response.getBody();
+	}
+
+	@Test
+	void findsRebuiltTasksWithHighlights() {
+		assertThat(taskSearchService.isReady()).isTrue();
+
+		List<Map<String, Object>> hits = search("indice faiss");
+		assertThat(hits).hasSize(1);
+		assertThat(hits.get(0))
+			.containsEntry("titleHighlight", "Migración del <mark>índice</mark> <mark>FAISS</mark>")
+			.containsEntry("priority", "media");
+		assertThat(search("revision periodica")).hasSize(29);
+	}
+
+	@Test
+	void followsCreatesUpdatesAndDeletes() {
+		Task task = new Task();
+		task.setTitle("Calibrar termómetros del CPD");
+		task.setDescription("Cambiar las sondas de la sala fría");
+		task.setPriority("alta");
+		task.setStatus("pendiente");
+		Task created = taskService.create(task);
+		assertThat(search("termometros")).extracting(hit -> ((Number) hit.get("id")).longValue()).containsExactly(created.getId());
+
+		Task changes = new Task();
+		changes.setTitle("Calibrar higrómetros del CPD");
+		taskService.update(created.getId(), changes);
+		assertThat(search("termometros")).isEmpty();
+		assertThat(search("higrom")).hasSize(1);
+
+		taskService.deleteById(created.getId());
+		assertThat(search("higrom")).isEmpty();
+	}
+}
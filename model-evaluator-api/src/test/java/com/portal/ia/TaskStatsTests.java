@@ -0,0 +1,140 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+import com.portal.ia.service.TaskService;
+import com.portal.ia.service.TaskStatsService;
+
+/**
+ * /api/tasks/stats desde los contadores en memoria: lo que pasa por
+ * {@link TaskService} se ve al momento, lo que va directo a la BBDD al
+ * reconciliar, y tras cualquier secuencia de cambios los contadores coinciden
+ * con un recuento desde cero.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskStatsTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskStatsService taskStatsService;
+
+	private Project project;
+
+	@BeforeAll
+	void seed() {
+		project = new Project();
+		project.setName("Proyecto estadísticas");
+		project.setStatus("dev");
+		project = projectRepository.save(project);
+		for (int t = 0; t < 5; t++) {
+			// Directo al repositorio: sólo lo verá la reconciliación
+			taskRepository.save(task("Existente " + t, "pendiente", t < 2 ? "alta" : "baja", t < 3 ? project : null,
+					t == 0 ? "ana" : null));
+		}
+		taskStatsService.reconcile();
+	}
+
+	private static Task task(String title, String status, String priority, Project project, String assignedTo) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription("Descripción de " + title);
+		task.setStatus(status);
+		task.setPriority(priority);
+		task.setProject(project);
+		task.setAssignedTo(assignedTo);
+		return task;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> stats() {
+		Map<String, Object> stats = restTemplate.getForObject("/api/tasks/stats", Map.class);
+		assertThat(stats).isNotNull();
+		return stats;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> breakdown(Map<String, Object> stats, String key) {
+		return (Map<String, Object>) stats.get(key);
+	}
+
+	@Test
+	void followsTransitionsAndMatchesAFreshRecount() {
+		Map<String, Object> initial = stats();
+		int total = ((Number) initial.get("total")).intValue();
+		int pendientes = ((Number) initial.get("pendientes")).intValue();
+
+		Task created = taskService.create(task("Nueva", "pendiente", "media", null, "luis"));
+		Task changes = new Task();
+		changes.setStatus("en_progreso");
+		changes.setPriority("alta");
+		changes.setAssignedTo("ana");
+		taskService.update(created.getId(), changes);
+		taskService.assignToProject(created.getId(), project.getId());
+
+		Map<String, Object> afterChanges = stats();
+		assertThat(afterChanges.get("total")).isEqualTo(total + 1);
+		assertThat(afterChanges.get("pendientes")).isEqualTo(pendientes);
+		assertThat(((Number) afterChanges.get("en_progreso")).intValue()).isPositive();
+		assertThat(breakdown(afterChanges, "por_asignado")).doesNotContainKey("luis");
+
+		Map<String, Object> incremental = afterChanges;
+		taskStatsService.reconcile();
+		assertThat(stats()).isEqualTo(incremental);
+
+		taskService.deleteById(created.getId());
+		assertThat(stats().get("total")).isEqualTo(total);
+		taskStatsService.reconcile();
+		assertThat(stats().get("total")).isEqualTo(total);
+	}
+
+	@Test
+	void breaksDownByProjectAndAssignee() {
+		Map<String, Object> stats = stats();
+
+		assertThat(breakdown(stats, "por_proyecto")).containsKey(String.valueOf(project.getId()))
+			.containsKey("sin_proyecto");
+		assertThat(breakdown(stats, "por_asignado")).containsKey("ana").containsKey("sin_asignar");
+		assertThat(breakdown(stats, "por_prioridad")).containsKeys("alta", "media", "baja");
+	}
+
+	@Test
+	void reconciliationPicksUpChangesMadeOutsideTheService() {
+		int total = ((Number) stats().get("total")).intValue();
+		Task hidden = taskRepository.save(task("Por SQL", "completada", "baja", null, null));
+		assertThat(stats().get("total")).isEqualTo(total);
+
+		taskStatsService.reconcile();
+		assertThat(stats().get("total")).isEqualTo(total + 1);
+
+		taskRepository.delete(hidden);
+		taskStatsService.reconcile();
+		assertThat(stats().get("total")).isEqualTo(total);
+	}
+}
@@ -0,0 +1,161 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.portal.ia.entity.Project;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ProjectRepository;
+import com.portal.ia.repository.TaskRepository;
+import com.portal.ia.service.TaskService;
+import com.portal.ia.service.TaskTimelineService;
+
+/**
+ * GET /api/tasks/timeline: la misma ventana sale igual desde la BBDD (antes de
+ * construir el índice) que desde el índice en memoria, y los cambios hechos con
+ * {@link TaskService} se ven en la siguiente consulta.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"ia.tasks.timeline.max-results=4"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TaskTimelineTests {
+
+	private static final LocalDate MARCH = LocalDate.of(2025, 3, 1);
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskTimelineService taskTimelineService;
+
+	private Project project;
+	private Task january;
+	private Task spanning;
+	private Task early;
+	private Task late;
+	private Task ana;
+
+	@BeforeAll
+	void seed() {
+		project = new Project();
+		project.setName("Proyecto timeline");
+		project.setStatus("dev");
+		project = projectRepository.save(project);
+
+		january = taskRepository.save(task("Enero", LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 20), project, null));
+		spanning = taskRepository.save(task("Todo el año", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), null, null));
+		early = taskRepository.save(task("Principios de marzo", MARCH, MARCH.plusDays(5), project, null));
+		late = taskRepository.save(task("Finales de marzo", MARCH.plusDays(25), MARCH.plusDays(40), null, null));
+		ana = taskRepository.save(task("Cruza febrero", LocalDate.of(2025, 2, 20), MARCH.plusDays(2), project, "ana"));
+		taskRepository.save(task("Sin fecha límite", MARCH, null, project, null));
+	}
+
+	private static Task task(String title, LocalDate start, LocalDate due, Project project, String assignedTo) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription("Descripción de " + title);
+		task.setStatus("pendiente");
+		task.setPriority("media");
+		task.setStartDate(start);
+		task.setDueDate(due);
+		task.setProject(project);
+		task.setAssignedTo(assignedTo);
+		return task;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Long> window(String query) {
+		ResponseEntity<Map> response = restTemplate.getForEntity("/api/tasks/timeline?" + query, Map.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		List<Map<String, Object>> tasks = (List<Map<String, Object>>) response.getBody().get("tasks");
+		return tasks.stream().map(task -> ((Number) task.get("id")).longValue()).toList();
+	}
+
+	private List<List<Long>> marchWindows() {
+		return List.of(
+				window("from=2025-03-01&to=2025-03-31"),
+				window("from=2025-03-01&to=2025-03-31&projectId=" + project.getId()),
+				window("from=2025-03-01&to=2025-03-31&withoutProject=true"),
+				window("from=2025-03-01&to=2025-03-31&assignedTo=ana"),
+				window("from=2025-01-15&to=2025-01-15"));
+	}
+
+	@Test
+	@Order(1) // antes de que ningún otro test construya el índice
+	void theIndexAnswersLikeTheDatabase() {
+		assertThat(taskTimelineService.isReady()).isFalse();
+		List<List<Long>> fromDatabase = marchWindows();
+		assertThat(fromDatabase.get(0)).containsExactly(spanning.getId(), ana.getId(), early.getId(), late.getId());
+		assertThat(fromDatabase.get(1)).containsExactly(ana.getId(), early.getId());
+		assertThat(fromDatabase.get(2)).containsExactly(spanning.getId(), late.getId());
+		assertThat(fromDatabase.get(3)).containsExactly(ana.getId());
+		assertThat(fromDatabase.get(4)).containsExactly(spanning.getId(), january.getId());
+
+		taskTimelineService.rebuild();
+		assertThat(taskTimelineService.isReady()).isTrue();
+		assertThat(marchWindows()).isEqualTo(fromDatabase);
+	}
+
+	@Test
+	void changesThroughTheServiceShowUpInTheNextWindow() {
+		taskTimelineService.rebuild();
+		Task moved = taskService.save(task("Se mueve", LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 3), null, "luis"));
+		assertThat(window("from=2025-06-02&to=2025-06-02&assignedTo=luis")).containsExactly(moved.getId());
+
+		moved.setStartDate(LocalDate.of(2025, 7, 1));
+		moved.setDueDate(LocalDate.of(2025, 7, 3));
+		taskService.save(moved);
+		assertThat(window("from=2025-06-02&to=2025-06-02&assignedTo=luis")).isEmpty();
+		assertThat(window("from=2025-07-02&to=2025-07-02&assignedTo=luis")).containsExactly(moved.getId());
+
+		taskService.deleteById(moved.getId());
+		assertThat(window("from=2025-07-02&to=2025-07-02&assignedTo=luis")).isEmpty();
+	}
+
+	@Test
+	void wideWindowsAreCutAndFlagged() {
+		ResponseEntity<Map> response = restTemplate.getForEntity("/api/tasks/timeline?from=2024-01-01&to=2026-12-31", Map.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat((List<?>) response.getBody().get("tasks")).hasSize(4);
+		assertThat(response.getBody().get("truncated")).isEqualTo(true);
+	}
+
+	@Test
+	void rejectsInvalidWindows() {
+		assertThat(restTemplate.getForEntity("/api/tasks/timeline?from=2025-03-31&to=2025-03-01", Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.getForEntity("/api/tasks/timeline?from=2025-03-01&to=2025-03-31&withoutProject=true&projectId="
+				+ project.getId(), Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.getForEntity("/api/tasks/timeline?from=2025-03-01", Map.class).getStatusCode())
+			.isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+}
@@ -0,0 +1,123 @@
+package com.portal.ia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Trazas de extremo a extremo con todo muestreado: un Flask falso recibe la
+ * pregunta (y comprueba traceparent) y hace también de colector OTLP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"management.tracing.sampling.probability=1.0"
+})
+@ActiveProfiles("test")
+@AutoConfigureObservability
+class TracingTests {
+
+	@TempDir
+	static Path traceDir;
+
+	private static HttpServer fakeBackend;
+	private static final Queue<String> traceparents = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger otlpExports = new AtomicInteger();
+
+	@DynamicPropertySource
+	static void backend(DynamicPropertyRegistry registry) throws IOException {
+		fakeBackend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		fakeBackend.createContext("/responder_ollama_mistral", exchange -> {
+			traceparents.add(String.valueOf(exchange.getRequestHeaders().getFirst("traceparent")));
+			reply(exchange, "{\"respuesta\": \"hola\"}");
+		});
+		fakeBackend.createContext("/gpu_metrics", exchange -> reply(exchange,
+				"[{\"gpu_utilization\": 10, \"memory_total_mb\": 1000, \"memory_used_mb\": 100}]"));
+		fakeBackend.createContext("/v1/traces", exchange -> {
+			otlpExports.incrementAndGet();
+			reply(exchange, "");
+		});
+		fakeBackend.start();
+		String url = "http://localhost:" + fakeBackend.getAddress().getPort();
+		registry.add("ia.router.nodes", () -> url + ";" + url);
+		registry.add("management.otlp.tracing.endpoint", () -> url + "/v1/traces");
+		registry.add("ia.tracing.file", () -> traceDir.resolve("spans.jsonl").toString());
+	}
+
+	private static void reply(HttpExchange exchange, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length == 0 ? -1 : bytes.length);
+		exchange.getResponseBody().write(bytes);
+		exchange.close();
+	}
+
+	@AfterAll
+	static void stopBackend() {
+		fakeBackend.stop(0);
+	}
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void tracesRequestsAcrossControllerServiceJdbcAndFlask() throws Exception {
+		assertThat(restTemplate.getForEntity("/api/tasks", String.class).getStatusCode().is2xxSuccessful()).isTrue();
+		assertThat(restTemplate.postForObject("/api/ollama/mistral", Map.of("prompt", "¿Hola?"), String.class))
+			.contains("hola");
+
+		// traceparent W3C: 00-<traceId>-<spanId>-<flags>
+		assertThat(traceparents).hasSize(1);
+		String traceparent = traceparents.peek();
+		assertThat(traceparent).matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01");
+		String flaskTraceId = traceparent.substring(3, 35);
+
+		Path spans = traceDir.resolve("spans.jsonl");
+		await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> {
+			assertThat(spans).exists();
+			List<Map<?, ?>> all = Files.readAllLines(spans).stream().map(this::parse).toList();
+			assertThat(all).anyMatch(span -> "http get /api/tasks".equals(span.get("name")));
+			assertThat(all).anyMatch(span -> "task-service.get-tasks-by-filters".equals(span.get("name")));
+			assertThat(all).anyMatch(span -> "query".equals(span.get("name")));
+			assertThat(all)
+				.filteredOn(span -> flaskTraceId.equals(span.get("traceId")))
+				.extracting(span -> String.valueOf(span.get("name")))
+				.contains("http post /api/ollama/mistral", "ollama-service.call-mistral", "flask /responder_ollama_mistral");
+		});
+		await().atMost(Duration.ofSeconds(20)).until(() -> otlpExports.get() > 0);
+	}
+
+	private Map<?, ?> parse(String line) {
+		try {
+			return objectMapper.readValue(line, Map.class);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
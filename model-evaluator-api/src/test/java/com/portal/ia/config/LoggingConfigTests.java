@@ -0,0 +1,128 @@
+package com.portal.ia.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.portal.ia.service.LogPayload;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+
+class LoggingConfigTests {
+
+	private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+		final List<String> messages = new CopyOnWriteArrayList<>();
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			messages.add(event.getFormattedMessage());
+		}
+	}
+
+	private static LoggerContext context(BlockingAppender appender) {
+		LoggerContext context = new LoggerContext();
+		context.setMDCAdapter(new LogbackMDCAdapter());
+		context.start();
+		appender.setContext(context);
+		appender.setName("SLOW");
+		appender.start();
+		context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).addAppender(appender);
+		return context;
+	}
+
+	@Test
+	void fullQueueDropsInsteadOfBlockingTheCaller() {
+		BlockingAppender slow = new BlockingAppender();
+		LoggerContext context = context(slow);
+		List<LoggingConfig.DroppingAsyncAppender> wrapped = LoggingConfig.wrapRootAppenders(context, 4);
+		assertThat(wrapped).hasSize(1);
+		assertThat(LoggingConfig.wrapRootAppenders(context, 4)).isEqualTo(wrapped);
+		LoggingConfig.DroppingAsyncAppender async = wrapped.get(0);
+
+		Logger logger = context.getLogger("com.portal.ia.service.OllamaService");
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < 100; i++) {
+			logger.info("traza {}", i);
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+		assertThat(elapsedMs).isLessThan(1000);
+		assertThat(async.getDropped()).isGreaterThan(0);
+		slow.release.countDown();
+		async.stop();
+		assertThat(slow.messages).isNotEmpty().hasSizeLessThan(100);
+	}
+
+	@Test
+	void samplesInfoPerLoggerButNeverWarnings() {
+		BlockingAppender appender = new BlockingAppender();
+		appender.release.countDown();
+		LoggerContext context = context(appender);
+		SamplingTurboFilter filter = new SamplingTurboFilter(SamplingTurboFilter.parseRates(
+				"com.portal.ia.controller=0, com.portal.ia.controller.MetricaGpusController=0.5"));
+		filter.start();
+		context.addTurboFilter(filter);
+
+		Logger metrics = context.getLogger("com.portal.ia.controller.MetricaGpusController");
+		Logger tasks = context.getLogger("com.portal.ia.controller.TaskController");
+		Logger other = context.getLogger("com.portal.ia.service.TaskService");
+		for (int i = 0; i < 1000; i++) {
+			metrics.info("metricas");
+			tasks.info("tareas");
+			other.info("servicio");
+		}
+		tasks.warn("aviso");
+
+		assertThat(appender.messages).filteredOn("metricas"::equals).hasSizeBetween(350, 650);
+		assertThat(appender.messages).filteredOn("tareas"::equals).isEmpty();
+		assertThat(appender.messages).filteredOn("servicio"::equals).hasSize(1000);
+		assertThat(appender.messages).contains("aviso");
+		assertThat(tasks.isEnabledFor(Level.INFO)).isTrue();
+	}
+
+	@Test
+	void rejectsMalformedSamplingRates() {
+		assertThat(SamplingTurboFilter.parseRates("")).isEmpty();
+		assertThat(SamplingTurboFilter.parseRates("a.b=0.1")).isEqualTo(Map.of("a.b", 0.1));
+		assertThatThrownBy(() -> SamplingTurboFilter.parseRates("a.b")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> SamplingTurboFilter.parseRates("a.b=2")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void truncatesLargePayloadsWithLengthAndHash() {
+		int previous = LogPayload.getMaxChars();
+		LogPayload.setMaxChars(20);
+		try {
+			String shortText = "hola";
+			assertThat(LogPayload.of(shortText)).isSameAs(shortText);
+
+			String longText = "x".repeat(500);
+			String logged = String.valueOf(LogPayload.of(longText));
+			assertThat(logged)
+				.startsWith("x".repeat(20) + "…")
+				.contains("500 caracteres")
+				.endsWith("#" + Integer.toHexString(longText.hashCode()) + "]");
+			assertThat(String.valueOf(LogPayload.of(List.of(longText)))).hasSizeLessThan(80);
+		} finally {
+			LogPayload.setMaxChars(previous);
+		}
+	}
+}
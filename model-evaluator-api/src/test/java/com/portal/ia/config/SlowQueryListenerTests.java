@@ -0,0 +1,77 @@
+package com.portal.ia.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.portal.ia.jfr.SlowQueryEvent;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+class SlowQueryListenerTests {
+
+	@TempDir
+	Path directory;
+
+	private static ExecutionInfo execution(long elapsedMs) {
+		ExecutionInfo info = new ExecutionInfo();
+		info.setElapsedTime(elapsedMs);
+		info.setSuccess(true);
+		return info;
+	}
+
+	private List<RecordedEvent> slowQueries(Runnable queries) throws Exception {
+		Path file = directory.resolve("slow-queries.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(SlowQueryEvent.class);
+			recording.start();
+			queries.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		return RecordingFile.readAllEvents(file).stream()
+			.filter(e -> e.getEventType().getName().equals("portal.SlowQuery"))
+			.toList();
+	}
+
+	@Test
+	void emitsAnEventOnlyForQueriesAboveTheThreshold() throws Exception {
+		SlowQueryListener listener = new SlowQueryListener(200);
+
+		List<RecordedEvent> events = slowQueries(() -> {
+			listener.afterQuery(execution(199), List.of(new QueryInfo("select 1")));
+			listener.afterQuery(execution(450), List.of(new QueryInfo("select * from task")));
+		});
+
+		assertThat(events).singleElement().satisfies(e -> {
+			assertThat(e.getString("sql")).isEqualTo("select * from task");
+			assertThat(e.getLong("elapsed")).isEqualTo(450);
+			assertThat(e.getInt("batchSize")).isEqualTo(1);
+			assertThat(e.getBoolean("success")).isTrue();
+		});
+	}
+
+	@Test
+	void truncatesLongStatementsAndReportsTheBatchSize() throws Exception {
+		SlowQueryListener listener = new SlowQueryListener(0);
+		ExecutionInfo batch = execution(5);
+		batch.setBatch(true);
+		batch.setBatchSize(40);
+
+		List<RecordedEvent> events = slowQueries(
+				() -> listener.afterQuery(batch, List.of(new QueryInfo("insert into task values " + "(?),".repeat(1000)))));
+
+		assertThat(events).singleElement().satisfies(e -> {
+			assertThat(e.getString("sql")).hasSize(2000);
+			assertThat(e.getInt("batchSize")).isEqualTo(40);
+		});
+	}
+}
@@ -0,0 +1,57 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+import com.portal.ia.service.AnswerScorer.Metric;
+
+class AnswerScorerTests {
+
+	private final AnswerScorer scorer = new AnswerScorer();
+
+	@Test
+	void identicalAnswersAfterNormalizationScoreOne() {
+		scorer.load("La capital de España es Madrid.", "la capital de espana es MADRID", true);
+
+		for (Metric metric : Metric.values()) {
+			assertThat(scorer.score(metric)).as(metric.getKey()).isCloseTo(1.0, within(1e-9));
+		}
+	}
+
+	@Test
+	void partialOverlap() {
+		scorer.load("el gato está en la casa", "el gato duerme en casa", true);
+
+		assertThat(scorer.exactMatch()).isZero();
+		// 4 tokens comunes (el, gato, en, casa) sobre 6 de referencia y 5 candidatos
+		assertThat(scorer.tokenF1()).isCloseTo(2 * (4 / 5.0) * (4 / 6.0) / (4 / 5.0 + 4 / 6.0), within(1e-9));
+		assertThat(scorer.rougeL()).isCloseTo(scorer.tokenF1(), within(1e-9));
+		assertThat(scorer.bleu()).isBetween(0.0, 1.0);
+		assertThat(scorer.cosine()).isBetween(0.3, 1.0);
+	}
+
+	@Test
+	void unrelatedAnswersScoreLow() {
+		scorer.load("respuesta sobre índices FAISS", "mañana lloverá en Bilbao", true);
+
+		assertThat(scorer.tokenF1()).isZero();
+		assertThat(scorer.rougeL()).isZero();
+		assertThat(scorer.bleu()).isZero();
+		assertThat(scorer.cosine()).isLessThan(0.3);
+	}
+
+	@Test
+	void buffersAreReusedAcrossPairsOfDifferentLengths() {
+		StringBuilder longText = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			longText.append("palabra").append(i % 50).append(' ');
+		}
+		scorer.load(longText.toString(), longText.toString(), true);
+		assertThat(scorer.rougeL()).isEqualTo(1.0);
+
+		scorer.load("a b", "a b c", false);
+		assertThat(scorer.rougeL()).isCloseTo(0.8, within(1e-9));
+	}
+}
@@ -0,0 +1,199 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.portal.ia.entity.ChangeLogState;
+import com.portal.ia.repository.ChangeLogRepository;
+import com.portal.ia.repository.ChangeLogStateRepository;
+
+class ChangeFeedServiceTests {
+
+	private final ChangeLogRepository changeLogRepository = mock(ChangeLogRepository.class);
+	private final ChangeLogStateRepository stateRepository = mock(ChangeLogStateRepository.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final ChangeFeedService feed = new ChangeFeedService(changeLogRepository, stateRepository, jdbcTemplate, transactionManager,
+			4, 1, 60000);
+
+	@AfterEach
+	void shutdown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		feed.shutdown();
+	}
+
+	private static Map<String, Object> task(String title, String status, Long projectId) {
+		Map<String, Object> fields = new HashMap<>();
+		fields.put("title", title);
+		fields.put("status", status);
+		fields.put("projectId", projectId);
+		return fields;
+	}
+
+	@Test
+	void updatesOnlyCarryTheFieldsThatChanged() {
+		feed.updated(ChangeFeedService.TASK, 1L, task("A", "pendiente", 7L), task("A", "completada", 7L));
+		assertThat(feed.currentVersion()).isEqualTo(1);
+
+		// Nada distinto: no se publica
+		feed.updated(ChangeFeedService.TASK, 1L, task("A", "completada", 7L), task("A", "completada", 7L));
+		assertThat(feed.currentVersion()).isEqualTo(1);
+
+		// Sin estado anterior van todos los campos
+		feed.updated(ChangeFeedService.NOTE, 2L, null, Map.of("content", "Hoy"));
+		assertThat(feed.currentVersion()).isEqualTo(2);
+	}
+
+	@Test
+	void eventsInsideATransactionWaitForTheCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		feed.created(ChangeFeedService.TASK, 1L, task("A", "pendiente", null));
+		feed.deleted(ChangeFeedService.TASK, 2L, task("B", "pendiente", null));
+		assertThat(feed.currentVersion()).isZero();
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+		assertThat(feed.currentVersion()).isEqualTo(2);
+
+		// Deshecha: las sincronizaciones se descartan sin afterCommit
+		TransactionSynchronizationManager.initSynchronization();
+		feed.created(ChangeFeedService.TASK, 3L, task("C", "pendiente", null));
+		TransactionSynchronizationManager.clearSynchronization();
+		assertThat(feed.currentVersion()).isEqualTo(2);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void versionsAreSavedInOrderAndContinueAfterARestart() {
+		when(changeLogRepository.findMaxSeq()).thenReturn(41L);
+		ChangeFeedService restarted = new ChangeFeedService(changeLogRepository, stateRepository, jdbcTemplate, transactionManager,
+				4, 1, 60000);
+		restarted.created(ChangeFeedService.TASK, 1L, task("A", "pendiente", null));
+		restarted.deleted(ChangeFeedService.NOTE, 9L, null);
+		assertThat(restarted.currentVersion()).isEqualTo(43);
+		restarted.shutdown(); // espera a que se guarde lo pendiente
+
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), rows.capture());
+		List<Object[]> saved = rows.getAllValues().stream().flatMap(List::stream).toList();
+		assertThat(saved).extracting(row -> row[0]).containsExactly(42L, 43L);
+		assertThat(saved).extracting(row -> row[1]).containsExactly("task", "note");
+	}
+
+	@Test
+	void aRestartAfterACrashNeitherReusesVersionsNorResumesOldTokens() {
+		AtomicReference<ChangeLogState> stored = new AtomicReference<>();
+		when(stateRepository.findById(ChangeLogState.ID)).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+		when(stateRepository.save(any())).thenAnswer(invocation -> {
+			stored.set(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+		when(stateRepository.raise(anyInt(), anyLong(), anyLong(), anyBoolean())).thenAnswer(invocation -> {
+			ChangeLogState current = stored.get();
+			stored.set(new ChangeLogState(ChangeLogState.ID,
+					Math.max(current.getReservedUntil(), (long) invocation.getArgument(1)),
+					Math.max(current.getResyncBelow(), (long) invocation.getArgument(2)),
+					invocation.getArgument(3)));
+			return 1;
+		});
+
+		ChangeFeedService crashed = new ChangeFeedService(changeLogRepository, stateRepository, jdbcTemplate,
+				transactionManager, 4, 1, 60000);
+		for (long id = 1; id <= 3; id++) {
+			crashed.created(ChangeFeedService.TASK, id, task("T" + id, "pendiente", null));
+		}
+		// Se cae con la versión 3 ya enviada a los clientes pero sin guardar en change_log
+		when(changeLogRepository.findMaxSeq()).thenReturn(2L);
+		ChangeFeedService restarted = new ChangeFeedService(changeLogRepository, stateRepository, jdbcTemplate,
+				transactionManager, 4, 1, 60000);
+		restarted.created(ChangeFeedService.TASK, 4L, task("T4", "pendiente", null));
+
+		assertThat(restarted.currentVersion()).isGreaterThan(crashed.currentVersion());
+		assertThat(restarted.canResumeFrom(2)).isFalse();
+		assertThat(restarted.canResumeFrom(3)).isFalse();
+		assertThat(restarted.canResumeFrom(restarted.currentVersion())).isTrue();
+
+		// Tras una parada limpia los tokens siguen valiendo
+		long last = restarted.currentVersion();
+		restarted.shutdown();
+		when(changeLogRepository.findMaxSeq()).thenReturn(last);
+		ChangeFeedService again = new ChangeFeedService(changeLogRepository, stateRepository, jdbcTemplate,
+				transactionManager, 4, 1, 60000);
+		try {
+			assertThat(again.canResumeFrom(last)).isTrue();
+			assertThat(again.canResumeFrom(3)).isFalse();
+			again.created(ChangeFeedService.TASK, 5L, task("T5", "pendiente", null));
+			assertThat(again.currentVersion()).isGreaterThan(last);
+		} finally {
+			again.shutdown();
+			crashed.shutdown(); // sólo para parar sus hilos
+		}
+	}
+
+	@Test
+	void theNextBlockIsReservedAheadWithoutBlockingPublishers() throws Exception {
+		CountDownLatch slowDatabase = new CountDownLatch(1);
+		when(stateRepository.raise(anyInt(), anyLong(), anyLong(), anyBoolean())).thenAnswer(invocation -> {
+			slowDatabase.await(10, TimeUnit.SECONDS);
+			return 1;
+		});
+
+		// Con la reserva del bloque siguiente atascada en la BBDD, publicar no espera
+		CompletableFuture<Void> publishing = CompletableFuture.runAsync(() -> {
+			for (long id = 1; id <= 900; id++) {
+				feed.created(ChangeFeedService.TASK, id, task("T" + id, "pendiente", null));
+			}
+		});
+		publishing.get(5, TimeUnit.SECONDS);
+		assertThat(feed.currentVersion()).isEqualTo(900);
+
+		slowDatabase.countDown();
+		verify(stateRepository, timeout(5000)).raise(eq(ChangeLogState.ID), eq(2000L), anyLong(), eq(false));
+	}
+
+	@Test
+	void unsavedEntitiesAreNotPublished() {
+		feed.created(ChangeFeedService.TASK, null, task("Sin guardar", "pendiente", null));
+		assertThat(feed.currentVersion()).isZero();
+	}
+
+	@Test
+	void rejectsUnknownEntities() {
+		assertThatThrownBy(() -> feed.subscribe(Set.of("task", "environment"), null, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("environment");
+		assertThat(feed.subscriberCount()).isZero();
+	}
+}
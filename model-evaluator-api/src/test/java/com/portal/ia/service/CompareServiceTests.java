@@ -0,0 +1,118 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.portal.ia.dto.CompareResult;
+
+class CompareServiceTests {
+
+	private final ModelGatewayService modelGatewayService = mock(ModelGatewayService.class);
+	private final CompareService compareService = new CompareService(modelGatewayService, 8, 16, 1000, 5000);
+
+	private final List<CompareResult> results = new CopyOnWriteArrayList<>();
+	private final CountDownLatch done = new CountDownLatch(1);
+	private volatile long elapsed;
+
+	private final CompareService.Listener listener = new CompareService.Listener() {
+		@Override
+		public void onResult(CompareResult result) {
+			results.add(result);
+		}
+
+		@Override
+		public void onComplete(long elapsedMs) {
+			elapsed = elapsedMs;
+			done.countDown();
+		}
+	};
+
+	@AfterEach
+	void tearDown() {
+		compareService.shutdown();
+	}
+
+	private static String sleepAndAnswer(long ms, String answer) throws InterruptedException {
+		Thread.sleep(ms);
+		return answer;
+	}
+
+	@Test
+	void runsModelsConcurrentlyAndStreamsInCompletionOrder() throws Exception {
+		when(modelGatewayService.invoke(eq("a"), anyString(), any(Duration.class))).thenAnswer(i -> sleepAndAnswer(300, "A"));
+		when(modelGatewayService.invoke(eq("b"), anyString(), any(Duration.class))).thenAnswer(i -> sleepAndAnswer(50, "B"));
+		when(modelGatewayService.invoke(eq("c"), anyString(), any(Duration.class))).thenThrow(new IllegalStateException("caído"));
+
+		compareService.compare("hola", List.of("a", "b", "c"), 2000, listener);
+
+		assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(results).extracting(CompareResult::getModel).containsExactly("c", "b", "a");
+		assertThat(results).extracting(CompareResult::getStatus).containsExactly("error", "ok", "ok");
+		assertThat(results.get(2).getRespuesta()).isEqualTo("A");
+		// El total es el del más lento, no la suma
+		assertThat(elapsed).isLessThan(340 + 50 + 200);
+	}
+
+	@Test
+	void reportsTimeoutForModelsThatMissTheDeadline() throws Exception {
+		when(modelGatewayService.invoke(eq("rapido"), anyString(), any(Duration.class))).thenAnswer(i -> sleepAndAnswer(10, "ok"));
+		when(modelGatewayService.invoke(eq("lento"), anyString(), any(Duration.class))).thenAnswer(i -> sleepAndAnswer(5000, "tarde"));
+
+		compareService.compare("hola", List.of("rapido", "lento"), 200, listener);
+
+		assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(results).hasSize(2);
+		assertThat(results.get(1).getModel()).isEqualTo("lento");
+		assertThat(results.get(1).getStatus()).isEqualTo(CompareService.STATUS_TIMEOUT);
+	}
+
+	@Test
+	void eachCallGetsWhatIsLeftOfTheDeadlineAsItsHttpTimeout() throws Exception {
+		when(modelGatewayService.invoke(eq("a"), anyString(), any(Duration.class))).thenReturn("A");
+
+		compareService.compare("hola", List.of("a"), 800, listener);
+
+		assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+		ArgumentCaptor<Duration> timeout = ArgumentCaptor.forClass(Duration.class);
+		verify(modelGatewayService).invoke(eq("a"), anyString(), timeout.capture());
+		assertThat(timeout.getValue()).isPositive().isLessThanOrEqualTo(Duration.ofMillis(800));
+	}
+
+	@Test
+	void rejectsModelsRightAwayWhenThePoolAndItsQueueAreFull() throws Exception {
+		CompareService small = new CompareService(modelGatewayService, 1, 1, 1000, 5000);
+		CountDownLatch release = new CountDownLatch(1);
+		when(modelGatewayService.invoke(anyString(), anyString(), any(Duration.class))).thenAnswer(i -> {
+			release.await();
+			return "ok";
+		});
+		try {
+			// 1 en curso + 1 en cola; el tercero no cabe
+			small.compare("hola", List.of("a", "b", "c"), 2000, listener);
+
+			assertThat(results).extracting(CompareResult::getModel).containsExactly("c");
+			assertThat(results.get(0).getStatus()).isEqualTo(CompareService.STATUS_ERROR);
+			assertThat(results.get(0).getError()).isEqualTo("Comparador saturado");
+			release.countDown();
+			assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			release.countDown();
+			small.shutdown();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EvalDatasetReaderTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readsCsvWithQuotedFieldsAndEmbeddedNewlines() throws Exception {
+		Path csv = dir.resolve("dataset.csv");
+		Files.writeString(csv, "\uFEFFid,Pregunta,expected\r\n"
+				+ "1,\"¿Qué es, exactamente, FAISS?\",Un índice\r\n"
+				+ "2,\"Línea uno\nlínea \"\"dos\"\"\",\r\n", StandardCharsets.UTF_8);
+
+		List<String[]> rows = new ArrayList<>();
+		long total = EvalDatasetReader.read(csv, EvalDatasetReader.formatOf("dataset.csv"),
+				(index, prompt, expected) -> rows.add(new String[] { String.valueOf(index), prompt, expected }));
+
+		assertThat(total).isEqualTo(2);
+		assertThat(rows.get(0)).containsExactly("0", "¿Qué es, exactamente, FAISS?", "Un índice");
+		assertThat(rows.get(1)).containsExactly("1", "Línea uno\nlínea \"dos\"", "");
+	}
+
+	@Test
+	void readsJsonlSkippingBlankLines() throws Exception {
+		Path jsonl = dir.resolve("dataset.jsonl");
+		Files.writeString(jsonl, "{\"prompt\":\"hola\",\"expected\":\"adiós\"}\n\n{\"question\":\"otra\"}\n",
+				StandardCharsets.UTF_8);
+
+		List<String> prompts = new ArrayList<>();
+		long total = EvalDatasetReader.read(jsonl, EvalDatasetReader.FORMAT_JSONL,
+				(index, prompt, expected) -> prompts.add(prompt + "|" + expected));
+
+		assertThat(total).isEqualTo(2);
+		assertThat(prompts).containsExactly("hola|adiós", "otra|null");
+	}
+
+	@Test
+	void rejectsUnknownFormats() {
+		assertThatThrownBy(() -> EvalDatasetReader.formatOf("dataset.xlsx"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,71 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.portal.ia.entity.EvalRun;
+import com.portal.ia.repository.EvalItemRepository;
+import com.portal.ia.repository.EvalResultRepository;
+import com.portal.ia.repository.EvalRunRepository;
+
+class EvalServiceTests {
+
+	private final EvalRunRepository evalRunRepository = mock(EvalRunRepository.class);
+	private final EvalItemRepository evalItemRepository = mock(EvalItemRepository.class);
+	private final EvalResultRepository evalResultRepository = mock(EvalResultRepository.class);
+	private final ModelGatewayService modelGatewayService = mock(ModelGatewayService.class);
+	private final EvalService evalService = new EvalService(evalRunRepository, evalItemRepository,
+			evalResultRepository, modelGatewayService, "eval-data", 2, 2, 10, 10, false);
+
+	@AfterEach
+	void tearDown() {
+		evalService.shutdown();
+	}
+
+	@Test
+	void cancellingBeforeIngestIsNotOverwrittenWithInProgress() throws Exception {
+		EvalRun run = new EvalRun();
+		run.setId(1L);
+		run.setModels("mistral-ollama");
+		run.setStatus(EvalService.STATUS_PENDIENTE);
+		run.setTotalItems(3L);
+
+		// El hilo de la ejecución no pasa de su primera lectura hasta que se ha cancelado
+		Thread testThread = Thread.currentThread();
+		CountDownLatch cancelled = new CountDownLatch(1);
+		when(evalRunRepository.findById(1L)).thenAnswer(i -> {
+			if (Thread.currentThread() != testThread) {
+				cancelled.await(5, TimeUnit.SECONDS);
+			}
+			return Optional.of(run);
+		});
+		when(evalRunRepository.save(any(EvalRun.class))).thenAnswer(i -> i.getArgument(0));
+
+		assertThat(evalService.start(1L)).isTrue();
+		evalService.cancel(1L);
+		cancelled.countDown();
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (Boolean.TRUE.equals(evalService.getProgress(1L).get("activa"))
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(evalService.getProgress(1L)).containsEntry("activa", false);
+		assertThat(run.getStatus()).isEqualTo(EvalService.STATUS_CANCELADA);
+		verify(evalItemRepository, never()).saveAll(anyIterable());
+		verify(modelGatewayService, never()).invoke(anyString(), anyString());
+	}
+}
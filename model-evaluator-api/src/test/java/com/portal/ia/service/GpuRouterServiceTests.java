@@ -0,0 +1,113 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class GpuRouterServiceTests {
+
+	private final MetricaGpusService metricaGpusService = mock(MetricaGpusService.class);
+
+	private GpuRouterService router(int maxInFlight, long queueTimeoutMs) {
+		return new GpuRouterService(metricaGpusService,
+				List.of("http://gpu-a:5000;http://gpu-a:5001", "http://gpu-b:5000;http://gpu-b:5001"),
+				90, maxInFlight, 10, queueTimeoutMs, 2000);
+	}
+
+	private static List<Map<String, Object>> gpu(int utilization, int usedMb) {
+		return List.of(Map.of("gpu_utilization", utilization, "memory_total_mb", 1000, "memory_used_mb", usedMb));
+	}
+
+	@Test
+	void skipsNodesAboveTheMemoryWatermark() {
+		when(metricaGpusService.getGpuMetrics("http://gpu-a:5001")).thenReturn(gpu(10, 950));
+		when(metricaGpusService.getGpuMetrics("http://gpu-b:5001")).thenReturn(gpu(90, 200));
+		GpuRouterService router = router(8, 100);
+		router.refresh();
+
+		for (int i = 0; i < 20; i++) {
+			try (GpuRouterService.NodeLease lease = router.acquire()) {
+				assertThat(lease.getBackendUrl()).isEqualTo("http://gpu-b:5000");
+			}
+		}
+	}
+
+	@Test
+	void refreshPollsEveryNodeAtOnce() {
+		when(metricaGpusService.getGpuMetrics(anyString())).thenAnswer(invocation -> {
+			Thread.sleep(500);
+			return gpu(10, 100);
+		});
+		GpuRouterService router = router(8, 100);
+
+		long start = System.nanoTime();
+		router.refresh();
+
+		// Uno detrás de otro serían al menos 1000 ms
+		assertThat(System.nanoTime() - start).isLessThan(900_000_000L);
+		assertThat(router.getStatus()).extracting(status -> ((List<?>) status.get("nodes")).size()).isEqualTo(2);
+	}
+
+	@Test
+	void queuesAndTimesOutWhenEveryNodeIsFull() {
+		when(metricaGpusService.getGpuMetrics("http://gpu-a:5001")).thenReturn(gpu(10, 950));
+		when(metricaGpusService.getGpuMetrics("http://gpu-b:5001")).thenReturn(gpu(10, 990));
+		GpuRouterService router = router(8, 50);
+		router.refresh();
+
+		assertThatThrownBy(router::acquire).isInstanceOf(GpuCapacityException.class);
+		assertThat(router.getStatus()).containsEntry("queued", 0);
+	}
+
+	@Test
+	void tryAcquireFailsAtOnceInsteadOfQueueing() {
+		when(metricaGpusService.getGpuMetrics("http://gpu-a:5001")).thenReturn(gpu(10, 100));
+		when(metricaGpusService.getGpuMetrics("http://gpu-b:5001")).thenReturn(gpu(10, 100));
+		GpuRouterService router = router(1, 5000);
+		router.refresh();
+
+		try (GpuRouterService.NodeLease a = router.tryAcquire(); GpuRouterService.NodeLease b = router.tryAcquire()) {
+			long start = System.nanoTime();
+			assertThatThrownBy(router::tryAcquire).isInstanceOf(GpuCapacityException.class);
+			assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+			assertThat(router.getStatus()).containsEntry("queued", 0);
+		}
+		try (GpuRouterService.NodeLease c = router.tryAcquire()) {
+			assertThat(c.getBackendUrl()).isNotNull();
+		}
+	}
+
+	@Test
+	void releasingALeaseWakesUpQueuedRequests() throws Exception {
+		when(metricaGpusService.getGpuMetrics("http://gpu-a:5001")).thenReturn(gpu(10, 100));
+		when(metricaGpusService.getGpuMetrics("http://gpu-b:5001")).thenReturn(gpu(10, 100));
+		GpuRouterService router = router(1, 5000);
+		router.refresh();
+
+		GpuRouterService.NodeLease a = router.acquire();
+		GpuRouterService.NodeLease b = router.acquire();
+		assertThat(a.getBackendUrl()).isNotEqualTo(b.getBackendUrl());
+
+		Thread releaser = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			a.close();
+		});
+		releaser.start();
+		try (GpuRouterService.NodeLease c = router.acquire()) {
+			assertThat(c.getBackendUrl()).isEqualTo(a.getBackendUrl());
+		}
+		releaser.join();
+		b.close();
+	}
+}
@@ -0,0 +1,81 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.portal.ia.dto.LatencyHistogramExport;
+import com.portal.ia.dto.LatencySnapshot;
+
+class LatencyServiceTests {
+
+	@Test
+	void histogramPercentilesStayWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long micros = 1; micros <= 100_000; micros++) {
+			histogram.recordMicros(micros);
+		}
+		assertThat(histogram.getTotalCount()).isEqualTo(100_000);
+		assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(50_000, within(50_000 / 32.0));
+		assertThat((double) histogram.valueAtPercentile(99)).isCloseTo(99_000, within(99_000 / 32.0));
+		assertThat(histogram.valueAtPercentile(100)).isEqualTo(100_000);
+	}
+
+	@Test
+	void bucketIndexesAreContiguousAndMonotonic() {
+		int previous = -1;
+		for (long value = 0; value < 1 << 20; value++) {
+			int index = LatencyHistogram.indexOf(value);
+			assertThat(index).isBetween(previous, previous + 1);
+			assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+			previous = index;
+		}
+		assertThat(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+	}
+
+	@Test
+	void rollingWindowsForgetOldPeriods() {
+		LatencyService.Recorder recorder = new LatencyService().recorder(LatencyService.KIND_BACKEND, "flask /x");
+		long now = 1_000L * 60_000;
+		recorder.record(1_000_000, now - 30 * 60_000);
+		recorder.record(2_000_000, now - 3 * 60_000);
+		recorder.record(3_000_000, now);
+
+		assertThat(recorder.window(1, now).getTotalCount()).isEqualTo(1);
+		assertThat(recorder.window(5, now).getTotalCount()).isEqualTo(2);
+		assertThat(recorder.window(60, now).getTotalCount()).isEqualTo(3);
+	}
+
+	@Test
+	void exportsFromSeveralNodesMergeIntoOneHistogram() {
+		LatencyService nodeA = new LatencyService();
+		LatencyService nodeB = new LatencyService();
+		for (int i = 0; i < 90; i++) {
+			nodeA.recordNanos(LatencyService.KIND_ENDPOINT, "TaskController.getTasks", 10_000_000);
+		}
+		for (int i = 0; i < 10; i++) {
+			nodeB.recordNanos(LatencyService.KIND_ENDPOINT, "TaskController.getTasks", 500_000_000);
+		}
+		List<LatencyHistogramExport> exports = new ArrayList<>(nodeA.export("5m"));
+		exports.addAll(nodeB.export("5m"));
+
+		List<LatencySnapshot> merged = nodeA.merge(exports);
+		assertThat(merged).hasSize(1);
+		assertThat(merged.get(0).getCount()).isEqualTo(100);
+		assertThat(merged.get(0).getP50Ms()).isCloseTo(10, within(0.5));
+		assertThat(merged.get(0).getP99Ms()).isCloseTo(500, within(500 / 32.0));
+	}
+
+	@Test
+	void prefixedRecordersAreCachedUnderTheFullName() {
+		LatencyService service = new LatencyService();
+		LatencyService.Recorder recorder = service.recorder(LatencyService.KIND_BACKEND, "flask", "/responder");
+		assertThat(service.recorder(LatencyService.KIND_BACKEND, "flask", "/responder")).isSameAs(recorder);
+		assertThat(service.recorder(LatencyService.KIND_BACKEND, "flask /responder")).isSameAs(recorder);
+		assertThat(service.recorder(LatencyService.KIND_BACKEND, "flask", "/subir")).isNotSameAs(recorder);
+	}
+}
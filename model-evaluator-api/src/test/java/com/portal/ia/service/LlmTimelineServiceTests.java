@@ -0,0 +1,60 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.portal.ia.dto.LlmCallTimelineEntry;
+import com.portal.ia.dto.LlmModelLoadSummary;
+
+class LlmTimelineServiceTests {
+
+	private final MetricaGpusService metricaGpusService = mock(MetricaGpusService.class);
+
+	@Test
+	void recordsCallsWithGpuSamplesObservedDuringTheCall() {
+		LlmTimelineService timeline = new LlmTimelineService(metricaGpusService, 16, 16, 2000, false);
+		when(metricaGpusService.getCachedGpuMetrics()).thenReturn(List.of(Map.of(
+				"gpu_index", 0,
+				"gpu_utilization", 80,
+				"memory_total_mb", 1000,
+				"memory_used_mb", 500)));
+
+		long startedAt = timeline.begin();
+		timeline.sampleGpu();
+		timeline.record(OllamaService.MODEL_MISTRAL, startedAt, 10, 42, true);
+
+		List<LlmCallTimelineEntry> entries = timeline.getTimeline(null, null, null, 10);
+		assertThat(entries).hasSize(1);
+		LlmCallTimelineEntry entry = entries.get(0);
+		assertThat(entry.getModel()).isEqualTo(OllamaService.MODEL_MISTRAL);
+		assertThat(entry.getResponseChars()).isEqualTo(42);
+		assertThat(entry.getGpuSamples()).isEqualTo(1);
+		assertThat(entry.getGpuUtilizationAvg()).isEqualTo(80.0);
+		assertThat(entry.getGpuMemoryUsedPctAvg()).isEqualTo(50.0);
+		assertThat(timeline.getInFlight()).isZero();
+
+		List<LlmModelLoadSummary> summary = timeline.getSummary(null, null, null);
+		assertThat(summary).hasSize(1);
+		assertThat(summary.get(0).getByGpuLoad()).containsOnlyKeys("75-100");
+	}
+
+	@Test
+	void ringKeepsOnlyTheMostRecentCalls() {
+		LlmTimelineService timeline = new LlmTimelineService(metricaGpusService, 16, 16, 2000, false);
+
+		for (int i = 0; i < 40; i++) {
+			timeline.record(i % 2 == 0 ? "a" : "b", timeline.begin(), i, i, true);
+		}
+
+		List<LlmCallTimelineEntry> entries = timeline.getTimeline(null, null, null, 100);
+		assertThat(entries).hasSize(16);
+		assertThat(entries.get(0).getPromptChars()).isEqualTo(39);
+		assertThat(timeline.getTimeline("a", null, null, 100)).hasSize(8);
+	}
+}
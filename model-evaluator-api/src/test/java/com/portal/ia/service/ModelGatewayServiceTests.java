@@ -0,0 +1,46 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+class ModelGatewayServiceTests {
+
+	private final OllamaService ollamaService = mock(OllamaService.class);
+	private final HugginFaceService hugginFaceService = mock(HugginFaceService.class);
+	private final ModelGatewayService gateway = new ModelGatewayService(ollamaService, hugginFaceService,
+			mock(OpenAIService.class), mock(DocumentosService.class));
+
+	@Test
+	void backendErrorsAreThrownInsteadOfReturnedAsAnswers() {
+		when(ollamaService.generateMistral("hola", true, null))
+			.thenThrow(new ModelInvocationException("Error al comunicarse con el servicio Mistral."));
+		when(hugginFaceService.generate("hola", true, null)).thenThrow(new GpuCapacityException("Cola de inferencia llena"));
+
+		assertThatThrownBy(() -> gateway.invoke(OllamaService.MODEL_MISTRAL, "hola"))
+			.isInstanceOf(ModelInvocationException.class);
+		assertThatThrownBy(() -> gateway.invoke(HugginFaceService.MODEL_MISTRAL, "hola"))
+			.isInstanceOf(GpuCapacityException.class);
+		// Nunca por el camino del chat, que convierte el error en texto
+		verify(ollamaService, never()).callMistral("hola");
+		verify(hugginFaceService, never()).responderConsultaGeneral("hola");
+	}
+
+	@Test
+	void invokeIfCapacityDoesNotWaitForAGpuSlot() {
+		when(ollamaService.generateMistral("hola", false, null)).thenReturn("respuesta");
+		assertThat(gateway.invokeIfCapacity(OllamaService.MODEL_MISTRAL, "hola")).isEqualTo("respuesta");
+		verify(ollamaService, never()).generateMistral("hola", true, null);
+	}
+
+	@Test
+	void answersPassThrough() {
+		when(ollamaService.generateDeepSeek("hola", true, null)).thenReturn("respuesta");
+		assertThat(gateway.invoke(OllamaService.MODEL_DEEPSEEK, "hola")).isEqualTo("respuesta");
+	}
+}
@@ -0,0 +1,106 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.portal.ia.dto.ProfilingRecordingInfo;
+import com.portal.ia.jfr.LlmCallEvent;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class ProfilingServiceTests {
+
+	@TempDir
+	Path directory;
+
+	private ProfilingService service(boolean continuous) throws Exception {
+		ProfilingService service = new ProfilingService(directory.toString(), 60, 2, continuous, 5, 10);
+		service.startContinuous();
+		return service;
+	}
+
+	private static void emitLlmCall(String model) {
+		LlmCallEvent event = new LlmCallEvent();
+		event.model = model;
+		event.latency = 120;
+		event.success = true;
+		event.commit();
+	}
+
+	@Test
+	void recordingCapturesPortalEventsAndIsWrittenOnStop() throws Exception {
+		ProfilingService service = service(false);
+		try {
+			ProfilingRecordingInfo info = service.start(30, "default");
+			assertThat(info.getState()).isEqualTo("RUNNING");
+			emitLlmCall("mistral-ollama");
+
+			Path file = service.stop(info.getId()).orElseThrow();
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			assertThat(events)
+				.filteredOn(e -> e.getEventType().getName().equals("portal.LlmCall"))
+				.extracting(e -> e.getString("model"))
+				.containsExactly("mistral-ollama");
+			assertThat(service.list()).singleElement()
+				.extracting(ProfilingRecordingInfo::getState).isEqualTo("CLOSED");
+		} finally {
+			service.close();
+		}
+	}
+
+	@Test
+	void onlyOneOnDemandRecordingAtATime() throws Exception {
+		ProfilingService service = service(false);
+		try {
+			service.start(30, "default");
+			assertThatThrownBy(() -> service.start(30, "default")).isInstanceOf(IllegalStateException.class);
+			assertThatThrownBy(() -> service.start(61, "default")).isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> service.start(10, "verbose")).isInstanceOf(IllegalArgumentException.class);
+		} finally {
+			service.close();
+		}
+	}
+
+	@Test
+	void continuousRecordingCanBeDumpedOnDemand() throws Exception {
+		ProfilingService disabled = service(false);
+		assertThatThrownBy(disabled::dumpContinuous).isInstanceOf(IllegalStateException.class);
+		disabled.close();
+
+		ProfilingService service = service(true);
+		try {
+			emitLlmCall("openai");
+			Path file = service.dumpContinuous();
+
+			assertThat(RecordingFile.readAllEvents(file))
+				.anyMatch(e -> e.getEventType().getName().equals("portal.LlmCall")
+						&& "openai".equals(e.getString("model")));
+		} finally {
+			service.close();
+		}
+	}
+
+	@Test
+	void onlyTheMostRecentContinuousDumpsAreKept() throws Exception {
+		ProfilingService service = service(true);
+		try {
+			Path first = service.dumpContinuous();
+			Path second = service.dumpContinuous();
+			Path third = service.dumpContinuous();
+
+			assertThat(first).doesNotExist();
+			assertThat(second).exists();
+			assertThat(third).exists();
+		} finally {
+			service.close();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RankKeysTests {
+
+	@Test
+	void generatesKeysAtTheEndsAndInBetween() {
+		assertThat(RankKeys.between(null, null)).isEqualTo("a0");
+		assertThat(RankKeys.between("a0", null)).isEqualTo("a1");
+		assertThat(RankKeys.between(null, "a0")).isEqualTo("Zz");
+		assertThat(RankKeys.between("az", null)).isEqualTo("b00");
+		assertThat(RankKeys.between("a0", "a1")).isEqualTo("a0V");
+		assertThat(RankKeys.between("a0V", "a1")).isEqualTo("a0l");
+		assertThat(RankKeys.between("a1", "a2")).isBetween("a1", "a2");
+	}
+
+	@Test
+	void appendingStaysShort() {
+		String key = null;
+		for (int i = 0; i < 10_000; i++) {
+			String next = RankKeys.between(key, null);
+			if (key != null) {
+				assertThat(next).isGreaterThan(key);
+			}
+			key = next;
+		}
+		// 62 claves de dos dígitos, 3.844 de tres...
+		assertThat(key).hasSizeLessThanOrEqualTo(4);
+	}
+
+	@Test
+	void keepsOrderUnderRandomInsertions() {
+		Random random = new Random(3);
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			int position = random.nextInt(keys.size() + 1);
+			String before = position == 0 ? null : keys.get(position - 1);
+			String after = position == keys.size() ? null : keys.get(position);
+			String key = RankKeys.between(before, after);
+			RankKeys.validate(key);
+			keys.add(position, key);
+		}
+		assertThat(keys).isSorted().doesNotHaveDuplicates();
+	}
+
+	@Test
+	void repeatedInsertionsInTheSameGapGrowTheKey() {
+		String before = "a0";
+		String after = "a1";
+		for (int i = 0; i < 60; i++) {
+			after = RankKeys.between(before, after);
+		}
+		// Unos 6 bits por carácter: es lo que dispara el reequilibrado
+		assertThat(after.length()).isGreaterThan(8);
+		assertThat(after).isGreaterThan(before);
+	}
+
+	@Test
+	void rejectsMalformedOrUnorderedKeys() {
+		assertThatThrownBy(() -> RankKeys.between("a1", "a0")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RankKeys.between("a1", "a1")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RankKeys.between("a10", null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RankKeys.between("b1", null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RankKeys.between("a-", null)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,96 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.portal.ia.entity.ShadowResult;
+import com.portal.ia.repository.ShadowResultRepository;
+
+class ShadowServiceTests {
+
+	private final ModelGatewayService modelGatewayService = mock(ModelGatewayService.class);
+	private final GpuRouterService gpuRouterService = mock(GpuRouterService.class);
+	private final ShadowResultRepository shadowResultRepository = mock(ShadowResultRepository.class);
+	private ShadowService shadowService;
+
+	private ShadowService shadowService(int queueCapacity) {
+		when(modelGatewayService.supports("candidato")).thenReturn(true);
+		shadowService = new ShadowService(modelGatewayService, gpuRouterService, shadowResultRepository,
+				true, "candidato", 1.0, 1, queueCapacity);
+		return shadowService;
+	}
+
+	@AfterEach
+	void tearDown() {
+		shadowService.shutdown();
+	}
+
+	@Test
+	void recordsPrimaryAndShadowAnswers() {
+		when(modelGatewayService.invokeIfCapacity(eq("candidato"), anyString())).thenReturn("respuesta sombra");
+		shadowService(10).mirror("mistral-ollama", "¿Qué es Java?", "respuesta primaria", 120);
+
+		ArgumentCaptor<ShadowResult> saved = ArgumentCaptor.forClass(ShadowResult.class);
+		verify(shadowResultRepository, timeout(2000)).save(saved.capture());
+		assertThat(saved.getValue().getPrimaryAnswer()).isEqualTo("respuesta primaria");
+		assertThat(saved.getValue().getShadowAnswer()).isEqualTo("respuesta sombra");
+		assertThat(saved.getValue().getPrimaryLatencyMs()).isEqualTo(120);
+		assertThat(saved.getValue().isShadowSuccess()).isTrue();
+	}
+
+	@Test
+	void dropsMirrorsWhenRealTrafficIsQueued() {
+		when(gpuRouterService.getQueued()).thenReturn(3);
+		shadowService(10).mirror("mistral-ollama", "hola", "respuesta", 10);
+
+		verify(modelGatewayService, never()).invokeIfCapacity(anyString(), anyString());
+		assertThat(shadowService.getStatus()).containsEntry("dropped", 1L);
+	}
+
+	@Test
+	void dropsMirrorsWhenNoGpuSlotIsFree() {
+		when(modelGatewayService.invokeIfCapacity(eq("candidato"), anyString()))
+			.thenThrow(new GpuCapacityException("Sin capacidad GPU libre"));
+		shadowService(10).mirror("mistral-ollama", "hola", "respuesta", 10);
+
+		verify(modelGatewayService, timeout(2000)).invokeIfCapacity(eq("candidato"), anyString());
+		verify(modelGatewayService, never()).invoke(anyString(), anyString());
+		shadowService.shutdown();
+		assertThat(shadowService.getStatus()).containsEntry("dropped", 1L).containsEntry("failed", 0L);
+		verify(shadowResultRepository, never()).save(any(ShadowResult.class));
+	}
+
+	@Test
+	void dropsInsteadOfBlockingWhenTheQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(modelGatewayService.invokeIfCapacity(eq("candidato"), anyString())).thenAnswer(i -> {
+			release.await();
+			return "ok";
+		});
+		shadowService(1);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			shadowService.mirror("mistral-ollama", "prompt " + i, "respuesta", 10);
+		}
+		assertThat(System.nanoTime() - start).isLessThan(500_000_000L);
+		// 1 en curso + 1 en cola; el resto se descarta
+		assertThat((Long) shadowService.getStatus().get("dropped")).isGreaterThanOrEqualTo(8L);
+
+		release.countDown();
+		verify(shadowResultRepository, timeout(2000).atLeast(1)).save(any(ShadowResult.class));
+	}
+}
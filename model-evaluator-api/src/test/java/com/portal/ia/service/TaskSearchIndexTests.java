@@ -0,0 +1,140 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TaskSearchIndexTests {
+
+	private static List<Long> ids(TaskSearchIndex.Result result) {
+		return result.hits().stream().map(TaskSearchIndex.Hit::taskId).toList();
+	}
+
+	private static TaskSearchIndex index() {
+		TaskSearchIndex index = new TaskSearchIndex(64);
+		index.put(1, "Migración del índice FAISS", "Reindexar los documentos de la versión 2 con el nuevo modelo");
+		index.put(2, "Revisar latencias", "Comparar la latencia de Ollama antes y después de la migración");
+		index.put(3, "Configurar GPU", "Asignar memoria a los modelos en el servidor de España");
+		index.put(4, "Documentación", "Documentar el despliegue del índice en producción");
+		return index;
+	}
+
+	@Test
+	void ignoresAccentsAndCase() {
+		TaskSearchIndex index = index();
+
+		assertThat(ids(index.search("MIGRACION ", 10))).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(ids(index.search("espana ", 10))).containsExactly(3L);
+		assertThat(ids(index.search("índice ", 10))).containsExactlyInAnyOrder(1L, 4L);
+	}
+
+	@Test
+	void ranksTitleMatchesFirstAndRequiresEveryWord() {
+		TaskSearchIndex index = index();
+
+		assertThat(ids(index.search("migración ", 10))).first().isEqualTo(1L);
+		assertThat(ids(index.search("migración ollama ", 10))).containsExactly(2L);
+		assertThat(ids(index.search("migración kubernetes ", 10))).isEmpty();
+		assertThat(ids(index.search("de la ", 10))).isEmpty();
+	}
+
+	@Test
+	void treatsTheLastWordAsAPrefixWhileTyping() {
+		TaskSearchIndex index = index();
+
+		TaskSearchIndex.Result result = index.search("docu", 10);
+		assertThat(ids(result)).containsExactlyInAnyOrder(1L, 4L);
+		assertThat(result.terms()).contains("documentos", "documentacion", "documentar");
+		assertThat(ids(index.search("docu ", 10))).isEmpty();
+		assertThat(ids(index.search("latencia oll", 10))).containsExactly(2L);
+	}
+
+	@Test
+	void updatesAndDeletesAreVisibleImmediately() {
+		TaskSearchIndex index = index();
+
+		index.put(3, "Configurar GPU", "Asignar memoria a Ollama");
+		assertThat(ids(index.search("españa ", 10))).isEmpty();
+		assertThat(ids(index.search("ollama ", 10))).containsExactlyInAnyOrder(2L, 3L);
+
+		index.remove(2);
+		assertThat(ids(index.search("ollama ", 10))).containsExactly(3L);
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void compactsAfterManyUpdatesWithoutLosingTasks() {
+		TaskSearchIndex index = new TaskSearchIndex(64);
+		for (int round = 0; round < 5; round++) {
+			for (long id = 0; id < 1000; id++) {
+				index.put(id, "Tarea " + id, "Revisión número " + round);
+			}
+		}
+		for (long id = 0; id < 1000; id += 2) {
+			index.remove(id);
+		}
+
+		assertThat(index.size()).isEqualTo(500);
+		// Sólo la tarea 3, por su título: las descripciones antiguas ya no están
+		assertThat(ids(index.search("revision 3 ", 1000))).containsExactly(3L);
+		assertThat(index.search("revision 4 ", 1000).hits()).hasSize(500);
+		assertThat(ids(index.search("revision numero ", 1000))).hasSize(500).allMatch(id -> id % 2 == 1);
+		assertThat(ids(index.search("tarea 777 ", 10))).containsExactly(777L);
+	}
+
+	@Test
+	void matchesABruteForceScanOnSkewedData() {
+		Random random = new Random(7);
+		String[] vocabulary = new String[300];
+		for (int w = 0; w < vocabulary.length; w++) {
+			vocabulary[w] = "palabra" + w;
+		}
+		TaskSearchIndex index = new TaskSearchIndex(64);
+		List<Set<String>> documents = new ArrayList<>();
+		for (int doc = 0; doc < 3000; doc++) {
+			Set<String> words = new HashSet<>();
+			for (int i = 0; i < 12; i++) {
+				// Muy sesgado: unas pocas palabras están en casi todas las tareas
+				words.add(vocabulary[(int) Math.min(vocabulary.length - 1, Math.abs(random.nextGaussian()) * 40)]);
+			}
+			documents.add(words);
+			index.put(doc, "Tarea", String.join(" ", words));
+		}
+
+		for (String query : List.of("palabra0 palabra1 ", "palabra0 palabra90 ", "palabra120 palabra2 palabra0 ",
+				"palabra0 palabra1", "palabra3 palabra15")) {
+			List<String> words = new ArrayList<>(Arrays.asList(query.trim().split(" ")));
+			String prefix = query.endsWith(" ") ? null : words.remove(words.size() - 1);
+			Set<Long> expected = new HashSet<>();
+			for (int doc = 0; doc < documents.size(); doc++) {
+				Set<String> docWords = documents.get(doc);
+				if (docWords.containsAll(words) && (prefix == null || docWords.stream().anyMatch(w -> w.startsWith(prefix)))) {
+					expected.add((long) doc);
+				}
+			}
+			assertThat(new HashSet<>(ids(index.search(query, 3000)))).as(query).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void highlightsMatchesInAnEscapedSnippet() {
+		String text = "Antes <b>nada</b>. " + "relleno ".repeat(40) + "Migración del índice & más " + "cola ".repeat(40);
+
+		String snippet = TaskSearchIndex.highlight(text, Set.of("migracion", "indice"), 80);
+
+		assertThat(snippet)
+			.startsWith("…")
+			.endsWith("…")
+			.contains("<mark>Migración</mark> del <mark>índice</mark> &amp; más")
+			.doesNotContain("<b>");
+		assertThat(TaskSearchIndex.highlight("<b>índice</b>", Set.of("indice"), 80))
+			.isEqualTo("&lt;b&gt;<mark>índice</mark>&lt;/b&gt;");
+	}
+}
@@ -0,0 +1,66 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.portal.ia.dto.TaskSearchHit;
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.TaskRepository;
+
+class TaskSearchServiceTests {
+
+	private final TaskRepository taskRepository = mock(TaskRepository.class);
+
+	private TaskSearchService searchService() {
+		return new TaskSearchService(taskRepository, false, 1, 100, 64, 10, 40, 500);
+	}
+
+	private static Task task(long id, String title, String description) {
+		Task task = new Task();
+		task.setId(id);
+		task.setTitle(title);
+		task.setDescription(description);
+		task.setStatus("pendiente");
+		task.setPriority("media");
+		return task;
+	}
+
+	@Test
+	void searchesTheDatabaseWhileThereIsNoIndex() {
+		when(taskRepository.findSearchableContaining(eq("Reindexar"), any())).thenReturn(List.<Object[]>of(
+				new Object[] { 1L, "Migración del índice FAISS", "Reindexar los documentos con el modelo nuevo" },
+				new Object[] { 2L, "Reindexar", "Documentación del despliegue" }));
+		when(taskRepository.findAllById(List.of(1L))).thenReturn(
+				List.of(task(1, "Migración del índice FAISS", "Reindexar los documentos con el modelo nuevo")));
+		TaskSearchService searchService = searchService();
+
+		List<TaskSearchHit> hits = searchService.search("Reindexar modelo", 10);
+
+		assertThat(searchService.isReady()).isFalse();
+		assertThat(hits).extracting(TaskSearchHit::getId).containsExactly(1L);
+	}
+
+	@Test
+	void retriesAFailedRebuildUntilTheIndexIsReady() {
+		when(taskRepository.findSearchableAfter(anyLong(), any()))
+			.thenThrow(new IllegalStateException("BBDD caída"))
+			.thenThrow(new IllegalStateException("BBDD caída"))
+			.thenReturn(List.<Object[]>of(new Object[] { 1L, "Calibrar termómetros", "Sala fría" }))
+			.thenReturn(List.of());
+		when(taskRepository.findAllById(List.of(1L))).thenReturn(List.of(task(1, "Calibrar termómetros", "Sala fría")));
+		TaskSearchService searchService = searchService();
+
+		searchService.rebuildUntilReady();
+
+		assertThat(searchService.isReady()).isTrue();
+		assertThat(searchService.search("termometros", 10)).extracting(TaskSearchHit::getId).containsExactly(1L);
+	}
+}
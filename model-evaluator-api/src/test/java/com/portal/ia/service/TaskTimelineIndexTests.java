@@ -0,0 +1,122 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+class TaskTimelineIndexTests {
+
+	private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+	private static TaskTimelineIndex.Entry entry(long id, int startDay, int endDay, Long projectId) {
+		return TaskTimelineIndex.Entry.of(id, BASE.plusDays(startDay), BASE.plusDays(endDay), projectId, null);
+	}
+
+	private static List<Long> ids(List<TaskTimelineIndex.Entry> entries) {
+		return entries.stream().map(TaskTimelineIndex.Entry::taskId).toList();
+	}
+
+	@Test
+	void findsOverlappingIntervalsInStartOrder() {
+		TaskTimelineIndex index = new TaskTimelineIndex();
+		index.putAll(List.of(
+				entry(1, 0, 10, 1L),     // enero
+				entry(2, 20, 25, 1L),
+				entry(3, -30, 400, 2L),  // todo el año
+				entry(4, 40, 45, null),
+				entry(5, 9, 9, null)));  // un solo día
+
+		assertThat(ids(index.overlapping(BASE.plusDays(8), BASE.plusDays(21), e -> true, 100)))
+			.containsExactly(3L, 1L, 5L, 2L);
+		assertThat(ids(index.overlapping(BASE.plusDays(10), BASE.plusDays(10), e -> true, 100)))
+			.containsExactly(3L, 1L);
+		assertThat(ids(index.overlapping(BASE.plusDays(8), BASE.plusDays(50), e -> e.projectId() == null, 100)))
+			.containsExactly(5L, 4L);
+		assertThat(ids(index.overlapping(BASE.plusDays(500), BASE.plusDays(600), e -> true, 100))).isEmpty();
+	}
+
+	@Test
+	void tasksWithoutBothDatesAreLeftOut() {
+		assertThat(TaskTimelineIndex.Entry.of(1, BASE, null, null, null)).isNull();
+		assertThat(TaskTimelineIndex.Entry.of(1, null, BASE, null, null)).isNull();
+
+		TaskTimelineIndex index = new TaskTimelineIndex();
+		index.put(1, entry(1, 0, 5, null));
+		index.put(1, null); // se le quita la fecha límite
+		assertThat(index.overlapping(BASE, BASE.plusDays(5), e -> true, 10)).isEmpty();
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void returnsOneMoreThanTheLimitSoCallersKnowItWasCut() {
+		TaskTimelineIndex index = new TaskTimelineIndex();
+		List<TaskTimelineIndex.Entry> entries = new ArrayList<>();
+		for (long id = 0; id < 50; id++) {
+			entries.add(entry(id, (int) id, (int) id + 3, null));
+		}
+		index.putAll(entries);
+		index.put(100, entry(100, -5, 0, null)); // pendiente, pero es la que antes empieza
+
+		List<TaskTimelineIndex.Entry> page = index.overlapping(BASE.minusDays(10), BASE.plusDays(100), e -> true, 10);
+		assertThat(ids(page)).hasSize(11).startsWith(100L, 0L, 1L);
+	}
+
+	@Test
+	void matchesABruteForceScanThroughUpdatesAndMerges() {
+		Random random = new Random(11);
+		TaskTimelineIndex index = new TaskTimelineIndex();
+		Map<Long, TaskTimelineIndex.Entry> expected = new HashMap<>();
+		List<TaskTimelineIndex.Entry> initial = new ArrayList<>();
+		for (long id = 0; id < 5000; id++) {
+			TaskTimelineIndex.Entry entry = randomEntry(random, id);
+			initial.add(entry);
+			expected.put(id, entry);
+		}
+		index.putAll(initial);
+
+		// Suficientes cambios y borrados para pasar varias veces por la reordenación
+		for (int round = 0; round < 6000; round++) {
+			long id = random.nextInt(7000);
+			if (random.nextInt(5) == 0) {
+				index.remove(id);
+				expected.remove(id);
+			} else {
+				TaskTimelineIndex.Entry entry = randomEntry(random, id);
+				index.put(id, entry);
+				expected.put(id, entry);
+			}
+
+			if (round % 500 == 0) {
+				int from = random.nextInt(365) - 30;
+				int to = from + random.nextInt(90);
+				Long project = (long) random.nextInt(4);
+				Predicate<TaskTimelineIndex.Entry> filter = e -> project.equals(e.projectId());
+				List<Long> brute = expected.values().stream()
+					.filter(e -> e.start() <= BASE.plusDays(to).toEpochDay() && e.end() >= BASE.plusDays(from).toEpochDay())
+					.filter(filter)
+					.sorted(TaskTimelineIndex.Entry.BY_START)
+					.map(TaskTimelineIndex.Entry::taskId)
+					.toList();
+				assertThat(ids(index.overlapping(BASE.plusDays(from), BASE.plusDays(to), filter, Integer.MAX_VALUE - 1)))
+					.as("ventana %d..%d", from, to)
+					.isEqualTo(brute);
+			}
+		}
+		assertThat(index.size()).isEqualTo(expected.size());
+	}
+
+	private static TaskTimelineIndex.Entry randomEntry(Random random, long id) {
+		int start = random.nextInt(365);
+		// La mayoría cortas, algunas de meses
+		int length = random.nextInt(10) == 0 ? random.nextInt(200) : random.nextInt(15);
+		return entry(id, start, start + length, (long) random.nextInt(4));
+	}
+}
@@ -0,0 +1,81 @@
+package com.portal.ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.portal.ia.dto.TokenUsageBucket;
+
+class TokenUsageServiceTests {
+
+	private static long millis(LocalDateTime at) {
+		return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	@Test
+	void estimatesTokensCloseToWordCount() {
+		assertThat(TokenUsageService.estimateTokens(null)).isZero();
+		assertThat(TokenUsageService.estimateTokens("hola mundo")).isEqualTo(2);
+		assertThat(TokenUsageService.estimateTokens("¿Qué es la GPU?")).isEqualTo(6);
+		assertThat(TokenUsageService.estimateTokens("internacionalización 2025")).isEqualTo(7);
+	}
+
+	@Test
+	void rollsUpByHourAndDay() {
+		TokenUsageService usage = new TokenUsageService(48, 10, 0);
+		LocalDateTime nine = LocalDateTime.of(2025, 5, 10, 9, 15);
+		usage.record("openai", 100, 50, 1000, true, false, millis(nine));
+		usage.record("openai", 10, 5, 500, false, false, millis(nine.plusMinutes(30)));
+		usage.record("openai", 20, 20, 2000, true, true, millis(nine.plusHours(2)));
+
+		List<TokenUsageBucket> hourly = usage.getRollup("openai", false, nine.minusHours(1), nine.plusHours(3));
+		assertThat(hourly).hasSize(2);
+		assertThat(hourly.get(0).getBucketStart()).isEqualTo(LocalDateTime.of(2025, 5, 10, 9, 0));
+		assertThat(hourly.get(0).getCalls()).isEqualTo(2);
+		assertThat(hourly.get(0).getErrors()).isEqualTo(1);
+		assertThat(hourly.get(0).getTotalTokens()).isEqualTo(165);
+		assertThat(hourly.get(0).getTokensPerSecond()).isEqualTo(55 * 1000.0 / 1500);
+		assertThat(hourly.get(1).getEstimatedCalls()).isEqualTo(1);
+
+		List<TokenUsageBucket> daily = usage.getRollup(null, true, nine.minusDays(1), nine.plusDays(1));
+		assertThat(daily).hasSize(1);
+		assertThat(daily.get(0).getCalls()).isEqualTo(3);
+		assertThat(daily.get(0).getPromptTokens()).isEqualTo(130);
+	}
+
+	@Test
+	void enforcesTheOpenAiDailyBudget() {
+		TokenUsageService usage = new TokenUsageService(48, 10, 100);
+		usage.checkBudget(OpenAIService.MODEL_OPENAI);
+		usage.record(OpenAIService.MODEL_OPENAI, 60, 40, 300, true, false);
+
+		assertThatThrownBy(() -> usage.checkBudget(OpenAIService.MODEL_OPENAI))
+			.isInstanceOf(TokenBudgetExceededException.class);
+		usage.checkBudget(OllamaService.MODEL_MISTRAL);
+	}
+
+	@Test
+	void countsConcurrentCallsWithoutLosingUpdates() throws Exception {
+		TokenUsageService usage = new TokenUsageService(48, 10, 0);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					usage.record("mistral-ollama", 1, 2, 1, true, true);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(usage.getTokensToday("mistral-ollama")).isEqualTo(8 * 10_000 * 3);
+	}
+}
@@ -0,0 +1,104 @@
+package com.portal.ia.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.portal.ia.service.AnswerScorer;
+import com.portal.ia.service.AnswerScorer.Metric;
+import com.portal.ia.service.ScoringService;
+
+/**
+ * Puntuación de un lote de pares (referencia, candidata) con todas las métricas:
+ * un solo hilo con un {@link AnswerScorer} frente al fork/join de {@link ScoringService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnswerScorerBenchmark {
+
+    private static final String[] VOCABULARY = {
+        "el", "la", "de", "que", "modelo", "respuesta", "índice", "documento", "proyecto", "servidor",
+        "tarea", "consulta", "GPU", "memoria", "latencia", "evaluación", "pregunta", "contexto", "España",
+        "análisis", "rápido", "lento", "datos", "usuario", "sistema", "configuración", "versión", "año"
+    };
+
+    @Param({ "1000" })
+    public int pairs;
+
+    @Param({ "40" })
+    public int tokensPerAnswer;
+
+    private String[] references;
+    private String[] candidates;
+    private final Metric[] metrics = Metric.values();
+    private ScoringService scoringService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        references = new String[pairs];
+        candidates = new String[pairs];
+        for (int i = 0; i < pairs; i++) {
+            references[i] = sentence(random);
+            candidates[i] = mutate(references[i], random);
+        }
+        scoringService = new ScoringService(0, 64, Integer.MAX_VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoringService.shutdown();
+    }
+
+    @Benchmark
+    public void singleThread(Blackhole blackhole) {
+        AnswerScorer scorer = new AnswerScorer();
+        for (int i = 0; i < pairs; i++) {
+            scorer.load(references[i], candidates[i], true);
+            for (Metric metric : metrics) {
+                blackhole.consume(scorer.score(metric));
+            }
+        }
+    }
+
+    @Benchmark
+    public double[][] forkJoin() {
+        return scoringService.score(references, candidates, metrics);
+    }
+
+    private String sentence(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int t = 0; t < tokensPerAnswer; t++) {
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(t % 9 == 8 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    private String mutate(String reference, Random random) {
+        String[] words = reference.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            if (random.nextInt(4) == 0) {
+                words[i] = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            }
+        }
+        return String.join(" ", words);
+    }
+}
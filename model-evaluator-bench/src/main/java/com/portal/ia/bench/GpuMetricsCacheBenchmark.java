@@ -0,0 +1,79 @@
+package com.portal.ia.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.portal.ia.service.LatencyService;
+import com.portal.ia.service.MetricaGpusService;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Lecturas de la caché de {@link MetricaGpusService} con muchos hilos a la vez
+ * (el dashboard, el enrutador GPU y el muestreo de la línea temporal leen de
+ * ella). El servicio de métricas es un servidor HTTP local, así que cada 2 s un
+ * hilo refresca la caché igual que en producción.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(8)
+public class GpuMetricsCacheBenchmark {
+
+    private static final String GPU_METRICS = """
+        [{"gpu_index":0,"gpu_name":"NVIDIA RTX A6000","gpu_utilization":63,"memory_total_mb":49140,"memory_used_mb":31250},
+         {"gpu_index":1,"gpu_name":"NVIDIA RTX A6000","gpu_utilization":12,"memory_total_mb":49140,"memory_used_mb":8020}]""";
+
+    private HttpServer server;
+    private MetricaGpusService metricaGpusService;
+    private String metricsBaseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        byte[] body = GPU_METRICS.getBytes(StandardCharsets.UTF_8);
+        server.createContext("/gpu_metrics", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        metricsBaseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        metricaGpusService = new MetricaGpusService(new LatencyService(), ObservationRegistry.NOOP, 500, 1500);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> cachedRead() {
+        return metricaGpusService.getGpuMetrics(metricsBaseUrl);
+    }
+}
@@ -0,0 +1,120 @@
+package com.portal.ia.bench;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portal.ia.entity.DailyNote;
+import com.portal.ia.entity.Task;
+
+/**
+ * Serialización JSON de las respuestas más grandes de la API: una página de
+ * tareas (GET /api/tasks) y la lista de notas diarias. Se usa un ObjectMapper
+ * con la misma configuración por defecto que crea Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final String[] PRIORITIES = { "alta", "media", "baja" };
+    private static final String[] STATUSES = { "pendiente", "en_progreso", "completada" };
+
+    private static final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @State(Scope.Benchmark)
+    public static class TaskPage {
+
+        // Tamaño de página de la tabla de tareas (20) y exportaciones grandes (200)
+        @Param({ "20", "200" })
+        public int pageSize;
+
+        Page<Task> tasks;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            List<Task> content = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                content.add(task(i, random));
+            }
+            tasks = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("dueDate")), 5_000);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DailyNotes {
+
+        // Un mes y un año de notas
+        @Param({ "31", "365" })
+        public int notes;
+
+        List<DailyNote> dailyNotes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            dailyNotes = new ArrayList<>();
+            LocalDate day = LocalDate.of(2025, 1, 1);
+            for (int i = 0; i < notes; i++) {
+                DailyNote note = new DailyNote();
+                note.setId((long) i + 1);
+                note.setDate(day.plusDays(i));
+                note.setContent(Texts.paragraph(random, 40 + random.nextInt(200)));
+                note.setCreatedAt(day.plusDays(i).atTime(9, 0));
+                note.setUpdatedAt(day.plusDays(i).atTime(18, 30));
+                dailyNotes.add(note);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] taskPage(TaskPage state) throws Exception {
+        return objectMapper.writeValueAsBytes(state.tasks);
+    }
+
+    @Benchmark
+    public byte[] dailyNotes(DailyNotes state) throws Exception {
+        return objectMapper.writeValueAsBytes(state.dailyNotes);
+    }
+
+    private static Task task(int i, Random random) {
+        Task task = new Task();
+        task.setId((long) i + 1);
+        task.setTitle(Texts.paragraph(random, 4 + random.nextInt(6)));
+        task.setDescription(Texts.paragraph(random, 20 + random.nextInt(80)));
+        task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        LocalDate start = LocalDate.of(2025, 1, 1).plusDays(random.nextInt(300));
+        task.setStartDate(start);
+        task.setDueDate(start.plusDays(random.nextInt(60)));
+        task.setAssignedTo("usuario" + random.nextInt(10));
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(i));
+        task.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(i + 1));
+        return task;
+    }
+}
@@ -0,0 +1,112 @@
+package com.portal.ia.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.portal.ia.config.LoggingConfig;
+import com.portal.ia.service.LogPayload;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Coste de los logs de una petición a Ollama (la pregunta y una respuesta de
+ * ~2 KB a INFO) en el hilo de la petición, con varios hilos a la vez escribiendo
+ * en un fichero real. Compara el appender síncrono con el asíncrono de
+ * {@link LoggingConfig} y el texto completo con el recortado por {@link LogPayload}.
+ * {@code off} es la referencia sin logs. Con la cola llena el asíncrono descarta:
+ * al final de cada prueba se imprime cuántas trazas se perdieron.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    @Param({ "off", "sync", "async" })
+    public String appender;
+
+    @Param({ "full", "truncated" })
+    public String payload;
+
+    private LoggerContext context;
+    private Logger logger;
+    private List<LoggingConfig.DroppingAsyncAppender> asyncAppenders = List.of();
+    private Path file;
+    private String prompt;
+    private String answer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        prompt = Texts.paragraph(random, 60);
+        answer = Texts.paragraph(random, 300);
+        LogPayload.setMaxChars(300);
+
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+
+        file = Files.createTempFile("logging-benchmark", ".log");
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %5level [%thread] %logger{40} : %msg%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.addAppender(fileAppender);
+        root.setLevel("off".equals(appender) ? ch.qos.logback.classic.Level.WARN : ch.qos.logback.classic.Level.INFO);
+        if ("async".equals(appender)) {
+            asyncAppenders = LoggingConfig.wrapRootAppenders(context, 8192);
+        }
+        logger = context.getLogger("com.portal.ia.service.OllamaService");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        long dropped = asyncAppenders.stream().mapToLong(LoggingConfig.DroppingAsyncAppender::getDropped).sum();
+        context.stop();
+        System.out.printf("%n%s/%s: %d KB escritos, %d trazas descartadas%n", appender, payload,
+                Files.size(file) / 1024, dropped);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void ollamaRequest() {
+        boolean truncated = "truncated".equals(payload);
+        logger.info("🧠 Enviando pregunta a {} vía Flask: {}", "mistral", truncated ? LogPayload.of(prompt) : prompt);
+        logger.info("✅ Respuesta {} (Ollama): {}", "mistral", truncated ? LogPayload.of(answer) : answer);
+    }
+}
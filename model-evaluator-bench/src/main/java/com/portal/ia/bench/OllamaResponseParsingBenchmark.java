@@ -0,0 +1,72 @@
+package com.portal.ia.bench;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portal.ia.service.OllamaService;
+import com.portal.ia.service.TokenUsageService;
+
+/**
+ * Lectura de la respuesta de Flask/Ollama tal y como la hace {@link OllamaService}
+ * (a un Map, más los contadores de tokens), frente a leerla como árbol JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OllamaResponseParsingBenchmark {
+
+    // Palabras de la respuesta: corta, típica y larga
+    @Param({ "50", "400", "3000" })
+    public int words;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String respuesta = Texts.paragraph(new Random(42), words);
+        body = objectMapper.writeValueAsString(Map.of(
+            "respuesta", respuesta,
+            "model", "mistral",
+            "prompt_eval_count", 42,
+            "eval_count", words * 2,
+            "total_duration", 5_123_456_789L));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void asMap(Blackhole blackhole) throws Exception {
+        Map<String, Object> result = objectMapper.readValue(body, Map.class);
+        blackhole.consume(result.getOrDefault("respuesta", "Sin respuesta generada."));
+        blackhole.consume(TokenUsageService.tokenCount(result, "prompt_eval_count"));
+        blackhole.consume(TokenUsageService.tokenCount(result, "eval_count"));
+    }
+
+    @Benchmark
+    public void asTree(Blackhole blackhole) throws Exception {
+        JsonNode result = objectMapper.readTree(body);
+        blackhole.consume(result.path("respuesta").asText("Sin respuesta generada."));
+        blackhole.consume(result.path("prompt_eval_count").asLong());
+        blackhole.consume(result.path("eval_count").asLong());
+    }
+}
@@ -0,0 +1,45 @@
+package com.portal.ia.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.portal.ia.service.ReadmeSyncService;
+
+/**
+ * Slug del nombre de proyecto de {@link ReadmeSyncService}: patrones
+ * precompilados frente a los dos {@code String.replaceAll} originales, que
+ * compilan la expresión regular en cada llamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlugBenchmark {
+
+    @Param({ "Portal IA", "  Evaluación de Modelos (GPU) — versión 2.0 / España!  " })
+    public String name;
+
+    @Benchmark
+    public String precompiled() {
+        return ReadmeSyncService.slugOf(name);
+    }
+
+    @Benchmark
+    public String replaceAll() {
+        return name.toLowerCase()
+            .replaceAll("[^a-z0-9]+", "-")
+            .replaceAll("(^-|-$)", "");
+    }
+}
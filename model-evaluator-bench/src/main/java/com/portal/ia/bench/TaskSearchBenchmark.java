@@ -0,0 +1,110 @@
+package com.portal.ia.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.portal.ia.service.TaskSearchIndex;
+
+/**
+ * Consultas sobre {@link TaskSearchIndex} con 100 mil y un millón de tareas
+ * sintéticas. Las palabras siguen una distribución de Zipf sobre un vocabulario
+ * de 50.000, así que hay términos muy comunes y muy raros, como en texto real:
+ * <ul>
+ * <li>{@code rare}: dos palabras poco frecuentes;</li>
+ * <li>{@code mixed}: una común y una rara, el cruce que más ayuda la búsqueda binaria;</li>
+ * <li>{@code prefix}: lo que se ha escrito hasta ahora de una palabra común
+ * seguida de un prefijo, que se expande a varios términos.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TaskSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final String[] SYLLABLES = {
+        "ca", "de", "mo", "ti", "lu", "ra", "ne", "so", "pa", "ve", "gi", "to", "ma", "ri", "co", "ña", "ló", "sé"
+    };
+
+    @Param({ "100000", "1000000" })
+    public int tasks;
+
+    private TaskSearchIndex index;
+    private String[] words;
+    private double[] cumulative;
+    private String rare;
+    private String mixed;
+    private String prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int w = 0; w < VOCABULARY; w++) {
+            StringBuilder word = new StringBuilder();
+            for (int n = w; word.length() == 0 || n > 0; n /= SYLLABLES.length) {
+                word.append(SYLLABLES[n % SYLLABLES.length]);
+            }
+            words[w] = word.append(w % 7).toString();
+        }
+        cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int w = 0; w < VOCABULARY; w++) {
+            sum += 1.0 / (w + 1);
+            cumulative[w] = sum;
+        }
+        for (int w = 0; w < VOCABULARY; w++) {
+            cumulative[w] /= sum;
+        }
+
+        index = new TaskSearchIndex(64);
+        for (long id = 1; id <= tasks; id++) {
+            index.put(id, sentence(random, 6), sentence(random, 30));
+        }
+
+        rare = words[20_000] + " " + words[30_000] + " ";
+        mixed = words[3] + " " + words[25_000] + " ";
+        prefix = words[5] + " " + words[40].substring(0, 3);
+    }
+
+    private String sentence(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            int w = Arrays.binarySearch(cumulative, random.nextDouble());
+            text.append(words[Math.min(VOCABULARY - 1, w < 0 ? -w - 1 : w)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    @Benchmark
+    public TaskSearchIndex.Result rare() {
+        return index.search(rare, 20);
+    }
+
+    @Benchmark
+    public TaskSearchIndex.Result mixed() {
+        return index.search(mixed, 20);
+    }
+
+    @Benchmark
+    public TaskSearchIndex.Result prefix() {
+        return index.search(prefix, 20);
+    }
+}
@@ -0,0 +1,98 @@
+package com.portal.ia.bench;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.portal.ia.entity.Task;
+import com.portal.ia.repository.ChangeLogRepository;
+import com.portal.ia.repository.ChangeLogStateRepository;
+import com.portal.ia.repository.TaskRepository;
+import com.portal.ia.service.ChangeFeedService;
+import com.portal.ia.service.TaskRankService;
+import com.portal.ia.service.TaskSearchService;
+import com.portal.ia.service.TaskService;
+import com.portal.ia.service.TaskStatsService;
+import com.portal.ia.service.TaskTimelineService;
+
+/**
+ * Validaciones de {@link TaskService#save}. El repositorio es un proxy que
+ * devuelve la misma tarea, así que sólo se mide la validación; el caso
+ * inválido incluye el coste de crear y lanzar la IllegalArgumentException.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskValidationBenchmark {
+
+    private TaskService taskService;
+    private Task valid;
+    private Task invalid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TaskRepository repository = (TaskRepository) Proxy.newProxyInstance(
+            TaskRepository.class.getClassLoader(),
+            new Class<?>[] { TaskRepository.class },
+            (proxy, method, args) -> "save".equals(method.getName()) ? args[0] : null);
+        // Sin id no se indexa ni se publica: sólo se mide la validación
+        ChangeLogRepository changeLog = (ChangeLogRepository) Proxy.newProxyInstance(
+            ChangeLogRepository.class.getClassLoader(),
+            new Class<?>[] { ChangeLogRepository.class },
+            (proxy, method, args) -> null);
+        ChangeLogStateRepository changeLogState = (ChangeLogStateRepository) Proxy.newProxyInstance(
+            ChangeLogStateRepository.class.getClassLoader(),
+            new Class<?>[] { ChangeLogStateRepository.class },
+            (proxy, method, args) -> "findById".equals(method.getName()) ? Optional.empty() : null);
+        ChangeFeedService changeFeed = new ChangeFeedService(changeLog, changeLogState, null, null, 1, 1, 1000);
+        taskService = new TaskService(repository, null, new TaskSearchService(repository, false, 1, 1, 1, 1000, 60000, 1),
+                new TaskStatsService(repository), new TaskTimelineService(repository, false, 1),
+                new TaskRankService(repository, changeFeed, null, 32, false), changeFeed);
+
+        valid = new Task();
+        valid.setTitle("Revisar latencias de Ollama");
+        valid.setDescription("Comparar p99 antes y después del cambio de enrutado");
+        valid.setPriority("media");
+        valid.setStatus("en_progreso");
+        valid.setStartDate(LocalDate.of(2025, 3, 1));
+        valid.setDueDate(LocalDate.of(2025, 3, 15));
+
+        invalid = new Task();
+        invalid.setTitle(valid.getTitle());
+        invalid.setDescription(valid.getDescription());
+        invalid.setPriority("media");
+        invalid.setStatus("en_progreso");
+        invalid.setStartDate(LocalDate.of(2025, 3, 15));
+        invalid.setDueDate(LocalDate.of(2025, 3, 1));
+    }
+
+    @Benchmark
+    public Task validTask() {
+        return taskService.save(valid);
+    }
+
+    @Benchmark
+    public Object invalidDates() {
+        try {
+            return taskService.save(invalid);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
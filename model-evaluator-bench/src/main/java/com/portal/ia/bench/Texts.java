@@ -0,0 +1,26 @@
+package com.portal.ia.bench;
+
+import java.util.Random;
+
+/**
+ * Texto sintético en español para los benchmarks.
+ */
+public final class Texts {
+
+    private static final String[] VOCABULARY = {
+        "el", "la", "de", "que", "modelo", "respuesta", "índice", "documento", "proyecto", "servidor",
+        "tarea", "consulta", "GPU", "memoria", "latencia", "evaluación", "pregunta", "contexto", "España",
+        "análisis", "rápido", "lento", "datos", "usuario", "sistema", "configuración", "versión", "año"
+    };
+
+    private Texts() {
+    }
+
+    public static String paragraph(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(w % 9 == 8 ? ". " : " ");
+        }
+        return text.toString().trim();
+    }
+}
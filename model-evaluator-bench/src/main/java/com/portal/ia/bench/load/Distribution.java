@@ -0,0 +1,74 @@
+package com.portal.ia.bench.load;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribución de valores (milisegundos o número de tokens) a partir de una
+ * especificación de texto:
+ * <ul>
+ * <li>{@code fixed:300}</li>
+ * <li>{@code uniform:100:500}</li>
+ * <li>{@code lognormal:800:4000} (mediana y p99); la cola larga típica de un LLM</li>
+ * </ul>
+ */
+public final class Distribution {
+
+    // z de la normal estándar para el percentil 99
+    private static final double Z_99 = 2.3263478740408408;
+
+    private final String spec;
+    private final Kind kind;
+    private final double a;
+    private final double b;
+
+    private enum Kind {
+        FIXED, UNIFORM, LOGNORMAL
+    }
+
+    private Distribution(String spec, Kind kind, double a, double b) {
+        this.spec = spec;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static Distribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new Distribution(spec, Kind.FIXED, Double.parseDouble(parts[1]), 0);
+                case "uniform":
+                    return new Distribution(spec, Kind.UNIFORM, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal": {
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    if (median <= 0 || p99 < median) {
+                        throw new IllegalArgumentException("lognormal necesita 0 < mediana <= p99: " + spec);
+                    }
+                    return new Distribution(spec, Kind.LOGNORMAL, Math.log(median), Math.log(p99 / median) / Z_99);
+                }
+                default:
+                    throw new IllegalArgumentException("Distribución desconocida: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Distribución no válida: " + spec + " (fixed:N, uniform:MIN:MAX o lognormal:MEDIANA:P99)");
+        }
+    }
+
+    public long sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double value = switch (kind) {
+            case FIXED -> a;
+            case UNIFORM -> a + random.nextDouble() * (b - a);
+            case LOGNORMAL -> Math.exp(a + b * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(value));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
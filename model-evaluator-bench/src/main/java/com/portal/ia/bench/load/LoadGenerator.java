@@ -0,0 +1,321 @@
+package com.portal.ia.bench.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portal.ia.service.LatencyHistogram;
+
+/**
+ * Generador de carga en bucle abierto contra la API real.
+ *
+ * Lanza peticiones a un ritmo fijo (--rate por segundo) sin esperar a que
+ * terminen las anteriores, y mide cada latencia desde el instante en que la
+ * petición <em>debía</em> salir, no desde que salió: si el generador o el
+ * servidor se atascan, el retraso cuenta (sin "coordinated omission").
+ * Las peticiones se reparten en turno rotatorio entre los --target. Los fallos
+ * y los timeouts también entran en el histograma con el tiempo que tardaron
+ * en fallar, para que una caída no mejore los percentiles.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.portal.ia.bench.load.LoadGenerator \
+ *     --base-url=http://localhost:8081 --rate=20 --duration=60 --warmup=10 \
+ *     --target='POST /api/ollama/mistral {"prompt":"¿Qué es FAISS?"}' \
+ *     --target='GET /api/tasks?page=0&amp;size=20' --json=carga.json
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private static final String DEFAULT_TARGET = "POST /api/ollama/mistral {\"prompt\":\"Resume en una frase qué es un índice FAISS\"}";
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final double rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration timeout;
+    private final Semaphore maxInFlight;
+    private final List<Target> targets = new ArrayList<>();
+
+    public LoadGenerator(String baseUrl, double rate, Duration duration, Duration warmup, Duration timeout,
+            int maxInFlight, List<String> targetSpecs) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate debe ser mayor que 0");
+        }
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.rate = rate;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.timeout = timeout;
+        this.maxInFlight = new Semaphore(maxInFlight);
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        for (String spec : targetSpecs.isEmpty() ? List.of(DEFAULT_TARGET) : targetSpecs) {
+            targets.add(Target.parse(spec));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = Options.parse(args);
+        LoadGenerator generator = new LoadGenerator(
+            options.getOrDefault("base-url", "http://localhost:8081"),
+            Double.parseDouble(options.getOrDefault("rate", "10")),
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+            Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "120000"))),
+            Integer.parseInt(options.getOrDefault("max-in-flight", "2000")),
+            Options.repeated(args, "target"));
+
+        Report report = generator.run();
+        System.out.print(report.toTable());
+        if (options.containsKey("json")) {
+            Path file = Paths.get(options.get("json"));
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report.toMap());
+            System.out.printf("Resultados en %s%n", file.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Ejecuta el calentamiento y la medición, y espera a que terminen las
+     * peticiones en vuelo (como mucho el timeout); las que sigan sin respuesta
+     * cuentan como timeouts.
+     */
+    public Report run() throws InterruptedException {
+        long periodNanos = Math.round(1_000_000_000d / rate);
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + warmup.toNanos();
+        long endNanos = measureFromNanos + duration.toNanos();
+        List<InFlight> pending = new ArrayList<>();
+
+        for (long i = 0;; i++) {
+            long intendedNanos = startNanos + i * periodNanos;
+            if (intendedNanos >= endNanos) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Target target = targets.get((int) (i % targets.size()));
+            boolean measured = intendedNanos >= measureFromNanos;
+            if (!maxInFlight.tryAcquire()) {
+                // Demasiadas peticiones sin respuesta: el cliente ya no da abasto
+                if (measured) {
+                    target.dropped.incrementAndGet();
+                }
+                continue;
+            }
+            InFlight request = new InFlight(target, intendedNanos, measured);
+            request.future = client.sendAsync(target.request(baseUrl, timeout), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    maxInFlight.release();
+                    request.complete(response, error);
+                });
+            pending.add(request);
+            pending.removeIf(InFlight::isDone);
+        }
+        try {
+            CompletableFuture.allOf(pending.stream().map(request -> request.future).toArray(CompletableFuture[]::new))
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Se da por vencido el plazo: lo que quede en vuelo se anota abajo como timeout
+        }
+        pending.forEach(InFlight::expire);
+        return new Report(rate, duration, targets);
+    }
+
+    /**
+     * Petición en vuelo: se anota una sola vez, al responder o al vencer el
+     * plazo de espera final, lo que ocurra antes.
+     */
+    static final class InFlight {
+        final Target target;
+        final long intendedNanos;
+        final boolean measured;
+        final AtomicBoolean recorded = new AtomicBoolean();
+        CompletableFuture<?> future;
+
+        InFlight(Target target, long intendedNanos, boolean measured) {
+            this.target = target;
+            this.intendedNanos = intendedNanos;
+            this.measured = measured;
+        }
+
+        boolean isDone() {
+            return future.isDone();
+        }
+
+        void complete(HttpResponse<?> response, Throwable error) {
+            if (measured && recorded.compareAndSet(false, true)) {
+                target.record(System.nanoTime() - intendedNanos, response, error);
+            }
+        }
+
+        void expire() {
+            if (measured && recorded.compareAndSet(false, true)) {
+                target.record(System.nanoTime() - intendedNanos, null, new HttpTimeoutException("sin respuesta al terminar"));
+            }
+        }
+    }
+
+    static final class Target {
+        final String method;
+        final String path;
+        final String body;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong httpErrors = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+
+        private Target(String method, String path, String body) {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+
+        // "MÉTODO /ruta [cuerpo JSON]"
+        static Target parse(String spec) {
+            String[] parts = spec.trim().split("\\s+", 3);
+            if (parts.length < 2 || !parts[1].startsWith("/")) {
+                throw new IllegalArgumentException("Target no válido: " + spec + " (usa 'MÉTODO /ruta [cuerpo]')");
+            }
+            return new Target(parts[0].toUpperCase(Locale.ROOT), parts[1], parts.length > 2 ? parts[2] : null);
+        }
+
+        HttpRequest request(String baseUrl, Duration timeout) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+            if (body != null) {
+                builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body));
+            } else {
+                builder.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            return builder.build();
+        }
+
+        void record(long latencyNanos, HttpResponse<?> response, Throwable error) {
+            // Los errores también se miden: un timeout tarda todo el plazo
+            histogram.recordNanos(latencyNanos);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof HttpTimeoutException) {
+                    timeouts.incrementAndGet();
+                } else {
+                    failures.incrementAndGet();
+                }
+            } else if (response.statusCode() < 400) {
+                ok.incrementAndGet();
+            } else {
+                httpErrors.incrementAndGet();
+            }
+        }
+
+        String name() {
+            return method + " " + path;
+        }
+    }
+
+    /**
+     * Resultado de una ejecución: rendimiento y percentiles por target y en total.
+     */
+    public static final class Report {
+        private final double rate;
+        private final Duration duration;
+        private final List<Target> targets;
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        Report(double rate, Duration duration, List<Target> targets) {
+            this.rate = rate;
+            this.duration = duration;
+            this.targets = targets;
+            targets.forEach(target -> total.add(target.histogram));
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("targetRate", rate);
+            result.put("durationSeconds", duration.toSeconds());
+            List<Map<String, Object>> perTarget = new ArrayList<>();
+            long ok = 0, httpErrors = 0, failures = 0, timeouts = 0, dropped = 0;
+            for (Target target : targets) {
+                perTarget.add(stats(target.name(), target.histogram, target.ok.get(), target.httpErrors.get(),
+                    target.failures.get(), target.timeouts.get(), target.dropped.get()));
+                ok += target.ok.get();
+                httpErrors += target.httpErrors.get();
+                failures += target.failures.get();
+                timeouts += target.timeouts.get();
+                dropped += target.dropped.get();
+            }
+            result.put("total", stats("total", total, ok, httpErrors, failures, timeouts, dropped));
+            result.put("targets", perTarget);
+            return result;
+        }
+
+        private Map<String, Object> stats(String name, LatencyHistogram histogram, long ok, long httpErrors,
+                long failures, long timeouts, long dropped) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("name", name);
+            stats.put("ok", ok);
+            stats.put("httpErrors", httpErrors);
+            stats.put("failures", failures);
+            stats.put("timeouts", timeouts);
+            stats.put("dropped", dropped);
+            stats.put("throughput", round((ok + httpErrors) / (double) Math.max(1, duration.toSeconds())));
+            for (double percentile : PERCENTILES) {
+                stats.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)) + "Ms",
+                    round(histogram.valueAtPercentile(percentile) / 1000.0));
+            }
+            stats.put("maxMs", round(histogram.getMaxMicros() / 1000.0));
+            return stats;
+        }
+
+        @SuppressWarnings("unchecked")
+        public String toTable() {
+            StringBuilder table = new StringBuilder();
+            table.append(String.format(Locale.ROOT, "%-40s %8s %8s %8s %8s %8s %10s %10s %10s %10s %10s %10s%n",
+                "target", "ok", "http>=400", "fallos", "timeouts", "descart.", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            Map<String, Object> map = toMap();
+            List<Map<String, Object>> rows = new ArrayList<>((List<Map<String, Object>>) map.get("targets"));
+            rows.add((Map<String, Object>) map.get("total"));
+            for (Map<String, Object> row : rows) {
+                table.append(String.format(Locale.ROOT, "%-40s %8d %8d %8d %8d %8d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    abbreviate((String) row.get("name")), row.get("ok"), row.get("httpErrors"), row.get("failures"),
+                    row.get("timeouts"), row.get("dropped"), row.get("throughput"), row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"),
+                    row.get("p99.9Ms"), row.get("maxMs")));
+            }
+            return table.toString();
+        }
+
+        private static String abbreviate(String name) {
+            return name.length() > 40 ? name.substring(0, 37) + "..." : name;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 10) / 10.0;
+        }
+    }
+}
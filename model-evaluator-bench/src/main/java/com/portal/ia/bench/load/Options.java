@@ -0,0 +1,44 @@
+package com.portal.ia.bench.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opciones de línea de comandos con la forma {@code --clave=valor}. Las claves
+ * repetidas (como {@code --target}) se acumulan en {@link #repeated}.
+ */
+final class Options {
+
+    private Options() {
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] pair = split(arg);
+            options.put(pair[0], pair[1]);
+        }
+        return options;
+    }
+
+    static List<String> repeated(String[] args, String key) {
+        List<String> values = new ArrayList<>();
+        for (String arg : args) {
+            String[] pair = split(arg);
+            if (pair[0].equals(key)) {
+                values.add(pair[1]);
+            }
+        }
+        return values;
+    }
+
+    private static String[] split(String arg) {
+        if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+            throw new IllegalArgumentException("Opción no válida: " + arg + " (usa --clave=valor)");
+        }
+        int eq = arg.indexOf('=');
+        return new String[] { arg.substring(2, eq), arg.substring(eq + 1) };
+    }
+}
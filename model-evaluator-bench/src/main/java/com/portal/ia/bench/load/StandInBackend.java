@@ -0,0 +1,333 @@
+package com.portal.ia.bench.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portal.ia.bench.Texts;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Sustituto local del servidor Flask/GPU (10.0.3.172) para pruebas de carga.
+ *
+ * Implementa los endpoints que usa la API (Ollama, Hugging Face, documentos/RAG,
+ * métricas de GPU y, opcionalmente, /v1/chat/completions de OpenAI) con
+ * latencias aleatorias, generación de tokens a ritmo fijo e inyección de
+ * errores. Las métricas de GPU reflejan las peticiones en curso, así que el
+ * enrutador GPU de la API ve la carga igual que en producción.
+ *
+ * Se puede arrancar embebido ({@link #start(Map)}) o como proceso:
+ * <pre>
+ * java -cp target/benchmarks.jar com.portal.ia.bench.load.StandInBackend --port=5000 --latency=lognormal:300:2000
+ * </pre>
+ * y apuntar la API a él con {@code --ia.backend.url=http://localhost:5000 --ia.metrics.url=http://localhost:5000
+ * --ia.openai.url=http://localhost:5000/v1/chat/completions}.
+ */
+public final class StandInBackend implements AutoCloseable {
+
+    static final Map<String, String> DEFAULTS = Map.of(
+        "port", "5000",
+        // Tiempo hasta el primer token
+        "latency", "lognormal:300:2000",
+        "response-tokens", "uniform:50:300",
+        "tokens-per-second", "40",
+        "error-rate", "0",
+        // Fracción de peticiones que se quedan colgadas stall-ms (para probar timeouts)
+        "stall-rate", "0",
+        "stall-ms", "120000",
+        "gpus", "2",
+        // Peticiones simultáneas que saturan una GPU al 100 %
+        "slots-per-gpu", "8");
+
+    private static final long GPU_MEMORY_MB = 49_140;
+    private static final long GPU_BASE_MEMORY_MB = 6_000;
+    private static final long GPU_MEMORY_PER_REQUEST_MB = 2_500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Map<String, Distribution> latencies = new HashMap<>();
+    private final Distribution defaultLatency;
+    private final Distribution responseTokens;
+    private final double tokensPerSecond;
+    private final double errorRate;
+    private final double stallRate;
+    private final long stallMs;
+    private final int gpus;
+    private final int slotsPerGpu;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final List<String> documents = new ArrayList<>();
+
+    private StandInBackend(Map<String, String> options) throws IOException {
+        Map<String, String> config = new HashMap<>(DEFAULTS);
+        config.putAll(options);
+        defaultLatency = Distribution.parse(config.get("latency"));
+        // Latencia por endpoint: latency./crear_indice=fixed:5000
+        config.forEach((key, value) -> {
+            if (key.startsWith("latency.")) {
+                latencies.put(key.substring("latency.".length()), Distribution.parse(value));
+            }
+        });
+        responseTokens = Distribution.parse(config.get("response-tokens"));
+        tokensPerSecond = Double.parseDouble(config.get("tokens-per-second"));
+        errorRate = Double.parseDouble(config.get("error-rate"));
+        stallRate = Double.parseDouble(config.get("stall-rate"));
+        stallMs = Long.parseLong(config.get("stall-ms"));
+        gpus = Integer.parseInt(config.get("gpus"));
+        slotsPerGpu = Integer.parseInt(config.get("slots-per-gpu"));
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(Integer.parseInt(config.get("port"))), 1024);
+        server.setExecutor(executor);
+
+        server.createContext("/responder_ollama_mistral", exchange -> llm(exchange, Format.OLLAMA));
+        server.createContext("/responder_ollama_deepseek", exchange -> llm(exchange, Format.OLLAMA));
+        server.createContext("/responder_general", exchange -> llm(exchange, Format.HUGGING_FACE));
+        server.createContext("/preguntar_documentos_simple", exchange -> llm(exchange, Format.DOCUMENTOS));
+        server.createContext("/preguntar_documentos", exchange -> llm(exchange, Format.DOCUMENTOS));
+        server.createContext("/v1/chat/completions", exchange -> llm(exchange, Format.OPENAI));
+        server.createContext("/subir_documentos", this::subirDocumentos);
+        server.createContext("/crear_indice", exchange -> simple(exchange,
+            () -> Map.of("estado", "índice creado", "documentos_procesados", documentCount())));
+        server.createContext("/estado_indice", exchange -> simple(exchange,
+            () -> Map.of("estado", "activo", "documentos", documentCount())));
+        server.createContext("/listar_documentos", exchange -> simple(exchange, () -> Map.of("documentos", documentList())));
+        server.createContext("/eliminar_documento", this::eliminarDocumento);
+        server.createContext("/limpiar_documentos", exchange -> simple(exchange, () -> {
+            synchronized (documents) {
+                documents.clear();
+            }
+            return Map.of("mensaje", "Documentos y FAISS eliminados correctamente.");
+        }));
+        server.createContext("/gpu_metrics", exchange -> send(exchange, 200, gpuMetrics()));
+        server.createContext("/system_metrics", exchange -> send(exchange, 200, systemMetrics()));
+        server.start();
+    }
+
+    public static StandInBackend start(Map<String, String> options) throws IOException {
+        return new StandInBackend(options);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        StandInBackend backend = start(Options.parse(args));
+        System.out.printf("Backend simulado escuchando en %s%n", backend.getUrl());
+        System.out.printf("Arranca la API con --ia.backend.url=%1$s --ia.metrics.url=%1$s --ia.openai.url=%1$s/v1/chat/completions%n",
+            backend.getUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(backend::close));
+        Thread.currentThread().join();
+    }
+
+    private enum Format {
+        OLLAMA, HUGGING_FACE, DOCUMENTOS, OPENAI
+    }
+
+    private void llm(HttpExchange exchange, Format format) throws IOException {
+        requests.incrementAndGet();
+        inFlight.incrementAndGet();
+        try {
+            String prompt = prompt(exchange, format);
+            if (prompt == null || prompt.isBlank()) {
+                send(exchange, 400, Map.of("error", "Falta el campo 'question'"));
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < stallRate) {
+                sleep(stallMs);
+            }
+            int completionTokens = (int) Math.max(1, responseTokens.sample());
+            long generationMs = tokensPerSecond > 0 ? Math.round(completionTokens * 1000 / tokensPerSecond) : 0;
+            sleep(latencyOf(exchange).sample() + generationMs);
+
+            if (random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 500, Map.of("error", "Error inyectado por el backend simulado"));
+                return;
+            }
+            int promptTokens = prompt.split("\\s+").length;
+            String respuesta = Texts.paragraph(random, completionTokens);
+            send(exchange, 200, response(format, respuesta, promptTokens, completionTokens));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private String prompt(HttpExchange exchange, Format format) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonNode json = objectMapper.readTree(body);
+            if (json == null) {
+                return null;
+            }
+            if (format == Format.OPENAI) {
+                JsonNode messages = json.path("messages");
+                return messages.isArray() && messages.size() > 0
+                    ? messages.get(messages.size() - 1).path("content").asText(null) : null;
+            }
+            return json.path("question").asText(null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Object response(Format format, String respuesta, int promptTokens, int completionTokens) {
+        return switch (format) {
+            case OLLAMA -> Map.of("respuesta", respuesta,
+                "prompt_eval_count", promptTokens, "eval_count", completionTokens);
+            case HUGGING_FACE -> Map.of("respuesta", respuesta,
+                "prompt_tokens", promptTokens, "completion_tokens", completionTokens);
+            case DOCUMENTOS -> Map.of("respuesta", respuesta,
+                "contexto_utilizado", List.of(respuesta.substring(0, Math.min(respuesta.length(), 500))));
+            case OPENAI -> Map.of(
+                "object", "chat.completion",
+                "choices", List.of(Map.of("index", 0,
+                    "message", Map.of("role", "assistant", "content", respuesta),
+                    "finish_reason", "stop")),
+                "usage", Map.of("prompt_tokens", promptTokens, "completion_tokens", completionTokens,
+                    "total_tokens", promptTokens + completionTokens));
+        };
+    }
+
+    private void subirDocumentos(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        // No se interpreta el multipart: basta con contar bytes y registrar un documento
+        long bytes = exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        sleep(latencyOf(exchange).sample());
+        String name = "documento-" + requests.get() + ".txt";
+        synchronized (documents) {
+            documents.add(name);
+        }
+        send(exchange, 200, Map.of("archivos_subidos", List.of(name), "bytes", bytes));
+    }
+
+    private void eliminarDocumento(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String filename;
+        try (InputStream body = exchange.getRequestBody()) {
+            filename = objectMapper.readTree(body).path("filename").asText("");
+        }
+        synchronized (documents) {
+            documents.remove(filename);
+        }
+        send(exchange, 200, Map.of("mensaje", "Documento eliminado: " + filename));
+    }
+
+    private void simple(HttpExchange exchange, Supplier<Object> body) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        sleep(latencyOf(exchange).sample());
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            send(exchange, 500, Map.of("error", "Error inyectado por el backend simulado"));
+            return;
+        }
+        send(exchange, 200, body.get());
+    }
+
+    private List<Map<String, Object>> gpuMetrics() {
+        int current = inFlight.get();
+        List<Map<String, Object>> metrics = new ArrayList<>();
+        for (int i = 0; i < gpus; i++) {
+            // Reparto uniforme de las peticiones en curso entre las GPUs
+            int onGpu = current / gpus + (i < current % gpus ? 1 : 0);
+            Map<String, Object> gpu = new LinkedHashMap<>();
+            gpu.put("gpu_index", i);
+            gpu.put("gpu_name", "Simulated GPU");
+            gpu.put("gpu_utilization", Math.min(100, onGpu * 100 / Math.max(1, slotsPerGpu)));
+            gpu.put("memory_total_mb", GPU_MEMORY_MB);
+            gpu.put("memory_used_mb", Math.min(GPU_MEMORY_MB, GPU_BASE_MEMORY_MB + onGpu * GPU_MEMORY_PER_REQUEST_MB));
+            metrics.add(gpu);
+        }
+        return metrics;
+    }
+
+    private Map<String, Object> systemMetrics() {
+        Runtime runtime = Runtime.getRuntime();
+        return Map.of(
+            "cpu_percent", Math.min(100, inFlight.get() * 5),
+            "memory_total_mb", runtime.maxMemory() / (1024 * 1024),
+            "memory_used_mb", (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024),
+            "in_flight", inFlight.get());
+    }
+
+    private Distribution latencyOf(HttpExchange exchange) {
+        return latencies.getOrDefault(exchange.getHttpContext().getPath(), defaultLatency);
+    }
+
+    private int documentCount() {
+        synchronized (documents) {
+            return documents.size();
+        }
+    }
+
+    private List<String> documentList() {
+        synchronized (documents) {
+            return new ArrayList<>(documents);
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
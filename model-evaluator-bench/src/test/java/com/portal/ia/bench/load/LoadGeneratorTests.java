@@ -0,0 +1,27 @@
+package com.portal.ia.bench.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorTests {
+
+	@Test
+	void timeoutsCountInThePercentilesWithTheirElapsedTime() throws Exception {
+		try (StandInBackend backend = StandInBackend.start(Map.of("port", "0", "stall-rate", "1", "stall-ms", "5000"))) {
+			LoadGenerator generator = new LoadGenerator(backend.getUrl(), 20, Duration.ofMillis(500), Duration.ZERO,
+					Duration.ofMillis(200), 100, List.of("POST /responder_general {\"question\":\"hola\"}"));
+
+			@SuppressWarnings("unchecked")
+			Map<String, Object> total = (Map<String, Object>) generator.run().toMap().get("total");
+
+			assertThat((long) total.get("timeouts")).isPositive();
+			assertThat(total.get("ok")).isEqualTo(0L);
+			assertThat((double) total.get("p50Ms")).isGreaterThanOrEqualTo(200.0);
+		}
+	}
+}
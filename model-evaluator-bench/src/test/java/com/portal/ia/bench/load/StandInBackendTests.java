@@ -0,0 +1,89 @@
+package com.portal.ia.bench.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class StandInBackendTests {
+
+	private final HttpClient client = HttpClient.newHttpClient();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private static StandInBackend backend(Map<String, String> options) throws Exception {
+		Map<String, String> config = new HashMap<>(Map.of("port", "0", "latency", "fixed:0",
+				"response-tokens", "fixed:5", "tokens-per-second", "0"));
+		config.putAll(options);
+		return StandInBackend.start(config);
+	}
+
+	private HttpResponse<String> post(StandInBackend backend, String path, String body) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create(backend.getUrl() + path))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString(body))
+			.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	void answersOllamaRequestsWithTheTokenCounts() throws Exception {
+		try (StandInBackend backend = backend(Map.of())) {
+			HttpResponse<String> response = post(backend, "/responder_ollama_mistral", "{\"question\":\"¿Qué es FAISS?\"}");
+
+			assertThat(response.statusCode()).isEqualTo(200);
+			JsonNode json = objectMapper.readTree(response.body());
+			assertThat(json.path("respuesta").asText()).isNotBlank();
+			assertThat(json.path("prompt_eval_count").asInt()).isEqualTo(3);
+			assertThat(json.path("eval_count").asInt()).isEqualTo(5);
+			assertThat(backend.getRequests()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void rejectsRequestsWithoutAQuestion() throws Exception {
+		try (StandInBackend backend = backend(Map.of())) {
+			assertThat(post(backend, "/responder_general", "{}").statusCode()).isEqualTo(400);
+		}
+	}
+
+	@Test
+	void injectsErrorsAtTheConfiguredRate() throws Exception {
+		try (StandInBackend backend = backend(Map.of("error-rate", "1"))) {
+			for (int i = 0; i < 3; i++) {
+				assertThat(post(backend, "/preguntar_documentos", "{\"question\":\"hola\"}").statusCode()).isEqualTo(500);
+			}
+			assertThat(backend.getInjectedErrors()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void gpuMetricsReflectTheRequestsInFlight() throws Exception {
+		try (StandInBackend backend = backend(Map.of("latency", "fixed:2000", "gpus", "1", "slots-per-gpu", "2"))) {
+			CompletableFuture<HttpResponse<String>> slow = client.sendAsync(
+					HttpRequest.newBuilder(URI.create(backend.getUrl() + "/responder_ollama_deepseek"))
+						.POST(HttpRequest.BodyPublishers.ofString("{\"question\":\"despacio\"}"))
+						.build(), HttpResponse.BodyHandlers.ofString());
+
+			int utilization = 0;
+			for (int i = 0; i < 100 && utilization == 0; i++) {
+				Thread.sleep(10);
+				HttpResponse<String> metrics = client.send(
+						HttpRequest.newBuilder(URI.create(backend.getUrl() + "/gpu_metrics")).build(),
+						HttpResponse.BodyHandlers.ofString());
+				utilization = objectMapper.readTree(metrics.body()).get(0).path("gpu_utilization").asInt();
+			}
+
+			assertThat(utilization).isEqualTo(50);
+			assertThat(slow.get().statusCode()).isEqualTo(200);
+		}
+	}
+}